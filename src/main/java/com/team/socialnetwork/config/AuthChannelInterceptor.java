@@ -1,6 +1,5 @@
 package com.team.socialnetwork.config;
 
-import java.security.Principal;
 import java.util.Collections;
 
 import org.springframework.messaging.Message;
@@ -13,15 +12,28 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
+import com.team.socialnetwork.security.AuthenticatedUser;
 import com.team.socialnetwork.security.JwtService;
+import com.team.socialnetwork.security.TokenRevocationList;
+import com.team.socialnetwork.service.user.UserLookupCache;
 
+/**
+ * Autentica la sesión STOMP en el CONNECT. El usuario se resuelve una sola vez (desde los claims,
+ * o por email vía UserLookupCache para tokens sin userId) y queda en la sesión como AuthenticatedUser:
+ * los frames siguientes no vuelven a consultar la identidad.
+ */
 @Component
 public class AuthChannelInterceptor implements ChannelInterceptor {
 
     private final JwtService jwtService;
+    private final TokenRevocationList tokenRevocationList;
+    private final UserLookupCache userLookupCache;
 
-    public AuthChannelInterceptor(JwtService jwtService) {
+    public AuthChannelInterceptor(JwtService jwtService, TokenRevocationList tokenRevocationList,
+                                  UserLookupCache userLookupCache) {
         this.jwtService = jwtService;
+        this.tokenRevocationList = tokenRevocationList;
+        this.userLookupCache = userLookupCache;
     }
 
     @Override
@@ -38,11 +50,22 @@ public class AuthChannelInterceptor implements ChannelInterceptor {
                 if (authToken != null && authToken.startsWith("Bearer ")) {
                     String token = authToken.substring(7); // quitar "Bearer "
                     try {
-                        String email = jwtService.extractSubject(token);
+                        com.team.socialnetwork.security.VerifiedToken verified = jwtService.verify(token);
+                        String email = verified.getSubject();
+                        if (verified.getPurpose() != null) {
+                            // Confirmación de email / reseteo de contraseña: no abren sesión
+                            throw new IllegalArgumentException("Invalid JWT token");
+                        }
+                        AuthenticatedUser claimsUser = AuthenticatedUser.fromToken(verified);
+                        AuthenticatedUser user = claimsUser != null ? claimsUser
+                                : userLookupCache.findByEmail(email).map(AuthenticatedUser::of)
+                                        .orElseThrow(() -> new IllegalArgumentException("User not found"));
+                        // También los tokens sin userId: el id ya viene resuelto por email
+                        boolean revoked = tokenRevocationList.isRevoked(user.getId(), verified);
 
-                        if (jwtService.isTokenValid(token, email)) {
-                            // Crear Authentication completo y asignarlo
-                            Authentication auth = new UsernamePasswordAuthenticationToken(email, null, Collections.emptyList());
+                        if (verified.isValidFor(email) && !revoked) {
+                            // El principal es el AuthenticatedUser; getName() sigue devolviendo el email
+                            Authentication auth = new UsernamePasswordAuthenticationToken(user, null, Collections.emptyList());
                             accessor.setUser(auth); // ahora Principal principal tendrá valor
                             System.out.println("✅ WebSocket user authenticated via STOMP: " + email);
                         } else {
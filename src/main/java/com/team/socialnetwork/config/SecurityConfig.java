@@ -2,6 +2,7 @@ package com.team.socialnetwork.config;
 
 import java.util.Arrays;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -20,6 +21,8 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import com.team.socialnetwork.security.AuthRateLimitFilter;
+import com.team.socialnetwork.security.BoundedPasswordEncoder;
 import com.team.socialnetwork.security.JwtAuthenticationFilter;
 
 @Configuration
@@ -29,10 +32,13 @@ public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     private final UserDetailsService userDetailsService;
+    private final AuthRateLimitFilter authRateLimitFilter;
 
-    public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter, UserDetailsService userDetailsService) {
+    public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter, UserDetailsService userDetailsService,
+                          AuthRateLimitFilter authRateLimitFilter) {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
         this.userDetailsService = userDetailsService;
+        this.authRateLimitFilter = authRateLimitFilter;
     }
 
     @Bean
@@ -89,22 +95,33 @@ public class SecurityConfig {
                         .requestMatchers("/chat/**").permitAll() // <- WebSocket chat endpoint
                         .requestMatchers("/ws/**").permitAll()   // <- WebSocket notifications endpoint (SockJS)
                         .requestMatchers("/ws-native/**").permitAll() // <- WebSocket nativo
+                        // Imágenes direccionadas por contenido: un <img> no manda el header Authorization
+                        .requestMatchers(org.springframework.http.HttpMethod.GET, "/media/**").permitAll()
+                        // Métricas internas: tamaño de caches y pools, no son para cualquier usuario logueado
+                        .requestMatchers("/users/cache-stats", "/users/password-hash-stats",
+                                "/users/follow-graph-stats", "/posts/feed/cache-stats").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
-                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                // Login/registro/reseteo limitados por IP y email antes de cualquier trabajo de autenticación
+                .addFilterBefore(authRateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
 
+    // BCrypt en un pool acotado (ver BoundedPasswordEncoder); subir strength re-hashea en el próximo login
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(@Value("${security.bcrypt.strength:10}") int strength,
+                                                  @Value("${security.bcrypt.workers:2}") int workers,
+                                                  @Value("${security.bcrypt.queueCapacity:32}") int queueCapacity,
+                                                  @Value("${security.bcrypt.waitTimeoutMillis:5000}") long waitTimeoutMillis) {
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(strength), workers, queueCapacity, waitTimeoutMillis);
     }
 
     @Bean
-    public DaoAuthenticationProvider authenticationProvider() {
+    public DaoAuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider(userDetailsService);
-        provider.setPasswordEncoder(passwordEncoder());
+        provider.setPasswordEncoder(passwordEncoder);
         return provider;
     }
 
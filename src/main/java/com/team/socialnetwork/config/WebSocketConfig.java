@@ -1,20 +1,28 @@
 package com.team.socialnetwork.config;
 
+import java.util.List;
+
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.handler.invocation.HandlerMethodArgumentResolver;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 
+import com.team.socialnetwork.security.StompAuthenticatedUserArgumentResolver;
+
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private final AuthChannelInterceptor authChannelInterceptor;
+    private final StompAuthenticatedUserArgumentResolver authenticatedUserArgumentResolver;
 
-    public WebSocketConfig(AuthChannelInterceptor authChannelInterceptor) {
+    public WebSocketConfig(AuthChannelInterceptor authChannelInterceptor,
+                           StompAuthenticatedUserArgumentResolver authenticatedUserArgumentResolver) {
         this.authChannelInterceptor = authChannelInterceptor;
+        this.authenticatedUserArgumentResolver = authenticatedUserArgumentResolver;
     }
 
     @Override
@@ -38,4 +46,9 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     public void configureClientInboundChannel(ChannelRegistration registration) {
         registration.interceptors(authChannelInterceptor); // registrar interceptor
     }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> argumentResolvers) {
+        argumentResolvers.add(authenticatedUserArgumentResolver);
+    }
 }
@@ -31,6 +31,11 @@ public class AuthController {
         return ResponseEntity.ok(authService.login(request));
     }
 
+    @PostMapping("/logout")
+    public ResponseEntity<MessageResponse> logout(@RequestHeader(value = "Authorization", required = false) String authorization) {
+        return ResponseEntity.ok(authService.logout(authorization));
+    }
+
     @GetMapping("/confirm-email")
     public ResponseEntity<MessageResponse> confirmEmail(@RequestParam("token") String token) {
         return ResponseEntity.ok(authService.confirmEmail(token));
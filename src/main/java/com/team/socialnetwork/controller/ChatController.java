@@ -7,9 +7,10 @@ import com.team.socialnetwork.entity.Message;
 import com.team.socialnetwork.entity.User;
 import com.team.socialnetwork.repository.MessageRepository;
 import com.team.socialnetwork.repository.UserRepository;
+import com.team.socialnetwork.security.AuthenticatedUser;
+import com.team.socialnetwork.service.media.MediaUrlSigner;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -21,27 +22,22 @@ public class ChatController {
 
     private final MessageRepository messageRepository;
     private final UserRepository userRepository;
+    private final MediaUrlSigner mediaUrlSigner;
 
-    public ChatController(MessageRepository messageRepository, UserRepository userRepository) {
+    public ChatController(MessageRepository messageRepository, UserRepository userRepository,
+                          MediaUrlSigner mediaUrlSigner) {
         this.messageRepository = messageRepository;
         this.userRepository = userRepository;
+        this.mediaUrlSigner = mediaUrlSigner;
     }
 
     @PostMapping("/{receiverId}")
     public ResponseEntity<ChatMessageResponse> sendMessage(
-            Authentication authentication,
+            AuthenticatedUser me,
             @PathVariable Long receiverId,
             @Valid @RequestBody ChatMessageRequest request
     ) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new org.springframework.web.server.ResponseStatusException(
-                    org.springframework.http.HttpStatus.UNAUTHORIZED, "Missing or invalid token");
-        }
-
-        String email = authentication.getName();
-        User sender = userRepository.findByEmail(email)
-                .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
-                        org.springframework.http.HttpStatus.NOT_FOUND, "Sender not found"));
+        User sender = userRepository.getReferenceById(me.getId());
 
         User receiver = userRepository.findById(receiverId)
                 .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
@@ -62,19 +58,9 @@ public class ChatController {
 
     @GetMapping("/{userId}")
     public ResponseEntity<List<ChatMessageResponse>> getConversation(
-            Authentication authentication,
+            AuthenticatedUser me,
             @PathVariable Long userId
     ) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new org.springframework.web.server.ResponseStatusException(
-                    org.springframework.http.HttpStatus.UNAUTHORIZED, "Missing or invalid token");
-        }
-
-        String email = authentication.getName();
-        User me = userRepository.findByEmail(email)
-                .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
-                        org.springframework.http.HttpStatus.NOT_FOUND, "User not found"));
-
         User other = userRepository.findById(userId)
                 .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
                         org.springframework.http.HttpStatus.NOT_FOUND, "User not found"));
@@ -95,17 +81,7 @@ public class ChatController {
     }
 
     @GetMapping("/chats")
-    public ResponseEntity<List<ChatUserResponse>> getMyChats(Authentication authentication) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new org.springframework.web.server.ResponseStatusException(
-                    org.springframework.http.HttpStatus.UNAUTHORIZED, "Missing or invalid token");
-        }
-
-        String email = authentication.getName();
-        User me = userRepository.findByEmail(email)
-                .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
-                        org.springframework.http.HttpStatus.NOT_FOUND, "User not found"));
-
+    public ResponseEntity<List<ChatUserResponse>> getMyChats(AuthenticatedUser me) {
         List<Long> chatUserIds = messageRepository.findChatUserIds(me.getId());
 
         List<ChatUserResponse> chats = chatUserIds.stream()
@@ -115,7 +91,7 @@ public class ChatController {
                                 user.getUsername(), 
                                 user.getFullName(), 
                                 user.getEmail(), 
-                                user.getProfilePicture()
+                                mediaUrlSigner.sign(user.getProfilePicture())
                         ))
                         .orElse(null))
                 .filter(Objects::nonNull)
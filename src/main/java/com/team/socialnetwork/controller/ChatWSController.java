@@ -5,7 +5,7 @@ import com.team.socialnetwork.entity.Message;
 import com.team.socialnetwork.entity.User;
 import com.team.socialnetwork.repository.MessageRepository;
 import com.team.socialnetwork.repository.UserRepository;
-import java.security.Principal;
+import com.team.socialnetwork.security.AuthenticatedUser;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
@@ -27,9 +27,12 @@ public class ChatWSController {
 
     @MessageMapping("/chat")
     @Transactional
-    public void sendMessage(@Payload ChatMessageWS chatMessageWS, Principal principal) {
-        User sender = userRepository.findByEmail(principal.getName())
-                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+    public void sendMessage(@Payload ChatMessageWS chatMessageWS, AuthenticatedUser user) {
+        if (user == null) {
+            throw new IllegalStateException("Usuario no autenticado");
+        }
+        // La identidad viene de la sesión STOMP: el emisor es solo una referencia para la FK, sin SELECT
+        User sender = userRepository.getReferenceById(user.getId());
 
         User receiver = userRepository.findById(chatMessageWS.getReceiverId())
                 .orElseThrow(() -> new RuntimeException("Receptor no encontrado"));
@@ -39,13 +42,13 @@ public class ChatWSController {
 
         ChatMessageWS response = new ChatMessageWS();
         response.setId(message.getId());
-        response.setSenderId(sender.getId());
+        response.setSenderId(user.getId());
         response.setReceiverId(receiver.getId());
         response.setContent(message.getContent());
         response.setCreatedAt(message.getCreatedAt());
 
         messagingTemplate.convertAndSend("/topic/" + receiver.getId(), response);
-        messagingTemplate.convertAndSend("/topic/" + sender.getId(), response);
+        messagingTemplate.convertAndSend("/topic/" + user.getId(), response);
 
     }
 }
@@ -6,8 +6,8 @@ import java.util.Map;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -17,6 +17,8 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.team.socialnetwork.dto.Cursor;
+import com.team.socialnetwork.dto.CursorPage;
 import com.team.socialnetwork.dto.MessageResponse;
 import com.team.socialnetwork.dto.SafeUser;
 import com.team.socialnetwork.entity.Comment;
@@ -24,8 +26,12 @@ import com.team.socialnetwork.entity.CommentLike;
 import com.team.socialnetwork.entity.User;
 import com.team.socialnetwork.repository.CommentLikeRepository;
 import com.team.socialnetwork.repository.CommentRepository;
+import com.team.socialnetwork.repository.PostRepository;
 import com.team.socialnetwork.repository.UserRepository;
+import com.team.socialnetwork.security.AuthenticatedUser;
 import com.team.socialnetwork.service.NotificationService;
+import com.team.socialnetwork.service.feed.TimelineService;
+import com.team.socialnetwork.service.graph.FollowGraph;
 
 @RestController
 @RequestMapping("/comments")
@@ -35,72 +41,67 @@ public class CommentsController {
     private final UserRepository userRepository;
     private final CommentLikeRepository commentLikeRepository;
     private final NotificationService notificationService;
+    private final TimelineService timelineService;
+    private final PostRepository postRepository;
+    private final FollowGraph followGraph;
 
     public CommentsController(CommentRepository commentRepository,
                               UserRepository userRepository,
                               CommentLikeRepository commentLikeRepository,
-                              NotificationService notificationService) {
+                              NotificationService notificationService,
+                              TimelineService timelineService,
+                              PostRepository postRepository,
+                              FollowGraph followGraph) {
         this.commentRepository = commentRepository;
         this.userRepository = userRepository;
         this.commentLikeRepository = commentLikeRepository;
         this.notificationService = notificationService;
+        this.timelineService = timelineService;
+        this.postRepository = postRepository;
+        this.followGraph = followGraph;
     }
 
     @org.springframework.transaction.annotation.Transactional
     @DeleteMapping("/{commentId}")
-    public ResponseEntity<MessageResponse> deleteComment(Authentication authentication,
+    public ResponseEntity<MessageResponse> deleteComment(AuthenticatedUser me,
                                                         @PathVariable Long commentId) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new org.springframework.web.server.ResponseStatusException(
-                    org.springframework.http.HttpStatus.UNAUTHORIZED, "Missing or invalid token");
-        }
-        String email = authentication.getName();
-        User viewer = userRepository.findByEmail(email)
-                .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
-                        org.springframework.http.HttpStatus.NOT_FOUND, "User not found"));
         Comment comment = commentRepository.findById(commentId)
                 .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
                         org.springframework.http.HttpStatus.NOT_FOUND, "Comment not found"));
 
         // Privacy gate: if the post author is private, only the author themselves or their followers can act
         User postAuthor = comment.getPost().getAuthor();
-        if (postAuthor.isPrivate() && !postAuthor.getId().equals(viewer.getId()) && !viewer.getFollowing().contains(postAuthor)) {
+        if (postAuthor.isPrivate() && !postAuthor.getId().equals(me.getId()) && !followGraph.isFollowing(me.getId(), postAuthor.getId())) {
             throw new org.springframework.web.server.ResponseStatusException(
                     org.springframework.http.HttpStatus.FORBIDDEN, "This account is private");
         }
 
         // Ownership: only the comment author can delete their own comment
-        if (!comment.getAuthor().getEmail().equals(email)) {
+        if (!comment.getAuthor().getId().equals(me.getId())) {
             throw new org.springframework.web.server.ResponseStatusException(
                     org.springframework.http.HttpStatus.FORBIDDEN, "You can only delete your own comments");
         }
         // Remove likes first to avoid FK constraint issues (no cascade mapping on comment likes from entities)
         commentLikeRepository.deleteByCommentId(commentId);
         commentRepository.delete(comment);
+        postRepository.adjustCommentCount(comment.getPost().getId(), -1);
+        timelineService.onEngagement(comment.getPost().getId(), me.getId());
         return ResponseEntity.ok(new MessageResponse("Comment deleted successfully"));
     }
 
     @Transactional(readOnly = true)
     @GetMapping("/{commentId}/likes/count")
-    public ResponseEntity<Map<String, Long>> countCommentLikes(Authentication authentication,
+    public ResponseEntity<Map<String, Long>> countCommentLikes(AuthenticatedUser me,
                                                                @PathVariable Long commentId) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new org.springframework.web.server.ResponseStatusException(
-                    org.springframework.http.HttpStatus.UNAUTHORIZED, "Missing or invalid token");
-        }
-        String email = authentication.getName();
-        User viewer = userRepository.findByEmail(email)
-                .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
-                        org.springframework.http.HttpStatus.NOT_FOUND, "User not found"));
         Comment comment = commentRepository.findById(commentId)
                 .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
                         org.springframework.http.HttpStatus.NOT_FOUND, "Comment not found"));
         User postAuthor = comment.getPost().getAuthor();
-        if (postAuthor.isPrivate() && !postAuthor.getId().equals(viewer.getId()) && !viewer.getFollowing().contains(postAuthor)) {
+        if (postAuthor.isPrivate() && !postAuthor.getId().equals(me.getId()) && !followGraph.isFollowing(me.getId(), postAuthor.getId())) {
             throw new org.springframework.web.server.ResponseStatusException(
                     org.springframework.http.HttpStatus.FORBIDDEN, "This account is private");
         }
-        long count = commentLikeRepository.countByCommentId(commentId);
+        long count = comment.getLikeCount();
         Map<String, Long> body = new HashMap<>();
         body.put("count", count);
         return ResponseEntity.ok(body);
@@ -108,23 +109,15 @@ public class CommentsController {
 
     @Transactional(readOnly = true)
     @GetMapping("/{commentId}/likes")
-    public ResponseEntity<List<SafeUser>> listCommentLikes(Authentication authentication,
+    public ResponseEntity<List<SafeUser>> listCommentLikes(AuthenticatedUser me,
                                                            @PathVariable Long commentId,
                                                            @RequestParam(defaultValue = "0") int page,
                                                            @RequestParam(defaultValue = "10") int size) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new org.springframework.web.server.ResponseStatusException(
-                    org.springframework.http.HttpStatus.UNAUTHORIZED, "Missing or invalid token");
-        }
-        String email = authentication.getName();
-        User viewer = userRepository.findByEmail(email)
-                .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
-                        org.springframework.http.HttpStatus.NOT_FOUND, "User not found"));
         Comment comment = commentRepository.findById(commentId)
                 .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
                         org.springframework.http.HttpStatus.NOT_FOUND, "Comment not found"));
         User postAuthor = comment.getPost().getAuthor();
-        if (postAuthor.isPrivate() && !postAuthor.getId().equals(viewer.getId()) && !viewer.getFollowing().contains(postAuthor)) {
+        if (postAuthor.isPrivate() && !postAuthor.getId().equals(me.getId()) && !followGraph.isFollowing(me.getId(), postAuthor.getId())) {
             throw new org.springframework.web.server.ResponseStatusException(
                     org.springframework.http.HttpStatus.FORBIDDEN, "This account is private");
         }
@@ -136,23 +129,51 @@ public class CommentsController {
         return ResponseEntity.ok(users);
     }
 
-    @Transactional
-    @PostMapping("/{commentId}/likes")
-    public ResponseEntity<MessageResponse> likeComment(Authentication authentication,
-                                                      @PathVariable Long commentId) {
-        if (authentication == null || !authentication.isAuthenticated()) {
+    @Transactional(readOnly = true)
+    @GetMapping(value = "/{commentId}/likes", params = "cursor")
+    public ResponseEntity<CursorPage<SafeUser>> listCommentLikesByCursor(AuthenticatedUser me,
+                                                                         @PathVariable Long commentId,
+                                                                         @RequestParam String cursor,
+                                                                         @RequestParam(defaultValue = "10") int size) {
+        if (size < 1) {
             throw new org.springframework.web.server.ResponseStatusException(
-                    org.springframework.http.HttpStatus.UNAUTHORIZED, "Missing or invalid token");
+                    org.springframework.http.HttpStatus.BAD_REQUEST, "size must be >= 1");
         }
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
+        Cursor after = Cursor.decode(cursor);
+        Comment comment = commentRepository.findById(commentId)
                 .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
-                        org.springframework.http.HttpStatus.NOT_FOUND, "User not found"));
+                        org.springframework.http.HttpStatus.NOT_FOUND, "Comment not found"));
+        User postAuthor = comment.getPost().getAuthor();
+        if (postAuthor.isPrivate() && !postAuthor.getId().equals(me.getId()) && !followGraph.isFollowing(me.getId(), postAuthor.getId())) {
+            throw new org.springframework.web.server.ResponseStatusException(
+                    org.springframework.http.HttpStatus.FORBIDDEN, "This account is private");
+        }
+        PageRequest window = PageRequest.of(0, Math.min(size, 50));
+        Slice<CommentLike> likes = after == null
+                ? commentLikeRepository.findLatestByCommentId(commentId, window)
+                : commentLikeRepository.findByCommentIdBefore(commentId, after.getCreatedAt(), after.getId(), window);
+        List<SafeUser> users = likes.getContent().stream().map(cl -> {
+            User u = cl.getUser();
+            return new SafeUser(u.getId(), u.getFullName(), u.getUsername(), u.getEmail(), u.getCreatedAt());
+        }).toList();
+        String next = null;
+        if (likes.hasNext()) {
+            CommentLike last = likes.getContent().get(likes.getNumberOfElements() - 1);
+            next = new Cursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return ResponseEntity.ok(new CursorPage<>(users, next, likes.hasNext()));
+    }
+
+    @Transactional
+    @PostMapping("/{commentId}/likes")
+    public ResponseEntity<MessageResponse> likeComment(AuthenticatedUser me,
+                                                      @PathVariable Long commentId) {
+        User user = userRepository.getReferenceById(me.getId());
         Comment comment = commentRepository.findById(commentId)
                 .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
                         org.springframework.http.HttpStatus.NOT_FOUND, "Comment not found"));
         User postAuthor = comment.getPost().getAuthor();
-        if (postAuthor.isPrivate() && !postAuthor.getId().equals(user.getId()) && !user.getFollowing().contains(postAuthor)) {
+        if (postAuthor.isPrivate() && !postAuthor.getId().equals(user.getId()) && !followGraph.isFollowing(user.getId(), postAuthor.getId())) {
             throw new org.springframework.web.server.ResponseStatusException(
                     org.springframework.http.HttpStatus.FORBIDDEN, "This account is private");
         }
@@ -163,6 +184,7 @@ public class CommentsController {
         }
         CommentLike commentLike = new CommentLike(user, comment);
         commentLikeRepository.save(commentLike);
+        commentRepository.adjustLikeCount(commentId, 1);
         
         // Crear notificación para el autor del comentario (solo si no es el mismo usuario)
         User commentAuthor = comment.getAuthor();
@@ -185,22 +207,15 @@ public class CommentsController {
 
     @Transactional
     @DeleteMapping("/{commentId}/likes")
-    public ResponseEntity<MessageResponse> unlikeComment(Authentication authentication,
+    public ResponseEntity<MessageResponse> unlikeComment(AuthenticatedUser me,
                                                         @PathVariable Long commentId) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new org.springframework.web.server.ResponseStatusException(
-                    org.springframework.http.HttpStatus.UNAUTHORIZED, "Missing or invalid token");
-        }
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
-                        org.springframework.http.HttpStatus.NOT_FOUND, "User not found"));
+        User user = userRepository.getReferenceById(me.getId());
         // 404 if comment doesn't exist
         Comment comment = commentRepository.findById(commentId)
                 .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
                         org.springframework.http.HttpStatus.NOT_FOUND, "Comment not found"));
         User postAuthor = comment.getPost().getAuthor();
-        if (postAuthor.isPrivate() && !postAuthor.getId().equals(user.getId()) && !user.getFollowing().contains(postAuthor)) {
+        if (postAuthor.isPrivate() && !postAuthor.getId().equals(user.getId()) && !followGraph.isFollowing(user.getId(), postAuthor.getId())) {
             throw new org.springframework.web.server.ResponseStatusException(
                     org.springframework.http.HttpStatus.FORBIDDEN, "This account is private");
         }
@@ -209,6 +224,7 @@ public class CommentsController {
             throw new org.springframework.web.server.ResponseStatusException(
                     org.springframework.http.HttpStatus.CONFLICT, "Not liked yet");
         }
+        commentRepository.adjustLikeCount(commentId, -deleted);
         
         // Eliminar notificación de like del comentario si existe
         User commentAuthor = comment.getAuthor();
@@ -225,17 +241,8 @@ public class CommentsController {
     }
 
     @GetMapping("/{commentId}/likes/check")
-    public ResponseEntity<Map<String, Boolean>> checkCommentLike(Authentication authentication,
+    public ResponseEntity<Map<String, Boolean>> checkCommentLike(AuthenticatedUser me,
                                                                 @PathVariable Long commentId) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new org.springframework.web.server.ResponseStatusException(
-                    org.springframework.http.HttpStatus.UNAUTHORIZED, "Missing or invalid token");
-        }
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
-                        org.springframework.http.HttpStatus.NOT_FOUND, "User not found"));
-        
         // 404 if comment doesn't exist
         Comment comment = commentRepository.findById(commentId)
                 .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
@@ -243,12 +250,12 @@ public class CommentsController {
         
         // Check privacy permissions
         User postAuthor = comment.getPost().getAuthor();
-        if (postAuthor.isPrivate() && !postAuthor.getId().equals(user.getId()) && !user.getFollowing().contains(postAuthor)) {
+        if (postAuthor.isPrivate() && !postAuthor.getId().equals(me.getId()) && !followGraph.isFollowing(me.getId(), postAuthor.getId())) {
             throw new org.springframework.web.server.ResponseStatusException(
                     org.springframework.http.HttpStatus.FORBIDDEN, "This account is private");
         }
 
-        boolean isLiked = commentLikeRepository.existsByUserIdAndCommentId(user.getId(), commentId);
+        boolean isLiked = commentLikeRepository.existsByUserIdAndCommentId(me.getId(), commentId);
         Map<String, Boolean> response = new HashMap<>();
         response.put("liked", isLiked);
         return ResponseEntity.ok(response);
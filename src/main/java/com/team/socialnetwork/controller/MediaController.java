@@ -0,0 +1,112 @@
+package com.team.socialnetwork.controller;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.team.socialnetwork.service.media.ImageVariant;
+import com.team.socialnetwork.service.media.ImageVariantService;
+import com.team.socialnetwork.service.media.MediaStore;
+import com.team.socialnetwork.service.media.MediaUrlSigner;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+@RestController
+@RequestMapping("/media")
+public class MediaController {
+
+    // El contenido de una clave nunca cambia, pero el link vence: solo el navegador lo cachea y hasta exp
+    private static final String CACHE_CONTROL = "private, max-age=%d, immutable";
+    // Variante todavía no generada: se sirve el original, pero revalidando para tomar la variante luego
+    private static final String CACHE_CONTROL_FALLBACK = "no-cache";
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+
+    private final MediaStore mediaStore;
+    private final ImageVariantService imageVariantService;
+    private final MediaUrlSigner mediaUrlSigner;
+
+    public MediaController(MediaStore mediaStore, ImageVariantService imageVariantService,
+                           MediaUrlSigner mediaUrlSigner) {
+        this.mediaStore = mediaStore;
+        this.imageVariantService = imageVariantService;
+        this.mediaUrlSigner = mediaUrlSigner;
+    }
+
+    /**
+     * Sirve una imagen por su clave "<sha256>.<ext>"; ?size=thumb|medium pide una variante JPEG reducida.
+     * Es público (se carga desde <img>), así que exige el link firmado que entregó la API (exp + sig);
+     * sin firma válida o vencido responde 403.
+     * ETag fuerte = hash del contenido (más la variante); If-None-Match responde 304 sin tocar el disco.
+     * Con Tomcat se usa sendfile (el kernel copia del archivo al socket); si no, FileChannel.transferTo.
+     */
+    @GetMapping("/{key:.+}")
+    public void getMedia(@PathVariable String key,
+                         @RequestParam(required = false) String size,
+                         @RequestParam(name = MediaUrlSigner.PARAM_EXPIRES, required = false) Long expires,
+                         @RequestParam(name = MediaUrlSigner.PARAM_SIGNATURE, required = false) String signature,
+                         HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        ImageVariant variant = ImageVariant.fromParam(size);
+        if (!mediaUrlSigner.verify(key, variant == null ? null : variant.param(), expires, signature)) {
+            throw new org.springframework.web.server.ResponseStatusException(
+                    org.springframework.http.HttpStatus.FORBIDDEN, "Invalid or expired media link");
+        }
+        Path original = mediaStore.resolve(key)
+                .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
+                        org.springframework.http.HttpStatus.NOT_FOUND, "Media not found"));
+
+        Path path = original;
+        String etag = "\"" + MediaStore.hashOf(key) + "\"";
+        String contentType = MediaStore.contentType(key);
+        String cacheControl = String.format(CACHE_CONTROL, mediaUrlSigner.secondsLeft(expires));
+        // Formatos sin variantes (GIF, WebP sin reader): el original es la respuesta definitiva, con el cache normal
+        if (variant != null && ImageVariant.supports(key)) {
+            Path derived = mediaStore.resolveVariant(key, variant).orElse(null);
+            if (derived != null) {
+                path = derived;
+                etag = "\"" + MediaStore.hashOf(key) + "-" + variant.param() + "\"";
+                contentType = "image/jpeg";
+            } else {
+                cacheControl = CACHE_CONTROL_FALLBACK;
+                imageVariantService.scheduleIfIdle(key);
+            }
+        }
+
+        response.setHeader("ETag", etag);
+        response.setHeader("Cache-Control", cacheControl);
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = file.size();
+            response.setContentType(contentType);
+            response.setContentLengthLong(length);
+
+            if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+                request.setAttribute("org.apache.tomcat.sendfile.filename", path.toString());
+                request.setAttribute("org.apache.tomcat.sendfile.start", 0L);
+                request.setAttribute("org.apache.tomcat.sendfile.end", length);
+                return;
+            }
+
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < length) {
+                position += file.transferTo(position, length - position, out);
+            }
+        }
+    }
+}
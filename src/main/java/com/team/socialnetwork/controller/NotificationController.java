@@ -2,7 +2,6 @@ package com.team.socialnetwork.controller;
 
 import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -10,11 +9,12 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.team.socialnetwork.dto.Cursor;
+import com.team.socialnetwork.dto.CursorPage;
 import com.team.socialnetwork.dto.MessageResponse;
 import com.team.socialnetwork.dto.NotificationCountResponse;
 import com.team.socialnetwork.dto.NotificationResponse;
-import com.team.socialnetwork.entity.User;
-import com.team.socialnetwork.repository.UserRepository;
+import com.team.socialnetwork.security.AuthenticatedUser;
 import com.team.socialnetwork.service.NotificationService;
 
 @RestController
@@ -22,14 +22,11 @@ import com.team.socialnetwork.service.NotificationService;
 public class NotificationController {
 
     private final NotificationService notificationService;
-    private final UserRepository userRepository;
     private final com.team.socialnetwork.repository.NotificationRepository notificationRepository;
 
     public NotificationController(NotificationService notificationService, 
-                                 UserRepository userRepository,
                                  com.team.socialnetwork.repository.NotificationRepository notificationRepository) {
         this.notificationService = notificationService;
-        this.userRepository = userRepository;
         this.notificationRepository = notificationRepository;
     }
 
@@ -38,17 +35,10 @@ public class NotificationController {
      */
     @GetMapping
     public ResponseEntity<Page<NotificationResponse>> getNotifications(
-            Authentication authentication,
+            AuthenticatedUser me,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new org.springframework.web.server.ResponseStatusException(
-                    org.springframework.http.HttpStatus.UNAUTHORIZED, "Missing or invalid token");
-        }
-
-        User user = getUserFromAuth(authentication);
-        
         // Validar tamaño de página
         if (size > 50) {
             size = 50; // Limitar el tamaño máximo para rendimiento
@@ -56,7 +46,7 @@ public class NotificationController {
 
         try {
             Page<NotificationResponse> notifications = notificationService.getUserNotifications(
-                    user.getId(), page, size);
+                    me.getId(), page, size);
 
             return ResponseEntity.ok(notifications);
         } catch (Exception e) {
@@ -67,26 +57,39 @@ public class NotificationController {
         }
     }
 
+    /**
+     * Notificaciones en modo cursor (keyset); el cliente reenvía nextCursor hasta que hasMore sea false
+     */
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPage<NotificationResponse>> getNotificationsByCursor(
+            AuthenticatedUser me,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+
+        if (size < 1) {
+            throw new org.springframework.web.server.ResponseStatusException(
+                    org.springframework.http.HttpStatus.BAD_REQUEST, "size must be >= 1");
+        }
+        Cursor after = Cursor.decode(cursor);
+        if (size > 50) {
+            size = 50;
+        }
+        return ResponseEntity.ok(notificationService.getUserNotifications(me.getId(), after, size));
+    }
+
     /**
      * Endpoint de prueba para obtener notificaciones como entidades simples
      */
     @GetMapping("/raw")
     public ResponseEntity<java.util.Map<String, Object>> getNotificationsRaw(
-            Authentication authentication,
+            AuthenticatedUser me,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new org.springframework.web.server.ResponseStatusException(
-                    org.springframework.http.HttpStatus.UNAUTHORIZED, "Missing or invalid token");
-        }
-
-        User user = getUserFromAuth(authentication);
-        
         try {
             org.springframework.data.domain.Pageable pageable = org.springframework.data.domain.PageRequest.of(page, size);
             org.springframework.data.domain.Page<com.team.socialnetwork.entity.Notification> notifications = 
-                notificationRepository.findByRecipientIdOrderByCreatedAtDesc(user.getId(), pageable);
+                notificationRepository.findByRecipientIdOrderByCreatedAtDesc(me.getId(), pageable);
             
             java.util.List<java.util.Map<String, Object>> simplifiedNotifications = new java.util.ArrayList<>();
             
@@ -130,14 +133,8 @@ public class NotificationController {
      * Obtener contador de notificaciones no leídas
      */
     @GetMapping("/unread-count")
-    public ResponseEntity<NotificationCountResponse> getUnreadCount(Authentication authentication) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new org.springframework.web.server.ResponseStatusException(
-                    org.springframework.http.HttpStatus.UNAUTHORIZED, "Missing or invalid token");
-        }
-
-        User user = getUserFromAuth(authentication);
-        NotificationCountResponse count = notificationService.getUnreadCount(user.getId());
+    public ResponseEntity<NotificationCountResponse> getUnreadCount(AuthenticatedUser me) {
+        NotificationCountResponse count = notificationService.getUnreadCount(me.getId());
 
         return ResponseEntity.ok(count);
     }
@@ -146,14 +143,8 @@ public class NotificationController {
      * Endpoint adicional para compatibilidad con frontend (devuelve solo el número)
      */
     @GetMapping("/count")
-    public ResponseEntity<java.util.Map<String, Long>> getSimpleUnreadCount(Authentication authentication) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new org.springframework.web.server.ResponseStatusException(
-                    org.springframework.http.HttpStatus.UNAUTHORIZED, "Missing or invalid token");
-        }
-
-        User user = getUserFromAuth(authentication);
-        NotificationCountResponse count = notificationService.getUnreadCount(user.getId());
+    public ResponseEntity<java.util.Map<String, Long>> getSimpleUnreadCount(AuthenticatedUser me) {
+        NotificationCountResponse count = notificationService.getUnreadCount(me.getId());
 
         java.util.Map<String, Long> response = new java.util.HashMap<>();
         response.put("count", count.getUnreadCount());
@@ -165,14 +156,8 @@ public class NotificationController {
      * Marcar todas las notificaciones como leídas
      */
     @PatchMapping("/mark-all-read")
-    public ResponseEntity<MessageResponse> markAllAsRead(Authentication authentication) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new org.springframework.web.server.ResponseStatusException(
-                    org.springframework.http.HttpStatus.UNAUTHORIZED, "Missing or invalid token");
-        }
-
-        User user = getUserFromAuth(authentication);
-        int updated = notificationService.markAllAsRead(user.getId());
+    public ResponseEntity<MessageResponse> markAllAsRead(AuthenticatedUser me) {
+        int updated = notificationService.markAllAsRead(me.getId());
 
         return ResponseEntity.ok(new MessageResponse(updated + " notifications marked as read"));
     }
@@ -182,16 +167,10 @@ public class NotificationController {
      */
     @PatchMapping("/{notificationId}/read")
     public ResponseEntity<MessageResponse> markAsRead(
-            Authentication authentication,
+            AuthenticatedUser me,
             @PathVariable Long notificationId) {
         
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new org.springframework.web.server.ResponseStatusException(
-                    org.springframework.http.HttpStatus.UNAUTHORIZED, "Missing or invalid token");
-        }
-
-        User user = getUserFromAuth(authentication);
-        boolean success = notificationService.markAsRead(user.getId(), notificationId);
+        boolean success = notificationService.markAsRead(me.getId(), notificationId);
 
         if (!success) {
             throw new org.springframework.web.server.ResponseStatusException(
@@ -200,12 +179,4 @@ public class NotificationController {
 
         return ResponseEntity.ok(new MessageResponse("Notification marked as read"));
     }
-
-    // Método auxiliar para obtener usuario autenticado
-    private User getUserFromAuth(Authentication authentication) {
-        String email = authentication.getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
-                        org.springframework.http.HttpStatus.NOT_FOUND, "User not found"));
-    }
 }
\ No newline at end of file
@@ -5,11 +5,12 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -17,11 +18,13 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.team.socialnetwork.dto.Cursor;
+import com.team.socialnetwork.dto.CursorPage;
 import com.team.socialnetwork.dto.MessageResponse;
 import com.team.socialnetwork.entity.Notification;
 import com.team.socialnetwork.entity.User;
 import com.team.socialnetwork.repository.NotificationRepository;
-import com.team.socialnetwork.repository.UserRepository;
+import com.team.socialnetwork.security.AuthenticatedUser;
 import com.team.socialnetwork.service.NotificationService;
 
 /**
@@ -31,16 +34,14 @@ import com.team.socialnetwork.service.NotificationService;
 @RestController
 @RequestMapping("/notifications")
 public class NotificationFrontendController {
+    private static final Logger log = LoggerFactory.getLogger(NotificationFrontendController.class);
 
     private final NotificationService notificationService;
-    private final UserRepository userRepository;
     private final NotificationRepository notificationRepository;
 
     public NotificationFrontendController(NotificationService notificationService,
-                                        UserRepository userRepository,
                                         NotificationRepository notificationRepository) {
         this.notificationService = notificationService;
-        this.userRepository = userRepository;
         this.notificationRepository = notificationRepository;
     }
 
@@ -50,13 +51,11 @@ public class NotificationFrontendController {
      */
     @GetMapping
     public ResponseEntity<Map<String, Object>> getNotifications(
-            Authentication authentication,
+            AuthenticatedUser me,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
 
-        System.out.println("📋 Frontend solicitando notificaciones - Usuario: " + authentication.getName());
-        
-        User user = getUserFromAuth(authentication);
+        System.out.println("📋 Frontend solicitando notificaciones - Usuario: " + me.getName());
         
         try {
             // Limitar tamaño máximo
@@ -64,58 +63,13 @@ public class NotificationFrontendController {
 
             Pageable pageable = PageRequest.of(page, size);
             Page<Notification> notificationsPage = notificationRepository
-                .findByRecipientIdOrderByCreatedAtDesc(user.getId(), pageable);
+                .findByRecipientIdOrderByCreatedAtDesc(me.getId(), pageable);
 
             List<Map<String, Object>> notificationsList = new ArrayList<>();
             
             for (Notification notification : notificationsPage.getContent()) {
                 try {
-                    Map<String, Object> notifMap = new HashMap<>();
-                    notifMap.put("id", notification.getId());
-                    notifMap.put("type", notification.getType().toString());
-                    notifMap.put("read", notification.isRead());
-                    notifMap.put("createdAt", notification.getCreatedAt().toString());
-                    
-                    // Actor info con validación para evitar "NaNd"
-                    User actor = notification.getActor();
-                    if (actor != null) {
-                        String actorName = actor.getFullName();
-                        String actorUsername = actor.getUsername();
-                        
-                        // Validar y limpiar valores null/vacíos
-                        if (actorName == null || actorName.trim().isEmpty() || "null".equals(actorName)) {
-                            actorName = actorUsername != null && !actorUsername.trim().isEmpty() 
-                                ? actorUsername : "Usuario " + actor.getId();
-                        }
-                        
-                        if (actorUsername == null || actorUsername.trim().isEmpty() || "null".equals(actorUsername)) {
-                            actorUsername = "user_" + actor.getId();
-                        }
-                        
-                        notifMap.put("actorId", actor.getId());
-                        notifMap.put("actorName", actorName.trim());
-                        notifMap.put("actorUsername", actorUsername.trim());
-                    } else {
-                        // Datos por defecto si actor es null
-                        notifMap.put("actorId", -1);
-                        notifMap.put("actorName", "Usuario desconocido");
-                        notifMap.put("actorUsername", "unknown_user");
-                    }
-                    
-                    // Generar mensaje descriptivo
-                    String message = generateNotificationMessage(notification);
-                    notifMap.put("message", message);
-                    
-                    // Post info si existe
-                    if (notification.getPost() != null) {
-                        notifMap.put("postId", notification.getPost().getId());
-                    }
-                    
-                    // Comment info si existe
-                    if (notification.getComment() != null) {
-                        notifMap.put("commentId", notification.getComment().getId());
-                    }
-                    
+                    Map<String, Object> notifMap = toNotificationMap(notification);
                     notificationsList.add(notifMap);
                     
                 } catch (Exception e) {
@@ -125,7 +79,7 @@ public class NotificationFrontendController {
             }
 
             // Contar no leídas
-            long unreadCount = notificationRepository.countByRecipientIdAndIsReadFalse(user.getId());
+            long unreadCount = notificationRepository.countByRecipientIdAndIsReadFalse(me.getId());
 
             Map<String, Object> response = new HashMap<>();
             response.put("notifications", notificationsList);
@@ -152,18 +106,52 @@ public class NotificationFrontendController {
         }
     }
 
+    /**
+     * Variante por cursor para scroll infinito: sin total ni totalPages (no ejecuta count(*))
+     */
+    @GetMapping(params = "cursor")
+    public ResponseEntity<Map<String, Object>> getNotificationsByCursor(
+            AuthenticatedUser me,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+
+        if (size < 1) {
+            throw new org.springframework.web.server.ResponseStatusException(
+                    org.springframework.http.HttpStatus.BAD_REQUEST, "size must be >= 1");
+        }
+        Cursor after = Cursor.decode(cursor);
+        if (size > 50) size = 50;
+
+        CursorPage<Notification> window = notificationService.getNotificationWindow(me.getId(), after, size);
+        List<Map<String, Object>> notificationsList = new ArrayList<>();
+        for (Notification notification : window.getItems()) {
+            try {
+                notificationsList.add(toNotificationMap(notification));
+            } catch (Exception e) {
+                log.warn("Could not render notification {}: {}", notification.getId(), e.getMessage());
+            }
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("notifications", notificationsList);
+        response.put("unreadCount", notificationRepository.countByRecipientIdAndIsReadFalse(me.getId()));
+        response.put("nextCursor", window.getNextCursor());
+        response.put("hasMore", window.isHasMore());
+        response.put("size", size);
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Marcar notificación como leída
      */
     @PostMapping("/{notificationId}/read")
     public ResponseEntity<MessageResponse> markAsRead(
-            Authentication authentication,
+            AuthenticatedUser me,
             @PathVariable Long notificationId) {
 
         System.out.println("📖 Marcando notificación " + notificationId + " como leída");
         
-        User user = getUserFromAuth(authentication);
-        boolean success = notificationService.markAsRead(user.getId(), notificationId);
+        boolean success = notificationService.markAsRead(me.getId(), notificationId);
 
         if (success) {
             System.out.println("✅ Notificación " + notificationId + " marcada como leída");
@@ -178,9 +166,8 @@ public class NotificationFrontendController {
      * Obtener contador de no leídas
      */
     @GetMapping("/unread-count")
-    public ResponseEntity<Map<String, Long>> getUnreadCount(Authentication authentication) {
-        User user = getUserFromAuth(authentication);
-        long count = notificationRepository.countByRecipientIdAndIsReadFalse(user.getId());
+    public ResponseEntity<Map<String, Long>> getUnreadCount(AuthenticatedUser me) {
+        long count = notificationRepository.countByRecipientIdAndIsReadFalse(me.getId());
         
         Map<String, Long> response = new HashMap<>();
         response.put("unreadCount", count);
@@ -188,6 +175,58 @@ public class NotificationFrontendController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Armar el mapa que espera el frontend (actor saneado, mensaje y referencias a post/comentario)
+     */
+    private Map<String, Object> toNotificationMap(Notification notification) {
+        Map<String, Object> notifMap = new HashMap<>();
+        notifMap.put("id", notification.getId());
+        notifMap.put("type", notification.getType().toString());
+        notifMap.put("read", notification.isRead());
+        notifMap.put("createdAt", notification.getCreatedAt().toString());
+        
+        // Actor info con validación para evitar "NaNd"
+        User actor = notification.getActor();
+        if (actor != null) {
+            String actorName = actor.getFullName();
+            String actorUsername = actor.getUsername();
+            
+            // Validar y limpiar valores null/vacíos
+            if (actorName == null || actorName.trim().isEmpty() || "null".equals(actorName)) {
+                actorName = actorUsername != null && !actorUsername.trim().isEmpty() 
+                    ? actorUsername : "Usuario " + actor.getId();
+            }
+            
+            if (actorUsername == null || actorUsername.trim().isEmpty() || "null".equals(actorUsername)) {
+                actorUsername = "user_" + actor.getId();
+            }
+            
+            notifMap.put("actorId", actor.getId());
+            notifMap.put("actorName", actorName.trim());
+            notifMap.put("actorUsername", actorUsername.trim());
+        } else {
+            // Datos por defecto si actor es null
+            notifMap.put("actorId", -1);
+            notifMap.put("actorName", "Usuario desconocido");
+            notifMap.put("actorUsername", "unknown_user");
+        }
+        
+        // Generar mensaje descriptivo
+        String message = generateNotificationMessage(notification);
+        notifMap.put("message", message);
+        
+        // Post info si existe
+        if (notification.getPost() != null) {
+            notifMap.put("postId", notification.getPost().getId());
+        }
+        
+        // Comment info si existe
+        if (notification.getComment() != null) {
+            notifMap.put("commentId", notification.getComment().getId());
+        }
+        return notifMap;
+    }
+
     /**
      * Generar mensaje descriptivo para la notificación
      */
@@ -223,17 +262,4 @@ public class NotificationFrontendController {
                 return actorName + " realizó una acción";
         }
     }
-
-    /**
-     * Obtener usuario autenticado
-     */
-    private User getUserFromAuth(Authentication authentication) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new RuntimeException("Usuario no autenticado");
-        }
-        
-        String email = authentication.getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("Usuario no encontrado: " + email));
-    }
 }
\ No newline at end of file
@@ -1,6 +1,5 @@
 package com.team.socialnetwork.controller;
 
-import java.security.Principal;
 import java.util.Map;
 
 import org.springframework.messaging.handler.annotation.MessageMapping;
@@ -9,22 +8,18 @@ import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Controller;
 
 import com.team.socialnetwork.dto.NotificationCountResponse;
-import com.team.socialnetwork.entity.User;
-import com.team.socialnetwork.repository.UserRepository;
+import com.team.socialnetwork.security.AuthenticatedUser;
 import com.team.socialnetwork.service.NotificationService;
 
 @Controller
 public class NotificationWSController {
 
     private final NotificationService notificationService;
-    private final UserRepository userRepository;
     private final SimpMessagingTemplate messagingTemplate;
 
-    public NotificationWSController(NotificationService notificationService, 
-                                   UserRepository userRepository,
+    public NotificationWSController(NotificationService notificationService,
                                    SimpMessagingTemplate messagingTemplate) {
         this.notificationService = notificationService;
-        this.userRepository = userRepository;
         this.messagingTemplate = messagingTemplate;
     }
 
@@ -33,19 +28,16 @@ public class NotificationWSController {
      * El cliente envía un mensaje a /app/notifications/subscribe
      */
     @MessageMapping("/notifications/subscribe")
-    public void subscribeToNotifications(@Payload Map<String, Object> payload, Principal principal) {
-        if (principal == null) {
+    public void subscribeToNotifications(@Payload Map<String, Object> payload, AuthenticatedUser user) {
+        if (user == null) {
             System.out.println("❌ No hay usuario autenticado en subscribe");
             return;
         }
 
         String action = (String) payload.get("action");
-        System.out.println("📡 Suscripción recibida - Usuario: " + principal.getName() + ", Acción: " + action);
+        System.out.println("📡 Suscripción recibida - Usuario: " + user.getEmail() + ", Acción: " + action);
 
         try {
-            User user = userRepository.findByEmail(principal.getName())
-                    .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
-
             if ("subscribe".equals(action)) {
                 // Enviar contador actual de notificaciones no leídas
                 NotificationCountResponse unreadCount = notificationService.getUnreadCount(user.getId());
@@ -54,7 +46,7 @@ public class NotificationWSController {
                         new NotificationService.NotificationWebSocketMessage(
                                 "INITIAL_UNREAD_COUNT", null, unreadCount.getUnreadCount()));
                 
-                System.out.println("✅ Usuario " + user.getUsername() + " suscrito - Contador enviado: " + unreadCount.getUnreadCount());
+                System.out.println("✅ Usuario " + user.getDisplayName() + " suscrito - Contador enviado: " + unreadCount.getUnreadCount());
             }
         } catch (RuntimeException e) {
             System.err.println("❌ Error al suscribir usuario a notificaciones: " + e.getMessage());
@@ -66,22 +58,19 @@ public class NotificationWSController {
      * Endpoint para marcar todas las notificaciones como leídas via WebSocket
      */
     @MessageMapping("/notifications/mark-all-read")
-    public void markAllAsRead(@Payload Map<String, Object> payload, Principal principal) {
-        if (principal == null) {
+    public void markAllAsRead(@Payload Map<String, Object> payload, AuthenticatedUser user) {
+        if (user == null) {
             System.out.println("❌ No hay usuario autenticado en mark-all-read");
             return;
         }
 
         String action = (String) payload.get("action");
-        System.out.println("📖 Marcar como leídas - Usuario: " + principal.getName() + ", Acción: " + action);
+        System.out.println("📖 Marcar como leídas - Usuario: " + user.getEmail() + ", Acción: " + action);
 
         try {
-            User user = userRepository.findByEmail(principal.getName())
-                    .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
-
             if ("mark-all-read".equals(action)) {
                 int updated = notificationService.markAllAsRead(user.getId());
-                System.out.println("✅ Usuario " + user.getUsername() + " marcó " + updated + " notificaciones como leídas");
+                System.out.println("✅ Usuario " + user.getDisplayName() + " marcó " + updated + " notificaciones como leídas");
             }
         } catch (RuntimeException e) {
             System.err.println("❌ Error al marcar notificaciones como leídas: " + e.getMessage());
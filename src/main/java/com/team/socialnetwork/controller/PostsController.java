@@ -1,16 +1,9 @@
 package com.team.socialnetwork.controller;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
-
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -22,6 +15,8 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.team.socialnetwork.dto.CreateCommentRequest;
 import com.team.socialnetwork.dto.CreatePostRequest;
+import com.team.socialnetwork.dto.Cursor;
+import com.team.socialnetwork.dto.CursorPage;
 import com.team.socialnetwork.dto.PostDetailResponse;
 import com.team.socialnetwork.dto.PostResponse;
 import com.team.socialnetwork.entity.Comment;
@@ -32,8 +27,16 @@ import com.team.socialnetwork.repository.CommentRepository;
 import com.team.socialnetwork.repository.PostLikeRepository;
 import com.team.socialnetwork.repository.PostRepository;
 import com.team.socialnetwork.repository.UserRepository;
-import com.team.socialnetwork.repository.projection.PostIdCountProjection;
+import com.team.socialnetwork.security.AuthenticatedUser;
 import com.team.socialnetwork.service.NotificationService;
+import com.team.socialnetwork.service.counter.LikeCounterBuffer;
+import com.team.socialnetwork.service.feed.TimelineService;
+import com.team.socialnetwork.service.graph.FollowGraph;
+import com.team.socialnetwork.service.media.ImageVariant;
+import com.team.socialnetwork.service.media.ImageVariantService;
+import com.team.socialnetwork.service.media.MediaStore;
+import com.team.socialnetwork.service.media.MediaUrlSigner;
+import com.team.socialnetwork.service.post.UserPostsService;
 
 import jakarta.validation.Valid;
 
@@ -46,44 +49,54 @@ public class PostsController {
     private final CommentRepository commentRepository;
     private final PostLikeRepository postLikeRepository;
     private final NotificationService notificationService;
+    private final TimelineService timelineService;
+    private final LikeCounterBuffer likeCounterBuffer;
+    private final UserPostsService userPostsService;
+    private final MediaStore mediaStore;
+    private final ImageVariantService imageVariantService;
+    private final FollowGraph followGraph;
+    private final MediaUrlSigner mediaUrlSigner;
 
     public PostsController(PostRepository postRepository, UserRepository userRepository,
                            CommentRepository commentRepository, PostLikeRepository postLikeRepository,
-                           NotificationService notificationService) {
+                           NotificationService notificationService, TimelineService timelineService,
+                           LikeCounterBuffer likeCounterBuffer, UserPostsService userPostsService,
+                           MediaStore mediaStore, ImageVariantService imageVariantService,
+                           FollowGraph followGraph, MediaUrlSigner mediaUrlSigner) {
         this.postRepository = postRepository;
         this.userRepository = userRepository;
         this.commentRepository = commentRepository;
         this.postLikeRepository = postLikeRepository;
         this.notificationService = notificationService;
+        this.timelineService = timelineService;
+        this.likeCounterBuffer = likeCounterBuffer;
+        this.userPostsService = userPostsService;
+        this.mediaStore = mediaStore;
+        this.imageVariantService = imageVariantService;
+        this.followGraph = followGraph;
+        this.mediaUrlSigner = mediaUrlSigner;
     }
 
     @PostMapping
-    public ResponseEntity<com.team.socialnetwork.dto.MessageResponse> create(Authentication authentication,
+    public ResponseEntity<com.team.socialnetwork.dto.MessageResponse> create(AuthenticatedUser me,
                                                @Valid @RequestBody CreatePostRequest request) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new org.springframework.web.server.ResponseStatusException(
-                    org.springframework.http.HttpStatus.UNAUTHORIZED, "Missing or invalid token");
-        }
-        String email = authentication.getName();
-        User author = userRepository.findByEmail(email)
-                .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
-                        org.springframework.http.HttpStatus.NOT_FOUND, "User not found"));
+        User author = userRepository.getReferenceById(me.getId());
 
-        Post post = new Post(request.getDescription(), request.getImage(), author);
+        // El base64 se guarda en disco una sola vez; el post solo lleva la referencia /media/...
+        Post post = new Post(request.getDescription(), mediaStore.toReference(request.getImage()), author);
         postRepository.save(post);
+        // Miniaturas y tamaño medio se generan en segundo plano
+        imageVariantService.schedule(post.getImage());
+        // Fan-out on write al timeline de los seguidores
+        timelineService.fanOut(post);
         return ResponseEntity.ok(new com.team.socialnetwork.dto.MessageResponse("Post created successfully"));
     }
 
     @org.springframework.web.bind.annotation.PostMapping("/{postId}/comments")
-    public ResponseEntity<com.team.socialnetwork.dto.CommentResponse> createComment(Authentication authentication,
+    public ResponseEntity<com.team.socialnetwork.dto.CommentResponse> createComment(AuthenticatedUser me,
                                                                                    @org.springframework.web.bind.annotation.PathVariable Long postId,
                                                                                    @Valid @RequestBody CreateCommentRequest request) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new org.springframework.web.server.ResponseStatusException(
-                    org.springframework.http.HttpStatus.UNAUTHORIZED, "Missing or invalid token");
-        }
-        String email = authentication.getName();
-        User author = userRepository.findByEmail(email)
+        User author = userRepository.findById(me.getId())
                 .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
                         org.springframework.http.HttpStatus.NOT_FOUND, "User not found"));
 
@@ -93,13 +106,15 @@ public class PostsController {
 
         // Enforce privacy: if post's author is private, only the author themselves or their followers can comment
         User postAuthor = post.getAuthor();
-        if (postAuthor.isPrivate() && !postAuthor.getId().equals(author.getId()) && !author.getFollowing().contains(postAuthor)) {
+        if (postAuthor.isPrivate() && !postAuthor.getId().equals(author.getId()) && !followGraph.isFollowing(author.getId(), postAuthor.getId())) {
             throw new org.springframework.web.server.ResponseStatusException(
                     org.springframework.http.HttpStatus.FORBIDDEN, "This account is private");
         }
 
         Comment comment = new Comment(request.getText(), post, author);
         commentRepository.save(comment);
+        postRepository.adjustCommentCount(postId, 1);
+        timelineService.onEngagement(postId, author.getId());
         
         // Crear notificación para el autor del post (solo si no es el mismo usuario)
         if (!postAuthor.getId().equals(author.getId())) {
@@ -123,7 +138,7 @@ public class PostsController {
                 author.getUsername(),
                 author.getEmail(),
                 author.getCreatedAt(),
-                author.getProfilePicture()
+                mediaUrlSigner.sign(author.getProfilePicture())
         );
         
         com.team.socialnetwork.dto.CommentResponse commentResponse = new com.team.socialnetwork.dto.CommentResponse(
@@ -140,21 +155,13 @@ public class PostsController {
     // List comments for a post (no userId required)
     @org.springframework.web.bind.annotation.GetMapping("/{postId}/comments")
     public ResponseEntity<java.util.List<com.team.socialnetwork.dto.CommentResponse>> listCommentsForPost(
-            Authentication authentication,
+            AuthenticatedUser me,
             @org.springframework.web.bind.annotation.PathVariable Long postId) {
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
                         org.springframework.http.HttpStatus.NOT_FOUND, "Post not found"));
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new org.springframework.web.server.ResponseStatusException(
-                    org.springframework.http.HttpStatus.UNAUTHORIZED, "Missing or invalid token");
-        }
-        String email = authentication.getName();
-        User viewer = userRepository.findByEmail(email)
-                .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
-                        org.springframework.http.HttpStatus.NOT_FOUND, "User not found"));
         User author = post.getAuthor();
-        if (author.isPrivate() && !author.getId().equals(viewer.getId()) && !viewer.getFollowing().contains(author)) {
+        if (author.isPrivate() && !author.getId().equals(me.getId()) && !followGraph.isFollowing(me.getId(), author.getId())) {
             throw new org.springframework.web.server.ResponseStatusException(
                     org.springframework.http.HttpStatus.FORBIDDEN, "This account is private");
         }
@@ -171,7 +178,7 @@ public class PostsController {
                                 c.getAuthor().getUsername(),
                                 c.getAuthor().getEmail(),
                                 c.getAuthor().getCreatedAt(),
-                                c.getAuthor().getProfilePicture()
+                                mediaUrlSigner.sign(c.getAuthor().getProfilePicture())
                         )
                 ))
                 .toList();
@@ -180,29 +187,21 @@ public class PostsController {
 
     // Get post detail (with counts and viewer flags)
     @org.springframework.web.bind.annotation.GetMapping("/{postId:\\d+}")
-    public ResponseEntity<PostDetailResponse> getPost(Authentication authentication,
+    public ResponseEntity<PostDetailResponse> getPost(AuthenticatedUser me,
                                                       @org.springframework.web.bind.annotation.PathVariable Long postId) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new org.springframework.web.server.ResponseStatusException(
-                    org.springframework.http.HttpStatus.UNAUTHORIZED, "Missing or invalid token");
-        }
-        String email = authentication.getName();
-        User viewer = userRepository.findByEmail(email)
-                .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
-                        org.springframework.http.HttpStatus.NOT_FOUND, "User not found"));
-
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
                         org.springframework.http.HttpStatus.NOT_FOUND, "Post not found"));
         User author = post.getAuthor();
-        if (author.isPrivate() && !author.getId().equals(viewer.getId()) && !viewer.getFollowing().contains(author)) {
+        if (author.isPrivate() && !author.getId().equals(me.getId()) && !followGraph.isFollowing(me.getId(), author.getId())) {
             throw new org.springframework.web.server.ResponseStatusException(
                     org.springframework.http.HttpStatus.FORBIDDEN, "This account is private");
         }
 
-        long likesCount = postLikeRepository.countByPostId(postId);
-        long commentsCount = commentRepository.findByPostId(postId).size();
-        boolean viewerLiked = postLikeRepository.existsByUserIdAndPostId(viewer.getId(), postId);
+        // Contadores denormalizados: lectura de columnas, sin agregados ni carga de comentarios
+        long likesCount = post.getLikeCount() + likeCounterBuffer.pending(postId);
+        long commentsCount = post.getCommentCount();
+        boolean viewerLiked = postLikeRepository.existsByUserIdAndPostId(me.getId(), postId);
 
         com.team.socialnetwork.dto.SafeUser authorDto = new com.team.socialnetwork.dto.SafeUser(
                 post.getAuthor().getId(),
@@ -210,52 +209,40 @@ public class PostsController {
                 post.getAuthor().getUsername(),
                 post.getAuthor().getEmail(),
                 post.getAuthor().getCreatedAt(),
-                post.getAuthor().getProfilePicture()
+                mediaUrlSigner.sign(post.getAuthor().getProfilePicture())
         );
 
         PostDetailResponse resp = new PostDetailResponse(
-                post.getId(), post.getCreatedAt(), post.getDescription(), post.getImage(),
+                post.getId(), post.getCreatedAt(), post.getDescription(), mediaUrlSigner.sign(post.getImage()),
                 authorDto, likesCount, commentsCount, viewerLiked
         );
         return ResponseEntity.ok(resp);
     }
 
     @org.springframework.web.bind.annotation.DeleteMapping("/{id}")
-    public ResponseEntity<com.team.socialnetwork.dto.MessageResponse> delete(Authentication authentication,
+    public ResponseEntity<com.team.socialnetwork.dto.MessageResponse> delete(AuthenticatedUser me,
                                                                             @org.springframework.web.bind.annotation.PathVariable Long id) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new org.springframework.web.server.ResponseStatusException(
-                    org.springframework.http.HttpStatus.UNAUTHORIZED, "Missing or invalid token");
-        }
-        String email = authentication.getName();
         Post post = postRepository.findById(id)
                 .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
                         org.springframework.http.HttpStatus.NOT_FOUND, "Post not found"));
-        if (!post.getAuthor().getEmail().equals(email)) {
+        if (!post.getAuthor().getId().equals(me.getId())) {
             throw new org.springframework.web.server.ResponseStatusException(
                     org.springframework.http.HttpStatus.FORBIDDEN, "You can only delete your own posts");
         }
         postRepository.delete(post);
+        timelineService.retract(post);
         return ResponseEntity.ok(new com.team.socialnetwork.dto.MessageResponse("Post deleted successfully"));
     }
 
     @org.springframework.web.bind.annotation.GetMapping("/mine")
-    public ResponseEntity<java.util.List<PostResponse>> myPosts(Authentication authentication) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new org.springframework.web.server.ResponseStatusException(
-                    org.springframework.http.HttpStatus.UNAUTHORIZED, "Missing or invalid token");
-        }
-        String email = authentication.getName();
-        User me = userRepository.findByEmail(email)
-                .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
-                        org.springframework.http.HttpStatus.NOT_FOUND, "User not found"));
+    public ResponseEntity<java.util.List<PostResponse>> myPosts(AuthenticatedUser me) {
         java.util.List<Post> posts = postRepository.findByAuthorId(me.getId());
         java.util.List<PostResponse> resp = posts.stream()
                 .map(p -> new PostResponse(
                         p.getId(),
                         p.getCreatedAt(),
                         p.getDescription(),
-                        p.getImage(),
+                        mediaUrlSigner.sign(ImageVariant.MEDIUM.urlFor(p.getImage())),
                         p.getAuthor().getUsername(),
                         p.getAuthor().getId(),
                         new com.team.socialnetwork.dto.SafeUser(
@@ -264,21 +251,40 @@ public class PostsController {
                                 p.getAuthor().getUsername(),
                                 p.getAuthor().getEmail(),
                                 p.getAuthor().getCreatedAt(),
-                                p.getAuthor().getProfilePicture()
+                                mediaUrlSigner.sign(ImageVariant.THUMB.urlFor(p.getAuthor().getProfilePicture()))
                         )
                 ))
                 .collect(java.util.stream.Collectors.toList());
         return ResponseEntity.ok(resp);
     }
 
+    // Modo cursor: ?cursor= (vacío para la primera página) devuelve { items, nextCursor, hasMore }
+    @GetMapping(value = "/mine", params = "cursor")
+    public ResponseEntity<CursorPage<PostResponse>> myPostsByCursor(AuthenticatedUser me,
+                                                                    @RequestParam String cursor,
+                                                                    @RequestParam(defaultValue = "10") int size) {
+        if (size < 1) {
+            throw new org.springframework.web.server.ResponseStatusException(
+                    org.springframework.http.HttpStatus.BAD_REQUEST, "size must be >= 1");
+        }
+        Cursor after = Cursor.decode(cursor);
+        return ResponseEntity.ok(userPostsService.page(me.getId(), after, Math.min(size, 50)));
+    }
+
+    // Modo stream: ?stream=true escribe el array JSON completo a medida que se lee de la base
+    @GetMapping(value = "/mine", params = "stream=true")
+    public ResponseEntity<org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody> streamMyPosts(
+            AuthenticatedUser me) {
+        Long authorId = me.getId();
+        return ResponseEntity.ok()
+                .contentType(org.springframework.http.MediaType.APPLICATION_JSON)
+                .body(out -> userPostsService.writeAll(authorId, out));
+    }
+
     @GetMapping("/feed")
-    public ResponseEntity<java.util.List<PostDetailResponse>> feed(Authentication authentication,
+    public ResponseEntity<java.util.List<PostDetailResponse>> feed(AuthenticatedUser me,
                                                                    @RequestParam(defaultValue = "0") int page,
                                                                    @RequestParam(defaultValue = "10") int size) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new org.springframework.web.server.ResponseStatusException(
-                    org.springframework.http.HttpStatus.UNAUTHORIZED, "Missing or invalid token");
-        }
         if (page < 0) {
             throw new org.springframework.web.server.ResponseStatusException(
                     org.springframework.http.HttpStatus.BAD_REQUEST, "page must be >= 0");
@@ -289,118 +295,57 @@ public class PostsController {
         }
         int pageSize = Math.min(size, 50);
 
-        String email = authentication.getName();
-        User me = userRepository.findByEmail(email)
-                .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
-                        org.springframework.http.HttpStatus.NOT_FOUND, "User not found"));
-
-        Set<User> following = me.getFollowing();
-        if (following.isEmpty()) {
-            return ResponseEntity.ok(java.util.Collections.emptyList());
-        }
-
-        List<Long> authorIds = following.stream()
-                .map(User::getId)
-                .toList();
-
-        Page<Post> postsPage = postRepository.findByAuthorIdIn(
-                authorIds,
-                PageRequest.of(page, pageSize, Sort.by(Sort.Direction.DESC, "createdAt"))
-        );
-
-        List<Post> posts = postsPage.getContent();
-        if (posts.isEmpty()) {
-            return ResponseEntity.ok(java.util.Collections.emptyList());
-        }
-
-        List<Long> postIds = posts.stream().map(Post::getId).toList();
-
-        Map<Long, Long> likesPerPost = new HashMap<>();
-        for (PostIdCountProjection row : postLikeRepository.countByPostIds(postIds)) {
-            if (row != null && row.getPostId() != null && row.getCnt() != null) {
-                likesPerPost.put(row.getPostId(), row.getCnt());
-            }
-        }
+        // Una sola consulta: timeline + post + autor + contadores + like del viewer (el viewer sale del token)
+        return ResponseEntity.ok(timelineService.readFeed(me.getId(), page, pageSize));
+    }
 
-        Map<Long, Long> commentsPerPost = new HashMap<>();
-        for (PostIdCountProjection row : commentRepository.countByPostIds(postIds)) {
-            if (row != null && row.getPostId() != null && row.getCnt() != null) {
-                commentsPerPost.put(row.getPostId(), row.getCnt());
-            }
+    // Modo cursor del feed: ?cursor= (vacío para la primera página) devuelve items + nextCursor sin count(*)
+    @GetMapping(value = "/feed", params = "cursor")
+    public ResponseEntity<CursorPage<PostDetailResponse>> feedByCursor(AuthenticatedUser me,
+                                                                       @RequestParam String cursor,
+                                                                       @RequestParam(defaultValue = "10") int size) {
+        if (size < 1) {
+            throw new org.springframework.web.server.ResponseStatusException(
+                    org.springframework.http.HttpStatus.BAD_REQUEST, "size must be >= 1");
         }
+        Cursor after = Cursor.decode(cursor);
 
-        Set<Long> likedByViewer = new HashSet<>(postLikeRepository.findPostIdsLikedByUser(me.getId(), postIds));
-
-        List<PostDetailResponse> feed = posts.stream().map(post -> {
-            com.team.socialnetwork.dto.SafeUser authorDto = new com.team.socialnetwork.dto.SafeUser(
-                    post.getAuthor().getId(),
-                    post.getAuthor().getFullName(),
-                    post.getAuthor().getUsername(),
-                    post.getAuthor().getEmail(),
-                    post.getAuthor().getCreatedAt(),
-                    post.getAuthor().getProfilePicture()
-            );
-            long likes = likesPerPost.getOrDefault(post.getId(), 0L);
-            long comments = commentsPerPost.getOrDefault(post.getId(), 0L);
-            boolean viewerLiked = likedByViewer.contains(post.getId());
-            return new PostDetailResponse(
-                    post.getId(),
-                    post.getCreatedAt(),
-                    post.getDescription(),
-                    post.getImage(),
-                    authorDto,
-                    likes,
-                    comments,
-                    viewerLiked
-            );
-        }).toList();
+        return ResponseEntity.ok(timelineService.readFeed(me.getId(), after, Math.min(size, 50)));
+    }
 
-        return ResponseEntity.ok(feed);
+    // Métricas del cache de páginas de feed (hits/misses/evictions) para dimensionarlo
+    @GetMapping("/feed/cache-stats")
+    public ResponseEntity<java.util.Map<String, Long>> feedCacheStats() {
+        return ResponseEntity.ok(timelineService.feedCacheStats());
     }
 
     @GetMapping("/{postId}/likes/count")
-    public ResponseEntity<java.util.Map<String, Long>> countPostLikes(Authentication authentication,
+    public ResponseEntity<java.util.Map<String, Long>> countPostLikes(AuthenticatedUser me,
                                                                       @PathVariable Long postId) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new org.springframework.web.server.ResponseStatusException(
-                    org.springframework.http.HttpStatus.UNAUTHORIZED, "Missing or invalid token");
-        }
-        String email = authentication.getName();
-        User viewer = userRepository.findByEmail(email)
-                .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
-                        org.springframework.http.HttpStatus.NOT_FOUND, "User not found"));
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
                         org.springframework.http.HttpStatus.NOT_FOUND, "Post not found"));
         User author = post.getAuthor();
-        if (author.isPrivate() && !author.getId().equals(viewer.getId()) && !viewer.getFollowing().contains(author)) {
+        if (author.isPrivate() && !author.getId().equals(me.getId()) && !followGraph.isFollowing(me.getId(), author.getId())) {
             throw new org.springframework.web.server.ResponseStatusException(
                     org.springframework.http.HttpStatus.FORBIDDEN, "This account is private");
         }
-        long count = postLikeRepository.countByPostId(postId);
+        long count = post.getLikeCount() + likeCounterBuffer.pending(postId);
         java.util.Map<String, Long> body = new java.util.HashMap<>();
         body.put("count", count);
         return ResponseEntity.ok(body);
     }
 
     @GetMapping("/{postId}/likes")
-    public ResponseEntity<java.util.List<com.team.socialnetwork.dto.SafeUser>> listPostLikes(Authentication authentication,
+    public ResponseEntity<java.util.List<com.team.socialnetwork.dto.SafeUser>> listPostLikes(AuthenticatedUser me,
                                                                                              @PathVariable Long postId,
                                                                                              @RequestParam(defaultValue = "0") int page,
                                                                                              @RequestParam(defaultValue = "10") int size) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new org.springframework.web.server.ResponseStatusException(
-                    org.springframework.http.HttpStatus.UNAUTHORIZED, "Missing or invalid token");
-        }
-        String email = authentication.getName();
-        User viewer = userRepository.findByEmail(email)
-                .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
-                        org.springframework.http.HttpStatus.NOT_FOUND, "User not found"));
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
                         org.springframework.http.HttpStatus.NOT_FOUND, "Post not found"));
         User author = post.getAuthor();
-        if (author.isPrivate() && !author.getId().equals(viewer.getId()) && !viewer.getFollowing().contains(author)) {
+        if (author.isPrivate() && !author.getId().equals(me.getId()) && !followGraph.isFollowing(me.getId(), author.getId())) {
             throw new org.springframework.web.server.ResponseStatusException(
                     org.springframework.http.HttpStatus.FORBIDDEN, "This account is private");
         }
@@ -412,23 +357,50 @@ public class PostsController {
         return ResponseEntity.ok(users);
     }
 
-    @PostMapping("/{postId}/likes")
-    public ResponseEntity<com.team.socialnetwork.dto.MessageResponse> likePost(Authentication authentication,
-                                                                               @PathVariable Long postId) {
-        if (authentication == null || !authentication.isAuthenticated()) {
+    @GetMapping(value = "/{postId}/likes", params = "cursor")
+    public ResponseEntity<CursorPage<com.team.socialnetwork.dto.SafeUser>> listPostLikesByCursor(AuthenticatedUser me,
+                                                                                                 @PathVariable Long postId,
+                                                                                                 @RequestParam String cursor,
+                                                                                                 @RequestParam(defaultValue = "10") int size) {
+        if (size < 1) {
             throw new org.springframework.web.server.ResponseStatusException(
-                    org.springframework.http.HttpStatus.UNAUTHORIZED, "Missing or invalid token");
+                    org.springframework.http.HttpStatus.BAD_REQUEST, "size must be >= 1");
         }
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
+        Cursor after = Cursor.decode(cursor);
+        Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
-                        org.springframework.http.HttpStatus.NOT_FOUND, "User not found"));
+                        org.springframework.http.HttpStatus.NOT_FOUND, "Post not found"));
+        User author = post.getAuthor();
+        if (author.isPrivate() && !author.getId().equals(me.getId()) && !followGraph.isFollowing(me.getId(), author.getId())) {
+            throw new org.springframework.web.server.ResponseStatusException(
+                    org.springframework.http.HttpStatus.FORBIDDEN, "This account is private");
+        }
+        PageRequest window = PageRequest.of(0, Math.min(size, 50));
+        Slice<PostLike> likes = after == null
+                ? postLikeRepository.findLatestByPostId(postId, window)
+                : postLikeRepository.findByPostIdBefore(postId, after.getCreatedAt(), after.getId(), window);
+        java.util.List<com.team.socialnetwork.dto.SafeUser> users = likes.getContent().stream().map(l -> {
+            User u = l.getUser();
+            return new com.team.socialnetwork.dto.SafeUser(u.getId(), u.getFullName(), u.getUsername(), u.getEmail(), u.getCreatedAt());
+        }).toList();
+        String next = null;
+        if (likes.hasNext()) {
+            PostLike last = likes.getContent().get(likes.getNumberOfElements() - 1);
+            next = new Cursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return ResponseEntity.ok(new CursorPage<>(users, next, likes.hasNext()));
+    }
+
+    @PostMapping("/{postId}/likes")
+    public ResponseEntity<com.team.socialnetwork.dto.MessageResponse> likePost(AuthenticatedUser me,
+                                                                               @PathVariable Long postId) {
+        User user = userRepository.getReferenceById(me.getId());
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
                         org.springframework.http.HttpStatus.NOT_FOUND, "Post not found"));
 
         User author = post.getAuthor();
-        if (author.isPrivate() && !author.getId().equals(user.getId()) && !user.getFollowing().contains(author)) {
+        if (author.isPrivate() && !author.getId().equals(user.getId()) && !followGraph.isFollowing(user.getId(), author.getId())) {
             throw new org.springframework.web.server.ResponseStatusException(
                     org.springframework.http.HttpStatus.FORBIDDEN, "This account is private");
         }
@@ -438,6 +410,8 @@ public class PostsController {
         }
         PostLike postLike = new PostLike(user, post);
         postLikeRepository.save(postLike);
+        likeCounterBuffer.add(postId, 1);
+        timelineService.onEngagement(postId, user.getId());
         
         // Crear notificación para el autor del post (solo si no es el mismo usuario)
         if (!author.getId().equals(user.getId())) {
@@ -458,21 +432,14 @@ public class PostsController {
     }
 
     @DeleteMapping("/{postId}/likes")
-    public ResponseEntity<com.team.socialnetwork.dto.MessageResponse> unlikePost(Authentication authentication,
+    public ResponseEntity<com.team.socialnetwork.dto.MessageResponse> unlikePost(AuthenticatedUser me,
                                                                                  @PathVariable Long postId) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new org.springframework.web.server.ResponseStatusException(
-                    org.springframework.http.HttpStatus.UNAUTHORIZED, "Missing or invalid token");
-        }
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
-                        org.springframework.http.HttpStatus.NOT_FOUND, "User not found"));
+        User user = userRepository.getReferenceById(me.getId());
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
                         org.springframework.http.HttpStatus.NOT_FOUND, "Post not found"));
         User author = post.getAuthor();
-        if (author.isPrivate() && !author.getId().equals(user.getId()) && !user.getFollowing().contains(author)) {
+        if (author.isPrivate() && !author.getId().equals(user.getId()) && !followGraph.isFollowing(user.getId(), author.getId())) {
             throw new org.springframework.web.server.ResponseStatusException(
                     org.springframework.http.HttpStatus.FORBIDDEN, "This account is private");
         }
@@ -481,6 +448,8 @@ public class PostsController {
             throw new org.springframework.web.server.ResponseStatusException(
                     org.springframework.http.HttpStatus.CONFLICT, "Not liked yet");
         }
+        likeCounterBuffer.add(postId, -deleted);
+        timelineService.onEngagement(postId, user.getId());
         
         // Eliminar notificación de like si existe
         if (!author.getId().equals(user.getId())) {
@@ -496,17 +465,8 @@ public class PostsController {
     }
 
     @GetMapping("/{postId}/likes/check")
-    public ResponseEntity<java.util.Map<String, Boolean>> checkPostLike(Authentication authentication,
+    public ResponseEntity<java.util.Map<String, Boolean>> checkPostLike(AuthenticatedUser me,
                                                                         @PathVariable Long postId) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new org.springframework.web.server.ResponseStatusException(
-                    org.springframework.http.HttpStatus.UNAUTHORIZED, "Missing or invalid token");
-        }
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
-                        org.springframework.http.HttpStatus.NOT_FOUND, "User not found"));
-        
         // 404 if post doesn't exist
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
@@ -514,12 +474,12 @@ public class PostsController {
         
         // Check privacy permissions
         User author = post.getAuthor();
-        if (author.isPrivate() && !author.getId().equals(user.getId()) && !user.getFollowing().contains(author)) {
+        if (author.isPrivate() && !author.getId().equals(me.getId()) && !followGraph.isFollowing(me.getId(), author.getId())) {
             throw new org.springframework.web.server.ResponseStatusException(
                     org.springframework.http.HttpStatus.FORBIDDEN, "This account is private");
         }
 
-        boolean isLiked = postLikeRepository.existsByUserIdAndPostId(user.getId(), postId);
+        boolean isLiked = postLikeRepository.existsByUserIdAndPostId(me.getId(), postId);
         java.util.Map<String, Boolean> response = new java.util.HashMap<>();
         response.put("liked", isLiked);
         return ResponseEntity.ok(response);
@@ -6,55 +6,35 @@ import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.team.socialnetwork.entity.User;
 import com.team.socialnetwork.repository.NotificationRepository;
-import com.team.socialnetwork.repository.UserRepository;
+import com.team.socialnetwork.security.AuthenticatedUser;
 
 @RestController
 @RequestMapping("/api/notifications")
 public class SimpleNotificationController {
 
-    private final UserRepository userRepository;
     private final NotificationRepository notificationRepository;
 
-    public SimpleNotificationController(UserRepository userRepository, 
-                                       NotificationRepository notificationRepository) {
-        this.userRepository = userRepository;
+    public SimpleNotificationController(NotificationRepository notificationRepository) {
         this.notificationRepository = notificationRepository;
     }
 
     @GetMapping("/simple")
     public ResponseEntity<Map<String, Object>> getSimpleNotifications(
-            Authentication authentication,
+            AuthenticatedUser me,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         
         try {
-            if (authentication == null || !authentication.isAuthenticated()) {
-                Map<String, Object> error = new HashMap<>();
-                error.put("error", "Not authenticated");
-                return ResponseEntity.status(401).body(error);
-            }
-
-            String email = authentication.getName();
-            User user = userRepository.findByEmail(email).orElse(null);
-            
-            if (user == null) {
-                Map<String, Object> error = new HashMap<>();
-                error.put("error", "User not found");
-                return ResponseEntity.status(404).body(error);
-            }
-
             // Obtener todas las notificaciones sin paginación por ahora
             List<com.team.socialnetwork.entity.Notification> notifications = 
                 notificationRepository.findAll().stream()
-                    .filter(n -> n.getRecipient().getId().equals(user.getId()))
+                    .filter(n -> n.getRecipient().getId().equals(me.getId()))
                     .limit(size)
                     .collect(Collectors.toList());
 
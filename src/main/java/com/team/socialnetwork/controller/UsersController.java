@@ -5,7 +5,6 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -34,10 +33,25 @@ import com.team.socialnetwork.entity.Post;
 import com.team.socialnetwork.entity.User;
 import com.team.socialnetwork.repository.CommentLikeRepository;
 import com.team.socialnetwork.repository.CommentRepository;
+import com.team.socialnetwork.repository.FollowEdgeRepository;
 import com.team.socialnetwork.repository.FollowRequestRepository;
 import com.team.socialnetwork.repository.PostRepository;
 import com.team.socialnetwork.repository.UserRepository;
+import com.team.socialnetwork.security.AuthenticatedUser;
+import com.team.socialnetwork.security.BoundedPasswordEncoder;
+import com.team.socialnetwork.security.TokenRevocationList;
 import com.team.socialnetwork.service.NotificationService;
+import com.team.socialnetwork.service.feed.TimelineService;
+import com.team.socialnetwork.service.graph.FollowEdgeService;
+import com.team.socialnetwork.service.graph.FollowGraph;
+import com.team.socialnetwork.service.graph.FollowListService;
+import com.team.socialnetwork.service.media.ImageVariant;
+import com.team.socialnetwork.service.media.ImageVariantService;
+import com.team.socialnetwork.service.media.MediaStore;
+import com.team.socialnetwork.service.media.MediaUrlSigner;
+import com.team.socialnetwork.service.post.UserPostsService;
+import com.team.socialnetwork.service.recommendation.RecommendationService;
+import com.team.socialnetwork.service.user.UserLookupCache;
 
 import jakarta.validation.Valid;
 
@@ -45,42 +59,75 @@ import jakarta.validation.Valid;
 @RequestMapping("/users")
 public class UsersController {
 
+    private static final int MAX_RELATIONSHIP_IDS = 200;
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final PostRepository postRepository;
     private final CommentLikeRepository commentLikeRepository;
     private final FollowRequestRepository followRequestRepository;
     private final NotificationService notificationService;
+    private final TimelineService timelineService;
+    private final UserPostsService userPostsService;
+    private final MediaStore mediaStore;
+    private final ImageVariantService imageVariantService;
+    private final UserLookupCache userLookupCache;
+    private final TokenRevocationList tokenRevocationList;
+    private final FollowGraph followGraph;
+    private final FollowEdgeRepository followEdgeRepository;
+    private final FollowListService followListService;
+    private final FollowEdgeService followEdgeService;
+    private final RecommendationService recommendationService;
+    private final MediaUrlSigner mediaUrlSigner;
 
     public UsersController(UserRepository userRepository, PasswordEncoder passwordEncoder,
                            PostRepository postRepository, CommentRepository commentRepository,
                            CommentLikeRepository commentLikeRepository,
                            FollowRequestRepository followRequestRepository,
-                           NotificationService notificationService) {
+                           NotificationService notificationService,
+                           TimelineService timelineService,
+                           UserPostsService userPostsService,
+                           MediaStore mediaStore,
+                           ImageVariantService imageVariantService,
+                           UserLookupCache userLookupCache,
+                           TokenRevocationList tokenRevocationList,
+                           FollowGraph followGraph,
+                           FollowEdgeRepository followEdgeRepository,
+                           FollowListService followListService,
+                           FollowEdgeService followEdgeService,
+                           RecommendationService recommendationService,
+                           MediaUrlSigner mediaUrlSigner) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.postRepository = postRepository;
         this.commentLikeRepository = commentLikeRepository;
         this.followRequestRepository = followRequestRepository;
         this.notificationService = notificationService;
+        this.timelineService = timelineService;
+        this.userPostsService = userPostsService;
+        this.mediaStore = mediaStore;
+        this.imageVariantService = imageVariantService;
+        this.userLookupCache = userLookupCache;
+        this.tokenRevocationList = tokenRevocationList;
+        this.followGraph = followGraph;
+        this.followEdgeRepository = followEdgeRepository;
+        this.followListService = followListService;
+        this.followEdgeService = followEdgeService;
+        this.recommendationService = recommendationService;
+        this.mediaUrlSigner = mediaUrlSigner;
     }
 
     // Update my visibility (public/private)
     @PatchMapping("/me/visibility")
     public ResponseEntity<com.team.socialnetwork.dto.MessageResponse> updateVisibility(
-            Authentication authentication,
+            AuthenticatedUser me,
             @RequestBody UpdateVisibilityRequest request
     ) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new org.springframework.web.server.ResponseStatusException(
-                    org.springframework.http.HttpStatus.UNAUTHORIZED, "Missing or invalid token");
-        }
         if (request.getIsPrivate() == null) {
             throw new org.springframework.web.server.ResponseStatusException(
                     org.springframework.http.HttpStatus.BAD_REQUEST, "isPrivate is required");
         }
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
+        User user = userRepository.findById(me.getId())
                 .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
                         org.springframework.http.HttpStatus.NOT_FOUND, "User not found"));
         boolean requestedPrivate = Boolean.TRUE.equals(request.getIsPrivate());
@@ -92,40 +139,62 @@ public class UsersController {
         }
         user.setPrivate(requestedPrivate);
         userRepository.save(user);
+        userLookupCache.invalidate(user.getId());
         return ResponseEntity.ok(new com.team.socialnetwork.dto.MessageResponse("Visibility updated"));
     }
 
-    @GetMapping("/me")
-    public ResponseEntity<PublicUserResponse> me(Authentication authentication) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new org.springframework.web.server.ResponseStatusException(
-                    org.springframework.http.HttpStatus.UNAUTHORIZED, "Missing or invalid token");
+    // Métricas del cache de usuarios (hit ratio, expiraciones, invalidaciones) para dimensionarlo
+    @GetMapping("/cache-stats")
+    public ResponseEntity<Map<String, Number>> userCacheStats() {
+        return ResponseEntity.ok(userLookupCache.stats());
+    }
+
+    // Pool de BCrypt: profundidad de cola, rechazos (503) y latencia de hashing
+    @GetMapping("/password-hash-stats")
+    public ResponseEntity<Map<String, Number>> passwordHashStats() {
+        if (passwordEncoder instanceof BoundedPasswordEncoder bounded) {
+            return ResponseEntity.ok(bounded.stats());
         }
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
+        return ResponseEntity.ok(Map.of());
+    }
+
+    // Índice de seguidores en memoria: usuarios, aristas y duración de la última carga
+    @GetMapping("/follow-graph-stats")
+    public ResponseEntity<Map<String, Number>> followGraphStats() {
+        return ResponseEntity.ok(followGraph.stats());
+    }
+
+    @GetMapping("/me")
+    public ResponseEntity<PublicUserResponse> me(AuthenticatedUser me) {
+        User user = userRepository.findById(me.getId())
                 .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
                         org.springframework.http.HttpStatus.NOT_FOUND, "User not found"));
-        long followersCount = user.getFollowers().size();
-        long followingCount = user.getFollowing().size();
+        long followersCount = user.getFollowersCount();
+        long followingCount = user.getFollowingCount();
         PublicUserResponse dto = new PublicUserResponse(
                 user.getId(), user.getFullName(), user.getUsername(), user.getEmail(), user.getCreatedAt(),
-                followersCount, followingCount, user.isPrivate(), user.getProfilePicture()
+                followersCount, followingCount, user.isPrivate(), mediaUrlSigner.sign(ImageVariant.MEDIUM.urlFor(user.getProfilePicture()))
         );
         return ResponseEntity.ok(dto);
     }
 
+    // "Personas que quizás conozcas": lectura de lo que precalculó RecommendationJob
+    @GetMapping("/me/suggestions")
+    public ResponseEntity<java.util.List<com.team.socialnetwork.dto.SuggestedUserResponse>> suggestions(
+            AuthenticatedUser me,
+            @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1) {
+            throw new org.springframework.web.server.ResponseStatusException(
+                    org.springframework.http.HttpStatus.BAD_REQUEST, "limit must be >= 1");
+        }
+        return ResponseEntity.ok(recommendationService.suggestionsFor(me.getId(), Math.min(limit, 50)));
+    }
+
     // Follow a user
     @PostMapping("/{userId}/follow")
-    public ResponseEntity<com.team.socialnetwork.dto.MessageResponse> follow(Authentication authentication,
+    public ResponseEntity<com.team.socialnetwork.dto.MessageResponse> follow(AuthenticatedUser principal,
                                                                              @PathVariable Long userId) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new org.springframework.web.server.ResponseStatusException(
-                    org.springframework.http.HttpStatus.UNAUTHORIZED, "Missing or invalid token");
-        }
-        String email = authentication.getName();
-        User me = userRepository.findByEmail(email)
-                .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
-                        org.springframework.http.HttpStatus.NOT_FOUND, "User not found"));
+        User me = userRepository.getReferenceById(principal.getId());
         if (me.getId().equals(userId)) {
             throw new org.springframework.web.server.ResponseStatusException(
                     org.springframework.http.HttpStatus.BAD_REQUEST, "You cannot follow yourself");
@@ -134,14 +203,14 @@ public class UsersController {
                 .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
                         org.springframework.http.HttpStatus.NOT_FOUND, "User not found"));
 
-        if (me.getFollowing().contains(target)) {
+        if (followEdgeRepository.existsEdge(me.getId(), target.getId())) {
             throw new org.springframework.web.server.ResponseStatusException(
                     org.springframework.http.HttpStatus.CONFLICT, "Already following");
         }
         if (target.isPrivate()) {
             if (followRequestRepository.existsByFollowerIdAndTargetId(me.getId(), target.getId())) {
                 System.out.println("🔔 Solicitud de follow duplicada detectada:");
-                System.out.println("   👤 Usuario: " + me.getFullName() + " (ID: " + me.getId() + ")");
+                System.out.println("   👤 Usuario: " + principal.getDisplayName() + " (ID: " + me.getId() + ")");
                 System.out.println("   🎯 Target: " + target.getFullName() + " (ID: " + target.getId() + ")");
                 System.out.println("   🔄 Actualizando notificación existente...");
                 
@@ -157,7 +226,7 @@ public class UsersController {
             // Crear notificación de solicitud de seguimiento
             try {
                 System.out.println("🔔 Enviando notificación FOLLOW_REQUEST:");
-                System.out.println("   👤 De: " + me.getFullName() + " (ID: " + me.getId() + ")");
+                System.out.println("   👤 De: " + principal.getDisplayName() + " (ID: " + me.getId() + ")");
                 System.out.println("   👥 Para: " + target.getFullName() + " (ID: " + target.getId() + ")");
                 
                 notificationService.createAndSendNotification(
@@ -178,8 +247,12 @@ public class UsersController {
             return ResponseEntity.status(org.springframework.http.HttpStatus.ACCEPTED)
                     .body(new com.team.socialnetwork.dto.MessageResponse("Follow request sent"));
         } else {
-            me.getFollowing().add(target);
-            userRepository.save(me);
+            if (!insertFollow(me.getId(), target.getId())) {
+                throw new org.springframework.web.server.ResponseStatusException(
+                        org.springframework.http.HttpStatus.CONFLICT, "Already following");
+            }
+            timelineService.onFollow(me.getId(), target.getId());
+            followGraph.onFollow(me.getId(), target.getId());
             
             // Crear notificación de seguimiento
             try {
@@ -201,22 +274,15 @@ public class UsersController {
 
     // Unfollow a user
     @DeleteMapping("/{userId}/follow")
-    public ResponseEntity<com.team.socialnetwork.dto.MessageResponse> unfollow(Authentication authentication,
+    public ResponseEntity<com.team.socialnetwork.dto.MessageResponse> unfollow(AuthenticatedUser principal,
                                                                                @PathVariable Long userId) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new org.springframework.web.server.ResponseStatusException(
-                    org.springframework.http.HttpStatus.UNAUTHORIZED, "Missing or invalid token");
-        }
-        String email = authentication.getName();
-        User me = userRepository.findByEmail(email)
-                .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
-                        org.springframework.http.HttpStatus.NOT_FOUND, "User not found"));
+        User me = userRepository.getReferenceById(principal.getId());
 
         User target = userRepository.findById(userId)
                 .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
                         org.springframework.http.HttpStatus.NOT_FOUND, "User not found"));
 
-        if (!me.getFollowing().contains(target)) {
+        if (!followEdgeService.unfollow(me.getId(), target.getId())) {
             // If there is a pending request, allow cancel by deleting it
             java.util.Optional<FollowRequest> fr = followRequestRepository.findByFollowerIdAndTargetId(me.getId(), target.getId());
             if (fr.isPresent()) {
@@ -234,8 +300,8 @@ public class UsersController {
             throw new org.springframework.web.server.ResponseStatusException(
                     org.springframework.http.HttpStatus.CONFLICT, "Not following yet");
         }
-        me.getFollowing().remove(target);
-        userRepository.save(me);
+        timelineService.onUnfollow(me.getId(), target.getId());
+        followGraph.onUnfollow(me.getId(), target.getId());
         
         // Eliminar notificación de seguimiento
         notificationService.removeNotification(
@@ -249,16 +315,9 @@ public class UsersController {
 
     // Approve a follow request from {userId} to me
     @PostMapping("/{userId}/follow/approve")
-    public ResponseEntity<com.team.socialnetwork.dto.MessageResponse> approveFollow(Authentication authentication,
+    public ResponseEntity<com.team.socialnetwork.dto.MessageResponse> approveFollow(AuthenticatedUser principal,
                                                                                     @PathVariable Long userId) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new org.springframework.web.server.ResponseStatusException(
-                    org.springframework.http.HttpStatus.UNAUTHORIZED, "Missing or invalid token");
-        }
-        String email = authentication.getName();
-        User me = userRepository.findByEmail(email)
-                .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
-                        org.springframework.http.HttpStatus.NOT_FOUND, "User not found"));
+        User me = userRepository.getReferenceById(principal.getId());
         User follower = userRepository.findById(userId)
                 .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
                         org.springframework.http.HttpStatus.NOT_FOUND, "Follower not found"));
@@ -268,8 +327,9 @@ public class UsersController {
                         org.springframework.http.HttpStatus.NOT_FOUND, "Follow request not found"));
         followRequestRepository.delete(fr);
         // Create following relation
-        follower.getFollowing().add(me);
-        userRepository.save(follower);
+        insertFollow(follower.getId(), me.getId());
+        timelineService.onFollow(follower.getId(), me.getId());
+        followGraph.onFollow(follower.getId(), me.getId());
         
         // Crear notificación de seguimiento aprobado
         notificationService.createAndSendNotification(
@@ -285,16 +345,8 @@ public class UsersController {
 
     // Reject a follow request from {userId} to me
     @PostMapping("/{userId}/follow/reject")
-    public ResponseEntity<com.team.socialnetwork.dto.MessageResponse> rejectFollow(Authentication authentication,
+    public ResponseEntity<com.team.socialnetwork.dto.MessageResponse> rejectFollow(AuthenticatedUser me,
                                                                                    @PathVariable Long userId) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new org.springframework.web.server.ResponseStatusException(
-                    org.springframework.http.HttpStatus.UNAUTHORIZED, "Missing or invalid token");
-        }
-        String email = authentication.getName();
-        User me = userRepository.findByEmail(email)
-                .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
-                        org.springframework.http.HttpStatus.NOT_FOUND, "User not found"));
         User follower = userRepository.findById(userId)
                 .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
                         org.springframework.http.HttpStatus.NOT_FOUND, "Follower not found"));
@@ -308,32 +360,20 @@ public class UsersController {
 
     // Remove a follower from my followers list
     @DeleteMapping("/me/followers/{followerId}")
-    public ResponseEntity<com.team.socialnetwork.dto.MessageResponse> removeFollower(Authentication authentication,
+    public ResponseEntity<com.team.socialnetwork.dto.MessageResponse> removeFollower(AuthenticatedUser principal,
                                                                                       @PathVariable Long followerId) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new org.springframework.web.server.ResponseStatusException(
-                    org.springframework.http.HttpStatus.UNAUTHORIZED, "Missing or invalid token");
-        }
-        String email = authentication.getName();
-        User me = userRepository.findByEmail(email)
-                .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
-                        org.springframework.http.HttpStatus.NOT_FOUND, "User not found"));
+        User me = userRepository.getReferenceById(principal.getId());
         User follower = userRepository.findById(followerId)
                 .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
                         org.springframework.http.HttpStatus.NOT_FOUND, "Follower not found"));
 
-        // Verificar que realmente es mi seguidor
-        if (!me.getFollowers().contains(follower) || !follower.getFollowing().contains(me)) {
+        // Eliminar la relación de seguimiento (0 filas = no era mi seguidor)
+        if (!followEdgeService.unfollow(follower.getId(), me.getId())) {
             throw new org.springframework.web.server.ResponseStatusException(
                     org.springframework.http.HttpStatus.CONFLICT, "User is not following you");
         }
-
-        // Eliminar la relación de seguimiento (eliminar seguidor)
-        me.getFollowers().remove(follower);
-        follower.getFollowing().remove(me);
-        
-        userRepository.save(me);
-        userRepository.save(follower);
+        timelineService.onUnfollow(follower.getId(), me.getId());
+        followGraph.onUnfollow(follower.getId(), me.getId());
         
         // Eliminar notificación de seguimiento que el seguidor pudo haber recibido
         notificationService.removeNotification(
@@ -380,7 +420,7 @@ public class UsersController {
         }
 
         java.util.List<SafeUser> resp = users.stream()
-                .map(u -> new SafeUser(u.getId(), u.getFullName(), u.getUsername(), u.getEmail(), u.getCreatedAt(), u.getProfilePicture()))
+                .map(u -> new SafeUser(u.getId(), u.getFullName(), u.getUsername(), u.getEmail(), u.getCreatedAt(), mediaUrlSigner.sign(ImageVariant.THUMB.urlFor(u.getProfilePicture()))))
                 .toList();
         return ResponseEntity.ok(resp);
     }
@@ -391,11 +431,11 @@ public class UsersController {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
                         org.springframework.http.HttpStatus.NOT_FOUND, "User not found"));
-        long followersCount = user.getFollowers().size();
-        long followingCount = user.getFollowing().size();
+        long followersCount = user.getFollowersCount();
+        long followingCount = user.getFollowingCount();
         PublicUserResponse dto = new PublicUserResponse(
                 user.getId(), user.getFullName(), user.getUsername(), user.getEmail(), user.getCreatedAt(),
-                followersCount, followingCount, user.isPrivate(), user.getProfilePicture()
+                followersCount, followingCount, user.isPrivate(), mediaUrlSigner.sign(ImageVariant.MEDIUM.urlFor(user.getProfilePicture()))
         );
         return ResponseEntity.ok(dto);
     }
@@ -407,7 +447,7 @@ public class UsersController {
                 .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
                         org.springframework.http.HttpStatus.NOT_FOUND, "User not found"));
         java.util.List<SafeUser> resp = user.getFollowers().stream()
-                .map(u -> new SafeUser(u.getId(), u.getFullName(), u.getUsername(), u.getEmail(), u.getCreatedAt(), u.getProfilePicture()))
+                .map(u -> new SafeUser(u.getId(), u.getFullName(), u.getUsername(), u.getEmail(), u.getCreatedAt(), mediaUrlSigner.sign(ImageVariant.THUMB.urlFor(u.getProfilePicture()))))
                 .toList();
         return ResponseEntity.ok(resp);
     }
@@ -419,41 +459,97 @@ public class UsersController {
                 .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
                         org.springframework.http.HttpStatus.NOT_FOUND, "User not found"));
         java.util.List<SafeUser> resp = user.getFollowing().stream()
-                .map(u -> new SafeUser(u.getId(), u.getFullName(), u.getUsername(), u.getEmail(), u.getCreatedAt(), u.getProfilePicture()))
+                .map(u -> new SafeUser(u.getId(), u.getFullName(), u.getUsername(), u.getEmail(), u.getCreatedAt(), mediaUrlSigner.sign(ImageVariant.THUMB.urlFor(u.getProfilePicture()))))
                 .toList();
         return ResponseEntity.ok(resp);
     }
 
+    // Modo cursor: ?cursor= (vacío para la primera página), del follow más reciente al más viejo
+    @GetMapping(value = "/{userId}/followers", params = "cursor")
+    public ResponseEntity<com.team.socialnetwork.dto.CursorPage<com.team.socialnetwork.dto.FollowUserResponse>> listFollowersByCursor(
+            @PathVariable Long userId,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        com.team.socialnetwork.dto.Cursor after = followListCursor(userId, cursor, size);
+        return ResponseEntity.ok(followListService.followers(userId, after, Math.min(size, 50)));
+    }
+
+    @GetMapping(value = "/{userId}/following", params = "cursor")
+    public ResponseEntity<com.team.socialnetwork.dto.CursorPage<com.team.socialnetwork.dto.FollowUserResponse>> listFollowingByCursor(
+            @PathVariable Long userId,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        com.team.socialnetwork.dto.Cursor after = followListCursor(userId, cursor, size);
+        return ResponseEntity.ok(followListService.following(userId, after, Math.min(size, 50)));
+    }
+
+    private com.team.socialnetwork.dto.Cursor followListCursor(Long userId, String cursor, int size) {
+        if (size < 1) {
+            throw new org.springframework.web.server.ResponseStatusException(
+                    org.springframework.http.HttpStatus.BAD_REQUEST, "size must be >= 1");
+        }
+        com.team.socialnetwork.dto.Cursor after = com.team.socialnetwork.dto.Cursor.decode(cursor);
+        if (!userRepository.existsById(userId)) {
+            throw new org.springframework.web.server.ResponseStatusException(
+                    org.springframework.http.HttpStatus.NOT_FOUND, "User not found");
+        }
+        return after;
+    }
+
     // Relationship between authenticated user and {userId}
     @GetMapping("/{userId}/relationship")
-    public ResponseEntity<RelationshipResponse> relationship(Authentication authentication,
+    public ResponseEntity<RelationshipResponse> relationship(AuthenticatedUser me,
                                                             @PathVariable Long userId) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new org.springframework.web.server.ResponseStatusException(
-                    org.springframework.http.HttpStatus.UNAUTHORIZED, "Missing or invalid token");
-        }
-        String email = authentication.getName();
-        User me = userRepository.findByEmail(email)
-                .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
-                        org.springframework.http.HttpStatus.NOT_FOUND, "User not found"));
         User target = userRepository.findById(userId)
                 .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
                         org.springframework.http.HttpStatus.NOT_FOUND, "Target user not found"));
 
-        boolean following = me.getFollowing().contains(target);
-        boolean followsYou = target.getFollowing().contains(me);
+        boolean following = followEdgeRepository.existsEdge(me.getId(), target.getId());
+        boolean followsYou = followEdgeRepository.existsEdge(target.getId(), me.getId());
         boolean requested = followRequestRepository.existsByFollowerIdAndTargetId(me.getId(), target.getId());
         boolean blocked = false; // not implemented yet
         return ResponseEntity.ok(new RelationshipResponse(following, followsYou, requested, blocked));
     }
 
+    /**
+     * Relación con varios usuarios a la vez (?ids=1,2,3, hasta MAX_RELATIONSHIP_IDS): cuatro consultas
+     * por conjunto sin importar cuántos ids lleguen. Devuelve un objeto id -> relación en el orden
+     * pedido; los ids que no existen se omiten.
+     */
+    @GetMapping("/relationships")
+    public ResponseEntity<Map<Long, RelationshipResponse>> relationships(AuthenticatedUser me,
+                                                                         @RequestParam java.util.List<Long> ids) {
+        java.util.Set<Long> requestedIds = new java.util.LinkedHashSet<>(ids);
+        requestedIds.remove(null);
+        if (requestedIds.isEmpty()) {
+            throw new org.springframework.web.server.ResponseStatusException(
+                    org.springframework.http.HttpStatus.BAD_REQUEST, "ids is required");
+        }
+        if (requestedIds.size() > MAX_RELATIONSHIP_IDS) {
+            throw new org.springframework.web.server.ResponseStatusException(
+                    org.springframework.http.HttpStatus.BAD_REQUEST, "At most " + MAX_RELATIONSHIP_IDS + " ids per request");
+        }
+        java.util.Set<Long> existing = new java.util.HashSet<>(userRepository.findExistingIds(requestedIds));
+        java.util.Set<Long> following = new java.util.HashSet<>(followEdgeRepository.findFollowedIdsAmong(me.getId(), requestedIds));
+        java.util.Set<Long> followsYou = new java.util.HashSet<>(followEdgeRepository.findFollowerIdsAmong(me.getId(), requestedIds));
+        java.util.Set<Long> requested = new java.util.HashSet<>(followRequestRepository.findTargetIdsRequestedBy(me.getId(), requestedIds));
+        Map<Long, RelationshipResponse> body = new java.util.LinkedHashMap<>();
+        for (Long id : requestedIds) {
+            if (existing.contains(id)) {
+                body.put(id, new RelationshipResponse(following.contains(id), followsYou.contains(id),
+                        requested.contains(id), false));
+            }
+        }
+        return ResponseEntity.ok(body);
+    }
+
     // Count followers of a user
     @GetMapping("/{userId}/followers/count")
     public ResponseEntity<java.util.Map<String, Long>> countFollowers(@PathVariable Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
                         org.springframework.http.HttpStatus.NOT_FOUND, "User not found"));
-        long count = user.getFollowers().size();
+        long count = user.getFollowersCount();
         java.util.Map<String, Long> body = new java.util.HashMap<>();
         body.put("count", count);
         return ResponseEntity.ok(body);
@@ -465,7 +561,7 @@ public class UsersController {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
                         org.springframework.http.HttpStatus.NOT_FOUND, "User not found"));
-        long count = user.getFollowing().size();
+        long count = user.getFollowingCount();
         java.util.Map<String, Long> body = new java.util.HashMap<>();
         body.put("count", count);
         return ResponseEntity.ok(body);
@@ -473,30 +569,15 @@ public class UsersController {
 
     // List posts of a user (respect privacy)
     @GetMapping("/{userId}/posts")
-    public ResponseEntity<?> listUserPosts(Authentication authentication,
+    public ResponseEntity<?> listUserPosts(AuthenticatedUser me,
                                            @PathVariable Long userId) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new org.springframework.web.server.ResponseStatusException(
-                    org.springframework.http.HttpStatus.UNAUTHORIZED, "Missing or invalid token");
-        }
-        String email = authentication.getName();
-        User me = userRepository.findByEmail(email)
-                .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
-                        org.springframework.http.HttpStatus.NOT_FOUND, "User not found"));
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
                         org.springframework.http.HttpStatus.NOT_FOUND, "User not found"));
         
         // Verificar si el perfil es privado y el usuario no tiene acceso
-        if (user.isPrivate() && !user.getId().equals(me.getId()) && !me.getFollowing().contains(user)) {
-            // En lugar de devolver 403, devolver 200 con información estructurada
-            Map<String, Object> privateProfileResponse = new HashMap<>();
-            privateProfileResponse.put("isPrivate", true);
-            privateProfileResponse.put("message", "Esta cuenta es privada");
-            privateProfileResponse.put("posts", new ArrayList<>());
-            privateProfileResponse.put("canFollow", !me.getFollowing().contains(user) && !user.getId().equals(me.getId()));
-            privateProfileResponse.put("userId", userId);
-            privateProfileResponse.put("username", user.getUsername());
+        Map<String, Object> privateProfileResponse = privateProfileResponse(me.getId(), user);
+        if (privateProfileResponse != null) {
             return ResponseEntity.ok(privateProfileResponse);
         }
         
@@ -506,7 +587,7 @@ public class UsersController {
                         p.getId(), 
                         p.getCreatedAt(), 
                         p.getDescription(), 
-                        p.getImage(), 
+                        mediaUrlSigner.sign(ImageVariant.MEDIUM.urlFor(p.getImage())), 
                         p.getAuthor().getUsername(), 
                         p.getAuthor().getId(),
                         new SafeUser(
@@ -515,27 +596,85 @@ public class UsersController {
                                 p.getAuthor().getUsername(),
                                 p.getAuthor().getEmail(),
                                 p.getAuthor().getCreatedAt(),
-                                p.getAuthor().getProfilePicture()
+                                mediaUrlSigner.sign(ImageVariant.THUMB.urlFor(p.getAuthor().getProfilePicture()))
                         )
                 ))
                 .collect(java.util.stream.Collectors.toList());
         return ResponseEntity.ok(resp);
     }
 
+    // Modo cursor: ?cursor= (vacío para la primera página) devuelve { items, nextCursor, hasMore }
+    @GetMapping(value = "/{userId}/posts", params = "cursor")
+    public ResponseEntity<?> listUserPostsByCursor(AuthenticatedUser me,
+                                                   @PathVariable Long userId,
+                                                   @RequestParam String cursor,
+                                                   @RequestParam(defaultValue = "10") int size) {
+        if (size < 1) {
+            throw new org.springframework.web.server.ResponseStatusException(
+                    org.springframework.http.HttpStatus.BAD_REQUEST, "size must be >= 1");
+        }
+        com.team.socialnetwork.dto.Cursor after = com.team.socialnetwork.dto.Cursor.decode(cursor);
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
+                        org.springframework.http.HttpStatus.NOT_FOUND, "User not found"));
+        Map<String, Object> privateProfileResponse = privateProfileResponse(me.getId(), user);
+        if (privateProfileResponse != null) {
+            return ResponseEntity.ok(privateProfileResponse);
+        }
+        return ResponseEntity.ok(userPostsService.page(user.getId(), after, Math.min(size, 50)));
+    }
+
+    // Modo stream: ?stream=true escribe el array JSON completo a medida que se lee de la base
+    @GetMapping(value = "/{userId}/posts", params = "stream=true")
+    public ResponseEntity<?> streamUserPosts(AuthenticatedUser me,
+                                            @PathVariable Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
+                        org.springframework.http.HttpStatus.NOT_FOUND, "User not found"));
+        Map<String, Object> privateProfileResponse = privateProfileResponse(me.getId(), user);
+        if (privateProfileResponse != null) {
+            return ResponseEntity.ok(privateProfileResponse);
+        }
+        Long authorId = user.getId();
+        org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody body =
+                out -> userPostsService.writeAll(authorId, out);
+        return ResponseEntity.ok()
+                .contentType(org.springframework.http.MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    // Inserta la relación y mueve los contadores; false si ya existía (incluida la carrera entre dos inserts)
+    private boolean insertFollow(Long followerId, Long followedId) {
+        try {
+            return followEdgeService.follow(followerId, followedId);
+        } catch (org.springframework.dao.DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    // Perfil privado sin acceso: en lugar de 403 se devuelve 200 con información estructurada (null si hay acceso)
+    private Map<String, Object> privateProfileResponse(Long viewerId, User user) {
+        if (!user.isPrivate() || user.getId().equals(viewerId) || followGraph.isFollowing(viewerId, user.getId())) {
+            return null;
+        }
+        Map<String, Object> privateProfileResponse = new HashMap<>();
+        privateProfileResponse.put("isPrivate", true);
+        privateProfileResponse.put("message", "Esta cuenta es privada");
+        privateProfileResponse.put("posts", new ArrayList<>());
+        privateProfileResponse.put("canFollow", !user.getId().equals(viewerId));
+        privateProfileResponse.put("userId", user.getId());
+        privateProfileResponse.put("username", user.getUsername());
+        return privateProfileResponse;
+    }
+
     // Deprecated endpoint removed: comments listing moved to /posts/{postId}/comments
 
     @PatchMapping("/me/password")
     public ResponseEntity<com.team.socialnetwork.dto.MessageResponse> changePassword(
-            Authentication authentication,
+            AuthenticatedUser me,
             @Valid @RequestBody ChangePasswordRequest request
     ) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new org.springframework.web.server.ResponseStatusException(
-                    org.springframework.http.HttpStatus.UNAUTHORIZED, "Missing or invalid token");
-        }
-
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
+        User user = userRepository.findById(me.getId())
                 .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
                         org.springframework.http.HttpStatus.NOT_FOUND, "User not found"));
 
@@ -545,29 +684,26 @@ public class UsersController {
                     org.springframework.http.HttpStatus.FORBIDDEN, "Incorrect password");
         }
 
-        // Prevent reusing the same password
-        if (passwordEncoder.matches(request.getNewPassword(), user.getPassword())) {
+        // Prevent reusing the same password: la actual ya se verificó, comparar en claro evita un segundo BCrypt
+        if (request.getNewPassword().equals(request.getCurrentPassword())) {
             throw new org.springframework.web.server.ResponseStatusException(
                     org.springframework.http.HttpStatus.CONFLICT, "New password must be different from the current one");
         }
 
         user.setPassword(passwordEncoder.encode(request.getNewPassword()));
         userRepository.save(user);
+        userLookupCache.invalidate(user.getId());
+        // Cierra todas las sesiones, incluida la actual: el cliente vuelve a hacer login
+        tokenRevocationList.revokeAllForUser(user.getId());
         return ResponseEntity.ok(new com.team.socialnetwork.dto.MessageResponse("Password updated successfully"));
     }
 
     @PatchMapping("/me/username")
     public ResponseEntity<com.team.socialnetwork.dto.MessageResponse> changeUsername(
-            Authentication authentication,
+            AuthenticatedUser me,
             @Valid @RequestBody ChangeUsernameRequest request
     ) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new org.springframework.web.server.ResponseStatusException(
-                    org.springframework.http.HttpStatus.UNAUTHORIZED, "Missing or invalid token");
-        }
-
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
+        User user = userRepository.findById(me.getId())
                 .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
                         org.springframework.http.HttpStatus.NOT_FOUND, "User not found"));
 
@@ -584,22 +720,17 @@ public class UsersController {
 
         user.setUsername(newUsername);
         userRepository.save(user);
+        userLookupCache.invalidate(user.getId());
         return ResponseEntity.ok(new com.team.socialnetwork.dto.MessageResponse("Username updated successfully"));
     }
 
     // Optional: allow changing non-unique full name
     @PatchMapping("/me/full-name")
     public ResponseEntity<com.team.socialnetwork.dto.MessageResponse> changeFullName(
-            Authentication authentication,
+            AuthenticatedUser me,
             @Valid @RequestBody ChangeNameRequest request
     ) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new org.springframework.web.server.ResponseStatusException(
-                    org.springframework.http.HttpStatus.UNAUTHORIZED, "Missing or invalid token");
-        }
-
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
+        User user = userRepository.findById(me.getId())
                 .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
                         org.springframework.http.HttpStatus.NOT_FOUND, "User not found"));
 
@@ -611,40 +742,34 @@ public class UsersController {
 
         user.setFullName(newFullName);
         userRepository.save(user);
+        userLookupCache.invalidate(user.getId());
         return ResponseEntity.ok(new com.team.socialnetwork.dto.MessageResponse("Full name updated successfully"));
     }
 
     @DeleteMapping("/me")
-    public ResponseEntity<com.team.socialnetwork.dto.MessageResponse> deleteAccount(Authentication authentication) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new org.springframework.web.server.ResponseStatusException(
-                    org.springframework.http.HttpStatus.UNAUTHORIZED, "Missing or invalid token");
-        }
-
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
+    public ResponseEntity<com.team.socialnetwork.dto.MessageResponse> deleteAccount(AuthenticatedUser me) {
+        User user = userRepository.findById(me.getId())
                 .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
                         org.springframework.http.HttpStatus.NOT_FOUND, "User not found"));
 
         // Ensure comment likes (not mapped in entity) are removed first
         commentLikeRepository.deleteByUserId(user.getId());
+        timelineService.purgeUser(user.getId());
+        followEdgeService.removeUser(user.getId());
+        followGraph.onUserDeleted(user.getId());
 
         userRepository.delete(user);
+        userLookupCache.invalidate(user.getId());
+        tokenRevocationList.revokeAllForUser(user.getId());
         return ResponseEntity.ok(new com.team.socialnetwork.dto.MessageResponse("Account deleted successfully"));
     }
 
     @PatchMapping("/me/profile")
     public ResponseEntity<com.team.socialnetwork.dto.MessageResponse> updateProfile(
-            Authentication authentication,
+            AuthenticatedUser me,
             @RequestBody UpdateProfileRequest request
     ) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new org.springframework.web.server.ResponseStatusException(
-                    org.springframework.http.HttpStatus.UNAUTHORIZED, "Missing or invalid token");
-        }
-
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
+        User user = userRepository.findById(me.getId())
                 .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
                         org.springframework.http.HttpStatus.NOT_FOUND, "User not found"));
 
@@ -655,6 +780,7 @@ public class UsersController {
         }
 
         userRepository.save(user);
+        userLookupCache.invalidate(user.getId());
         return ResponseEntity.ok(new com.team.socialnetwork.dto.MessageResponse("Profile updated successfully"));
     }
 
@@ -663,14 +789,8 @@ public class UsersController {
      * Solo aplicable si el usuario tiene perfil privado
      */
     @GetMapping("/me/follow-requests")
-    public ResponseEntity<java.util.List<FollowRequestResponse>> getPendingFollowRequests(Authentication authentication) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new org.springframework.web.server.ResponseStatusException(
-                    org.springframework.http.HttpStatus.UNAUTHORIZED, "Missing or invalid token");
-        }
-
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
+    public ResponseEntity<java.util.List<FollowRequestResponse>> getPendingFollowRequests(AuthenticatedUser me) {
+        User user = userRepository.findById(me.getId())
                 .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
                         org.springframework.http.HttpStatus.NOT_FOUND, "User not found"));
 
@@ -702,27 +822,16 @@ public class UsersController {
      */
     @PatchMapping("/me/follow-requests/{requestId}")
     public ResponseEntity<com.team.socialnetwork.dto.MessageResponse> handleFollowRequest(
-            Authentication authentication,
+            AuthenticatedUser me,
             @PathVariable Long requestId,
             @jakarta.validation.Valid @RequestBody FollowRequestActionRequest actionRequest) {
-        
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new org.springframework.web.server.ResponseStatusException(
-                    org.springframework.http.HttpStatus.UNAUTHORIZED, "Missing or invalid token");
-        }
-
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
-                        org.springframework.http.HttpStatus.NOT_FOUND, "User not found"));
-
         // Buscar la solicitud
         com.team.socialnetwork.entity.FollowRequest request = followRequestRepository.findById(requestId)
                 .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
                         org.springframework.http.HttpStatus.NOT_FOUND, "Follow request not found"));
 
         // Verificar que la solicitud sea para el usuario autenticado
-        if (!request.getTarget().getId().equals(user.getId())) {
+        if (!request.getTarget().getId().equals(me.getId())) {
             throw new org.springframework.web.server.ResponseStatusException(
                     org.springframework.http.HttpStatus.FORBIDDEN, "This follow request is not for you");
         }
@@ -739,11 +848,9 @@ public class UsersController {
             User target = request.getTarget();
             
             // Añadir la relación de seguimiento
-            follower.getFollowing().add(target);
-            target.getFollowers().add(follower);
-            
-            userRepository.save(follower);
-            userRepository.save(target);
+            insertFollow(follower.getId(), target.getId());
+            timelineService.onFollow(follower.getId(), target.getId());
+            followGraph.onFollow(follower.getId(), target.getId());
             
             // Eliminar la solicitud
             followRequestRepository.delete(request);
@@ -770,22 +877,17 @@ public class UsersController {
      */
     @PatchMapping("/me/profile-picture")
     public ResponseEntity<com.team.socialnetwork.dto.MessageResponse> updateProfilePicture(
-            Authentication authentication,
+            AuthenticatedUser me,
             @Valid @RequestBody UpdateProfilePictureRequest request) {
-        
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new org.springframework.web.server.ResponseStatusException(
-                    org.springframework.http.HttpStatus.UNAUTHORIZED, "Missing or invalid token");
-        }
-
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
+        User user = userRepository.findById(me.getId())
                 .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
                         org.springframework.http.HttpStatus.NOT_FOUND, "User not found"));
 
-        // Actualizar la foto de perfil (puede ser null para eliminar)
-        user.setProfilePicture(request.getProfilePicture());
+        // Actualizar la foto de perfil (puede ser null para eliminar); el base64 pasa al almacén de media
+        user.setProfilePicture(mediaStore.toReference(request.getProfilePicture()));
         userRepository.save(user);
+        userLookupCache.invalidate(user.getId());
+        imageVariantService.schedule(user.getProfilePicture());
 
         String message = request.getProfilePicture() == null || request.getProfilePicture().trim().isEmpty()
                 ? "Profile picture removed successfully"
@@ -0,0 +1,35 @@
+package com.team.socialnetwork.dto;
+
+import java.time.Instant;
+
+/**
+ * Entrada de un listado de seguidores/seguidos: sin email ni imagen base64.
+ */
+public class FollowUserResponse {
+    private Long id;
+    private String name;
+    private String username;
+    private String profilePicture;
+    private Instant followedAt;
+
+    public FollowUserResponse() {}
+
+    public FollowUserResponse(Long id, String name, String username, String profilePicture, Instant followedAt) {
+        this.id = id;
+        this.name = name;
+        this.username = username;
+        this.profilePicture = profilePicture;
+        this.followedAt = followedAt;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+    public String getProfilePicture() { return profilePicture; }
+    public void setProfilePicture(String profilePicture) { this.profilePicture = profilePicture; }
+    public Instant getFollowedAt() { return followedAt; }
+    public void setFollowedAt(Instant followedAt) { this.followedAt = followedAt; }
+}
@@ -0,0 +1,33 @@
+package com.team.socialnetwork.dto;
+
+/**
+ * "Personas que quizás conozcas": el candidato y cuántas de las personas que sigo lo siguen.
+ */
+public class SuggestedUserResponse {
+    private Long id;
+    private String name;
+    private String username;
+    private String profilePicture;
+    private int mutualCount;
+
+    public SuggestedUserResponse() {}
+
+    public SuggestedUserResponse(Long id, String name, String username, String profilePicture, int mutualCount) {
+        this.id = id;
+        this.name = name;
+        this.username = username;
+        this.profilePicture = profilePicture;
+        this.mutualCount = mutualCount;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+    public String getProfilePicture() { return profilePicture; }
+    public void setProfilePicture(String profilePicture) { this.profilePicture = profilePicture; }
+    public int getMutualCount() { return mutualCount; }
+    public void setMutualCount(int mutualCount) { this.mutualCount = mutualCount; }
+}
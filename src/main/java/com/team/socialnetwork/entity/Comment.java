@@ -1,11 +1,14 @@
 package com.team.socialnetwork.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import java.time.Instant;
 
 @Entity
-@Table(name = "comments")
+@Table(name = "comments", indexes = {
+        @Index(name = "idx_comments_post", columnList = "post_id")
+})
 public class Comment {
 
     @Id
@@ -27,6 +30,11 @@ public class Comment {
     @JoinColumn(name = "author_id", nullable = false, foreignKey = @ForeignKey(name = "fk_comment_author"))
     private User author;
 
+    // Contador denormalizado: solo se modifica con UPDATE atómicos (CommentRepository) y el reconciliador
+    @ColumnDefault("0")
+    @Column(name = "like_count", nullable = false, updatable = false)
+    private long likeCount;
+
     public Comment() {}
 
     public Comment(String text, Post post, User author) {
@@ -45,4 +53,6 @@ public class Comment {
     public void setPost(Post post) { this.post = post; }
     public User getAuthor() { return author; }
     public void setAuthor(User author) { this.author = author; }
+    public long getLikeCount() { return likeCount; }
+    public void setLikeCount(long likeCount) { this.likeCount = likeCount; }
 }
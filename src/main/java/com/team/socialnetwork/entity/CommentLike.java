@@ -8,6 +8,8 @@ import java.time.Instant;
 @Entity
 @Table(name = "comment_likes", uniqueConstraints = {
         @UniqueConstraint(name = "uk_comment_like_user_comment", columnNames = {"user_id", "comment_id"})
+}, indexes = {
+        @Index(name = "idx_comment_likes_comment_created", columnList = "comment_id, created_at, id")
 })
 public class CommentLike {
 
@@ -0,0 +1,67 @@
+package com.team.socialnetwork.entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Registro de altas y bajas en user_following, para que FollowGraph de las demás instancias las
+ * incorpore en segundos en vez de esperar al rebuild. followedId null = baja de cuenta de followerId.
+ * Solo hace falta hasta que todas las instancias lo leyeron; el rebuild purga las filas viejas.
+ */
+@Entity
+@Table(name = "follow_changes", indexes = {
+        @Index(name = "idx_follow_changes_created", columnList = "created_at")
+})
+public class FollowChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "follower_id", nullable = false)
+    private Long followerId;
+
+    @Column(name = "followed_id")
+    private Long followedId;
+
+    // true = follow, false = unfollow o baja
+    @Column(name = "follow", nullable = false)
+    private boolean follow;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    public FollowChange() {}
+
+    public static FollowChange follow(Long followerId, Long followedId) {
+        return of(followerId, followedId, true);
+    }
+
+    public static FollowChange unfollow(Long followerId, Long followedId) {
+        return of(followerId, followedId, false);
+    }
+
+    public static FollowChange userDeleted(Long userId) {
+        return of(userId, null, false);
+    }
+
+    private static FollowChange of(Long followerId, Long followedId, boolean follow) {
+        FollowChange change = new FollowChange();
+        change.followerId = followerId;
+        change.followedId = followedId;
+        change.follow = follow;
+        change.createdAt = Instant.now();
+        return change;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getFollowerId() { return followerId; }
+    public void setFollowerId(Long followerId) { this.followerId = followerId; }
+    public Long getFollowedId() { return followedId; }
+    public void setFollowedId(Long followedId) { this.followedId = followedId; }
+    public boolean isFollow() { return follow; }
+    public void setFollow(boolean follow) { this.follow = follow; }
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,80 @@
+package com.team.socialnetwork.entity;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+import org.hibernate.annotations.ColumnDefault;
+
+/**
+ * Una fila de user_following (followerId sigue a targetId) como entidad propia, para consultar o
+ * modificar una relación con una sola sentencia en lugar de cargar User.following/User.followers.
+ * Hibernate ordena las columnas de la PK por su cuenta (hoy queda (followed_id, follower_id)), así que
+ * (follower_id, followed_id) va como índice explícito: "¿A sigue a B?" y el recorrido de FollowGraph.
+ * Los listados por fecha de follow usan (followed_id, created_at, follower_id) para los seguidores
+ * y (follower_id, created_at, followed_id) para los seguidos.
+ * created_at tiene default en la base para las filas que se insertan vía User.following; las
+ * anteriores a la columna las completa FollowListService al arrancar.
+ * Como en FollowRequest, el seguido es "target".
+ */
+@Entity
+@Table(name = "user_following", indexes = {
+        @Index(name = "idx_user_following_follower", columnList = "follower_id, followed_id"),
+        @Index(name = "idx_user_following_followers_time", columnList = "followed_id, created_at, follower_id"),
+        @Index(name = "idx_user_following_following_time", columnList = "follower_id, created_at, followed_id")
+})
+public class FollowEdge {
+
+    @EmbeddedId
+    private Key id;
+
+    @ColumnDefault("current_timestamp")
+    @Column(name = "created_at")
+    private Instant createdAt;
+
+    public FollowEdge() {}
+
+    public FollowEdge(Long followerId, Long targetId) {
+        this.id = new Key(followerId, targetId);
+        this.createdAt = Instant.now();
+    }
+
+    public Key getId() { return id; }
+    public Long getFollowerId() { return id.followerId; }
+    public Long getTargetId() { return id.targetId; }
+    public Instant getCreatedAt() { return createdAt; }
+
+    @Embeddable
+    public static class Key implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        @Column(name = "follower_id", nullable = false)
+        private Long followerId;
+
+        @Column(name = "followed_id", nullable = false)
+        private Long targetId;
+
+        public Key() {}
+
+        public Key(Long followerId, Long targetId) {
+            this.followerId = followerId;
+            this.targetId = targetId;
+        }
+
+        public Long getFollowerId() { return followerId; }
+        public Long getTargetId() { return targetId; }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key other)) return false;
+            return Objects.equals(followerId, other.followerId) && Objects.equals(targetId, other.targetId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(followerId, targetId);
+        }
+    }
+}
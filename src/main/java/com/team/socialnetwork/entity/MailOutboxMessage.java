@@ -0,0 +1,98 @@
+package com.team.socialnetwork.entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Mail pendiente de envío, escrito en la misma transacción que lo origina (registro, pedido de reseteo).
+ * MailOutboxDispatcher lo toma (claimedUntil hace de lease entre instancias), lo envía y lo marca SENT;
+ * si falla reintenta con backoff exponencial hasta FAILED. El token se borra una vez enviado.
+ */
+@Entity
+@Table(name = "mail_outbox", indexes = {
+        @Index(name = "idx_mail_outbox_due", columnList = "status, next_attempt_at")
+})
+public class MailOutboxMessage {
+
+    public enum MailKind {
+        CONFIRM_EMAIL,
+        PASSWORD_RESET
+    }
+
+    public enum Status {
+        PENDING,
+        SENT,
+        FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private MailKind kind;
+
+    // Token del link (confirmación o reseteo); null después de enviado
+    @Column(length = 2048)
+    private String token;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status = Status.PENDING;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    // Tomado por un dispatcher hasta este instante; vencido, otro lo puede volver a tomar
+    @Column(name = "claimed_until")
+    private Instant claimedUntil;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "sent_at")
+    private Instant sentAt;
+
+    public MailOutboxMessage() {}
+
+    public MailOutboxMessage(String recipient, MailKind kind, String token) {
+        this.recipient = recipient;
+        this.kind = kind;
+        this.token = token;
+        this.createdAt = Instant.now();
+        this.nextAttemptAt = this.createdAt;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getRecipient() { return recipient; }
+    public void setRecipient(String recipient) { this.recipient = recipient; }
+    public MailKind getKind() { return kind; }
+    public void setKind(MailKind kind) { this.kind = kind; }
+    public String getToken() { return token; }
+    public void setToken(String token) { this.token = token; }
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+    public Instant getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(Instant nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+    public Instant getClaimedUntil() { return claimedUntil; }
+    public void setClaimedUntil(Instant claimedUntil) { this.claimedUntil = claimedUntil; }
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+    public Instant getSentAt() { return sentAt; }
+    public void setSentAt(Instant sentAt) { this.sentAt = sentAt; }
+}
@@ -7,6 +7,8 @@ import java.time.Instant;
 @Entity
 @Table(name = "post_likes", uniqueConstraints = {
         @UniqueConstraint(name = "uk_like_user_post", columnNames = {"user_id", "post_id"})
+}, indexes = {
+        @Index(name = "idx_post_likes_post_created", columnList = "post_id, created_at, id")
 })
 public class PostLike {
 
@@ -0,0 +1,70 @@
+package com.team.socialnetwork.entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Revocación de access tokens. Con jti revoca un solo token (logout); sin jti revoca todos los tokens
+ * del usuario emitidos antes de revokedBefore (cambio/reseteo de contraseña, baja de cuenta).
+ * Pasado expiresAt ya no queda ningún token vivo al que aplique y la fila se puede borrar.
+ */
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "idx_revoked_tokens_created", columnList = "created_at"),
+        @Index(name = "idx_revoked_tokens_expires", columnList = "expires_at")
+})
+public class RevokedToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // null = revocación de todos los tokens del usuario
+    @Column(name = "jti", length = 64)
+    private String jti;
+
+    @Column(name = "revoked_before")
+    private Instant revokedBefore;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    public RevokedToken() {}
+
+    public static RevokedToken forToken(Long userId, String jti, Instant expiresAt) {
+        RevokedToken revoked = new RevokedToken();
+        revoked.userId = userId;
+        revoked.jti = jti;
+        revoked.expiresAt = expiresAt;
+        revoked.createdAt = Instant.now();
+        return revoked;
+    }
+
+    public static RevokedToken forUser(Long userId, Instant revokedBefore, Instant expiresAt) {
+        RevokedToken revoked = new RevokedToken();
+        revoked.userId = userId;
+        revoked.revokedBefore = revokedBefore;
+        revoked.expiresAt = expiresAt;
+        revoked.createdAt = Instant.now();
+        return revoked;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public String getJti() { return jti; }
+    public void setJti(String jti) { this.jti = jti; }
+    public Instant getRevokedBefore() { return revokedBefore; }
+    public void setRevokedBefore(Instant revokedBefore) { this.revokedBefore = revokedBefore; }
+    public Instant getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(Instant expiresAt) { this.expiresAt = expiresAt; }
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,57 @@
+package com.team.socialnetwork.entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Entrada del timeline materializado de un usuario: un post de alguien a quien sigue.
+ * Solo guarda ids y la fecha del post para que leer el feed sea un rango acotado por índice.
+ */
+@Entity
+@Table(name = "timeline_entries", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_timeline_owner_post", columnNames = {"owner_id", "post_id"})
+}, indexes = {
+        @Index(name = "idx_timeline_owner_created", columnList = "owner_id, created_at, post_id"),
+        @Index(name = "idx_timeline_post", columnList = "post_id"),
+        @Index(name = "idx_timeline_author", columnList = "author_id")
+})
+public class TimelineEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Dueño del timeline (el seguidor)
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    @Column(name = "post_id", nullable = false)
+    private Long postId;
+
+    @Column(name = "author_id", nullable = false)
+    private Long authorId;
+
+    // Copia de posts.created_at, usada para ordenar sin tocar la tabla de posts
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    public TimelineEntry() {}
+
+    public TimelineEntry(Long ownerId, Long postId, Long authorId, Instant createdAt) {
+        this.ownerId = ownerId;
+        this.postId = postId;
+        this.authorId = authorId;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getOwnerId() { return ownerId; }
+    public void setOwnerId(Long ownerId) { this.ownerId = ownerId; }
+    public Long getPostId() { return postId; }
+    public void setPostId(Long postId) { this.postId = postId; }
+    public Long getAuthorId() { return authorId; }
+    public void setAuthorId(Long authorId) { this.authorId = authorId; }
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+}
@@ -6,6 +6,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 
 import jakarta.persistence.CascadeType;
@@ -58,6 +59,25 @@ public class User {
     @Column(name = "profile_picture", columnDefinition = "TEXT")
     private String profilePicture; // Base64 or URL/path
 
+    // Contadores denormalizados: solo se modifican con UPDATE atómicos (UserRepository) y el reconciliador
+    @ColumnDefault("0")
+    @Column(name = "followers_count", nullable = false, updatable = false)
+    private long followersCount;
+
+    @ColumnDefault("0")
+    @Column(name = "following_count", nullable = false, updatable = false)
+    private long followingCount;
+
+    // Modo del autor en el feed híbrido (true = sus posts se leen en pull); lo cambian TimelineService y el reconciliador
+    @ColumnDefault("false")
+    @Column(name = "feed_pull", nullable = false, updatable = false)
+    private boolean feedPull;
+
+    // true cuando el timeline ya se reconstruyó una vez desde user_following (TimelineService)
+    @ColumnDefault("false")
+    @Column(name = "timeline_rebuilt", nullable = false, updatable = false)
+    private boolean timelineRebuilt;
+
     @OneToMany(mappedBy = "author", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Post> posts = new ArrayList<>();
 
@@ -106,6 +126,12 @@ public class User {
     public void setPrivate(boolean aPrivate) { isPrivate = aPrivate; }
     public String getProfilePicture() { return profilePicture; }
     public void setProfilePicture(String profilePicture) { this.profilePicture = profilePicture; }
+    public long getFollowersCount() { return followersCount; }
+    public void setFollowersCount(long followersCount) { this.followersCount = followersCount; }
+    public long getFollowingCount() { return followingCount; }
+    public void setFollowingCount(long followingCount) { this.followingCount = followingCount; }
+    public boolean isFeedPull() { return feedPull; }
+    public void setFeedPull(boolean feedPull) { this.feedPull = feedPull; }
     public List<Post> getPosts() { return posts; }
     public void setPosts(List<Post> posts) { this.posts = posts; }
     public List<Comment> getComments() { return comments; }
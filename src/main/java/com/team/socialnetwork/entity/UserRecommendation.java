@@ -0,0 +1,53 @@
+package com.team.socialnetwork.entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Sugerencia precalculada de "personas que quizás conozcas": candidateId es seguido por mutualCount
+ * de las personas que sigue userId. Las escribe RecommendationJob; leer las de un usuario es un rango
+ * del índice (user_id, ordinal).
+ */
+@Entity
+@Table(name = "user_recommendations", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_recommendation_user_ordinal", columnNames = {"user_id", "ordinal"})
+})
+public class UserRecommendation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "candidate_id", nullable = false)
+    private Long candidateId;
+
+    // Posición en el top-K del usuario (0 = mejor)
+    @Column(name = "ordinal", nullable = false)
+    private int ordinal;
+
+    @Column(name = "mutual_count", nullable = false)
+    private int mutualCount;
+
+    @Column(name = "computed_at", nullable = false)
+    private Instant computedAt;
+
+    public UserRecommendation() {}
+
+    public UserRecommendation(Long userId, Long candidateId, int ordinal, int mutualCount, Instant computedAt) {
+        this.userId = userId;
+        this.candidateId = candidateId;
+        this.ordinal = ordinal;
+        this.mutualCount = mutualCount;
+        this.computedAt = computedAt;
+    }
+
+    public Long getId() { return id; }
+    public Long getUserId() { return userId; }
+    public Long getCandidateId() { return candidateId; }
+    public int getOrdinal() { return ordinal; }
+    public int getMutualCount() { return mutualCount; }
+    public Instant getComputedAt() { return computedAt; }
+}
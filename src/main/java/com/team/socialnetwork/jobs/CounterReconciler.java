@@ -0,0 +1,69 @@
+package com.team.socialnetwork.jobs;
+
+import com.team.socialnetwork.repository.CommentRepository;
+import com.team.socialnetwork.repository.PostRepository;
+import com.team.socialnetwork.repository.UserRepository;
+import com.team.socialnetwork.service.counter.LikeCounterBuffer;
+import com.team.socialnetwork.service.feed.TimelineService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Repara la deriva de los contadores denormalizados (posts.like_count, posts.comment_count,
+ * comments.like_count, users.followers_count/following_count), p. ej. por borrados en cascada de
+ * cuentas o por carreras entre el INSERT del like y su UPDATE de contador. Solo reescribe las filas que no coinciden.
+ * Antes vuelca LikeCounterBuffer y deja fuera los posts con deltas que siguen pendientes aquí o con likes de los
+ * últimos recentLikesSeconds (su delta puede estar todavía en el buffer de otra instancia).
+ * Con followers_count ya reparado, pasa a pull a los autores que superan el umbral del feed.
+ */
+@Component
+public class CounterReconciler {
+    private static final Logger log = LoggerFactory.getLogger(CounterReconciler.class);
+
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+    private final LikeCounterBuffer likeCounterBuffer;
+    private final UserRepository userRepository;
+    private final TimelineService timelineService;
+    private final long recentLikesSeconds;
+
+    public CounterReconciler(PostRepository postRepository, CommentRepository commentRepository,
+                             LikeCounterBuffer likeCounterBuffer, UserRepository userRepository,
+                             TimelineService timelineService,
+                             @Value("${counters.reconcile.recentLikesSeconds:60}") long recentLikesSeconds) {
+        this.postRepository = postRepository;
+        this.commentRepository = commentRepository;
+        this.likeCounterBuffer = likeCounterBuffer;
+        this.userRepository = userRepository;
+        this.timelineService = timelineService;
+        this.recentLikesSeconds = recentLikesSeconds;
+    }
+
+    // Interval configurable via counters.reconcile.fixedDelay
+    @Scheduled(fixedDelayString = "${counters.reconcile.fixedDelay:3600000}",
+               initialDelayString = "${counters.reconcile.initialDelay:60000}")
+    public void reconcile() {
+        // La foto del buffer se toma antes del UPDATE: vaciarlo primero deja fuera solo lo que llegue mientras tanto
+        likeCounterBuffer.flush();
+        java.util.Set<Long> buffered = likeCounterBuffer.pendingPostIds();
+        java.time.Instant recentSince = java.time.Instant.now().minusSeconds(recentLikesSeconds);
+        // "not in ()" no es SQL válido: id centinela cuando no hay pendientes
+        int postLikes = postRepository.reconcileLikeCounts(buffered.isEmpty() ? java.util.List.of(-1L) : buffered,
+                recentSince);
+        int postComments = postRepository.reconcileCommentCounts();
+        int commentLikes = commentRepository.reconcileLikeCounts();
+        int followers = userRepository.reconcileFollowersCounts();
+        int following = userRepository.reconcileFollowingCounts();
+        if (postLikes + postComments + commentLikes + followers + following > 0) {
+            log.info("Repaired counter drift: {} post like counts, {} post comment counts, {} comment like counts, " +
+                    "{} followers counts, {} following counts", postLikes, postComments, commentLikes, followers, following);
+        }
+        int pulled = timelineService.markPullAuthors();
+        if (pulled > 0) {
+            log.info("Switched {} authors to pull mode", pulled);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.team.socialnetwork.jobs;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.team.socialnetwork.service.graph.AdjacencySnapshot;
+import com.team.socialnetwork.service.graph.FollowGraph;
+import com.team.socialnetwork.service.recommendation.FollowRecommender;
+import com.team.socialnetwork.service.recommendation.RecommendationService;
+
+/**
+ * Recalcula "personas que quizás conozcas" sobre un snapshot de FollowGraph.
+ * Incremental: solo los usuarios cuyo vecindario cambió desde la corrida anterior, es decir quienes
+ * siguieron/dejaron de seguir a alguien y quienes siguen a esos (su segundo nivel cambió).
+ * Completa: la primera corrida y luego cada fullRefreshHours, porque los cambios hechos en otras
+ * instancias solo llegan a FollowGraph por su rebuild, sin marcar a nadie como cambiado.
+ * Calcula y escribe de a writeBatchSize usuarios por transacción (en memoria solo las sugerencias
+ * de la tanda en curso); si una tanda falla, sus usuarios quedan pendientes para la próxima corrida.
+ */
+@Component
+public class RecommendationJob {
+    private static final Logger log = LoggerFactory.getLogger(RecommendationJob.class);
+
+    private final FollowGraph followGraph;
+    private final FollowRecommender recommender;
+    private final RecommendationService recommendationService;
+    private final long fullRefreshNanos;
+    private final int writeBatchSize;
+
+    // Solo lo usa el hilo del scheduler (fixedDelay no solapa corridas)
+    private final Set<Long> pending = new HashSet<>();
+    private long lastFullRefresh;
+    private boolean fullRefreshDone;
+
+    public RecommendationJob(FollowGraph followGraph, FollowRecommender recommender,
+                             RecommendationService recommendationService,
+                             @Value("${recommendations.fullRefreshHours:24}") long fullRefreshHours,
+                             @Value("${recommendations.writeBatchSize:500}") int writeBatchSize) {
+        this.followGraph = followGraph;
+        this.recommender = recommender;
+        this.recommendationService = recommendationService;
+        this.fullRefreshNanos = TimeUnit.HOURS.toNanos(fullRefreshHours);
+        this.writeBatchSize = writeBatchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${recommendations.refreshDelay:900000}",
+               initialDelayString = "${recommendations.initialDelay:120000}")
+    public synchronized void refresh() {
+        long start = System.nanoTime();
+        pending.addAll(followGraph.drainChanged());
+        AdjacencySnapshot snapshot = followGraph.snapshot();
+        boolean full = !fullRefreshDone || start - lastFullRefresh >= fullRefreshNanos;
+        long[] userIds = full ? everyone(snapshot) : affected(snapshot, pending);
+        pending.clear();
+        if (userIds.length == 0) {
+            if (full) {
+                fullRefreshDone = true;
+                lastFullRefresh = start;
+            }
+            return;
+        }
+
+        int failed = 0;
+        for (int from = 0; from < userIds.length; from += writeBatchSize) {
+            int to = Math.min(userIds.length, from + writeBatchSize);
+            long[] batchIds = Arrays.copyOfRange(userIds, from, to);
+            List<Long> batch = Arrays.stream(batchIds).boxed().toList();
+            try {
+                recommendationService.replace(batch, recommender.recommend(snapshot, batchIds));
+            } catch (RuntimeException e) {
+                log.warn("Could not store recommendations for {} users: {}", batch.size(), e.getMessage());
+                pending.addAll(batch);
+                failed += batch.size();
+            }
+        }
+        if (full && failed == 0) {
+            fullRefreshDone = true;
+            lastFullRefresh = start;
+        }
+        log.info("Recommendations refreshed ({}): {} users over {} edges in {} ms", full ? "full" : "incremental",
+                userIds.length - failed, snapshot.edgeCount(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    // Todos los que siguen a alguien, más quienes tenían sugerencias (si ya no siguen a nadie se borran)
+    private long[] everyone(AdjacencySnapshot snapshot) {
+        Set<Long> ids = new HashSet<>(recommendationService.usersWithSuggestions());
+        for (int i = 0; i < snapshot.userCount(); i++) {
+            ids.add(snapshot.userAt(i));
+        }
+        return ids.stream().mapToLong(Long::longValue).sorted().toArray();
+    }
+
+    // Los cambiados y sus seguidores: una pasada por todas las aristas del snapshot
+    private static long[] affected(AdjacencySnapshot snapshot, Set<Long> changed) {
+        if (changed.isEmpty()) {
+            return new long[0];
+        }
+        long[] sortedChanged = changed.stream().mapToLong(Long::longValue).sorted().toArray();
+        Set<Long> ids = new HashSet<>(changed);
+        for (int i = 0; i < snapshot.userCount(); i++) {
+            for (int j = snapshot.start(i); j < snapshot.end(i); j++) {
+                if (Arrays.binarySearch(sortedChanged, snapshot.target(j)) >= 0) {
+                    ids.add(snapshot.userAt(i));
+                    break;
+                }
+            }
+        }
+        return ids.stream().mapToLong(Long::longValue).sorted().toArray();
+    }
+}
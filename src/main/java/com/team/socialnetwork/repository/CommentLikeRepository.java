@@ -3,15 +3,30 @@ package com.team.socialnetwork.repository;
 import com.team.socialnetwork.entity.CommentLike;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+
 public interface CommentLikeRepository extends JpaRepository<CommentLike, Long> {
     long countByCommentId(Long commentId);
     Page<CommentLike> findByCommentId(Long commentId, Pageable pageable);
+
+    @Query("select cl from CommentLike cl join fetch cl.user where cl.comment.id = :commentId " +
+           "order by cl.createdAt desc, cl.id desc")
+    Slice<CommentLike> findLatestByCommentId(@Param("commentId") Long commentId, Pageable pageable);
+
+    @Query("select cl from CommentLike cl join fetch cl.user where cl.comment.id = :commentId and " +
+           "(cl.createdAt < :createdAt or (cl.createdAt = :createdAt and cl.id < :id)) " +
+           "order by cl.createdAt desc, cl.id desc")
+    Slice<CommentLike> findByCommentIdBefore(@Param("commentId") Long commentId,
+                                             @Param("createdAt") Instant createdAt,
+                                             @Param("id") Long id,
+                                             Pageable pageable);
     boolean existsByUserIdAndCommentId(Long userId, Long commentId);
 
     @Transactional
@@ -3,8 +3,10 @@ package com.team.socialnetwork.repository;
 import com.team.socialnetwork.entity.Comment;
 import com.team.socialnetwork.repository.projection.PostIdCountProjection;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collection;
 import java.util.List;
@@ -15,4 +17,15 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
 
     @Query("select c.post.id as postId, count(c) as cnt from Comment c where c.post.id in :postIds group by c.post.id")
     List<PostIdCountProjection> countByPostIds(@Param("postIds") Collection<Long> postIds);
+
+    @Transactional
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query(value = "update comments set like_count = like_count + :delta where id = :commentId", nativeQuery = true)
+    int adjustLikeCount(@Param("commentId") Long commentId, @Param("delta") long delta);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query(value = "update comments set like_count = (select count(*) from comment_likes l where l.comment_id = comments.id) " +
+            "where like_count <> (select count(*) from comment_likes l where l.comment_id = comments.id)", nativeQuery = true)
+    int reconcileLikeCounts();
 }
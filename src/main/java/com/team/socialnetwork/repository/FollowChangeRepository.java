@@ -0,0 +1,22 @@
+package com.team.socialnetwork.repository;
+
+import com.team.socialnetwork.entity.FollowChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface FollowChangeRepository extends JpaRepository<FollowChange, Long> {
+
+    // Refresco incremental por fecha; dentro de la ventana se aplican en orden de id
+    List<FollowChange> findByCreatedAtAfterOrderByIdAsc(Instant since);
+
+    @Transactional
+    @Modifying
+    @Query("delete from FollowChange c where c.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") Instant before);
+}
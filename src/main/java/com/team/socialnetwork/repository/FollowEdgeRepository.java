@@ -0,0 +1,115 @@
+package com.team.socialnetwork.repository;
+
+import com.team.socialnetwork.entity.FollowEdge;
+import com.team.socialnetwork.repository.projection.FollowEdgeProjection;
+import com.team.socialnetwork.repository.projection.FollowUserProjection;
+import com.team.socialnetwork.service.media.MediaStore;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Operaciones sobre una relación de seguimiento por su par (follower, followed): cada una es
+ * una sentencia sobre la PK o el índice inverso, sin importar cuántos seguidores tenga el usuario.
+ */
+public interface FollowEdgeRepository extends JpaRepository<FollowEdge, FollowEdge.Key> {
+
+    @Query("select count(e) > 0 from FollowEdge e where e.id.followerId = :followerId and e.id.targetId = :followedId")
+    boolean existsEdge(@Param("followerId") Long followerId, @Param("followedId") Long followedId);
+
+    /**
+     * Inserta la relación si no existe; devuelve 1 si la insertó y 0 si ya estaba.
+     * Es SQL estándar (vale en PostgreSQL y en H2): dos inserts simultáneos del mismo par pueden pasar
+     * el "not exists" a la vez y el segundo falla por la PK (DataIntegrityViolationException).
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "insert into user_following (follower_id, followed_id, created_at) " +
+            "select :followerId, :followedId, :createdAt where not exists " +
+            "(select 1 from user_following where follower_id = :followerId and followed_id = :followedId)",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("followerId") Long followerId,
+                       @Param("followedId") Long followedId,
+                       @Param("createdAt") Instant createdAt);
+
+    // De :ids, a quiénes sigue :followerId (consulta sobre el índice (follower_id, followed_id))
+    @Query("select e.id.targetId from FollowEdge e where e.id.followerId = :followerId and e.id.targetId in :ids")
+    List<Long> findFollowedIdsAmong(@Param("followerId") Long followerId, @Param("ids") Collection<Long> ids);
+
+    // De :ids, quiénes siguen a :targetId (consulta sobre la PK (followed_id, follower_id))
+    @Query("select e.id.followerId from FollowEdge e where e.id.targetId = :targetId and e.id.followerId in :ids")
+    List<Long> findFollowerIdsAmong(@Param("targetId") Long targetId, @Param("ids") Collection<Long> ids);
+
+    // 1 si existía y se borró, 0 si no había relación
+    @Transactional
+    @Modifying
+    @Query("delete from FollowEdge e where e.id.followerId = :followerId and e.id.targetId = :followedId")
+    int deleteEdge(@Param("followerId") Long followerId, @Param("followedId") Long followedId);
+
+    // Baja de cuenta: lo que seguía y quienes lo seguían
+    @Transactional
+    @Modifying
+    @Query("delete from FollowEdge e where e.id.followerId = :userId or e.id.targetId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    // Recorrido por keyset de todas las relaciones en orden de PK (follower, followed): carga de FollowGraph
+    @Query("select e.id.followerId as followerId, e.id.targetId as followedId from FollowEdge e " +
+           "where e.id.followerId > :afterFollower " +
+           "or (e.id.followerId = :afterFollower and e.id.targetId > :afterFollowed) " +
+           "order by e.id.followerId, e.id.targetId")
+    List<FollowEdgeProjection> findEdgesAfter(@Param("afterFollower") Long afterFollower,
+                                              @Param("afterFollowed") Long afterFollowed,
+                                              Pageable page);
+
+    /**
+     * Seguidores de un usuario en modo cursor (created_at desc, follower desc), sobre el índice
+     * (followed_id, created_at, follower_id).
+     */
+    @Query(FOLLOWER_SELECT + "where e.id.targetId = :userId order by e.createdAt desc, e.id.followerId desc")
+    Slice<FollowUserProjection> findFollowers(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(FOLLOWER_SELECT + "where e.id.targetId = :userId and " +
+           "(e.createdAt < :followedAt or (e.createdAt = :followedAt and e.id.followerId < :afterId)) " +
+           "order by e.createdAt desc, e.id.followerId desc")
+    Slice<FollowUserProjection> findFollowersBefore(@Param("userId") Long userId,
+                                                    @Param("followedAt") Instant followedAt,
+                                                    @Param("afterId") Long afterId,
+                                                    Pageable pageable);
+
+    /**
+     * Seguidos de un usuario en modo cursor (created_at desc, followed desc), sobre el índice
+     * (follower_id, created_at, followed_id).
+     */
+    @Query(FOLLOWING_SELECT + "where e.id.followerId = :userId order by e.createdAt desc, e.id.targetId desc")
+    Slice<FollowUserProjection> findFollowing(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(FOLLOWING_SELECT + "where e.id.followerId = :userId and " +
+           "(e.createdAt < :followedAt or (e.createdAt = :followedAt and e.id.targetId < :afterId)) " +
+           "order by e.createdAt desc, e.id.targetId desc")
+    Slice<FollowUserProjection> findFollowingBefore(@Param("userId") Long userId,
+                                                    @Param("followedAt") Instant followedAt,
+                                                    @Param("afterId") Long afterId,
+                                                    Pageable pageable);
+
+    // Filas anteriores a la columna created_at: sin fecha no entran en el orden de los listados
+    @Transactional
+    @Modifying
+    @Query("update FollowEdge e set e.createdAt = :createdAt where e.createdAt is null")
+    int fillMissingCreatedAt(@Param("createdAt") Instant createdAt);
+
+    String USER_COLUMNS = "u.id as userId, u.fullName as fullName, u.username as username, " +
+            "case when u.profilePicture like '" + MediaStore.URL_PREFIX + "%' then u.profilePicture end as profilePicture, " +
+            "e.createdAt as followedAt ";
+
+    String FOLLOWER_SELECT = "select " + USER_COLUMNS + "from FollowEdge e join User u on u.id = e.id.followerId ";
+
+    String FOLLOWING_SELECT = "select " + USER_COLUMNS + "from FollowEdge e join User u on u.id = e.id.targetId ";
+}
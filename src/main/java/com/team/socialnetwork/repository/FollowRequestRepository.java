@@ -2,7 +2,10 @@ package com.team.socialnetwork.repository;
 
 import com.team.socialnetwork.entity.FollowRequest;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,5 +13,10 @@ public interface FollowRequestRepository extends JpaRepository<FollowRequest, Lo
     boolean existsByFollowerIdAndTargetId(Long followerId, Long targetId);
     Optional<FollowRequest> findByFollowerIdAndTargetId(Long followerId, Long targetId);
     List<FollowRequest> findByTargetId(Long targetId);
+
+    // De :targetIds, a quiénes :followerId les tiene una solicitud pendiente
+    @Query("select r.target.id from FollowRequest r where r.follower.id = :followerId and r.target.id in :targetIds")
+    List<Long> findTargetIdsRequestedBy(@Param("followerId") Long followerId,
+                                        @Param("targetIds") Collection<Long> targetIds);
 }
 
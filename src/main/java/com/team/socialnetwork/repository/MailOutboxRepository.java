@@ -0,0 +1,34 @@
+package com.team.socialnetwork.repository;
+
+import com.team.socialnetwork.entity.MailOutboxMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface MailOutboxRepository extends JpaRepository<MailOutboxMessage, Long> {
+
+    @Query("select m.id from MailOutboxMessage m where m.status = :status and m.nextAttemptAt <= :now " +
+           "and (m.claimedUntil is null or m.claimedUntil < :now) order by m.nextAttemptAt, m.id")
+    List<Long> findDueIds(@Param("status") MailOutboxMessage.Status status, @Param("now") Instant now, Pageable pageable);
+
+    /**
+     * Toma un mensaje hasta :until. Devuelve 0 si otro dispatcher ya lo tomó o dejó de estar pendiente.
+     */
+    @Transactional
+    @Modifying
+    @Query("update MailOutboxMessage m set m.claimedUntil = :until where m.id = :id and m.status = :status " +
+           "and (m.claimedUntil is null or m.claimedUntil < :now)")
+    int claim(@Param("id") Long id, @Param("status") MailOutboxMessage.Status status,
+              @Param("now") Instant now, @Param("until") Instant until);
+
+    @Transactional
+    @Modifying
+    @Query("delete from MailOutboxMessage m where m.status <> :pending and m.createdAt < :before")
+    int deleteFinishedBefore(@Param("pending") MailOutboxMessage.Status pending, @Param("before") Instant before);
+}
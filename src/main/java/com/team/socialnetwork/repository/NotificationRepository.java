@@ -1,9 +1,11 @@
 package com.team.socialnetwork.repository;
 
+import java.time.Instant;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -18,6 +20,22 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
      */
     Page<Notification> findByRecipientIdOrderByCreatedAtDesc(Long recipientId, Pageable pageable);
 
+    /**
+     * Modo cursor: primera ventana sin count(*), ordenada por (createdAt, id) descendente
+     */
+    Slice<Notification> findByRecipientIdOrderByCreatedAtDescIdDesc(Long recipientId, Pageable pageable);
+
+    /**
+     * Modo cursor: notificaciones estrictamente anteriores a (createdAt, id)
+     */
+    @Query("SELECT n FROM Notification n WHERE n.recipient.id = :recipientId AND " +
+           "(n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    Slice<Notification> findByRecipientIdBefore(@Param("recipientId") Long recipientId,
+                                                @Param("createdAt") Instant createdAt,
+                                                @Param("id") Long id,
+                                                Pageable pageable);
+
     /**
      * Contar notificaciones no leídas de un usuario
      */
@@ -4,12 +4,14 @@ import com.team.socialnetwork.entity.PostLike;
 import com.team.socialnetwork.repository.projection.PostIdCountProjection;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
 
@@ -24,6 +26,18 @@ public interface PostLikeRepository extends JpaRepository<PostLike, Long> {
 
     Page<PostLike> findByPostId(Long postId, Pageable pageable);
 
+    @Query("select pl from PostLike pl join fetch pl.user where pl.post.id = :postId " +
+           "order by pl.createdAt desc, pl.id desc")
+    Slice<PostLike> findLatestByPostId(@Param("postId") Long postId, Pageable pageable);
+
+    @Query("select pl from PostLike pl join fetch pl.user where pl.post.id = :postId and " +
+           "(pl.createdAt < :createdAt or (pl.createdAt = :createdAt and pl.id < :id)) " +
+           "order by pl.createdAt desc, pl.id desc")
+    Slice<PostLike> findByPostIdBefore(@Param("postId") Long postId,
+                                       @Param("createdAt") Instant createdAt,
+                                       @Param("id") Long id,
+                                       Pageable pageable);
+
     @Query("select pl.post.id as postId, count(pl) as cnt from PostLike pl where pl.post.id in :postIds group by pl.post.id")
     List<PostIdCountProjection> countByPostIds(@Param("postIds") Collection<Long> postIds);
 
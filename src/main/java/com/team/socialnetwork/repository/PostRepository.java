@@ -1,14 +1,94 @@
 package com.team.socialnetwork.repository;
 
 import com.team.socialnetwork.entity.Post;
+import com.team.socialnetwork.repository.projection.FeedRowProjection;
+import com.team.socialnetwork.repository.projection.PostRowProjection;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
 
 public interface PostRepository extends JpaRepository<Post, Long> {
     List<Post> findByAuthorId(Long authorId);
     Page<Post> findByAuthorIdIn(Collection<Long> authorIds, Pageable pageable);
+
+    /**
+     * Posts de un autor en modo cursor (createdAt desc, id desc), proyectados sin cargar entidades.
+     */
+    @Query(POST_ROW_SELECT + "where a.id = :authorId order by p.createdAt desc, p.id desc")
+    Slice<PostRowProjection> findPostRowsByAuthor(@Param("authorId") Long authorId, Pageable pageable);
+
+    @Query(POST_ROW_SELECT + "where a.id = :authorId and " +
+           "(p.createdAt < :createdAt or (p.createdAt = :createdAt and p.id < :postId)) " +
+           "order by p.createdAt desc, p.id desc")
+    Slice<PostRowProjection> findPostRowsByAuthorBefore(@Param("authorId") Long authorId,
+                                                        @Param("createdAt") Instant createdAt,
+                                                        @Param("postId") Long postId,
+                                                        Pageable pageable);
+
+    String POST_ROW_SELECT = "select p.id as postId, p.createdAt as createdAt, p.description as description, " +
+            "p.image as image, a.id as authorId, a.fullName as authorFullName, a.username as authorUsername, " +
+            "a.email as authorEmail, a.createdAt as authorCreatedAt, a.profilePicture as authorProfilePicture " +
+            "from Post p join p.author a ";
+
+    @Transactional
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query(value = "update posts set like_count = like_count + :delta where id = :postId", nativeQuery = true)
+    int adjustLikeCount(@Param("postId") Long postId, @Param("delta") long delta);
+
+    // Flush del buffer de likes: un UPDATE por valor de delta para todos los posts que lo comparten
+    @Transactional
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query(value = "update posts set like_count = like_count + :delta where id in (:postIds)", nativeQuery = true)
+    int adjustLikeCounts(@Param("postIds") Collection<Long> postIds, @Param("delta") long delta);
+
+    @Transactional
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query(value = "update posts set comment_count = comment_count + :delta where id = :postId", nativeQuery = true)
+    int adjustCommentCount(@Param("postId") Long postId, @Param("delta") long delta);
+
+    // Reconciliación: recalcula solo las filas cuyo contador se desvió
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    // Los posts con deltas pendientes en el buffer se excluyen (su columna todavía no está al día), y también
+    // los que tienen likes posteriores a recentSince: otra instancia puede no haber volcado todavía su delta
+    @Query(value = "update posts set like_count = (select count(*) from post_likes l where l.post_id = posts.id) " +
+            "where like_count <> (select count(*) from post_likes l where l.post_id = posts.id) " +
+            "and id not in (:excludedIds) " +
+            "and not exists (select 1 from post_likes r where r.post_id = posts.id and r.created_at > :recentSince)",
+            nativeQuery = true)
+    int reconcileLikeCounts(@Param("excludedIds") Collection<Long> excludedIds, @Param("recentSince") Instant recentSince);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query(value = "update posts set comment_count = (select count(*) from comments c where c.post_id = posts.id) " +
+            "where comment_count <> (select count(*) from comments c where c.post_id = posts.id)", nativeQuery = true)
+    int reconcileCommentCounts();
+
+    /**
+     * Lado pull del feed: posts de autores con muchos seguidores, con la misma fila plana del timeline.
+     */
+    @Query(FEED_ROW_SELECT + "where a.id in :authorIds order by p.createdAt desc, p.id desc")
+    Slice<FeedRowProjection> findFeedRowsByAuthors(@Param("authorIds") Collection<Long> authorIds,
+                                                   @Param("viewerId") Long viewerId,
+                                                   Pageable pageable);
+
+    @Query(FEED_ROW_SELECT + "where a.id in :authorIds and " +
+           "(p.createdAt < :createdAt or (p.createdAt = :createdAt and p.id < :postId)) " +
+           "order by p.createdAt desc, p.id desc")
+    Slice<FeedRowProjection> findFeedRowsByAuthorsBefore(@Param("authorIds") Collection<Long> authorIds,
+                                                         @Param("viewerId") Long viewerId,
+                                                         @Param("createdAt") Instant createdAt,
+                                                         @Param("postId") Long postId,
+                                                         Pageable pageable);
+
+    String FEED_ROW_SELECT = FeedRowProjection.SELECT + "from Post p join p.author a ";
 }
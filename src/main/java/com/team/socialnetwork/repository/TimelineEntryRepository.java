@@ -0,0 +1,112 @@
+package com.team.socialnetwork.repository;
+
+import com.team.socialnetwork.entity.TimelineEntry;
+import com.team.socialnetwork.repository.projection.FeedRowProjection;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+public interface TimelineEntryRepository extends JpaRepository<TimelineEntry, Long> {
+
+    Slice<TimelineEntry> findByOwnerIdOrderByCreatedAtDescPostIdDesc(Long ownerId, Pageable pageable);
+
+    // Keyset: entradas estrictamente anteriores a (createdAt, postId)
+    @Query("select t from TimelineEntry t where t.ownerId = :ownerId and " +
+           "(t.createdAt < :createdAt or (t.createdAt = :createdAt and t.postId < :postId)) " +
+           "order by t.createdAt desc, t.postId desc")
+    Slice<TimelineEntry> findByOwnerIdBefore(@Param("ownerId") Long ownerId,
+                                             @Param("createdAt") Instant createdAt,
+                                             @Param("postId") Long postId,
+                                             Pageable pageable);
+
+    /**
+     * Feed en una sola consulta: entrada del timeline + post + autor + contadores denormalizados + like del dueño.
+     */
+    @Query(FEED_ROW_SELECT + "where t.ownerId = :viewerId order by t.createdAt desc, t.postId desc")
+    Slice<FeedRowProjection> findFeedRows(@Param("viewerId") Long ownerId, Pageable pageable);
+
+    @Query(FEED_ROW_SELECT + "where t.ownerId = :viewerId and " +
+           "(t.createdAt < :createdAt or (t.createdAt = :createdAt and t.postId < :postId)) " +
+           "order by t.createdAt desc, t.postId desc")
+    Slice<FeedRowProjection> findFeedRowsBefore(@Param("viewerId") Long ownerId,
+                                                @Param("createdAt") Instant createdAt,
+                                                @Param("postId") Long postId,
+                                                Pageable pageable);
+
+    // El dueño del timeline es quien lo lee: las consultas enlazan :viewerId con el ownerId
+    String FEED_ROW_SELECT = FeedRowProjection.SELECT + "from TimelineEntry t join Post p on p.id = t.postId join p.author a ";
+
+    boolean existsByOwnerId(Long ownerId);
+
+    /**
+     * Fan-out on write: copia un post recién creado al timeline de cada seguidor de su autor.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "insert into timeline_entries (owner_id, post_id, author_id, created_at) " +
+            "select uf.follower_id, p.id, p.author_id, p.created_at from posts p " +
+            "join user_following uf on uf.followed_id = p.author_id " +
+            "where p.id = :postId and not exists (" +
+            "select 1 from timeline_entries t where t.owner_id = uf.follower_id and t.post_id = p.id)", nativeQuery = true)
+    int fanOutPost(@Param("postId") Long postId);
+
+    /**
+     * Copia todos los posts de un autor a los timelines de sus seguidores: el autor vuelve de pull a push
+     * y lo escrito en pull nunca se había copiado.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "insert into timeline_entries (owner_id, post_id, author_id, created_at) " +
+            "select uf.follower_id, p.id, p.author_id, p.created_at from posts p " +
+            "join user_following uf on uf.followed_id = p.author_id " +
+            "where p.author_id = :authorId and not exists (" +
+            "select 1 from timeline_entries t where t.owner_id = uf.follower_id and t.post_id = p.id)", nativeQuery = true)
+    int backfillFollowersOf(@Param("authorId") Long authorId);
+
+    /**
+     * Copia los posts de un autor al timeline de un nuevo seguidor (follow / aprobación).
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "insert into timeline_entries (owner_id, post_id, author_id, created_at) " +
+            "select :ownerId, p.id, p.author_id, p.created_at from posts p " +
+            "where p.author_id = :authorId and not exists (" +
+            "select 1 from timeline_entries t where t.owner_id = :ownerId and t.post_id = p.id)", nativeQuery = true)
+    int backfillAuthor(@Param("ownerId") Long ownerId, @Param("authorId") Long authorId);
+
+    /**
+     * Reconstruye el timeline de un usuario a partir de user_following, omitiendo los autores
+     * en modo pull (users.feed_pull).
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "insert into timeline_entries (owner_id, post_id, author_id, created_at) " +
+            "select uf.follower_id, p.id, p.author_id, p.created_at from user_following uf " +
+            "join users u on u.id = uf.followed_id " +
+            "join posts p on p.author_id = uf.followed_id " +
+            "where uf.follower_id = :ownerId and u.feed_pull = false " +
+            "and not exists (" +
+            "select 1 from timeline_entries t where t.owner_id = :ownerId and t.post_id = p.id)", nativeQuery = true)
+    int rebuildOwner(@Param("ownerId") Long ownerId);
+
+    @Transactional
+    @Modifying
+    @Query("delete from TimelineEntry t where t.postId = :postId")
+    int deleteByPostId(@Param("postId") Long postId);
+
+    @Transactional
+    @Modifying
+    @Query("delete from TimelineEntry t where t.ownerId = :ownerId and t.authorId = :authorId")
+    int deleteByOwnerIdAndAuthorId(@Param("ownerId") Long ownerId, @Param("authorId") Long authorId);
+
+    @Transactional
+    @Modifying
+    @Query("delete from TimelineEntry t where t.ownerId = :userId or t.authorId = :userId")
+    int deleteByOwnerIdOrAuthorId(@Param("userId") Long userId);
+}
@@ -0,0 +1,36 @@
+package com.team.socialnetwork.repository;
+
+import com.team.socialnetwork.entity.UserRecommendation;
+import com.team.socialnetwork.repository.projection.SuggestedUserProjection;
+import com.team.socialnetwork.service.media.MediaStore;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface UserRecommendationRepository extends JpaRepository<UserRecommendation, Long> {
+
+    /**
+     * Sugerencias de un usuario en orden, sobre el índice (user_id, ordinal). Descarta en la misma
+     * consulta a quien ya empezó a seguir y a las cuentas borradas desde el último cálculo.
+     */
+    @Query("select u.id as userId, u.fullName as fullName, u.username as username, " +
+           "case when u.profilePicture like '" + MediaStore.URL_PREFIX + "%' then u.profilePicture end as profilePicture, " +
+           "r.mutualCount as mutualCount " +
+           "from UserRecommendation r join User u on u.id = r.candidateId " +
+           "where r.userId = :userId and not exists (select 1 from FollowEdge e " +
+           "where e.id.followerId = :userId and e.id.targetId = r.candidateId) " +
+           "order by r.ordinal")
+    List<SuggestedUserProjection> findSuggestions(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("select distinct r.userId from UserRecommendation r")
+    List<Long> findUserIds();
+
+    @Modifying
+    @Query("delete from UserRecommendation r where r.userId in :userIds")
+    int deleteByUserIds(@Param("userIds") Collection<Long> userIds);
+}
@@ -2,8 +2,10 @@ package com.team.socialnetwork.repository;
 
 import com.team.socialnetwork.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -21,4 +23,84 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("select u from User u where lower(u.username) like lower(concat('%', :term, '%')) " +
            "or lower(coalesce(u.fullName, '')) like lower(concat('%', :term, '%'))")
     List<User> searchByTerm(@Param("term") String term);
+
+    @Query("select u.id from User u where u.id in :ids")
+    List<Long> findExistingIds(@Param("ids") java.util.Collection<Long> ids);
+
+    // Autores seguidos por :followerId que están en modo pull (users.feed_pull)
+    @Query(value = "select uf.followed_id from user_following uf join users u on u.id = uf.followed_id " +
+            "where uf.follower_id = :followerId and u.feed_pull = true",
+            nativeQuery = true)
+    List<Long> findFollowedPullAuthors(@Param("followerId") Long followerId);
+
+    @Query("select u.feedPull from User u where u.id = :userId")
+    boolean isFeedPull(@Param("userId") Long userId);
+
+    @Query("select u.timelineRebuilt from User u where u.id = :userId")
+    boolean isTimelineRebuilt(@Param("userId") Long userId);
+
+    @Transactional
+    @Modifying
+    @Query(value = "update users set timeline_rebuilt = true where id = :userId and timeline_rebuilt = false", nativeQuery = true)
+    int markTimelineRebuilt(@Param("userId") Long userId);
+
+    // Cambios de modo condicionales: solo uno de dos hilos concurrentes ve 1 fila actualizada
+    @Transactional
+    @Modifying
+    @Query(value = "update users set feed_pull = true " +
+            "where id = :userId and feed_pull = false and followers_count >= :minFollowers", nativeQuery = true)
+    int enterFeedPull(@Param("userId") Long userId, @Param("minFollowers") long minFollowers);
+
+    @Transactional
+    @Modifying
+    @Query(value = "update users set feed_pull = false " +
+            "where id = :userId and feed_pull = true and followers_count < :maxFollowers", nativeQuery = true)
+    int leaveFeedPull(@Param("userId") Long userId, @Param("maxFollowers") long maxFollowers);
+
+    // Pasa a pull a quienes ya superan el umbral sin haber posteado desde entonces (p. ej. tras reparar contadores)
+    @Transactional
+    @Modifying
+    @Query(value = "update users set feed_pull = true " +
+            "where feed_pull = false and followers_count >= :minFollowers", nativeQuery = true)
+    int enterFeedPullAll(@Param("minFollowers") long minFollowers);
+
+    /**
+     * Un follow (+1) o unfollow (-1): following_count del seguidor y followers_count del seguido en un
+     * solo UPDATE, así dos follows cruzados (A→B y B→A) no toman los locks de fila en orden inverso.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query(value = "update users set " +
+            "following_count = following_count + case when id = :followerId then :delta else 0 end, " +
+            "followers_count = followers_count + case when id = :followedId then :delta else 0 end " +
+            "where id in (:followerId, :followedId)", nativeQuery = true)
+    int adjustFollowCounts(@Param("followerId") Long followerId,
+                           @Param("followedId") Long followedId,
+                           @Param("delta") long delta);
+
+    // Baja de cuenta: antes de borrar sus relaciones, descuenta al usuario de los contadores de los demás
+    @Transactional
+    @Modifying
+    @Query(value = "update users set followers_count = followers_count - 1 " +
+            "where id in (select followed_id from user_following where follower_id = :userId)", nativeQuery = true)
+    int decrementFollowersOfFollowedBy(@Param("userId") Long userId);
+
+    @Transactional
+    @Modifying
+    @Query(value = "update users set following_count = following_count - 1 " +
+            "where id in (select follower_id from user_following where followed_id = :userId)", nativeQuery = true)
+    int decrementFollowingOfFollowersOf(@Param("userId") Long userId);
+
+    // Reconciliación: recalcula solo las filas cuyo contador se desvió
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query(value = "update users set followers_count = (select count(*) from user_following f where f.followed_id = users.id) " +
+            "where followers_count <> (select count(*) from user_following f where f.followed_id = users.id)", nativeQuery = true)
+    int reconcileFollowersCounts();
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query(value = "update users set following_count = (select count(*) from user_following f where f.follower_id = users.id) " +
+            "where following_count <> (select count(*) from user_following f where f.follower_id = users.id)", nativeQuery = true)
+    int reconcileFollowingCounts();
 }
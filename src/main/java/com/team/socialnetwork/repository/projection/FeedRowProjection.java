@@ -0,0 +1,33 @@
+package com.team.socialnetwork.repository.projection;
+
+import java.time.Instant;
+
+/**
+ * Fila plana del feed: post + autor + contadores + like del viewer, en una sola consulta.
+ */
+public interface FeedRowProjection {
+
+    /**
+     * Columnas del feed, compartidas por el timeline (push) y la lectura por autores (pull) para que
+     * no diverjan. Cada consulta agrega su from con p (post) y a (autor), y enlaza :viewerId.
+     */
+    String SELECT = "select p.id as postId, p.createdAt as createdAt, p.description as description, " +
+            "p.image as image, a.id as authorId, a.fullName as authorFullName, a.username as authorUsername, " +
+            "a.email as authorEmail, a.createdAt as authorCreatedAt, a.profilePicture as authorProfilePicture, " +
+            "p.likeCount as likesCount, p.commentCount as commentsCount, " +
+            "(select count(vl) from PostLike vl where vl.post.id = p.id and vl.user.id = :viewerId) as viewerLikes ";
+
+    Long getPostId();
+    Instant getCreatedAt();
+    String getDescription();
+    String getImage();
+    Long getAuthorId();
+    String getAuthorFullName();
+    String getAuthorUsername();
+    String getAuthorEmail();
+    Instant getAuthorCreatedAt();
+    String getAuthorProfilePicture();
+    Long getLikesCount();
+    Long getCommentsCount();
+    Long getViewerLikes();
+}
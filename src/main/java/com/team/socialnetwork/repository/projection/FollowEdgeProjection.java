@@ -0,0 +1,9 @@
+package com.team.socialnetwork.repository.projection;
+
+/**
+ * Arista del grafo de seguidores: followerId sigue a followedId.
+ */
+public interface FollowEdgeProjection {
+    Long getFollowerId();
+    Long getFollowedId();
+}
@@ -0,0 +1,16 @@
+package com.team.socialnetwork.repository.projection;
+
+import java.time.Instant;
+
+/**
+ * Usuario de un listado de seguidores/seguidos con la fecha del follow.
+ * profilePicture solo viene si es una referencia del almacén de media: las imágenes base64 viejas
+ * no se leen de la base.
+ */
+public interface FollowUserProjection {
+    Long getUserId();
+    String getFullName();
+    String getUsername();
+    String getProfilePicture();
+    Instant getFollowedAt();
+}
@@ -0,0 +1,19 @@
+package com.team.socialnetwork.repository.projection;
+
+import java.time.Instant;
+
+/**
+ * Fila plana de un post con su autor, para listados por autor sin cargar entidades.
+ */
+public interface PostRowProjection {
+    Long getPostId();
+    Instant getCreatedAt();
+    String getDescription();
+    String getImage();
+    Long getAuthorId();
+    String getAuthorFullName();
+    String getAuthorUsername();
+    String getAuthorEmail();
+    Instant getAuthorCreatedAt();
+    String getAuthorProfilePicture();
+}
@@ -0,0 +1,12 @@
+package com.team.socialnetwork.repository.projection;
+
+/**
+ * Sugerencia de seguimiento lista para responder: datos livianos del candidato y cuántos en común.
+ */
+public interface SuggestedUserProjection {
+    Long getUserId();
+    String getFullName();
+    String getUsername();
+    String getProfilePicture();
+    int getMutualCount();
+}
@@ -0,0 +1,288 @@
+package com.team.socialnetwork.security;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Rate limit de los endpoints abiertos que disparan BCrypt o envían mails (login, registro,
+ * pedido de reseteo). Corre antes de JwtAuthenticationFilter y limita por IP y por email
+ * del body, con un TokenBucketLimiter por ruta y por tipo de clave.
+ * Las políticas son "capacidad/segundos" (p. ej. 5/60 = ráfagas de 5, 5 por minuto sostenido);
+ * vacío o 0 desactiva ese límite. Responde 429 con Retry-After.
+ * Detrás de un proxy (Railway) getRemoteAddr() es la IP del proxy: si la conexión viene de una
+ * dirección de trustedProxies, la IP del cliente se toma de X-Forwarded-For, recorriéndolo de
+ * derecha a izquierda hasta el primer salto que no sea un proxy de confianza.
+ */
+@Component
+public class AuthRateLimitFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(AuthRateLimitFilter.class);
+    // Los bodies de estos endpoints son unos pocos campos: uno más grande (o sin Content-Length) pasa sin leerse
+    // y queda limitado solo por IP
+    private static final int MAX_BODY_BYTES = 16 * 1024;
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Map<String, RoutePolicy> policies = new HashMap<>();
+    private final List<IpAddressMatcher> trustedProxies;
+
+    public AuthRateLimitFilter(ObjectMapper objectMapper,
+                               @Value("${security.ratelimit.enabled:true}") boolean enabled,
+                               @Value("${security.ratelimit.maxBuckets:100000}") int maxBuckets,
+                               @Value("${security.ratelimit.login.perIp:20/60}") String loginPerIp,
+                               @Value("${security.ratelimit.login.perEmail:5/60}") String loginPerEmail,
+                               @Value("${security.ratelimit.register.perIp:10/3600}") String registerPerIp,
+                               @Value("${security.ratelimit.register.perEmail:3/3600}") String registerPerEmail,
+                               @Value("${security.ratelimit.passwordReset.perIp:10/3600}") String resetPerIp,
+                               @Value("${security.ratelimit.passwordReset.perEmail:3/3600}") String resetPerEmail,
+                               @Value("${security.ratelimit.trustedProxies:}") String[] trustedProxies) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.trustedProxies = Arrays.stream(trustedProxies)
+                .map(String::trim)
+                .filter(StringUtils::hasText)
+                .map(IpAddressMatcher::new)
+                .toList();
+        policies.put("/auth/login", new RoutePolicy(limiter(loginPerIp, maxBuckets), limiter(loginPerEmail, maxBuckets)));
+        policies.put("/auth/register", new RoutePolicy(limiter(registerPerIp, maxBuckets), limiter(registerPerEmail, maxBuckets)));
+        policies.put("/auth/request-password-reset", new RoutePolicy(limiter(resetPerIp, maxBuckets), limiter(resetPerEmail, maxBuckets)));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled || !"POST".equals(request.getMethod()) || !policies.containsKey(path(request));
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        RoutePolicy policy = policies.get(path(request));
+        String clientIp = clientIp(request);
+
+        // Primero por IP: si ya se pasó, no se lee el body ni se gasta cupo del email
+        if (policy.perIp != null) {
+            long waitNanos = policy.perIp.tryAcquire(clientIp);
+            if (waitNanos > 0) {
+                reject(request, response, waitNanos, "ip", clientIp);
+                return;
+            }
+        }
+
+        HttpServletRequest forwarded = request;
+        long length = request.getContentLengthLong();
+        if (policy.perEmail != null && length > 0 && length <= MAX_BODY_BYTES) {
+            CachedBodyRequest cached = CachedBodyRequest.of(request);
+            forwarded = cached;
+            String email = emailOf(cached.body);
+            if (email != null) {
+                long waitNanos = policy.perEmail.tryAcquire(email);
+                if (waitNanos > 0) {
+                    reject(request, response, waitNanos, "email", clientIp);
+                    return;
+                }
+            }
+        }
+
+        filterChain.doFilter(forwarded, response);
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, long waitNanos, String keyType,
+                        String clientIp) throws IOException {
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        log.debug("Rate limited {} by {} from {}", path(request), keyType, clientIp);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", Long.toString(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        // Mismo formato que GlobalExceptionHandler
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", java.time.Instant.now().toString());
+        body.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        body.put("error", "TOO_MANY_REQUESTS");
+        body.put("message", "Too many requests, try again later");
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    // Cada proxy agrega a la derecha la IP de quien le habló: lo que está a la izquierda del primer
+    // salto no confiable lo puede haber escrito el cliente, así que no se mira
+    String clientIp(HttpServletRequest request) {
+        String client = request.getRemoteAddr();
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (!StringUtils.hasText(forwardedFor) || !isTrustedProxy(client)) {
+            return client;
+        }
+        String[] hops = forwardedFor.split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (!isIpAddress(hop)) {
+                break;
+            }
+            client = hop;
+            if (!isTrustedProxy(hop)) {
+                break;
+            }
+        }
+        return client;
+    }
+
+    private boolean isTrustedProxy(String ip) {
+        for (IpAddressMatcher proxy : trustedProxies) {
+            try {
+                if (proxy.matches(ip)) {
+                    return true;
+                }
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    // Sin resolver nombres: un hostname en el header no dispara una consulta DNS
+    private static boolean isIpAddress(String value) {
+        if (value.indexOf('/') >= 0) {
+            return false;
+        }
+        try {
+            new IpAddressMatcher(value);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private String emailOf(byte[] body) {
+        try {
+            JsonNode email = objectMapper.readTree(body).get("email");
+            if (email == null || !email.isTextual() || !StringUtils.hasText(email.asText())) {
+                return null;
+            }
+            return email.asText().trim().toLowerCase(Locale.ROOT);
+        } catch (IOException e) {
+            // JSON inválido: lo rechaza el controller con 400, acá solo no hay email que limitar
+            return null;
+        }
+    }
+
+    private static String path(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        String context = request.getContextPath();
+        return StringUtils.hasLength(context) && uri.startsWith(context) ? uri.substring(context.length()) : uri;
+    }
+
+    private static TokenBucketLimiter limiter(String spec, int maxBuckets) {
+        if (!StringUtils.hasText(spec) || "0".equals(spec.trim())) {
+            return null;
+        }
+        String[] parts = spec.trim().split("/");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Rate limit policy must be capacity/seconds: " + spec);
+        }
+        return new TokenBucketLimiter(Integer.parseInt(parts[0].trim()),
+                Duration.ofSeconds(Long.parseLong(parts[1].trim())), maxBuckets);
+    }
+
+    private static final class RoutePolicy {
+        final TokenBucketLimiter perIp;
+        final TokenBucketLimiter perEmail;
+
+        RoutePolicy(TokenBucketLimiter perIp, TokenBucketLimiter perEmail) {
+            this.perIp = perIp;
+            this.perEmail = perEmail;
+        }
+    }
+
+    // El body ya leído para buscar el email se vuelve a servir al controller
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        static CachedBodyRequest of(HttpServletRequest request) throws IOException {
+            try (InputStream in = request.getInputStream()) {
+                return new CachedBodyRequest(request, in.readAllBytes());
+            }
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public java.io.BufferedReader getReader() {
+            String encoding = getCharacterEncoding() != null ? getCharacterEncoding() : StandardCharsets.UTF_8.name();
+            return new java.io.BufferedReader(new java.io.InputStreamReader(getInputStream(),
+                    java.nio.charset.Charset.forName(encoding)));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.team.socialnetwork.security;
+
+import java.io.Serializable;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+import com.team.socialnetwork.service.user.UserSummary;
+
+/**
+ * Usuario autenticado armado desde los claims de un access token ya verificado.
+ * Lleva lo que la mayoría de los endpoints necesita (id, email, privacidad) sin consultar la base.
+ * getName() devuelve el email, así authentication.getName() sigue funcionando igual que antes.
+ * Los datos son los del momento del login: si el usuario cambia su privacidad, el token viejo
+ * conserva el valor anterior hasta vencer.
+ */
+public final class AuthenticatedUser implements AuthenticatedPrincipal, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    static final String CLAIM_USER_ID = "userId";
+    static final String CLAIM_NAME = "name";
+    static final String CLAIM_PRIVATE = "private";
+
+    private final Long id;
+    private final String email;
+    private final String displayName;
+    private final boolean privateAccount;
+
+    public AuthenticatedUser(Long id, String email, String displayName, boolean privateAccount) {
+        this.id = id;
+        this.email = email;
+        this.displayName = displayName;
+        this.privateAccount = privateAccount;
+    }
+
+    /**
+     * Principal desde los claims; null si el token no trae userId (tokens emitidos antes de este claim
+     * o tokens de otro propósito), en cuyo caso hay que resolver el usuario por email.
+     */
+    public static AuthenticatedUser fromToken(VerifiedToken token) {
+        Number userId = token.claim(CLAIM_USER_ID, Number.class);
+        if (userId == null || token.getSubject() == null || token.getPurpose() != null) {
+            return null;
+        }
+        Boolean privateAccount = token.claim(CLAIM_PRIVATE, Boolean.class);
+        return new AuthenticatedUser(userId.longValue(), token.getSubject(),
+                token.claim(CLAIM_NAME, String.class), Boolean.TRUE.equals(privateAccount));
+    }
+
+    public static AuthenticatedUser of(UserSummary user) {
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getDisplayName(), user.isPrivateAccount());
+    }
+
+    public Long getId() { return id; }
+    public String getEmail() { return email; }
+    public String getDisplayName() { return displayName; }
+    public boolean isPrivateAccount() { return privateAccount; }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    @Override
+    public String toString() {
+        return "AuthenticatedUser{id=" + id + ", email='" + email + "'}";
+    }
+}
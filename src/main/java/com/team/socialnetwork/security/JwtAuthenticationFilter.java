@@ -4,8 +4,11 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -14,17 +17,44 @@ import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.team.socialnetwork.service.user.UserLookupCache;
+import com.team.socialnetwork.service.user.UserSummary;
+
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    // Misma autoridad que asigna CustomUserDetailsService
+    private static final List<GrantedAuthority> USER_AUTHORITIES = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+    // Endpoints operativos (métricas de caches, pools, grafo): solo las cuentas de security.admin.emails
+    private static final GrantedAuthority ADMIN_AUTHORITY = new SimpleGrantedAuthority("ROLE_ADMIN");
+
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final TokenRevocationList tokenRevocationList;
+    private final UserLookupCache userLookupCache;
+    private final Set<String> adminEmails;
 
-    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService,
+                                   TokenRevocationList tokenRevocationList, UserLookupCache userLookupCache,
+                                   @Value("${security.admin.emails:}") String[] adminEmails) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.tokenRevocationList = tokenRevocationList;
+        this.userLookupCache = userLookupCache;
+        this.adminEmails = Arrays.stream(adminEmails)
+                .map(String::trim)
+                .filter(StringUtils::hasText)
+                .map(email -> email.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
     }
 
     @Override
@@ -32,7 +62,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
         final String token;
-        final String subject;
+        final VerifiedToken verified;
 
         if (!StringUtils.hasText(authHeader) || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
@@ -41,17 +71,40 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         token = authHeader.substring(7);
         try {
-            subject = jwtService.extractSubject(token);
+            // Una sola verificación de firma por request (o ninguna si el token ya está en cache)
+            verified = jwtService.verify(token);
         } catch (Exception ex) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        if (subject != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        String subject = verified.getSubject();
+        // Los tokens de confirmación de email y reseteo de contraseña no son sesiones
+        if (subject == null || verified.getPurpose() != null
+                || SecurityContextHolder.getContext().getAuthentication() != null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // Access tokens con userId: el principal sale de los claims, sin consultar la base.
+        // La revocación se resuelve en memoria (Bloom filter), también sin I/O
+        AuthenticatedUser principal = AuthenticatedUser.fromToken(verified);
+        if (principal != null) {
+            if (!verified.isExpired() && !tokenRevocationList.isRevoked(principal.getId(), verified)) {
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        principal, null, authoritiesFor(principal.getEmail(), USER_AUTHORITIES));
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+            }
+        } else {
+            // Tokens sin userId (emitidos antes de ese claim): el id sale del cache de usuarios para
+            // que también los alcance la revocación (no traen iat, así que revokeAllForUser los corta)
             UserDetails userDetails = userDetailsService.loadUserByUsername(subject);
-            if (jwtService.isTokenValid(token, userDetails.getUsername())) {
+            Long userId = userLookupCache.findByEmail(subject).map(UserSummary::getId).orElse(null);
+            if (userId != null && verified.isValidFor(userDetails.getUsername())
+                    && !tokenRevocationList.isRevoked(userId, verified)) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
+                        userDetails, null, authoritiesFor(userDetails.getUsername(), userDetails.getAuthorities()));
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
@@ -59,4 +112,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    private Collection<? extends GrantedAuthority> authoritiesFor(String email, Collection<? extends GrantedAuthority> base) {
+        if (email == null || !adminEmails.contains(email.toLowerCase(Locale.ROOT))) {
+            return base;
+        }
+        List<GrantedAuthority> authorities = new ArrayList<>(base);
+        authorities.add(ADMIN_AUTHORITY);
+        return authorities;
+    }
 }
@@ -1,18 +1,27 @@
 package com.team.socialnetwork.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Service
@@ -23,11 +32,23 @@ public class JwtService {
     private final int emailTokenMinutes;
     private final int passwordResetMinutes;
 
+    // El parser es inmutable y thread-safe: se arma una sola vez
+    private final JwtParser parser;
+    // Tokens ya verificados por digest SHA-256 (LRU acotado); cada entrada vence con el exp del token
+    private final int verifyCacheMaxEntries;
+    private final LinkedHashMap<String, VerifiedToken> verified = new LinkedHashMap<>(256, 0.75f, true);
+
+    public JwtService(String secret, int accessMinutes, int emailTokenMinutes, int passwordResetMinutes) {
+        this(secret, accessMinutes, emailTokenMinutes, passwordResetMinutes, 10_000);
+    }
+
+    @Autowired
     public JwtService(
             @Value("${jwt.secret}") String secret,
             @Value("${jwt.accessToken.expirationMinutes}") int accessMinutes,
             @Value("${jwt.emailToken.expirationMinutes:1440}") int emailTokenMinutes,
-            @Value("${jwt.passwordResetToken.expirationMinutes:60}") int passwordResetMinutes
+            @Value("${jwt.passwordResetToken.expirationMinutes:60}") int passwordResetMinutes,
+            @Value("${jwt.verifyCache.maxEntries:10000}") int verifyCacheMaxEntries
     ) {
         if (secret == null || secret.length() < 64) {
             throw new IllegalArgumentException("jwt.secret must be at least 64 characters long");
@@ -36,6 +57,8 @@ public class JwtService {
         this.accessMinutes = accessMinutes;
         this.emailTokenMinutes = emailTokenMinutes;
         this.passwordResetMinutes = passwordResetMinutes;
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.verifyCacheMaxEntries = verifyCacheMaxEntries;
     }
 
     public String generateAccessToken(String subject, Map<String, Object> claims) {
@@ -46,6 +69,9 @@ public class JwtService {
                 .setIssuedAt(Date.from(now))
                 .setExpiration(Date.from(expiry))
                 .addClaims(claims)
+                // jti y emisión en ms: permiten revocar un token puntual o todo lo emitido antes de un instante
+                .setId(UUID.randomUUID().toString())
+                .claim(VerifiedToken.CLAIM_ISSUED_AT_MILLIS, now.toEpochMilli())
                 .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
@@ -64,8 +90,7 @@ public class JwtService {
 
     public boolean isEmailToken(String token) {
         try {
-            String purpose = extractClaim(token, claims -> claims.get("purpose", String.class));
-            return "email_confirm".equals(purpose);
+            return "email_confirm".equals(verify(token).getPurpose());
         } catch (Exception e) {
             return false;
         }
@@ -85,33 +110,68 @@ public class JwtService {
 
     public boolean isPasswordResetToken(String token) {
         try {
-            String purpose = extractClaim(token, claims -> claims.get("purpose", String.class));
-            return "password_reset".equals(purpose);
+            return "password_reset".equals(verify(token).getPurpose());
         } catch (Exception e) {
             return false;
         }
     }
 
     public boolean isTokenValid(String token, String subject) {
-        String tokenSubject = extractSubject(token);
-        return subject.equals(tokenSubject) && !isTokenExpired(token);
+        return verify(token).isValidFor(subject);
     }
 
     public String extractSubject(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verify(token).getSubject();
     }
 
+    // Compatibilidad: resuelve sobre una copia de los claims ya verificados
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = Jwts.parserBuilder()
-                .setSigningKey(signingKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claimsResolver.apply(claims);
+        return claimsResolver.apply(Jwts.claims(verify(token).getClaims()));
+    }
+
+    /**
+     * Verifica firma y expiración una sola vez y devuelve los claims como vista inmutable.
+     * Un token ya verificado se sirve del cache hasta su exp sin recalcular el HMAC.
+     * Lanza JwtException si el token es inválido o está vencido.
+     */
+    public VerifiedToken verify(String token) {
+        if (token == null || token.isBlank()) {
+            throw new MalformedJwtException("Empty token");
+        }
+        String digest = verifyCacheMaxEntries > 0 ? digest(token) : null;
+        if (digest != null) {
+            synchronized (verified) {
+                VerifiedToken hit = verified.get(digest);
+                if (hit != null) {
+                    if (!hit.isExpired()) {
+                        return hit;
+                    }
+                    verified.remove(digest);
+                }
+            }
+        }
+        VerifiedToken result = VerifiedToken.of(parser.parseClaimsJws(token).getBody());
+        // Sin exp no hay momento en que la entrada deje de valer: esos tokens no se cachean
+        if (digest != null && result.getExpiresAt() != null) {
+            synchronized (verified) {
+                verified.put(digest, result);
+                Iterator<String> eldest = verified.keySet().iterator();
+                while (verified.size() > verifyCacheMaxEntries && eldest.hasNext()) {
+                    eldest.next();
+                    eldest.remove();
+                }
+            }
+        }
+        return result;
     }
 
-    private boolean isTokenExpired(String token) {
-        Date expiration = extractClaim(token, Claims::getExpiration);
-        return expiration.before(new Date());
+    // Se guarda el digest y no el token: clave de tamaño fijo y sin bearer tokens en el heap del cache
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 }
@@ -0,0 +1,38 @@
+package com.team.socialnetwork.security;
+
+import java.security.Principal;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.handler.invocation.HandlerMethodArgumentResolver;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+/**
+ * Equivalente STOMP de AuthenticatedUserArgumentResolver: inyecta en los @MessageMapping el
+ * AuthenticatedUser que AuthChannelInterceptor dejó en la sesión al hacer CONNECT.
+ * Se lee del header del frame, sin consultar la base. Sin sesión autenticada resuelve null
+ * (el CONNECT ya exige token, así que solo pasa con sesiones armadas fuera del interceptor).
+ */
+@Component
+public class StompAuthenticatedUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return AuthenticatedUser.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, Message<?> message) {
+        return fromPrincipal(SimpMessageHeaderAccessor.getUser(message.getHeaders()));
+    }
+
+    static AuthenticatedUser fromPrincipal(Principal principal) {
+        if (principal instanceof Authentication authentication
+                && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,131 @@
+package com.team.socialnetwork.security;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket por clave (IP, email) con lock striping: las claves se reparten en stripes
+ * independientes, cada una con su propio monitor, así dos clientes distintos casi nunca compiten.
+ * Un bucket es un objeto con dos campos que se actualiza en su lugar: una consulta no asigna memoria
+ * salvo la primera vez que aparece una clave.
+ * Memoria acotada: cada stripe es un LRU con tope, y un bucket que lleva inactivo lo suficiente
+ * como para haberse llenado de nuevo se descarta (equivale a no tenerlo).
+ */
+public class TokenBucketLimiter {
+    private static final int STRIPES = 64;
+
+    private final int capacity;
+    private final double tokensPerNano;
+    private final long idleNanos;
+    private final int maxBucketsPerStripe;
+    private final LongSupplier nanoClock;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public TokenBucketLimiter(int capacity, Duration refillPeriod, int maxBuckets) {
+        this(capacity, refillPeriod, maxBuckets, System::nanoTime);
+    }
+
+    TokenBucketLimiter(int capacity, Duration refillPeriod, int maxBuckets, LongSupplier nanoClock) {
+        if (capacity <= 0 || refillPeriod.isZero() || refillPeriod.isNegative()) {
+            throw new IllegalArgumentException("Rate limit needs a positive capacity and refill period");
+        }
+        this.capacity = capacity;
+        // capacity tokens cada refillPeriod
+        this.tokensPerNano = (double) capacity / refillPeriod.toNanos();
+        this.idleNanos = refillPeriod.toNanos();
+        this.maxBucketsPerStripe = Math.max(1, maxBuckets / STRIPES);
+        this.nanoClock = nanoClock;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(maxBucketsPerStripe);
+        }
+    }
+
+    /**
+     * Consume un token de la clave. Devuelve 0 si se permitió; si no, los nanosegundos
+     * que faltan para el próximo token (para Retry-After).
+     */
+    public long tryAcquire(String key) {
+        Stripe stripe = stripes[spread(key.hashCode()) & (STRIPES - 1)];
+        long now = nanoClock.getAsLong();
+        synchronized (stripe) {
+            Bucket bucket = stripe.get(key);
+            if (bucket == null) {
+                stripe.evictIdle(now, idleNanos);
+                bucket = new Bucket(capacity, now);
+                stripe.put(key, bucket);
+            } else {
+                bucket.refill(now, tokensPerNano, capacity);
+            }
+            if (bucket.tokens >= 1.0) {
+                bucket.tokens -= 1.0;
+                return 0;
+            }
+            return Math.max(1, (long) Math.ceil((1.0 - bucket.tokens) / tokensPerNano));
+        }
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int size() {
+        int total = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                total += stripe.size();
+            }
+        }
+        return total;
+    }
+
+    // Mezcla los bits altos del hashCode (como HashMap) para repartir bien entre stripes
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    private static final class Bucket {
+        double tokens;
+        long updatedAt;
+
+        Bucket(int capacity, long now) {
+            this.tokens = capacity;
+            this.updatedAt = now;
+        }
+
+        void refill(long now, double tokensPerNano, int capacity) {
+            long elapsed = now - updatedAt;
+            if (elapsed > 0) {
+                tokens = Math.min(capacity, tokens + elapsed * tokensPerNano);
+                updatedAt = now;
+            }
+        }
+    }
+
+    private static final class Stripe extends LinkedHashMap<String, Bucket> {
+        private final int maxEntries;
+
+        Stripe(int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+            return size() > maxEntries;
+        }
+
+        // Orden de acceso: los inactivos están al principio; se corta en el primero todavía activo
+        void evictIdle(long now, long idleNanos) {
+            Iterator<Bucket> it = values().iterator();
+            while (it.hasNext()) {
+                if (now - it.next().updatedAt < idleNanos) {
+                    return;
+                }
+                it.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.team.socialnetwork.security;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.team.socialnetwork.entity.RevokedToken;
+import com.team.socialnetwork.repository.RevokedTokenRepository;
+
+/**
+ * Revocación de access tokens sin I/O en el camino caliente. La tabla revoked_tokens es la fuente
+ * de verdad; en memoria se guarda un Bloom filter con los ids de usuario que tienen alguna revocación
+ * vigente y, detrás, el conjunto exacto (jti revocados y "revocados antes de" por usuario).
+ * Un token de un usuario sin revocaciones cuesta una sola consulta al Bloom filter; un falso positivo
+ * cuesta además un lookup en los mapas exactos, nunca una consulta a la base.
+ * Se reconstruye al arrancar y cada rebuildDelay (purga las filas vencidas y vacía el filtro);
+ * entre medio se incorporan las filas nuevas (p. ej. de otras instancias) cada refreshDelay.
+ */
+@Component
+public class TokenRevocationList implements SmartInitializingSingleton {
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationList.class);
+    // Una fila se confirma después de su created_at: el refresco relee este margen hacia atrás
+    private static final Duration REFRESH_OVERLAP = Duration.ofSeconds(60);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final Duration accessTokenLifetime;
+    private final int expectedEntries;
+    private final double falsePositiveRate;
+
+    private volatile State state;
+    private volatile Instant lastRefresh = Instant.EPOCH;
+    // Revocaciones aplicadas mientras corre un rebuild: se vuelven a aplicar sobre el estado nuevo
+    private List<RevokedToken> appliedDuringRebuild;
+
+    public TokenRevocationList(RevokedTokenRepository revokedTokenRepository,
+                               @Value("${jwt.accessToken.expirationMinutes}") long accessMinutes,
+                               @Value("${security.revocation.expectedEntries:100000}") int expectedEntries,
+                               @Value("${security.revocation.falsePositiveRate:0.01}") double falsePositiveRate) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.accessTokenLifetime = Duration.ofMinutes(accessMinutes);
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.state = new State(new LongBloomFilter(expectedEntries, falsePositiveRate));
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * true si el token fue revocado: por su jti o por haberse emitido antes de la última
+     * revocación de todos los tokens del usuario.
+     */
+    public boolean isRevoked(Long userId, VerifiedToken token) {
+        State current = state;
+        if (userId == null || !current.users.mightContain(userId)) {
+            return false;
+        }
+        String jti = token.getTokenId();
+        if (jti != null && current.revokedJtis.contains(jti)) {
+            return true;
+        }
+        Instant before = current.revokedBefore.get(userId);
+        Instant issuedAt = token.getIssuedInstant();
+        return before != null && (issuedAt == null || issuedAt.isBefore(before));
+    }
+
+    // Logout: revoca solo este token hasta su exp. Los tokens sin jti (anteriores a este claim) no se pueden revocar uno a uno
+    public boolean revokeToken(Long userId, VerifiedToken token) {
+        String jti = token.getTokenId();
+        if (userId == null || jti == null) {
+            return false;
+        }
+        Instant expiresAt = token.getExpiresAt() != null ? token.getExpiresAt() : Instant.now().plus(accessTokenLifetime);
+        record(RevokedToken.forToken(userId, jti, expiresAt));
+        return true;
+    }
+
+    // Cambio o reseteo de contraseña, baja de cuenta: invalida todo lo emitido hasta ahora
+    public void revokeAllForUser(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        Instant now = Instant.now();
+        record(RevokedToken.forUser(userId, now, now.plus(accessTokenLifetime)));
+    }
+
+    // Incorpora las revocaciones registradas por otras instancias
+    @Scheduled(fixedDelayString = "${security.revocation.refreshDelay:5000}",
+               initialDelayString = "${security.revocation.refreshDelay:5000}")
+    public void refresh() {
+        Instant startedAt = Instant.now();
+        List<RevokedToken> rows = revokedTokenRepository.findByCreatedAtAfter(lastRefresh.minus(REFRESH_OVERLAP));
+        for (RevokedToken row : rows) {
+            apply(row);
+        }
+        lastRefresh = startedAt;
+    }
+
+    // Purga las filas vencidas y arma un filtro nuevo (los bits de un Bloom filter no se pueden borrar)
+    @Scheduled(fixedDelayString = "${security.revocation.rebuildDelay:3600000}",
+               initialDelayString = "${security.revocation.rebuildDelay:3600000}")
+    public void rebuild() {
+        Instant startedAt = Instant.now();
+        synchronized (this) {
+            appliedDuringRebuild = new ArrayList<>();
+        }
+        List<RevokedToken> rows;
+        try {
+            int purged = revokedTokenRepository.deleteExpired(startedAt);
+            rows = revokedTokenRepository.findByExpiresAtAfter(startedAt);
+            if (purged > 0) {
+                log.info("Purged {} expired token revocations", purged);
+            }
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                appliedDuringRebuild = null;
+            }
+            throw e;
+        }
+        State rebuilt = new State(new LongBloomFilter(Math.max(expectedEntries, rows.size() * 2), falsePositiveRate));
+        for (RevokedToken row : rows) {
+            rebuilt.apply(row);
+        }
+        synchronized (this) {
+            for (RevokedToken row : appliedDuringRebuild) {
+                rebuilt.apply(row);
+            }
+            appliedDuringRebuild = null;
+            state = rebuilt;
+        }
+        if (lastRefresh.isBefore(startedAt)) {
+            lastRefresh = startedAt;
+        }
+        log.debug("Token revocation list rebuilt with {} entries", rows.size());
+    }
+
+    private void record(RevokedToken revoked) {
+        revokedTokenRepository.save(revoked);
+        // Se aplica enseguida, antes del commit: si la transacción se revierte queda revocado de más
+        // en esta instancia hasta el próximo rebuild, nunca de menos
+        apply(revoked);
+    }
+
+    private synchronized void apply(RevokedToken row) {
+        state.apply(row);
+        if (appliedDuringRebuild != null) {
+            appliedDuringRebuild.add(row);
+        }
+    }
+
+    private static final class State {
+        final LongBloomFilter users;
+        final Set<String> revokedJtis = ConcurrentHashMap.newKeySet();
+        final Map<Long, Instant> revokedBefore = new ConcurrentHashMap<>();
+
+        State(LongBloomFilter users) {
+            this.users = users;
+        }
+
+        void apply(RevokedToken row) {
+            // Primero el conjunto exacto y después el bit: un lector que ve el bit ya encuentra la entrada
+            if (row.getJti() != null) {
+                revokedJtis.add(row.getJti());
+            } else if (row.getRevokedBefore() != null) {
+                revokedBefore.merge(row.getUserId(), row.getRevokedBefore(), (a, b) -> a.isAfter(b) ? a : b);
+            }
+            users.add(row.getUserId());
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.team.socialnetwork.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Claims de un JWT cuya firma ya se verificó. Inmutable: se puede compartir entre requests desde el cache.
+ */
+public final class VerifiedToken {
+    // Instante de emisión en milisegundos: iat solo tiene precisión de segundos
+    static final String CLAIM_ISSUED_AT_MILLIS = "iatMs";
+
+    private final String subject;
+    private final Instant issuedAt;
+    private final Instant expiresAt;
+    private final Map<String, Object> claims;
+
+    private VerifiedToken(String subject, Instant issuedAt, Instant expiresAt, Map<String, Object> claims) {
+        this.subject = subject;
+        this.issuedAt = issuedAt;
+        this.expiresAt = expiresAt;
+        this.claims = claims;
+    }
+
+    static VerifiedToken of(Claims claims) {
+        return new VerifiedToken(
+                claims.getSubject(),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null,
+                Collections.unmodifiableMap(new LinkedHashMap<>(claims))
+        );
+    }
+
+    public String getSubject() { return subject; }
+    public Instant getIssuedAt() { return issuedAt; }
+    public Instant getExpiresAt() { return expiresAt; }
+    public Map<String, Object> getClaims() { return claims; }
+
+    // null si el claim no existe o es de otro tipo
+    public <T> T claim(String name, Class<T> type) {
+        Object value = claims.get(name);
+        return type.isInstance(value) ? type.cast(value) : null;
+    }
+
+    // jti: identifica el token para revocarlo individualmente (null en tokens anteriores a este claim)
+    public String getTokenId() {
+        return claim("jti", String.class);
+    }
+
+    public Instant getIssuedInstant() {
+        Number millis = claim(CLAIM_ISSUED_AT_MILLIS, Number.class);
+        return millis != null ? Instant.ofEpochMilli(millis.longValue()) : issuedAt;
+    }
+
+    public String getPurpose() {
+        return claim("purpose", String.class);
+    }
+
+    public boolean isExpired() {
+        return expiresAt != null && !Instant.now().isBefore(expiresAt);
+    }
+
+    public boolean isValidFor(String expectedSubject) {
+        return expectedSubject != null && expectedSubject.equals(subject) && !isExpired();
+    }
+}
@@ -5,8 +5,12 @@ import com.team.socialnetwork.dto.LoginRequest;
 import com.team.socialnetwork.dto.RegisterRequest;
 import com.team.socialnetwork.entity.User;
 import com.team.socialnetwork.repository.UserRepository;
+import com.team.socialnetwork.security.AuthenticatedUser;
 import com.team.socialnetwork.security.JwtService;
-import com.team.socialnetwork.service.mail.MailService;
+import com.team.socialnetwork.security.TokenRevocationList;
+import com.team.socialnetwork.security.VerifiedToken;
+import com.team.socialnetwork.service.mail.MailOutbox;
+import com.team.socialnetwork.service.user.UserLookupCache;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -22,17 +26,23 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
 
     private final JwtService jwtService;
-    private final MailService mailService;
+    private final MailOutbox mailOutbox;
+    private final UserLookupCache userLookupCache;
+    private final TokenRevocationList tokenRevocationList;
 
     public AuthService(UserRepository userRepository,
                        PasswordEncoder passwordEncoder,
                        AuthenticationManager authenticationManager,
                        JwtService jwtService,
-                       MailService mailService) {
+                       MailOutbox mailOutbox,
+                       UserLookupCache userLookupCache,
+                       TokenRevocationList tokenRevocationList) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtService = jwtService;
-        this.mailService = mailService;
+        this.mailOutbox = mailOutbox;
+        this.userLookupCache = userLookupCache;
+        this.tokenRevocationList = tokenRevocationList;
     }
 
     @Transactional
@@ -53,16 +63,9 @@ public class AuthService {
         user.setEmailConfirmed(false);
         userRepository.save(user);
 
-        try {
-            String emailToken = jwtService.generateEmailToken(user.getEmail());
-            mailService.sendConfirmationEmail(user.getEmail(), emailToken);
-        } catch (Exception e) {
-            // Fail registration if we cannot notify user
-            throw new org.springframework.web.server.ResponseStatusException(
-                    org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR,
-                    "Failed to send confirmation email"
-            );
-        }
+        // El mail sale del outbox en la misma transacción: el request no espera al servidor SMTP
+        String emailToken = jwtService.generateEmailToken(user.getEmail());
+        mailOutbox.enqueueConfirmation(user.getEmail(), emailToken);
 
         return new com.team.socialnetwork.dto.MessageResponse("Confirmation email was sent");
     }
@@ -79,6 +82,13 @@ public class AuthService {
                     org.springframework.http.HttpStatus.UNAUTHORIZED, "Invalid email or password");
         }
 
+        // Hash con un costo menor al configurado: se re-hashea ahora que tenemos la contraseña en claro
+        if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+            user.setPassword(passwordEncoder.encode(request.getPassword()));
+            userRepository.save(user);
+            userLookupCache.invalidate(user.getId());
+        }
+
         // 2) Enforce email confirmation
         if (!user.isEmailConfirmed()) {
             throw new org.springframework.web.server.ResponseStatusException(
@@ -90,6 +100,8 @@ public class AuthService {
         String displayName = user.getFullName() != null ? user.getFullName() : user.getUsername();
         claims.put("name", displayName);
         claims.put("userId", user.getId());
+        // Con userId y privacidad en el token, los endpoints resuelven al usuario autenticado sin ir a la base
+        claims.put("private", user.isPrivate());
 
         String access = jwtService.generateAccessToken(user.getEmail(), claims);
         return new TokenResponse(access);
@@ -110,19 +122,16 @@ public class AuthService {
                 .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(org.springframework.http.HttpStatus.NOT_FOUND, "User not found"));
         user.setEmailConfirmed(true);
         userRepository.save(user);
+        userLookupCache.invalidate(user.getId());
         return new com.team.socialnetwork.dto.MessageResponse("Email confirmed");
     }
 
-    @Transactional(readOnly = true)
+    @Transactional
     public com.team.socialnetwork.dto.MessageResponse requestPasswordReset(String email) {
-        // Always return 200 to avoid user enumeration
+        // Always return 200 to avoid user enumeration; sin SMTP en el request tampoco se distingue por latencia
         userRepository.findByEmail(email).ifPresent(user -> {
-            try {
-                String token = jwtService.generatePasswordResetToken(user.getEmail());
-                mailService.sendPasswordReset(user.getEmail(), token);
-            } catch (Exception ignored) {
-                // Silently ignore to avoid leaking info; logs could be added
-            }
+            String token = jwtService.generatePasswordResetToken(user.getEmail());
+            mailOutbox.enqueuePasswordReset(user.getEmail(), token);
         });
         return new com.team.socialnetwork.dto.MessageResponse("If the email exists, instructions were sent");
     }
@@ -144,6 +153,29 @@ public class AuthService {
 
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        userLookupCache.invalidate(user.getId());
+        // Las sesiones abiertas con la contraseña anterior dejan de valer
+        tokenRevocationList.revokeAllForUser(user.getId());
         return new com.team.socialnetwork.dto.MessageResponse("Password reset successfully");
     }
+
+    // Revoca el access token presentado; idempotente y siempre 200 (un token inválido ya no sirve para nada)
+    public com.team.socialnetwork.dto.MessageResponse logout(String authorizationHeader) {
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
+            try {
+                VerifiedToken token = jwtService.verify(authorizationHeader.substring(7));
+                AuthenticatedUser user = AuthenticatedUser.fromToken(token);
+                if (user != null) {
+                    tokenRevocationList.revokeToken(user.getId(), token);
+                } else if (token.getPurpose() == null && token.getSubject() != null) {
+                    // Token anterior a los claims userId/jti: no se puede revocar solo, se cortan todos los emitidos hasta ahora
+                    userLookupCache.findByEmail(token.getSubject())
+                            .ifPresent(legacy -> tokenRevocationList.revokeAllForUser(legacy.getId()));
+                }
+            } catch (io.jsonwebtoken.JwtException e) {
+                // Token inválido o vencido: no hay nada que revocar
+            }
+        }
+        return new com.team.socialnetwork.dto.MessageResponse("Logged out");
+    }
 }
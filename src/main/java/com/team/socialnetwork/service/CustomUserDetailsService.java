@@ -1,7 +1,7 @@
 package com.team.socialnetwork.service;
 
-import com.team.socialnetwork.entity.User;
-import com.team.socialnetwork.repository.UserRepository;
+import com.team.socialnetwork.service.user.UserLookupCache;
+import com.team.socialnetwork.service.user.UserSummary;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -15,22 +15,22 @@ import java.util.List;
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
 
-    private final UserRepository userRepository;
+    private final UserLookupCache userLookupCache;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    public CustomUserDetailsService(UserLookupCache userLookupCache) {
+        this.userLookupCache = userLookupCache;
     }
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
+        UserSummary user = userLookupCache.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + email));
 
         Collection<? extends GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_USER"));
         boolean enabled = user.isEmailConfirmed();
         return new org.springframework.security.core.userdetails.User(
                 user.getEmail(),
-                user.getPassword(),
+                user.getPasswordHash(),
                 enabled, true, true, true,
                 authorities
         );
@@ -5,10 +5,13 @@ import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.team.socialnetwork.dto.Cursor;
+import com.team.socialnetwork.dto.CursorPage;
 import com.team.socialnetwork.dto.NotificationCountResponse;
 import com.team.socialnetwork.dto.NotificationResponse;
 import com.team.socialnetwork.entity.Comment;
@@ -111,6 +114,37 @@ public class NotificationService {
         return notifications.map(this::convertToResponse);
     }
 
+    /**
+     * Obtener notificaciones en modo cursor (keyset sobre createdAt, id; sin count(*))
+     */
+    public CursorPage<NotificationResponse> getUserNotifications(Long userId, Cursor after, int size) {
+        Slice<Notification> slice = findNotificationWindow(userId, after, size);
+        return toCursorPage(slice).map(this::convertToResponse);
+    }
+
+    /**
+     * Ventana de entidades en modo cursor, para los controladores que arman su propio formato
+     */
+    public CursorPage<Notification> getNotificationWindow(Long userId, Cursor after, int size) {
+        return toCursorPage(findNotificationWindow(userId, after, size));
+    }
+
+    private Slice<Notification> findNotificationWindow(Long userId, Cursor after, int size) {
+        Pageable window = PageRequest.of(0, size);
+        return after == null
+                ? notificationRepository.findByRecipientIdOrderByCreatedAtDescIdDesc(userId, window)
+                : notificationRepository.findByRecipientIdBefore(userId, after.getCreatedAt(), after.getId(), window);
+    }
+
+    private CursorPage<Notification> toCursorPage(Slice<Notification> slice) {
+        String next = null;
+        if (slice.hasNext() && slice.hasContent()) {
+            Notification last = slice.getContent().get(slice.getNumberOfElements() - 1);
+            next = new Cursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(slice.getContent(), next, slice.hasNext());
+    }
+
     /**
      * Obtener contador de notificaciones no leídas
      */
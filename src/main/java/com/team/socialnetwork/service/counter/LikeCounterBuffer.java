@@ -0,0 +1,149 @@
+package com.team.socialnetwork.service.counter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.team.socialnetwork.repository.PostRepository;
+
+/**
+ * Buffer write-behind de likes por post.
+ * Cada like/unlike suma un delta a un LongAdder del post (celdas por hilo, sin lock compartido);
+ * un job periódico vuelca los deltas a posts.like_count agrupados por valor de delta,
+ * así un post viral genera un UPDATE por flush en vez de uno por like.
+ * Las lecturas suman la columna persistida + el delta pendiente.
+ * Las celdas inactivas se sacan del mapa pero quedan "retiradas" un tiempo más: un add que ya tenía la
+ * celda en la mano puede sumarle después, y ese delta se mueve a la celda viva en el próximo flush.
+ */
+@Component
+public class LikeCounterBuffer {
+    private static final Logger log = LoggerFactory.getLogger(LikeCounterBuffer.class);
+    // Mínimo que una celda retirada sigue mirándose, aunque idleEvictMillis sea menor
+    private static final long RETIRED_GRACE_NANOS = 5_000_000_000L;
+
+    private final PostRepository postRepository;
+    private final long idleEvictNanos;
+    private final ConcurrentHashMap<Long, Cell> pending = new ConcurrentHashMap<>();
+    // Celdas desalojadas que todavía pueden recibir un add tardío; solo las toca flush()
+    private final List<Cell> retired = new ArrayList<>();
+
+    public LikeCounterBuffer(PostRepository postRepository,
+                             @Value("${likes.buffer.idleEvictMillis:600000}") long idleEvictMillis) {
+        this.postRepository = postRepository;
+        this.idleEvictNanos = idleEvictMillis * 1_000_000L;
+    }
+
+    public void add(Long postId, long delta) {
+        // Sin escrituras compartidas aparte del LongAdder: marcar "último uso" aquí volvería a serializar los hilos
+        Cell cell = pending.get(postId);
+        if (cell == null) {
+            cell = pending.computeIfAbsent(postId, Cell::new);
+        }
+        cell.delta.add(delta);
+    }
+
+    public long pending(Long postId) {
+        Cell cell = pending.get(postId);
+        return cell == null ? 0L : cell.delta.sum();
+    }
+
+    // Posts con deltas sin volcar (el reconciliador no debe tocarlos)
+    public Set<Long> pendingPostIds() {
+        Set<Long> ids = new HashSet<>();
+        pending.forEach((postId, cell) -> {
+            if (cell.delta.sum() != 0L) {
+                ids.add(postId);
+            }
+        });
+        return ids;
+    }
+
+    // Interval configurable via likes.buffer.flushDelay
+    @Scheduled(fixedDelayString = "${likes.buffer.flushDelay:1000}",
+               initialDelayString = "${likes.buffer.flushDelay:1000}")
+    public synchronized void flush() {
+        Map<Long, List<Long>> postsByDelta = new HashMap<>();
+        Map<Long, Long> taken = new HashMap<>();
+        long now = System.nanoTime();
+        drainRetired(now);
+        for (Map.Entry<Long, Cell> e : pending.entrySet()) {
+            Cell cell = e.getValue();
+            long delta = cell.delta.sum();
+            if (delta == 0L) {
+                // Celdas inactivas salen del mapa; un add concurrente queda en la celda retirada
+                if (now - cell.lastActive > idleEvictNanos && pending.remove(e.getKey(), cell)) {
+                    cell.lastActive = now;
+                    retired.add(cell);
+                }
+                continue;
+            }
+            cell.lastActive = now;
+            // sum + add(-delta) no pierde incrementos concurrentes (a diferencia de sumThenReset)
+            cell.delta.add(-delta);
+            taken.put(e.getKey(), delta);
+            postsByDelta.computeIfAbsent(delta, d -> new ArrayList<>()).add(e.getKey());
+        }
+        for (Map.Entry<Long, List<Long>> group : postsByDelta.entrySet()) {
+            try {
+                postRepository.adjustLikeCounts(group.getValue(), group.getKey());
+            } catch (RuntimeException ex) {
+                // Devolver los deltas al buffer para reintentar en el próximo flush
+                log.warn("Like counter flush failed for {} posts: {}", group.getValue().size(), ex.getMessage());
+                for (Long postId : group.getValue()) {
+                    add(postId, taken.get(postId));
+                }
+            }
+        }
+        if (!taken.isEmpty()) {
+            log.debug("Flushed like deltas for {} posts in {} statements", taken.size(), postsByDelta.size());
+        }
+    }
+
+    // Mueve a la celda viva lo que se sumó tarde a celdas ya retiradas; las olvida pasado el período de gracia
+    private void drainRetired(long now) {
+        long grace = Math.max(idleEvictNanos, RETIRED_GRACE_NANOS);
+        Iterator<Cell> it = retired.iterator();
+        while (it.hasNext()) {
+            Cell cell = it.next();
+            long late = cell.delta.sum();
+            if (late != 0L) {
+                cell.delta.add(-late);
+                add(cell.postId, late);
+            }
+            if (now - cell.lastActive > grace) {
+                it.remove();
+            }
+        }
+    }
+
+    // Al apagar la app se vuelca lo pendiente para no perder likes
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private static final class Cell {
+        final Long postId;
+        final LongAdder delta = new LongAdder();
+        // Último flush con delta distinto de cero (o momento en que se retiró); solo lo escribe flush()
+        long lastActive = System.nanoTime();
+
+        Cell(Long postId) {
+            this.postId = postId;
+        }
+    }
+}
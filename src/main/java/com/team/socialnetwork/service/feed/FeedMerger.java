@@ -0,0 +1,54 @@
+package com.team.socialnetwork.service.feed;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Merge k-way de streams ya ordenados (timeline push + posts pull).
+ * Cada stream llega ordenado por el mismo comparador; se usa un heap con la cabeza de cada uno
+ * y se descartan duplicados por clave (un post puede estar en el timeline y en el pull).
+ */
+public final class FeedMerger {
+
+    private FeedMerger() {}
+
+    public static <T, K> List<T> merge(List<List<T>> streams, Comparator<? super T> order,
+                                       Function<? super T, K> key, int skip, int limit) {
+        List<T> out = new ArrayList<>(Math.max(0, limit));
+        if (limit <= 0) {
+            return out;
+        }
+        // Cabeza de cada stream: {índice de stream, posición}
+        PriorityQueue<int[]> heads = new PriorityQueue<>(Math.max(1, streams.size()),
+                (x, y) -> order.compare(streams.get(x[0]).get(x[1]), streams.get(y[0]).get(y[1])));
+        for (int i = 0; i < streams.size(); i++) {
+            if (!streams.get(i).isEmpty()) {
+                heads.add(new int[] {i, 0});
+            }
+        }
+        Set<K> seen = new HashSet<>();
+        int skipped = 0;
+        while (!heads.isEmpty() && out.size() < limit) {
+            int[] head = heads.poll();
+            List<T> stream = streams.get(head[0]);
+            T item = stream.get(head[1]);
+            if (head[1] + 1 < stream.size()) {
+                heads.add(new int[] {head[0], head[1] + 1});
+            }
+            if (!seen.add(key.apply(item))) {
+                continue;
+            }
+            if (skipped < skip) {
+                skipped++;
+                continue;
+            }
+            out.add(item);
+        }
+        return out;
+    }
+}
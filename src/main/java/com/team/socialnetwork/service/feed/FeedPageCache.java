@@ -0,0 +1,278 @@
+package com.team.socialnetwork.service.feed;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.team.socialnetwork.dto.PostDetailResponse;
+import com.team.socialnetwork.dto.SafeUser;
+
+/**
+ * Cache LRU de páginas de feed ya armadas, por viewer y página/cursor.
+ * Acotado por peso estimado en bytes (las imágenes base64 pesan mucho más que el resto).
+ * Se invalida por viewer (follow/unfollow, posts nuevos o borrados de autores seguidos) y por post
+ * cuando cambian likes/comentarios: esas páginas se siguen sirviendo hasta stalenessSeconds.
+ * Toda página caduca a los ttlSeconds aunque nadie la invalide (respaldo ante una invalidación perdida).
+ * Las cargas en curso se registran por viewer: si el viewer se invalida mientras tanto la página no se
+ * guarda, y si cambian contadores de alguno de sus posts se guarda ya marcada para caducar.
+ */
+@Component
+public class FeedPageCache {
+
+    private final long maxWeight;
+    private final long stalenessNanos;
+    private final long ttlNanos;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private final Map<Long, Set<String>> keysByViewer = new HashMap<>();
+    private final Map<Long, Set<String>> keysByPost = new HashMap<>();
+    private final Map<Long, List<Load>> loadsByViewer = new HashMap<>();
+    private long weight;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+    private long expirations;
+
+    public FeedPageCache(@Value("${feed.cache.maxWeightBytes:33554432}") long maxWeight,
+                         @Value("${feed.cache.stalenessSeconds:30}") long stalenessSeconds,
+                         @Value("${feed.cache.ttlSeconds:300}") long ttlSeconds) {
+        this.maxWeight = maxWeight;
+        this.stalenessNanos = TimeUnit.SECONDS.toNanos(stalenessSeconds);
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+    }
+
+    /**
+     * Devuelve la página cacheada o la calcula con loader y la guarda.
+     * posts extrae los posts de la página para poder invalidarla por contadores.
+     */
+    public <T> T get(Long viewerId, String pageKey, Supplier<T> loader,
+                     Function<T, List<PostDetailResponse>> posts) {
+        String key = viewerId + "|" + pageKey;
+        Load load;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            long now = System.nanoTime();
+            if (entry != null && now - entry.loadedAt >= ttlNanos) {
+                remove(key);
+                expirations++;
+            } else if (entry != null && entry.isStale(now, stalenessNanos)) {
+                remove(key);
+                invalidations++;
+            } else if (entry != null) {
+                hits++;
+                @SuppressWarnings("unchecked")
+                T value = (T) entry.value;
+                return value;
+            }
+            misses++;
+            load = new Load();
+            loadsByViewer.computeIfAbsent(viewerId, v -> new ArrayList<>()).add(load);
+        }
+        // Se calcula fuera del lock; dos lecturas simultáneas de la misma página solo duplican trabajo
+        try {
+            T value = loader.get();
+            List<PostDetailResponse> items = posts.apply(value);
+            Entry entry = new Entry(viewerId, value, items, estimateWeight(items), System.nanoTime());
+            synchronized (this) {
+                if (!load.invalidated && entry.weight <= maxWeight) {
+                    if (load.countsChanged(entry.postIds)) {
+                        entry.dirtySince = entry.loadedAt;
+                    }
+                    store(key, entry);
+                }
+            }
+            return value;
+        } finally {
+            synchronized (this) {
+                List<Load> loads = loadsByViewer.get(viewerId);
+                loads.remove(load);
+                if (loads.isEmpty()) {
+                    loadsByViewer.remove(viewerId);
+                }
+            }
+        }
+    }
+
+    public synchronized void invalidateViewer(Long viewerId) {
+        List<Load> loads = loadsByViewer.get(viewerId);
+        if (loads != null) {
+            for (Load load : loads) {
+                load.invalidated = true;
+            }
+        }
+        Set<String> keys = keysByViewer.get(viewerId);
+        if (keys == null) {
+            return;
+        }
+        for (String key : new ArrayList<>(keys)) {
+            remove(key);
+            invalidations++;
+        }
+    }
+
+    public synchronized void invalidateViewers(Collection<Long> viewerIds) {
+        for (Long viewerId : viewerIds) {
+            invalidateViewer(viewerId);
+        }
+    }
+
+    /**
+     * Cambiaron likes o comentarios de un post: las páginas que lo contienen caducan
+     * cuando pase el presupuesto de staleness (o ya, si el presupuesto es 0).
+     */
+    public synchronized void markCountsChanged(Long postId) {
+        for (List<Load> loads : loadsByViewer.values()) {
+            for (Load load : loads) {
+                load.changedPosts.add(postId);
+            }
+        }
+        Set<String> keys = keysByPost.get(postId);
+        if (keys == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        for (String key : keys) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.dirtySince == 0L) {
+                entry.dirtySince = now;
+            }
+        }
+    }
+
+    // Viewers con páginas en cache: acota la búsqueda de seguidores al invalidar por autor
+    public synchronized Set<Long> cachedViewers() {
+        return new HashSet<>(keysByViewer.keySet());
+    }
+
+    public synchronized Map<String, Long> stats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("evictions", evictions);
+        stats.put("invalidations", invalidations);
+        stats.put("expirations", expirations);
+        stats.put("entries", (long) entries.size());
+        stats.put("weightBytes", weight);
+        stats.put("maxWeightBytes", maxWeight);
+        return stats;
+    }
+
+    private void store(String key, Entry entry) {
+        remove(key);
+        entries.put(key, entry);
+        weight += entry.weight;
+        keysByViewer.computeIfAbsent(entry.viewerId, v -> new HashSet<>()).add(key);
+        for (Long postId : entry.postIds) {
+            keysByPost.computeIfAbsent(postId, p -> new HashSet<>()).add(key);
+        }
+        evictOverflow();
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (weight > maxWeight && eldest.hasNext()) {
+            Map.Entry<String, Entry> e = eldest.next();
+            eldest.remove();
+            unindex(e.getKey(), e.getValue());
+            evictions++;
+        }
+    }
+
+    private void remove(String key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            unindex(key, entry);
+        }
+    }
+
+    private void unindex(String key, Entry entry) {
+        weight -= entry.weight;
+        Set<String> viewerKeys = keysByViewer.get(entry.viewerId);
+        if (viewerKeys != null) {
+            viewerKeys.remove(key);
+            if (viewerKeys.isEmpty()) {
+                keysByViewer.remove(entry.viewerId);
+            }
+        }
+        for (Long postId : entry.postIds) {
+            Set<String> postKeys = keysByPost.get(postId);
+            if (postKeys != null) {
+                postKeys.remove(key);
+                if (postKeys.isEmpty()) {
+                    keysByPost.remove(postId);
+                }
+            }
+        }
+    }
+
+    // Estimación gruesa: overhead fijo por objeto + 2 bytes por char de cada string
+    static long estimateWeight(List<PostDetailResponse> items) {
+        long bytes = 64;
+        for (PostDetailResponse item : items) {
+            bytes += 96 + chars(item.getDescription()) + chars(item.getImage());
+            SafeUser author = item.getAuthor();
+            if (author != null) {
+                bytes += 64 + chars(author.getName()) + chars(author.getUsername())
+                        + chars(author.getEmail()) + chars(author.getProfilePicture());
+            }
+        }
+        return bytes;
+    }
+
+    private static long chars(String value) {
+        return value == null ? 0 : 40L + 2L * value.length();
+    }
+
+    private static final class Entry {
+        final Long viewerId;
+        final Object value;
+        final List<Long> postIds;
+        final long weight;
+        final long loadedAt;
+        long dirtySince;
+
+        Entry(Long viewerId, Object value, List<PostDetailResponse> items, long weight, long loadedAt) {
+            this.viewerId = viewerId;
+            this.value = value;
+            this.postIds = items.stream().map(PostDetailResponse::getId).toList();
+            this.weight = weight;
+            this.loadedAt = loadedAt;
+        }
+
+        boolean isStale(long now, long stalenessNanos) {
+            return dirtySince != 0L && now - dirtySince >= stalenessNanos;
+        }
+    }
+
+    // Una carga en curso: lo que pasó mientras leía decide si se guarda y si entra ya marcada
+    private static final class Load {
+        final Set<Long> changedPosts = new HashSet<>();
+        boolean invalidated;
+
+        boolean countsChanged(List<Long> postIds) {
+            if (changedPosts.isEmpty()) {
+                return false;
+            }
+            for (Long postId : postIds) {
+                if (changedPosts.contains(postId)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package com.team.socialnetwork.service.feed;
+
+import java.util.Comparator;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.team.socialnetwork.dto.Cursor;
+import com.team.socialnetwork.dto.CursorPage;
+import com.team.socialnetwork.dto.PostDetailResponse;
+import com.team.socialnetwork.dto.SafeUser;
+import com.team.socialnetwork.entity.Post;
+import com.team.socialnetwork.repository.FollowEdgeRepository;
+import com.team.socialnetwork.repository.PostRepository;
+import com.team.socialnetwork.repository.TimelineEntryRepository;
+import com.team.socialnetwork.repository.UserRepository;
+import com.team.socialnetwork.repository.projection.FeedRowProjection;
+import com.team.socialnetwork.service.counter.LikeCounterBuffer;
+import com.team.socialnetwork.service.media.ImageVariant;
+import com.team.socialnetwork.service.media.MediaUrlSigner;
+
+/**
+ * Feed híbrido push/pull.
+ * Push: crear un post lo copia al timeline de cada seguidor; leer es un rango acotado sobre
+ * (owner_id, created_at) proyectado directamente a PostDetailResponse.
+ * Pull: los autores con feed.push.followerThreshold seguidores o más no se copian (el fan-out
+ * sería enorme); sus posts se leen al momento y se mezclan con el timeline por createdAt.
+ * El modo queda guardado en users.feed_pull y solo cambia al postear (o al reparar contadores),
+ * con histéresis: se vuelve a push recién por debajo de feed.push.resumeThreshold seguidores.
+ * Las páginas armadas se guardan en FeedPageCache y se invalidan desde los hooks de este servicio,
+ * siempre después de escribir (y después del commit si hay transacción).
+ */
+@Service
+public class TimelineService {
+    private static final Logger log = LoggerFactory.getLogger(TimelineService.class);
+
+    // Mismo orden que el índice: createdAt desc, postId desc
+    static final Comparator<FeedRowProjection> FEED_ORDER = Comparator
+            .comparing(FeedRowProjection::getCreatedAt, Comparator.reverseOrder())
+            .thenComparing(FeedRowProjection::getPostId, Comparator.reverseOrder());
+
+    private static final int INVALIDATION_BATCH = 500;
+
+    // Entrada de FeedPageCache con los autores pull que sigue el viewer
+    private static final String PULL_AUTHORS_KEY = "pull";
+
+    private final TimelineEntryRepository timelineEntryRepository;
+    private final PostRepository postRepository;
+    private final UserRepository userRepository;
+    private final FollowEdgeRepository followEdgeRepository;
+    private final FeedPageCache feedPageCache;
+    private final LikeCounterBuffer likeCounterBuffer;
+    private final MediaUrlSigner mediaUrlSigner;
+    private final long followerThreshold;
+    private final long resumeThreshold;
+
+    public TimelineService(TimelineEntryRepository timelineEntryRepository,
+                           PostRepository postRepository,
+                           UserRepository userRepository,
+                           FollowEdgeRepository followEdgeRepository,
+                           FeedPageCache feedPageCache,
+                           LikeCounterBuffer likeCounterBuffer,
+                           MediaUrlSigner mediaUrlSigner,
+                           @Value("${feed.push.followerThreshold:10000}") long followerThreshold,
+                           @Value("${feed.push.resumeThreshold:8000}") long resumeThreshold) {
+        this.timelineEntryRepository = timelineEntryRepository;
+        this.postRepository = postRepository;
+        this.userRepository = userRepository;
+        this.followEdgeRepository = followEdgeRepository;
+        this.feedPageCache = feedPageCache;
+        this.likeCounterBuffer = likeCounterBuffer;
+        this.mediaUrlSigner = mediaUrlSigner;
+        this.followerThreshold = followerThreshold;
+        this.resumeThreshold = Math.min(resumeThreshold, followerThreshold);
+    }
+
+    /**
+     * Copia el post a los timelines de los seguidores, salvo que el autor esté en modo pull.
+     * Transaccional para que la vuelta a push (cambio de modo + backfill) se confirme de una vez.
+     */
+    @Transactional
+    public void fanOut(Post post) {
+        Long authorId = post.getAuthor().getId();
+        if (resolvePullMode(authorId)) {
+            log.debug("Post {} not fanned out: author {} is read in pull mode", post.getId(), authorId);
+        } else {
+            int inserted = timelineEntryRepository.fanOutPost(post.getId());
+            log.debug("Post {} fanned out to {} timelines", post.getId(), inserted);
+        }
+        afterWrite(() -> invalidateFollowersOf(authorId));
+    }
+
+    public void retract(Post post) {
+        timelineEntryRepository.deleteByPostId(post.getId());
+        afterWrite(() -> invalidateFollowersOf(post.getAuthor().getId()));
+    }
+
+    public void onFollow(Long followerId, Long authorId) {
+        if (!userRepository.isFeedPull(authorId)) {
+            timelineEntryRepository.backfillAuthor(followerId, authorId);
+        }
+        afterWrite(() -> feedPageCache.invalidateViewer(followerId));
+    }
+
+    public void onUnfollow(Long followerId, Long authorId) {
+        timelineEntryRepository.deleteByOwnerIdAndAuthorId(followerId, authorId);
+        afterWrite(() -> feedPageCache.invalidateViewer(followerId));
+    }
+
+    public void purgeUser(Long userId) {
+        timelineEntryRepository.deleteByOwnerIdOrAuthorId(userId);
+        afterWrite(() -> {
+            feedPageCache.invalidateViewer(userId);
+            invalidateFollowersOf(userId);
+        });
+    }
+
+    /**
+     * Likes o comentarios cambiaron: las páginas cacheadas con este post caducan tras el presupuesto
+     * de staleness; las del propio actor se invalidan ya para que vea su like/comentario.
+     */
+    public void onEngagement(Long postId, Long actorId) {
+        afterWrite(() -> {
+            feedPageCache.markCountsChanged(postId);
+            feedPageCache.invalidateViewer(actorId);
+        });
+    }
+
+    // Lo llama el reconciliador después de reparar followers_count
+    public int markPullAuthors() {
+        int pulled = userRepository.enterFeedPullAll(followerThreshold);
+        if (pulled > 0) {
+            // Cualquier viewer puede seguir a alguno de los autores que cambiaron de modo
+            feedPageCache.invalidateViewers(feedPageCache.cachedViewers());
+        }
+        return pulled;
+    }
+
+    public java.util.Map<String, Long> feedCacheStats() {
+        return feedPageCache.stats();
+    }
+
+    /**
+     * Lee una página del feed (modo page/size) ya armada como PostDetailResponse.
+     * Sin autores pull es una sola consulta; con autores pull se piden los primeros
+     * (page + 1) * size de cada lado y se mezclan.
+     * Si el timeline está vacío (usuario anterior al timeline o relaciones creadas fuera
+     * de los endpoints) se reconstruye una sola vez desde user_following (users.timeline_rebuilt).
+     */
+    public List<PostDetailResponse> readFeed(Long ownerId, int page, int size) {
+        return feedPageCache.get(ownerId, "p:" + page + ":" + size, () -> loadFeed(ownerId, page, size), items -> items);
+    }
+
+    /**
+     * Modo cursor: búsqueda por (created_at, post_id) en ambos lados, el costo no depende de la profundidad.
+     */
+    public CursorPage<PostDetailResponse> readFeed(Long ownerId, Cursor after, int size) {
+        String pageKey = "c:" + (after == null ? "" : after.encode()) + ":" + size;
+        return feedPageCache.get(ownerId, pageKey, () -> loadFeed(ownerId, after, size), CursorPage::getItems);
+    }
+
+    private List<PostDetailResponse> loadFeed(Long ownerId, int page, int size) {
+        List<Long> pulledAuthors = followedPullAuthors(ownerId);
+        if (pulledAuthors.isEmpty()) {
+            return toResponses(firstSlice(ownerId, PageRequest.of(page, size), page == 0).getContent());
+        }
+        PageRequest head = PageRequest.of(0, (page + 1) * size);
+        List<FeedRowProjection> pushed = firstSlice(ownerId, head, page == 0).getContent();
+        List<FeedRowProjection> pulled = postRepository.findFeedRowsByAuthors(pulledAuthors, ownerId, head).getContent();
+        return toResponses(FeedMerger.merge(List.of(pushed, pulled), FEED_ORDER,
+                FeedRowProjection::getPostId, page * size, size));
+    }
+
+    private CursorPage<PostDetailResponse> loadFeed(Long ownerId, Cursor after, int size) {
+        PageRequest window = PageRequest.of(0, size);
+        Slice<FeedRowProjection> pushed = after == null
+                ? firstSlice(ownerId, window, true)
+                : timelineEntryRepository.findFeedRowsBefore(ownerId, after.getCreatedAt(), after.getId(), window);
+
+        List<Long> pulledAuthors = followedPullAuthors(ownerId);
+        List<FeedRowProjection> rows;
+        boolean hasMore;
+        if (pulledAuthors.isEmpty()) {
+            rows = pushed.getContent();
+            hasMore = pushed.hasNext();
+        } else {
+            Slice<FeedRowProjection> pulled = after == null
+                    ? postRepository.findFeedRowsByAuthors(pulledAuthors, ownerId, window)
+                    : postRepository.findFeedRowsByAuthorsBefore(pulledAuthors, ownerId,
+                            after.getCreatedAt(), after.getId(), window);
+            List<FeedRowProjection> merged = FeedMerger.merge(
+                    List.of(pushed.getContent(), pulled.getContent()), FEED_ORDER,
+                    FeedRowProjection::getPostId, 0, size + 1);
+            hasMore = merged.size() > size || pushed.hasNext() || pulled.hasNext();
+            rows = merged.size() > size ? merged.subList(0, size) : merged;
+        }
+
+        String next = null;
+        if (hasMore && !rows.isEmpty()) {
+            FeedRowProjection last = rows.get(rows.size() - 1);
+            next = new Cursor(last.getCreatedAt(), last.getPostId()).encode();
+        }
+        return new CursorPage<>(toResponses(rows), next, hasMore);
+    }
+
+    /**
+     * Invalida ya, o después del commit si hay una transacción en curso: invalidar antes de que el
+     * cambio sea visible deja que otra carga lea el estado anterior y lo guarde como vigente.
+     */
+    private static void afterWrite(Runnable invalidation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidation.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidation.run();
+            }
+        });
+    }
+
+    // Solo se consultan los seguidores que tienen páginas en cache, en lotes acotados
+    private void invalidateFollowersOf(Long authorId) {
+        List<Long> cached = new java.util.ArrayList<>(feedPageCache.cachedViewers());
+        for (int from = 0; from < cached.size(); from += INVALIDATION_BATCH) {
+            List<Long> batch = cached.subList(from, Math.min(cached.size(), from + INVALIDATION_BATCH));
+            feedPageCache.invalidateViewers(followEdgeRepository.findFollowerIdsAmong(authorId, batch));
+        }
+    }
+
+    /**
+     * Modo del autor para un post nuevo. Los cambios son UPDATE condicionales sobre users.feed_pull;
+     * al volver a push se copian a los timelines los posts escritos en pull, que hasta ahora solo
+     * se leían por pull y desaparecerían del feed al dejar de leerlo así.
+     */
+    private boolean resolvePullMode(Long authorId) {
+        if (!userRepository.isFeedPull(authorId)) {
+            if (userRepository.enterFeedPull(authorId, followerThreshold) == 0) {
+                return false;
+            }
+            log.info("Author {} switched to pull mode", authorId);
+            return true;
+        }
+        if (userRepository.leaveFeedPull(authorId, resumeThreshold) > 0) {
+            int copied = timelineEntryRepository.backfillFollowersOf(authorId);
+            log.info("Author {} switched back to push mode, {} timeline entries backfilled", authorId, copied);
+            return false;
+        }
+        // Otro post del mismo autor pudo volver a push mientras esperábamos el lock: se relee ya confirmado
+        return userRepository.isFeedPull(authorId);
+    }
+
+    /**
+     * Autores pull seguidos por el viewer, guardados en FeedPageCache junto a sus páginas: se
+     * invalidan igual que ellas (follow/unfollow del viewer, cambio de modo de un autor seguido)
+     * y caducan con el mismo ttl, así no se consulta user_following en cada carga del feed.
+     */
+    private List<Long> followedPullAuthors(Long ownerId) {
+        return feedPageCache.get(ownerId, PULL_AUTHORS_KEY,
+                () -> userRepository.findFollowedPullAuthors(ownerId), authors -> List.of());
+    }
+
+    private Slice<FeedRowProjection> firstSlice(Long ownerId, PageRequest pageRequest, boolean rebuildIfEmpty) {
+        Slice<FeedRowProjection> slice = timelineEntryRepository.findFeedRows(ownerId, pageRequest);
+        if (!slice.hasContent() && rebuildIfEmpty && rebuildOnce(ownerId)) {
+            slice = timelineEntryRepository.findFeedRows(ownerId, pageRequest);
+        }
+        return slice;
+    }
+
+    /**
+     * Reconstrucción única por usuario: después los hooks (fanOut, onFollow) mantienen el timeline y
+     * un feed vacío es solo una lectura. La marca se pone después del INSERT para que un fallo se
+     * reintente; dos lecturas concurrentes pueden reconstruir las dos, rebuildOwner omite lo que ya está.
+     */
+    private boolean rebuildOnce(Long ownerId) {
+        if (userRepository.isTimelineRebuilt(ownerId)) {
+            return false;
+        }
+        int inserted = timelineEntryRepository.rebuildOwner(ownerId);
+        userRepository.markTimelineRebuilt(ownerId);
+        log.debug("Timeline of user {} rebuilt with {} entries", ownerId, inserted);
+        return inserted > 0;
+    }
+
+    private List<PostDetailResponse> toResponses(List<FeedRowProjection> rows) {
+        return rows.stream().map(this::toResponse).toList();
+    }
+
+    private PostDetailResponse toResponse(FeedRowProjection row) {
+        SafeUser author = new SafeUser(
+                row.getAuthorId(),
+                row.getAuthorFullName(),
+                row.getAuthorUsername(),
+                row.getAuthorEmail(),
+                row.getAuthorCreatedAt(),
+                mediaUrlSigner.sign(ImageVariant.THUMB.urlFor(row.getAuthorProfilePicture()))
+        );
+        return new PostDetailResponse(
+                row.getPostId(),
+                row.getCreatedAt(),
+                row.getDescription(),
+                mediaUrlSigner.sign(ImageVariant.MEDIUM.urlFor(row.getImage())),
+                author,
+                (row.getLikesCount() != null ? row.getLikesCount() : 0L) + likeCounterBuffer.pending(row.getPostId()),
+                row.getCommentsCount() != null ? row.getCommentsCount() : 0L,
+                row.getViewerLikes() != null && row.getViewerLikes() > 0
+        );
+    }
+}
@@ -0,0 +1,79 @@
+package com.team.socialnetwork.service.graph;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Copia inmutable del grafo de seguimiento en formato CSR: los usuarios ordenados en un long[], y
+ * las aristas de todos ellos en un único long[] contiguo (los seguidos de users[i] están en
+ * targets[offsets[i]..offsets[i+1]), ordenados). Ocupa un long por arista, sin objetos por usuario,
+ * y se puede recorrer desde varios hilos sin sincronizar.
+ */
+public final class AdjacencySnapshot {
+
+    private final long[] users;
+    private final int[] offsets;
+    private final long[] targets;
+
+    private AdjacencySnapshot(long[] users, int[] offsets, long[] targets) {
+        this.users = users;
+        this.offsets = offsets;
+        this.targets = targets;
+    }
+
+    // Los arrays de FollowGraph no se modifican nunca: basta con copiar sus contenidos
+    static AdjacencySnapshot of(Map<Long, long[]> following) {
+        long[] users = new long[following.size()];
+        long[][] lists = new long[users.length][];
+        int count = 0;
+        for (Map.Entry<Long, long[]> entry : following.entrySet()) {
+            if (count == users.length) {
+                // El mapa creció mientras se recorría: lo nuevo entra en el próximo snapshot
+                break;
+            }
+            users[count] = entry.getKey();
+            lists[count] = entry.getValue();
+            count++;
+        }
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        long[] keys = users;
+        Arrays.sort(order, (a, b) -> Long.compare(keys[a], keys[b]));
+
+        long[] sortedUsers = new long[count];
+        int[] offsets = new int[count + 1];
+        int edges = 0;
+        for (int i = 0; i < count; i++) {
+            sortedUsers[i] = users[order[i]];
+            offsets[i] = edges;
+            edges += lists[order[i]].length;
+        }
+        offsets[count] = edges;
+        long[] targets = new long[edges];
+        for (int i = 0; i < count; i++) {
+            long[] list = lists[order[i]];
+            System.arraycopy(list, 0, targets, offsets[i], list.length);
+        }
+        return new AdjacencySnapshot(sortedUsers, offsets, targets);
+    }
+
+    public int userCount() { return users.length; }
+    public int edgeCount() { return targets.length; }
+
+    public long userAt(int index) { return users[index]; }
+
+    // Posición del usuario en el snapshot, o negativo si no sigue a nadie
+    public int indexOf(long userId) {
+        return Arrays.binarySearch(users, userId);
+    }
+
+    public int start(int index) { return offsets[index]; }
+    public int end(int index) { return offsets[index + 1]; }
+    public long target(int position) { return targets[position]; }
+
+    public boolean follows(int index, long targetId) {
+        return Arrays.binarySearch(targets, offsets[index], offsets[index + 1], targetId) >= 0;
+    }
+}
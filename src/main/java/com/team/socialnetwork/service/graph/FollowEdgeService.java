@@ -0,0 +1,66 @@
+package com.team.socialnetwork.service.graph;
+
+import java.time.Instant;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.team.socialnetwork.entity.FollowChange;
+import com.team.socialnetwork.repository.FollowChangeRepository;
+import com.team.socialnetwork.repository.FollowEdgeRepository;
+import com.team.socialnetwork.repository.UserRepository;
+
+/**
+ * Altas y bajas en user_following junto con users.followers_count/following_count, en la misma
+ * transacción: el contador solo se mueve si la fila realmente se insertó o se borró.
+ * El desvío que pueda quedar (filas escritas por fuera, p. ej. vía User.following) lo repara CounterReconciler.
+ * Cada cambio deja además una fila en follow_changes para el FollowGraph de las otras instancias.
+ */
+@Service
+public class FollowEdgeService {
+
+    private final FollowEdgeRepository followEdgeRepository;
+    private final UserRepository userRepository;
+    private final FollowChangeRepository followChangeRepository;
+
+    public FollowEdgeService(FollowEdgeRepository followEdgeRepository, UserRepository userRepository,
+                             FollowChangeRepository followChangeRepository) {
+        this.followEdgeRepository = followEdgeRepository;
+        this.userRepository = userRepository;
+        this.followChangeRepository = followChangeRepository;
+    }
+
+    /**
+     * true si creó la relación, false si ya existía. Si otro insert del mismo par gana la carrera
+     * lanza DataIntegrityViolationException (la transacción ya quedó revertida).
+     */
+    @Transactional
+    public boolean follow(Long followerId, Long followedId) {
+        if (followEdgeRepository.insertIfAbsent(followerId, followedId, Instant.now()) == 0) {
+            return false;
+        }
+        userRepository.adjustFollowCounts(followerId, followedId, 1);
+        followChangeRepository.save(FollowChange.follow(followerId, followedId));
+        return true;
+    }
+
+    // true si existía y se borró
+    @Transactional
+    public boolean unfollow(Long followerId, Long followedId) {
+        if (followEdgeRepository.deleteEdge(followerId, followedId) == 0) {
+            return false;
+        }
+        userRepository.adjustFollowCounts(followerId, followedId, -1);
+        followChangeRepository.save(FollowChange.unfollow(followerId, followedId));
+        return true;
+    }
+
+    // Baja de cuenta: los contadores de los demás primero, mientras las filas siguen ahí
+    @Transactional
+    public void removeUser(Long userId) {
+        userRepository.decrementFollowersOfFollowedBy(userId);
+        userRepository.decrementFollowingOfFollowersOf(userId);
+        followEdgeRepository.deleteByUserId(userId);
+        followChangeRepository.save(FollowChange.userDeleted(userId));
+    }
+}
@@ -0,0 +1,328 @@
+package com.team.socialnetwork.service.graph;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.team.socialnetwork.entity.FollowChange;
+import com.team.socialnetwork.repository.FollowChangeRepository;
+import com.team.socialnetwork.repository.FollowEdgeRepository;
+import com.team.socialnetwork.repository.projection.FollowEdgeProjection;
+
+/**
+ * Índice en memoria de quién sigue a quién, sobre ids primitivos: por cada usuario un long[] ordenado
+ * con los ids que sigue. "¿A sigue a B?" es una búsqueda binaria, sin consultar la base ni
+ * hidratar User.getFollowing().
+ * Los arrays no se modifican nunca: cada follow/unfollow reemplaza el array del seguidor por una copia,
+ * así las lecturas no toman locks.
+ * Se carga al arrancar y se reconstruye cada rebuildDelay (corrige cualquier desvío); entre medio lo
+ * mantienen los hooks onFollow/onUnfollow/onUserDeleted y refresh(), que cada pocos segundos lee de
+ * follow_changes lo que hicieron las otras instancias (un unfollow allí no sigue dando acceso aquí).
+ * Anota además qué usuarios cambiaron lo que siguen, para que RecommendationJob recalcule solo esos.
+ */
+@Component
+public class FollowGraph implements SmartInitializingSingleton {
+    private static final Logger log = LoggerFactory.getLogger(FollowGraph.class);
+    // Margen para filas de follow_changes confirmadas tarde (created_at anterior al último refresh)
+    private static final Duration REFRESH_OVERLAP = Duration.ofSeconds(60);
+    // Antigüedad a partir de la cual el rebuild purga follow_changes: ya las leyó cualquier instancia viva
+    private static final Duration CHANGE_RETENTION = Duration.ofMinutes(10);
+
+    private final FollowEdgeRepository followEdgeRepository;
+    private final FollowChangeRepository followChangeRepository;
+    private final int loadBatchSize;
+
+    private volatile Map<Long, long[]> following = new ConcurrentHashMap<>();
+    private volatile long lastRebuildMillis;
+    private volatile Instant lastRefresh = Instant.EPOCH;
+    // Cambios aplicados mientras corre un rebuild: se vuelven a aplicar sobre el índice nuevo
+    private List<Edge> appliedDuringRebuild;
+    // Seguidores cuyo conjunto de seguidos cambió desde el último drainChanged()
+    private Set<Long> changed = new HashSet<>();
+
+    public FollowGraph(FollowEdgeRepository followEdgeRepository,
+                       FollowChangeRepository followChangeRepository,
+                       @Value("${graph.follow.loadBatchSize:10000}") int loadBatchSize) {
+        this.followEdgeRepository = followEdgeRepository;
+        this.followChangeRepository = followChangeRepository;
+        this.loadBatchSize = loadBatchSize;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public boolean isFollowing(Long followerId, Long followedId) {
+        if (followerId == null || followedId == null) {
+            return false;
+        }
+        long[] ids = following.get(followerId);
+        return ids != null && Arrays.binarySearch(ids, followedId) >= 0;
+    }
+
+    public int followingCount(Long userId) {
+        long[] ids = following.get(userId);
+        return ids == null ? 0 : ids.length;
+    }
+
+    /**
+     * Se aplica enseguida (el mismo request ve su follow); si la transacción en curso se revierte,
+     * se deshace al terminar.
+     */
+    public void onFollow(Long followerId, Long followedId) {
+        record(new Edge(followerId, followedId, true));
+    }
+
+    public void onUnfollow(Long followerId, Long followedId) {
+        record(new Edge(followerId, followedId, false));
+    }
+
+    /**
+     * Baja de cuenta: borra lo que el usuario seguía y lo quita de la lista de sus seguidores.
+     * No se deshace en un rollback: hasta el próximo rebuild se niega de más, nunca de menos.
+     */
+    public synchronized void onUserDeleted(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        removeUser(following, userId);
+        changed.add(userId);
+        if (appliedDuringRebuild != null) {
+            appliedDuringRebuild.add(new Edge(userId, null, false));
+        }
+    }
+
+    /**
+     * Copia compacta (CSR) del grafo actual, para recorridos largos fuera de los locks del índice.
+     */
+    public AdjacencySnapshot snapshot() {
+        return AdjacencySnapshot.of(following);
+    }
+
+    /**
+     * Usuarios que siguieron o dejaron de seguir a alguien (o se dieron de baja) desde la llamada
+     * anterior. Solo ve los cambios hechos en esta instancia.
+     */
+    public synchronized Set<Long> drainChanged() {
+        Set<Long> drained = changed;
+        changed = new HashSet<>();
+        return drained;
+    }
+
+    public Map<String, Number> stats() {
+        Map<Long, long[]> current = following;
+        long edges = 0;
+        for (long[] ids : current.values()) {
+            edges += ids.length;
+        }
+        Map<String, Number> stats = new LinkedHashMap<>();
+        stats.put("users", current.size());
+        stats.put("edges", edges);
+        stats.put("lastRebuildMillis", lastRebuildMillis);
+        return stats;
+    }
+
+    /**
+     * Incorpora los follows/unfollows/bajas registrados por otras instancias (reaplicar los propios
+     * no cambia nada). No marca changed: RecommendationJob de la instancia que hizo el cambio ya lo recalcula.
+     */
+    @Scheduled(fixedDelayString = "${graph.follow.refreshDelay:5000}",
+               initialDelayString = "${graph.follow.refreshDelay:5000}")
+    public void refresh() {
+        Instant startedAt = Instant.now();
+        List<FollowChange> rows = followChangeRepository.findByCreatedAtAfterOrderByIdAsc(lastRefresh.minus(REFRESH_OVERLAP));
+        if (!rows.isEmpty()) {
+            synchronized (this) {
+                for (FollowChange row : rows) {
+                    Edge edge = new Edge(row.getFollowerId(), row.getFollowedId(), row.isFollow());
+                    apply(following, edge);
+                    if (appliedDuringRebuild != null) {
+                        appliedDuringRebuild.add(edge);
+                    }
+                }
+            }
+        }
+        lastRefresh = startedAt;
+    }
+
+    @Scheduled(fixedDelayString = "${graph.follow.rebuildDelay:600000}",
+               initialDelayString = "${graph.follow.rebuildDelay:600000}")
+    public void rebuild() {
+        long start = System.nanoTime();
+        Instant startedAt = Instant.now();
+        synchronized (this) {
+            appliedDuringRebuild = new ArrayList<>();
+        }
+        Map<Long, long[]> rebuilt;
+        long edges;
+        try {
+            int purged = followChangeRepository.deleteCreatedBefore(startedAt.minus(CHANGE_RETENTION));
+            if (purged > 0) {
+                log.debug("Purged {} old follow changes", purged);
+            }
+            rebuilt = new ConcurrentHashMap<>();
+            edges = load(rebuilt);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                appliedDuringRebuild = null;
+            }
+            throw e;
+        }
+        synchronized (this) {
+            for (Edge edge : appliedDuringRebuild) {
+                apply(rebuilt, edge);
+            }
+            appliedDuringRebuild = null;
+            following = rebuilt;
+        }
+        if (lastRefresh.isBefore(startedAt)) {
+            lastRefresh = startedAt;
+        }
+        lastRebuildMillis = (System.nanoTime() - start) / 1_000_000;
+        log.info("Follow graph loaded: {} users, {} edges in {} ms", rebuilt.size(), edges, lastRebuildMillis);
+    }
+
+    // Las aristas llegan ordenadas por (follower, followed): cada array sale ya ordenado
+    private long load(Map<Long, long[]> target) {
+        long afterFollower = Long.MIN_VALUE;
+        long afterFollowed = Long.MIN_VALUE;
+        long current = 0;
+        long[] buffer = new long[16];
+        int size = 0;
+        long edges = 0;
+        while (true) {
+            List<FollowEdgeProjection> batch = followEdgeRepository.findEdgesAfter(
+                    afterFollower, afterFollowed, PageRequest.of(0, loadBatchSize));
+            for (FollowEdgeProjection edge : batch) {
+                long followerId = edge.getFollowerId();
+                if (size > 0 && followerId != current) {
+                    target.put(current, Arrays.copyOf(buffer, size));
+                    size = 0;
+                }
+                current = followerId;
+                if (size == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, size * 2);
+                }
+                buffer[size++] = edge.getFollowedId();
+                afterFollower = followerId;
+                afterFollowed = edge.getFollowedId();
+                edges++;
+            }
+            if (batch.size() < loadBatchSize) {
+                break;
+            }
+        }
+        if (size > 0) {
+            target.put(current, Arrays.copyOf(buffer, size));
+        }
+        return edges;
+    }
+
+    private void record(Edge edge) {
+        if (edge.followerId == null || edge.followedId == null) {
+            return;
+        }
+        applyNow(edge);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        applyNow(edge.inverse());
+                    }
+                }
+            });
+        }
+    }
+
+    private synchronized void applyNow(Edge edge) {
+        apply(following, edge);
+        changed.add(edge.followerId);
+        if (appliedDuringRebuild != null) {
+            appliedDuringRebuild.add(edge);
+        }
+    }
+
+    private static void apply(Map<Long, long[]> target, Edge edge) {
+        if (edge.followedId == null) {
+            removeUser(target, edge.followerId);
+        } else if (edge.follow) {
+            target.compute(edge.followerId, (id, ids) -> insert(ids, edge.followedId));
+        } else {
+            target.computeIfPresent(edge.followerId, (id, ids) -> remove(ids, edge.followedId));
+        }
+    }
+
+    private static void removeUser(Map<Long, long[]> target, Long userId) {
+        target.remove(userId);
+        for (Long followerId : target.keySet()) {
+            target.computeIfPresent(followerId, (id, ids) -> remove(ids, userId));
+        }
+    }
+
+    private static long[] insert(long[] ids, long value) {
+        if (ids == null) {
+            return new long[] {value};
+        }
+        int pos = Arrays.binarySearch(ids, value);
+        if (pos >= 0) {
+            return ids;
+        }
+        int at = -pos - 1;
+        long[] copy = new long[ids.length + 1];
+        System.arraycopy(ids, 0, copy, 0, at);
+        copy[at] = value;
+        System.arraycopy(ids, at, copy, at + 1, ids.length - at);
+        return copy;
+    }
+
+    // null borra la entrada del mapa cuando el usuario deja de seguir a todos
+    private static long[] remove(long[] ids, long value) {
+        int pos = Arrays.binarySearch(ids, value);
+        if (pos < 0) {
+            return ids;
+        }
+        if (ids.length == 1) {
+            return null;
+        }
+        long[] copy = new long[ids.length - 1];
+        System.arraycopy(ids, 0, copy, 0, pos);
+        System.arraycopy(ids, pos + 1, copy, pos, ids.length - pos - 1);
+        return copy;
+    }
+
+    // followedId null = baja del usuario followerId
+    private static final class Edge {
+        final Long followerId;
+        final Long followedId;
+        final boolean follow;
+
+        Edge(Long followerId, Long followedId, boolean follow) {
+            this.followerId = followerId;
+            this.followedId = followedId;
+            this.follow = follow;
+        }
+
+        Edge inverse() {
+            return new Edge(followerId, followedId, !follow);
+        }
+    }
+}
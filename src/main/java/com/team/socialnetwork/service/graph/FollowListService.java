@@ -0,0 +1,75 @@
+package com.team.socialnetwork.service.graph;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+
+import com.team.socialnetwork.dto.Cursor;
+import com.team.socialnetwork.dto.CursorPage;
+import com.team.socialnetwork.dto.FollowUserResponse;
+import com.team.socialnetwork.repository.FollowEdgeRepository;
+import com.team.socialnetwork.repository.projection.FollowUserProjection;
+import com.team.socialnetwork.service.media.ImageVariant;
+import com.team.socialnetwork.service.media.MediaUrlSigner;
+
+/**
+ * Seguidores y seguidos de un usuario por páginas, del follow más reciente al más viejo.
+ * Cursor sobre (created_at, id del otro usuario): una consulta por página sobre el índice de
+ * user_following, proyectada sin cargar entidades User.
+ * Al arrancar completa created_at en las filas que no lo tienen con EPOCH: quedan al final del listado.
+ */
+@Service
+public class FollowListService implements SmartInitializingSingleton {
+    private static final Logger log = LoggerFactory.getLogger(FollowListService.class);
+
+    private final FollowEdgeRepository followEdgeRepository;
+    private final MediaUrlSigner mediaUrlSigner;
+
+    public FollowListService(FollowEdgeRepository followEdgeRepository, MediaUrlSigner mediaUrlSigner) {
+        this.followEdgeRepository = followEdgeRepository;
+        this.mediaUrlSigner = mediaUrlSigner;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        int filled = followEdgeRepository.fillMissingCreatedAt(Instant.EPOCH);
+        if (filled > 0) {
+            log.info("Filled created_at on {} follow rows", filled);
+        }
+    }
+
+    public CursorPage<FollowUserResponse> followers(Long userId, Cursor after, int size) {
+        PageRequest window = PageRequest.of(0, size);
+        return toPage(after == null
+                ? followEdgeRepository.findFollowers(userId, window)
+                : followEdgeRepository.findFollowersBefore(userId, after.getCreatedAt(), after.getId(), window));
+    }
+
+    public CursorPage<FollowUserResponse> following(Long userId, Cursor after, int size) {
+        PageRequest window = PageRequest.of(0, size);
+        return toPage(after == null
+                ? followEdgeRepository.findFollowing(userId, window)
+                : followEdgeRepository.findFollowingBefore(userId, after.getCreatedAt(), after.getId(), window));
+    }
+
+    private CursorPage<FollowUserResponse> toPage(Slice<FollowUserProjection> slice) {
+        List<FollowUserProjection> rows = slice.getContent();
+        String next = null;
+        if (slice.hasNext() && !rows.isEmpty()) {
+            FollowUserProjection last = rows.get(rows.size() - 1);
+            next = new Cursor(last.getFollowedAt(), last.getUserId()).encode();
+        }
+        return new CursorPage<>(rows.stream().map(this::toResponse).toList(), next, slice.hasNext());
+    }
+
+    FollowUserResponse toResponse(FollowUserProjection row) {
+        return new FollowUserResponse(row.getUserId(), row.getFullName(), row.getUsername(),
+                mediaUrlSigner.sign(ImageVariant.THUMB.urlFor(row.getProfilePicture())), row.getFollowedAt());
+    }
+}
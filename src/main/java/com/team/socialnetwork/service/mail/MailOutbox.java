@@ -0,0 +1,48 @@
+package com.team.socialnetwork.service.mail;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.team.socialnetwork.entity.MailOutboxMessage;
+import com.team.socialnetwork.entity.MailOutboxMessage.MailKind;
+import com.team.socialnetwork.repository.MailOutboxRepository;
+
+/**
+ * Encola mails en la tabla mail_outbox dentro de la transacción del llamador: si la transacción
+ * se revierte no sale ningún mail, y el request no espera al servidor SMTP.
+ * Después del commit despierta al dispatcher para que el envío no espere al próximo poll.
+ */
+@Service
+public class MailOutbox {
+
+    private final MailOutboxRepository mailOutboxRepository;
+    private final MailOutboxDispatcher dispatcher;
+
+    public MailOutbox(MailOutboxRepository mailOutboxRepository, MailOutboxDispatcher dispatcher) {
+        this.mailOutboxRepository = mailOutboxRepository;
+        this.dispatcher = dispatcher;
+    }
+
+    public void enqueueConfirmation(String to, String token) {
+        enqueue(new MailOutboxMessage(to, MailKind.CONFIRM_EMAIL, token));
+    }
+
+    public void enqueuePasswordReset(String to, String token) {
+        enqueue(new MailOutboxMessage(to, MailKind.PASSWORD_RESET, token));
+    }
+
+    private void enqueue(MailOutboxMessage message) {
+        mailOutboxRepository.save(message);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatcher.wakeUp();
+                }
+            });
+        } else {
+            dispatcher.wakeUp();
+        }
+    }
+}
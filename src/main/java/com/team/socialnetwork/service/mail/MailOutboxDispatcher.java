@@ -0,0 +1,226 @@
+package com.team.socialnetwork.service.mail;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.team.socialnetwork.entity.MailOutboxMessage;
+import com.team.socialnetwork.entity.MailOutboxMessage.Status;
+import com.team.socialnetwork.repository.MailOutboxRepository;
+
+/**
+ * Envía los mails de mail_outbox en segundo plano, en lotes de hasta batchSize por conexión SMTP
+ * (ver PooledMailTransport). Como mucho `concurrency` lotes a la vez;
+ * un envío fallido se reintenta con backoff exponencial (initialBackoff, 2x, 4x... hasta maxBackoff)
+ * y después de maxAttempts queda FAILED.
+ * Cada mensaje se toma con un lease (claimedUntil) antes de enviarlo, así dos instancias no mandan
+ * el mismo mail; si el proceso muere a mitad de un envío, el lease vence y se reintenta
+ * (entrega "al menos una vez").
+ */
+@Service
+public class MailOutboxDispatcher {
+    private static final Logger log = LoggerFactory.getLogger(MailOutboxDispatcher.class);
+
+    private final MailOutboxRepository mailOutboxRepository;
+    private final MailService mailService;
+    private final int concurrency;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+    private final Duration retention;
+    private final ThreadPoolExecutor executor;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+
+    public MailOutboxDispatcher(MailOutboxRepository mailOutboxRepository, MailService mailService,
+                                @Value("${mail.outbox.concurrency:2}") int concurrency,
+                                @Value("${mail.outbox.batchSize:20}") int batchSize,
+                                @Value("${mail.outbox.maxAttempts:8}") int maxAttempts,
+                                @Value("${mail.outbox.initialBackoffSeconds:30}") long initialBackoffSeconds,
+                                @Value("${mail.outbox.maxBackoffSeconds:3600}") long maxBackoffSeconds,
+                                @Value("${mail.outbox.leaseSeconds:300}") long leaseSeconds,
+                                @Value("${mail.outbox.retentionHours:168}") long retentionHours) {
+        this.mailOutboxRepository = mailOutboxRepository;
+        this.mailService = mailService;
+        this.concurrency = concurrency;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = Duration.ofSeconds(initialBackoffSeconds);
+        this.maxBackoff = Duration.ofSeconds(maxBackoffSeconds);
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.retention = Duration.ofHours(retentionHours);
+        AtomicInteger threadNumber = new AtomicInteger();
+        // Lugar para los envíos en curso más un poll pedido por wakeUp()
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(concurrency + 1),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "mail-outbox-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Toma los mensajes vencidos (hasta batchSize por lugar libre) y los reparte en lotes entre los
+     * hilos libres; cada lote sale por una misma conexión SMTP.
+     */
+    @Scheduled(fixedDelayString = "${mail.outbox.pollDelay:5000}")
+    public void poll() {
+        int free = concurrency - inFlight.get();
+        if (free <= 0) {
+            return;
+        }
+        Instant now = Instant.now();
+        List<Long> due = mailOutboxRepository.findDueIds(Status.PENDING, now, PageRequest.of(0, free * batchSize));
+        List<Long> claimed = new ArrayList<>(due.size());
+        for (Long id : due) {
+            if (mailOutboxRepository.claim(id, Status.PENDING, now, now.plus(lease)) == 1) {
+                claimed.add(id);
+            }
+        }
+        int chunk = Math.max(1, (claimed.size() + free - 1) / free);
+        for (int from = 0; from < claimed.size(); from += chunk) {
+            List<Long> batch = List.copyOf(claimed.subList(from, Math.min(from + chunk, claimed.size())));
+            inFlight.incrementAndGet();
+            try {
+                executor.execute(() -> deliver(batch));
+            } catch (RejectedExecutionException e) {
+                // Quedan tomados hasta que venza el lease; los levanta un poll posterior
+                inFlight.decrementAndGet();
+                return;
+            }
+        }
+    }
+
+    // Llamado después del commit que encoló un mail: envía ya en vez de esperar al próximo poll
+    public void wakeUp() {
+        if (!wakeUpPending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                wakeUpPending.set(false);
+                try {
+                    poll();
+                } catch (RuntimeException e) {
+                    log.warn("Mail outbox poll failed: {}", e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            wakeUpPending.set(false);
+        }
+    }
+
+    void deliver(List<Long> ids) {
+        try {
+            List<MailOutboxMessage> messages = new ArrayList<>();
+            for (MailOutboxMessage message : mailOutboxRepository.findAllById(ids)) {
+                if (message.getStatus() == Status.PENDING) {
+                    messages.add(message);
+                }
+            }
+            if (messages.isEmpty()) {
+                return;
+            }
+            Map<Integer, Exception> failures;
+            try {
+                failures = mailService.sendBatch(messages);
+            } catch (Exception e) {
+                // Sin conexión al servidor: todo el lote cuenta como un intento fallido
+                failures = new HashMap<>();
+                for (int i = 0; i < messages.size(); i++) {
+                    failures.put(i, e);
+                }
+            }
+            for (int i = 0; i < messages.size(); i++) {
+                Exception failure = failures.get(i);
+                if (failure == null) {
+                    markSent(messages.get(i));
+                } else {
+                    markFailed(messages.get(i), failure);
+                }
+            }
+            mailOutboxRepository.saveAll(messages);
+        } catch (RuntimeException e) {
+            log.warn("Mail outbox delivery of {} failed: {}", ids, e.getMessage());
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private void markSent(MailOutboxMessage message) {
+        message.setStatus(Status.SENT);
+        message.setSentAt(Instant.now());
+        message.setToken(null);
+        message.setLastError(null);
+        message.setClaimedUntil(null);
+    }
+
+    private void markFailed(MailOutboxMessage message, Exception error) {
+        int attempts = message.getAttempts() + 1;
+        message.setAttempts(attempts);
+        message.setLastError(truncate(error.getMessage()));
+        message.setClaimedUntil(null);
+        if (attempts >= maxAttempts) {
+            message.setStatus(Status.FAILED);
+            message.setToken(null);
+            log.error("Giving up on {} mail {} to {} after {} attempts: {}",
+                    message.getKind(), message.getId(), message.getRecipient(), attempts, error.getMessage());
+        } else {
+            message.setNextAttemptAt(Instant.now().plus(backoff(attempts)));
+            log.warn("Could not send {} mail {} (attempt {}), retrying at {}: {}",
+                    message.getKind(), message.getId(), attempts, message.getNextAttemptAt(), error.getMessage());
+        }
+    }
+
+    // initialBackoff * 2^(intentos-1), con tope maxBackoff
+    Duration backoff(int attempts) {
+        int shift = Math.min(attempts - 1, 30);
+        Duration delay = initialBackoff.multipliedBy(1L << shift);
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    // Borra los mensajes ya enviados o abandonados después del período de retención
+    @Scheduled(fixedDelayString = "${mail.outbox.cleanupDelay:3600000}",
+               initialDelayString = "${mail.outbox.cleanupDelay:3600000}")
+    public void purgeFinished() {
+        int purged = mailOutboxRepository.deleteFinishedBefore(Status.PENDING, Instant.now().minus(retention));
+        if (purged > 0) {
+            log.info("Purged {} finished mail outbox messages", purged);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static String truncate(String error) {
+        if (error == null) {
+            return null;
+        }
+        return error.length() <= 500 ? error : error.substring(0, 500);
+    }
+}
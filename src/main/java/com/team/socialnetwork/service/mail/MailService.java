@@ -5,18 +5,25 @@ import jakarta.mail.internet.MimeMessage;
 import org.springframework.beans.factory.annotation.Value;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.io.ClassPathResource;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
+import com.team.socialnetwork.entity.MailOutboxMessage;
+
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 @Service
 public class MailService {
     private static final Logger log = LoggerFactory.getLogger(MailService.class);
-    private final JavaMailSender mailSender;
+    private final PooledMailTransport transport;
+    // Se compilan una vez al arrancar: cada envío solo rellena el hueco {{LINK}}
+    private final MailTemplate confirmEmailTemplate;
+    private final MailTemplate resetPasswordTemplate;
 
     @Value("${EMAIL_USER}")
     private String fromEmail;
@@ -27,43 +34,80 @@ public class MailService {
     @Value("${frontend.base.url:http://localhost:5173}")
     private String frontendBaseUrl;
 
-    public MailService(JavaMailSender mailSender) {
-        this.mailSender = mailSender;
+    public MailService(PooledMailTransport transport) {
+        this.transport = transport;
+        try {
+            this.confirmEmailTemplate = MailTemplate.load("confirm-email.html");
+            this.resetPasswordTemplate = MailTemplate.load("reset-password.html");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load mail templates", e);
+        }
+    }
+
+    public void sendConfirmationEmail(String to, String token) throws MessagingException {
+        send(confirmationEmail(to, token));
+    }
+
+    public void sendPasswordReset(String to, String token) throws MessagingException {
+        send(passwordReset(to, token));
     }
 
-    private String loadTemplate(String name, String link) throws IOException {
-        String templatePath = "mail/templates/" + name;
-        ClassPathResource resource = new ClassPathResource(templatePath);
-        // Read resource safely inside a JAR
-        try (var is = resource.getInputStream()) {
-            String html = new String(is.readAllBytes(), StandardCharsets.UTF_8);
-            // Log the URL for local development to easily copy the token/link
-            log.info("Mail link ({}): {}", name, link);
-            return html.replace("{{LINK}}", link);
+    /**
+     * Envío por lotes reutilizando conexiones SMTP. Devuelve los fallos por índice del mensaje
+     * en la lista (vacío si salieron todos); si no hay conexión lanza MessagingException.
+     */
+    public Map<Integer, Exception> sendBatch(List<MailOutboxMessage> messages) throws MessagingException {
+        Map<Integer, Exception> failures = new LinkedHashMap<>();
+        List<MimeMessage> built = new ArrayList<>(messages.size());
+        List<Integer> positions = new ArrayList<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            MailOutboxMessage message = messages.get(i);
+            try {
+                built.add(switch (message.getKind()) {
+                    case CONFIRM_EMAIL -> confirmationEmail(message.getRecipient(), message.getToken());
+                    case PASSWORD_RESET -> passwordReset(message.getRecipient(), message.getToken());
+                });
+                positions.add(i);
+            } catch (MessagingException | RuntimeException e) {
+                failures.put(i, e);
+            }
         }
+        transport.sendAll(built).forEach((index, error) -> failures.put(positions.get(index), error));
+        return failures;
     }
 
-    public void sendConfirmationEmail(String to, String token) throws MessagingException, IOException {
+    private MimeMessage confirmationEmail(String to, String token) throws MessagingException {
         // For email confirmation, we use the frontend URL so users can confirm their account in the UI
         String confirmationUrl = frontendBaseUrl + "/confirm-email?token=" + token;
-        String html = loadTemplate("confirm-email.html", confirmationUrl);
-        sendEmail(to, "✅ Confirm your account", html);
+        return build(to, "✅ Confirm your account", confirmEmailTemplate, confirmationUrl);
     }
 
-    public void sendPasswordReset(String to, String token) throws MessagingException, IOException {
+    private MimeMessage passwordReset(String to, String token) throws MessagingException {
         // For password reset, we use the frontend URL so users can reset their password in the UI
         String resetUrl = frontendBaseUrl + "/reset-password?token=" + token;
-        String html = loadTemplate("reset-password.html", resetUrl);
-        sendEmail(to, "🔐 Reset your SocialNetwork password", html);
+        return build(to, "🔐 Reset your SocialNetwork password", resetPasswordTemplate, resetUrl);
     }
 
-    private void sendEmail(String to, String subject, String html) throws MessagingException {
-        MimeMessage message = mailSender.createMimeMessage();
+    private MimeMessage build(String to, String subject, MailTemplate template, String link) throws MessagingException {
+        // Log the URL for local development to easily copy the token/link
+        log.info("Mail link ({}): {}", template.getName(), link);
+        String html = template.render(Map.of("LINK", link));
+        MimeMessage message = transport.createMimeMessage();
         MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
         helper.setFrom(fromEmail);
         helper.setTo(to);
         helper.setSubject(subject);
         helper.setText(html, true);
-        mailSender.send(message);
+        return message;
+    }
+
+    private void send(MimeMessage message) throws MessagingException {
+        Exception failure = transport.sendAll(List.of(message)).get(0);
+        if (failure instanceof MessagingException messaging) {
+            throw messaging;
+        }
+        if (failure != null) {
+            throw new MessagingException(failure.getMessage(), failure);
+        }
     }
 }
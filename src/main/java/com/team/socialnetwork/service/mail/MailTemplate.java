@@ -0,0 +1,88 @@
+package com.team.socialnetwork.service.mail;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.core.io.ClassPathResource;
+
+/**
+ * Plantilla HTML de mail compilada una sola vez: el texto se parte en tramos literales y huecos
+ * {{NOMBRE}}. Renderizar es concatenar en un StringBuilder ya dimensionado, sin volver a leer
+ * el classpath ni buscar los placeholders en cada envío. Inmutable y thread-safe.
+ */
+public final class MailTemplate {
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    private final String name;
+    // literals.length == slots.length + 1: literal, hueco, literal, hueco, ..., literal
+    private final String[] literals;
+    private final String[] slots;
+    private final int literalLength;
+
+    private MailTemplate(String name, String[] literals, String[] slots) {
+        this.name = name;
+        this.literals = literals;
+        this.slots = slots;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    public static MailTemplate compile(String name, String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> slots = new ArrayList<>();
+        int from = 0;
+        while (true) {
+            int open = source.indexOf(OPEN, from);
+            int close = open < 0 ? -1 : source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                literals.add(source.substring(from));
+                break;
+            }
+            literals.add(source.substring(from, open));
+            slots.add(source.substring(open + OPEN.length(), close).trim());
+            from = close + CLOSE.length();
+        }
+        return new MailTemplate(name, literals.toArray(String[]::new), slots.toArray(String[]::new));
+    }
+
+    public static MailTemplate load(String name) throws IOException {
+        // Read resource safely inside a JAR
+        try (InputStream is = new ClassPathResource("mail/templates/" + name).getInputStream()) {
+            return compile(name, new String(is.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Reemplaza cada hueco por su valor; un hueco sin valor en el mapa lanza IllegalArgumentException
+     * (mejor que mandar un mail con "{{LINK}}" literal).
+     */
+    public String render(Map<String, String> values) {
+        int capacity = literalLength;
+        for (String slot : slots) {
+            String value = values.get(slot);
+            capacity += value != null ? value.length() : 0;
+        }
+        StringBuilder html = new StringBuilder(capacity);
+        for (int i = 0; i < slots.length; i++) {
+            html.append(literals[i]);
+            String value = values.get(slots[i]);
+            if (value == null) {
+                throw new IllegalArgumentException("Missing value for {{" + slots[i] + "}} in " + name);
+            }
+            html.append(value);
+        }
+        return html.append(literals[slots.length]).toString();
+    }
+
+    public String getName() {
+        return name;
+    }
+}
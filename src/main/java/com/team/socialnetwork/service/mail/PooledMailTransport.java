@@ -0,0 +1,199 @@
+package com.team.socialnetwork.service.mail;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+/**
+ * Conexiones SMTP reutilizables: en vez de un connect + STARTTLS + AUTH por mensaje, cada conexión
+ * manda muchos mensajes seguidos (hasta maxMessagesPerConnection) y vuelve al pool.
+ * Como mucho maxConnections abiertas; una conexión ociosa más de idleTimeout se cierra
+ * (los servidores cortan las conexiones inactivas). Si la conexión se cae a mitad de un lote
+ * se abre otra y el mensaje se reintenta una vez.
+ * Con un JavaMailSender que no sea JavaMailSenderImpl (no expone la Session) envía de a uno.
+ */
+@Component
+public class PooledMailTransport {
+    private static final Logger log = LoggerFactory.getLogger(PooledMailTransport.class);
+
+    private final JavaMailSender mailSender;
+    private final JavaMailSenderImpl senderImpl;
+    private final int maxMessagesPerConnection;
+    private final long idleTimeoutNanos;
+    private final long borrowTimeoutMillis;
+    private final Semaphore permits;
+    private final ArrayBlockingQueue<Connection> idle;
+
+    public PooledMailTransport(JavaMailSender mailSender,
+                               @Value("${mail.pool.maxConnections:2}") int maxConnections,
+                               @Value("${mail.pool.maxMessagesPerConnection:100}") int maxMessagesPerConnection,
+                               @Value("${mail.pool.idleTimeoutSeconds:30}") long idleTimeoutSeconds,
+                               @Value("${mail.pool.borrowTimeoutMillis:10000}") long borrowTimeoutMillis) {
+        this.mailSender = mailSender;
+        this.senderImpl = mailSender instanceof JavaMailSenderImpl impl ? impl : null;
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+        this.idleTimeoutNanos = TimeUnit.SECONDS.toNanos(idleTimeoutSeconds);
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.permits = new Semaphore(maxConnections, true);
+        this.idle = new ArrayBlockingQueue<>(maxConnections);
+    }
+
+    public MimeMessage createMimeMessage() {
+        return mailSender.createMimeMessage();
+    }
+
+    /**
+     * Envía los mensajes en orden sobre una misma conexión. Devuelve los fallos por índice
+     * (vacío si salieron todos); si a mitad del lote no se puede abrir conexión, fallan los que
+     * faltaban y los ya enviados se informan igual. Lanza MessagingException solo si no hay conexión
+     * libre en el pool (no salió ninguno).
+     */
+    public Map<Integer, Exception> sendAll(List<MimeMessage> messages) throws MessagingException {
+        Map<Integer, Exception> failures = new LinkedHashMap<>();
+        if (messages.isEmpty()) {
+            return failures;
+        }
+        if (senderImpl == null) {
+            for (int i = 0; i < messages.size(); i++) {
+                try {
+                    mailSender.send(messages.get(i));
+                } catch (MailException e) {
+                    failures.put(i, e);
+                }
+            }
+            return failures;
+        }
+        if (!acquire()) {
+            throw new MessagingException("No SMTP connection available within " + borrowTimeoutMillis + " ms");
+        }
+        Connection connection = null;
+        try {
+            for (int i = 0; i < messages.size(); i++) {
+                MimeMessage message = messages.get(i);
+                if (connection == null) {
+                    try {
+                        connection = borrow();
+                    } catch (MessagingException e) {
+                        // Servidor inalcanzable: no se insiste con el resto, pero lo ya enviado no se reintenta
+                        for (int rest = i; rest < messages.size(); rest++) {
+                            failures.put(rest, e);
+                        }
+                        break;
+                    }
+                }
+                try {
+                    connection.send(message);
+                } catch (MessagingException e) {
+                    if (connection.transport.isConnected()) {
+                        // El servidor rechazó este mensaje (destinatario, contenido): la conexión sigue sirviendo
+                        failures.put(i, e);
+                    } else {
+                        // Conexión caída (típico de una ociosa que el servidor cerró): otra conexión y un reintento
+                        close(connection);
+                        connection = null;
+                        try {
+                            connection = open();
+                            connection.send(message);
+                        } catch (MessagingException retry) {
+                            failures.put(i, retry);
+                        }
+                    }
+                }
+                if (connection != null && connection.sent >= maxMessagesPerConnection) {
+                    close(connection);
+                    connection = null;
+                }
+            }
+        } finally {
+            if (connection != null) {
+                connection.idleSince = System.nanoTime();
+                if (!idle.offer(connection)) {
+                    close(connection);
+                }
+            }
+            permits.release();
+        }
+        return failures;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        Connection connection;
+        while ((connection = idle.poll()) != null) {
+            close(connection);
+        }
+    }
+
+    private boolean acquire() throws MessagingException {
+        try {
+            return permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted while waiting for an SMTP connection", e);
+        }
+    }
+
+    private Connection borrow() throws MessagingException {
+        Connection connection;
+        while ((connection = idle.poll()) != null) {
+            if (System.nanoTime() - connection.idleSince < idleTimeoutNanos) {
+                return connection;
+            }
+            close(connection);
+        }
+        return open();
+    }
+
+    private Connection open() throws MessagingException {
+        // Mismo criterio que JavaMailSenderImpl: protocolo configurado, el de la sesión o "smtp"
+        String protocol = senderImpl.getProtocol();
+        if (protocol == null) {
+            protocol = senderImpl.getSession().getProperty("mail.transport.protocol");
+        }
+        Transport transport = senderImpl.getSession().getTransport(protocol != null ? protocol : "smtp");
+        transport.connect(senderImpl.getHost(), senderImpl.getPort(), senderImpl.getUsername(), senderImpl.getPassword());
+        log.debug("Opened SMTP connection to {}:{}", senderImpl.getHost(), senderImpl.getPort());
+        return new Connection(transport);
+    }
+
+    private static void close(Connection connection) {
+        try {
+            connection.transport.close();
+        } catch (MessagingException e) {
+            log.debug("Error closing SMTP connection: {}", e.getMessage());
+        }
+    }
+
+    private static final class Connection {
+        final Transport transport;
+        int sent;
+        long idleSince = System.nanoTime();
+
+        Connection(Transport transport) {
+            this.transport = transport;
+        }
+
+        void send(MimeMessage message) throws MessagingException {
+            // Transport.send(...) estático lo hace solo; sendMessage sobre una conexión abierta no
+            message.saveChanges();
+            transport.sendMessage(message, message.getAllRecipients());
+            sent++;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.team.socialnetwork.service.media;
+
+import java.util.Locale;
+import java.util.Set;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Tamaños derivados que genera ImageVariantService (JPEG, lado mayor acotado).
+ * Se piden con /media/{key}?size=thumb|medium; sin size se sirve el original.
+ * Los GIF no tienen variantes (se perdería la animación), ni los formatos que ImageIO no sabe leer.
+ */
+public enum ImageVariant {
+    THUMB(320),
+    MEDIUM(1080);
+
+    // Extensiones del almacén con variantes: png/jpg siempre; webp solo si hay un reader de ImageIO instalado
+    private static final Set<String> VARIANT_EXTENSIONS = ImageIO.getImageReadersBySuffix("webp").hasNext()
+            ? Set.of("png", "jpg", "webp")
+            : Set.of("png", "jpg");
+
+    private final int maxSide;
+
+    ImageVariant(int maxSide) {
+        this.maxSide = maxSide;
+    }
+
+    public int getMaxSide() { return maxSide; }
+
+    public String param() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * URL de esta variante para una referencia guardada en la entidad.
+     * Solo las referencias del almacén de media en un formato con variantes las tienen; el resto se devuelve igual
+     * (pedir ?size= de un GIF serviría siempre el original sin cache).
+     */
+    public String urlFor(String reference) {
+        if (reference == null || !reference.startsWith(MediaStore.URL_PREFIX) || reference.indexOf('?') >= 0
+                || !supports(reference)) {
+            return reference;
+        }
+        return reference + "?size=" + param();
+    }
+
+    // true si ImageVariantService puede generar variantes para esta clave o referencia
+    public static boolean supports(String key) {
+        int dot = key.lastIndexOf('.');
+        return dot >= 0 && VARIANT_EXTENSIONS.contains(key.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * null si no se pidió variante (original); 400 si el valor no es un tamaño conocido.
+     */
+    public static ImageVariant fromParam(String size) {
+        if (size == null || size.isBlank() || size.equalsIgnoreCase("original")) {
+            return null;
+        }
+        for (ImageVariant variant : values()) {
+            if (variant.param().equalsIgnoreCase(size.trim())) {
+                return variant;
+            }
+        }
+        throw new org.springframework.web.server.ResponseStatusException(
+                org.springframework.http.HttpStatus.BAD_REQUEST, "Invalid size");
+    }
+}
@@ -0,0 +1,224 @@
+package com.team.socialnetwork.service.media;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Genera en segundo plano las variantes JPEG (thumb, medium) de cada imagen subida.
+ * Pool de hilos fijo con cola acotada: si la cola está llena, una subida genera sus variantes
+ * en el propio hilo del request (backpressure hacia quien produce el trabajo); una lectura
+ * que encuentra la variante faltante solo la encola si hay lugar.
+ */
+@Service
+public class ImageVariantService {
+    private static final Logger log = LoggerFactory.getLogger(ImageVariantService.class);
+
+    private static final float JPEG_QUALITY = 0.82f;
+
+    private final MediaStore mediaStore;
+    private final ThreadPoolExecutor executor;
+    // Claves en cola o en proceso: la misma imagen subida dos veces se procesa una sola vez
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    public ImageVariantService(MediaStore mediaStore,
+                               @Value("${media.variants.workers:2}") int workers,
+                               @Value("${media.variants.queueCapacity:100}") int queueCapacity) {
+        this.mediaStore = mediaStore;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-variants-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Después de una subida: encola la generación; con la cola llena la hace el hilo que llama.
+     */
+    public void schedule(String reference) {
+        String key = keyOf(reference);
+        if (key == null || !ImageVariant.supports(key) || !inFlight.add(key)) {
+            return;
+        }
+        try {
+            executor.execute(() -> runAndRelease(key));
+        } catch (RejectedExecutionException e) {
+            log.debug("Variant queue full, generating {} on caller thread", key);
+            runAndRelease(key);
+        }
+    }
+
+    /**
+     * Desde una lectura sin variante (imágenes anteriores o trabajo perdido en un reinicio):
+     * se encola solo si hay lugar, nunca bloquea al lector.
+     */
+    public void scheduleIfIdle(String key) {
+        if (!ImageVariant.supports(key) || !inFlight.add(key)) {
+            return;
+        }
+        try {
+            executor.execute(() -> runAndRelease(key));
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key);
+        }
+    }
+
+    /**
+     * Genera las variantes que falten para una clave "<sha256>.<ext>".
+     * Los GIF se dejan como están (se perdería la animación) y los formatos que ImageIO no lee se omiten.
+     */
+    void generate(String key) {
+        Path original = mediaStore.resolve(key).orElse(null);
+        if (original == null || !ImageVariant.supports(key)) {
+            return;
+        }
+        String hash = MediaStore.hashOf(key);
+        boolean missing = false;
+        for (ImageVariant variant : ImageVariant.values()) {
+            missing |= !mediaStore.hasVariant(hash, variant);
+        }
+        if (!missing) {
+            return;
+        }
+        try {
+            BufferedImage source = readSubsampled(original, ImageVariant.MEDIUM.getMaxSide());
+            if (source == null) {
+                log.debug("No ImageIO reader for {}, variants skipped", key);
+                return;
+            }
+            for (ImageVariant variant : ImageVariant.values()) {
+                if (!mediaStore.hasVariant(hash, variant)) {
+                    mediaStore.storeVariant(hash, variant, encodeJpeg(scale(source, variant.getMaxSide())));
+                }
+            }
+            log.debug("Generated variants for {}", key);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not generate variants for {}: {}", key, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void runAndRelease(String key) {
+        try {
+            generate(key);
+        } finally {
+            inFlight.remove(key);
+        }
+    }
+
+    private static String keyOf(String reference) {
+        if (reference == null || !reference.startsWith(MediaStore.URL_PREFIX)) {
+            return null;
+        }
+        return reference.substring(MediaStore.URL_PREFIX.length());
+    }
+
+    /**
+     * Decodifica saltando píxeles cuando el original es mucho más grande que la variante mayor:
+     * una foto de 24 MP no se expande entera en memoria para terminar en 1080 px.
+     */
+    private static BufferedImage readSubsampled(Path file, int targetSide) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int step = Math.max(1, longest / (2 * targetSide));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Reducción por mitades y paso final bilineal; fondo blanco porque JPEG no tiene alfa
+    static BufferedImage scale(BufferedImage source, int maxSide) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double ratio = Math.min(1.0, (double) maxSide / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(height * ratio));
+
+        BufferedImage current = source;
+        while (current.getWidth() / 2 >= targetWidth && current.getHeight() / 2 >= targetHeight) {
+            current = draw(current, current.getWidth() / 2, current.getHeight() / 2);
+        }
+        return draw(current, targetWidth, targetHeight);
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private static byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(bytes)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+}
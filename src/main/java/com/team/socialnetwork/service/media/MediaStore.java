@@ -0,0 +1,230 @@
+package com.team.socialnetwork.service.media;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Almacén de imágenes direccionado por contenido en disco local.
+ * El payload base64 se decodifica una sola vez y se guarda como <root>/<ab>/<sha256>;
+ * dos subidas con los mismos bytes comparten archivo. Las entidades guardan solo la
+ * referencia corta "/media/<sha256>.<ext>" que sirve MediaController.
+ */
+@Service
+public class MediaStore {
+    private static final Logger log = LoggerFactory.getLogger(MediaStore.class);
+
+    public static final String URL_PREFIX = "/media/";
+
+    // Clave pública: sha256 en hex + extensión conocida
+    private static final Pattern KEY = Pattern.compile("([0-9a-f]{64})\\.(png|jpg|gif|webp)");
+    private static final Pattern DATA_URL = Pattern.compile("^data:([\\w.+-]+/[\\w.+-]+)?;base64,", Pattern.CASE_INSENSITIVE);
+    // 16 caracteres base64 = 12 bytes, suficiente para reconocer cualquiera de los formatos soportados
+    private static final int RAW_BASE64_PROBE = 16;
+
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+            "png", "image/png",
+            "jpg", "image/jpeg",
+            "gif", "image/gif",
+            "webp", "image/webp"
+    );
+
+    private final Path root;
+
+    public MediaStore(@Value("${media.storage.root:data/media}") String root) {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+    }
+
+    /**
+     * Convierte el valor recibido del cliente en lo que se persiste en la entidad.
+     * Base64 (data URL o crudo) se guarda en disco y se devuelve su referencia;
+     * null, vacío, URLs y paths se devuelven tal cual.
+     */
+    public String toReference(String payload) {
+        if (payload == null || payload.isBlank()) {
+            return payload;
+        }
+        String value = payload.trim();
+        if (value.startsWith(URL_PREFIX)) {
+            // Un link que la API entregó (variante, exp, sig): se guarda solo la referencia
+            int query = value.indexOf('?');
+            return query < 0 ? value : value.substring(0, query);
+        }
+        java.util.regex.Matcher dataUrl = DATA_URL.matcher(value);
+        String base64;
+        if (dataUrl.find()) {
+            base64 = value.substring(dataUrl.end());
+        } else if (looksLikeRawBase64(value)) {
+            base64 = value;
+        } else {
+            return value;
+        }
+        byte[] bytes;
+        try {
+            bytes = Base64.getMimeDecoder().decode(base64);
+        } catch (IllegalArgumentException e) {
+            throw new org.springframework.web.server.ResponseStatusException(
+                    org.springframework.http.HttpStatus.BAD_REQUEST, "Invalid image payload");
+        }
+        return URL_PREFIX + store(bytes);
+    }
+
+    /**
+     * Guarda los bytes (si no existen ya) y devuelve la clave "<sha256>.<ext>".
+     * El tipo se detecta por los magic bytes, no por lo que declare el cliente.
+     */
+    public String store(byte[] bytes) {
+        String extension = sniffExtension(bytes);
+        if (extension == null) {
+            throw new org.springframework.web.server.ResponseStatusException(
+                    org.springframework.http.HttpStatus.BAD_REQUEST, "Unsupported image type");
+        }
+        String hash = sha256(bytes);
+        Path target = blobPath(hash);
+        if (!Files.exists(target)) {
+            try {
+                Files.createDirectories(target.getParent());
+                // Escribir a un temporal y mover: un lector nunca ve un archivo a medias
+                Path tmp = Files.createTempFile(target.getParent(), hash, ".tmp");
+                try {
+                    Files.write(tmp, bytes);
+                    moveIntoPlace(tmp, target);
+                } finally {
+                    Files.deleteIfExists(tmp);
+                }
+                log.debug("Stored media {} ({} bytes)", hash, bytes.length);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not store media " + hash, e);
+            }
+        }
+        return hash + "." + extension;
+    }
+
+    /**
+     * Archivo para una clave pública, vacío si la clave no es válida o no existe.
+     */
+    public Optional<Path> resolve(String key) {
+        java.util.regex.Matcher m = KEY.matcher(key);
+        if (!m.matches()) {
+            return Optional.empty();
+        }
+        Path path = blobPath(m.group(1));
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    /**
+     * Archivo de una variante ya generada, vacío si la clave no es válida o la variante todavía no existe.
+     */
+    public Optional<Path> resolveVariant(String key, ImageVariant variant) {
+        java.util.regex.Matcher m = KEY.matcher(key);
+        if (!m.matches()) {
+            return Optional.empty();
+        }
+        Path path = variantPath(m.group(1), variant);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    public boolean hasVariant(String hash, ImageVariant variant) {
+        return Files.isRegularFile(variantPath(hash, variant));
+    }
+
+    // Las variantes viven junto al original: <root>/<ab>/<sha256>-<variante>.jpg
+    public void storeVariant(String hash, ImageVariant variant, byte[] jpeg) {
+        Path target = variantPath(hash, variant);
+        try {
+            Files.createDirectories(target.getParent());
+            Path tmp = Files.createTempFile(target.getParent(), hash, ".tmp");
+            try {
+                Files.write(tmp, jpeg);
+                moveIntoPlace(tmp, target);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store variant " + variant.param() + " of " + hash, e);
+        }
+    }
+
+    public static String contentType(String key) {
+        int dot = key.lastIndexOf('.');
+        return dot < 0 ? "application/octet-stream"
+                : CONTENT_TYPES.getOrDefault(key.substring(dot + 1), "application/octet-stream");
+    }
+
+    // Hash del contenido: sirve de ETag fuerte
+    public static String hashOf(String key) {
+        int dot = key.indexOf('.');
+        return dot < 0 ? key : key.substring(0, dot);
+    }
+
+    private Path blobPath(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private Path variantPath(String hash, ImageVariant variant) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash + "-" + variant.param() + ".jpg");
+    }
+
+    private static void moveIntoPlace(Path tmp, Path target) throws IOException {
+        try {
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        } catch (java.nio.file.FileAlreadyExistsException e) {
+            // Otra subida con el mismo contenido ganó la carrera: mismo hash, mismos bytes
+        }
+    }
+
+    // Base64 sin prefijo: se decodifican los primeros 16 caracteres y se miran los magic bytes
+    private static boolean looksLikeRawBase64(String value) {
+        if (value.length() < RAW_BASE64_PROBE) {
+            return false;
+        }
+        try {
+            return sniffExtension(Base64.getDecoder().decode(value.substring(0, RAW_BASE64_PROBE))) != null;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    static String sniffExtension(byte[] b) {
+        if (b.length >= 8 && (b[0] & 0xff) == 0x89 && b[1] == 'P' && b[2] == 'N' && b[3] == 'G') {
+            return "png";
+        }
+        if (b.length >= 3 && (b[0] & 0xff) == 0xFF && (b[1] & 0xff) == 0xD8 && (b[2] & 0xff) == 0xFF) {
+            return "jpg";
+        }
+        if (b.length >= 6 && b[0] == 'G' && b[1] == 'I' && b[2] == 'F' && b[3] == '8') {
+            return "gif";
+        }
+        if (b.length >= 12 && b[0] == 'R' && b[1] == 'I' && b[2] == 'F' && b[3] == 'F'
+                && b[8] == 'W' && b[9] == 'E' && b[10] == 'B' && b[11] == 'P') {
+            return "webp";
+        }
+        return null;
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.team.socialnetwork.service.media;
+
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Links firmados a /media: las respuestas que ya pasaron el control de privacidad entregan
+ * "/media/<clave>?size=..&exp=..&sig=..", con sig = HMAC-SHA256(clave|size|exp). MediaController
+ * solo sirve links vigentes: una URL filtrada o guardada por un seguidor que ya no lo es deja de
+ * funcionar al vencer.
+ * exp se redondea a ventanas de ttlSeconds (vale entre una y dos ventanas): la misma imagen da la
+ * misma URL durante toda la ventana y el navegador la sigue encontrando en su cache.
+ */
+@Component
+public class MediaUrlSigner {
+
+    public static final String PARAM_EXPIRES = "exp";
+    public static final String PARAM_SIGNATURE = "sig";
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+    private final long windowSeconds;
+    private final Clock clock;
+
+    @Autowired
+    public MediaUrlSigner(@Value("${media.url.secret:${jwt.secret}}") String secret,
+                          @Value("${media.url.ttlSeconds:3600}") long ttlSeconds) {
+        this(secret, ttlSeconds, Clock.systemUTC());
+    }
+
+    MediaUrlSigner(String secret, long ttlSeconds, Clock clock) {
+        if (secret == null || secret.length() < 32) {
+            throw new IllegalArgumentException("media.url.secret must be at least 32 characters long");
+        }
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.windowSeconds = Math.max(1, ttlSeconds);
+        this.clock = clock;
+    }
+
+    /**
+     * Firma una referencia del almacén, con o sin ?size= (lo que devuelve ImageVariant.urlFor);
+     * null, URLs externas y referencias ya firmadas se devuelven igual.
+     */
+    public String sign(String reference) {
+        if (reference == null || !reference.startsWith(MediaStore.URL_PREFIX)
+                || reference.contains(PARAM_SIGNATURE + "=")) {
+            return reference;
+        }
+        int query = reference.indexOf('?');
+        String mediaKey = reference.substring(MediaStore.URL_PREFIX.length(), query < 0 ? reference.length() : query);
+        String size = null;
+        if (query >= 0) {
+            String params = reference.substring(query + 1);
+            if (!params.startsWith("size=") || params.indexOf('&') >= 0) {
+                return reference;
+            }
+            size = params.substring("size=".length());
+        }
+        long now = clock.instant().getEpochSecond();
+        long expires = (now / windowSeconds + 2) * windowSeconds;
+        return reference + (query < 0 ? "?" : "&") + PARAM_EXPIRES + "=" + expires
+                + "&" + PARAM_SIGNATURE + "=" + signature(mediaKey, size, expires);
+    }
+
+    /**
+     * true si la firma corresponde a la clave, el tamaño pedido (null = original) y exp, y exp no pasó.
+     */
+    public boolean verify(String mediaKey, String size, Long expires, String signature) {
+        if (mediaKey == null || expires == null || signature == null) {
+            return false;
+        }
+        if (expires <= clock.instant().getEpochSecond()) {
+            return false;
+        }
+        byte[] expected = signature(mediaKey, size, expires).getBytes(StandardCharsets.US_ASCII);
+        return MessageDigest.isEqual(expected, signature.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    // Segundos que le quedan al link, para el max-age de la respuesta
+    public long secondsLeft(long expires) {
+        return Math.max(0, expires - clock.instant().getEpochSecond());
+    }
+
+    private String signature(String mediaKey, String size, long expires) {
+        String payload = mediaKey + "|" + (size == null ? "" : size) + "|" + expires;
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            byte[] digest = mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new IllegalStateException(ALGORITHM + " not available", e);
+        }
+    }
+}
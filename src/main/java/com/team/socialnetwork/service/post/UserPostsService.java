@@ -0,0 +1,102 @@
+package com.team.socialnetwork.service.post;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.team.socialnetwork.dto.Cursor;
+import com.team.socialnetwork.dto.CursorPage;
+import com.team.socialnetwork.dto.PostResponse;
+import com.team.socialnetwork.dto.SafeUser;
+import com.team.socialnetwork.repository.PostRepository;
+import com.team.socialnetwork.repository.projection.PostRowProjection;
+import com.team.socialnetwork.service.media.ImageVariant;
+import com.team.socialnetwork.service.media.MediaUrlSigner;
+
+/**
+ * Listado de posts de un autor sin materializar todos sus posts.
+ * Cursor: una página por consulta sobre (author_id, created_at, id).
+ * Stream: la misma consulta keyset de a STREAM_CHUNK filas, escrita como array JSON a medida que llega;
+ * la memoria no depende de cuántos posts tenga el autor y la conexión vuelve al pool entre página y página
+ * (un cliente lento no retiene una conexión mientras se le escribe).
+ */
+@Service
+public class UserPostsService {
+
+    // Filas por consulta al armar el stream; después de cada página se empuja lo escrito al cliente
+    private static final int STREAM_CHUNK = 100;
+
+    private final PostRepository postRepository;
+    private final ObjectMapper objectMapper;
+    private final MediaUrlSigner mediaUrlSigner;
+
+    public UserPostsService(PostRepository postRepository, ObjectMapper objectMapper, MediaUrlSigner mediaUrlSigner) {
+        this.postRepository = postRepository;
+        this.objectMapper = objectMapper;
+        this.mediaUrlSigner = mediaUrlSigner;
+    }
+
+    public CursorPage<PostResponse> page(Long authorId, Cursor after, int size) {
+        PageRequest window = PageRequest.of(0, size);
+        Slice<PostRowProjection> slice = after == null
+                ? postRepository.findPostRowsByAuthor(authorId, window)
+                : postRepository.findPostRowsByAuthorBefore(authorId, after.getCreatedAt(), after.getId(), window);
+        List<PostRowProjection> rows = slice.getContent();
+        String next = null;
+        if (slice.hasNext() && !rows.isEmpty()) {
+            PostRowProjection last = rows.get(rows.size() - 1);
+            next = new Cursor(last.getCreatedAt(), last.getPostId()).encode();
+        }
+        return new CursorPage<>(rows.stream().map(this::toResponse).toList(), next, slice.hasNext());
+    }
+
+    /**
+     * Escribe todos los posts del autor como array JSON.
+     * Sin transacción propia: cada página es una consulta corta y se escribe con la conexión ya devuelta.
+     */
+    public void writeAll(Long authorId, OutputStream out) throws IOException {
+        PageRequest window = PageRequest.of(0, STREAM_CHUNK);
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.writeStartArray();
+            Slice<PostRowProjection> slice = postRepository.findPostRowsByAuthor(authorId, window);
+            while (true) {
+                List<PostRowProjection> rows = slice.getContent();
+                for (PostRowProjection row : rows) {
+                    json.writeObject(toResponse(row));
+                }
+                json.flush();
+                if (!slice.hasNext() || rows.isEmpty()) {
+                    break;
+                }
+                PostRowProjection last = rows.get(rows.size() - 1);
+                slice = postRepository.findPostRowsByAuthorBefore(authorId, last.getCreatedAt(), last.getPostId(), window);
+            }
+            json.writeEndArray();
+        }
+    }
+
+    PostResponse toResponse(PostRowProjection row) {
+        return new PostResponse(
+                row.getPostId(),
+                row.getCreatedAt(),
+                row.getDescription(),
+                mediaUrlSigner.sign(ImageVariant.MEDIUM.urlFor(row.getImage())),
+                row.getAuthorUsername(),
+                row.getAuthorId(),
+                new SafeUser(
+                        row.getAuthorId(),
+                        row.getAuthorFullName(),
+                        row.getAuthorUsername(),
+                        row.getAuthorEmail(),
+                        row.getAuthorCreatedAt(),
+                        mediaUrlSigner.sign(ImageVariant.THUMB.urlFor(row.getAuthorProfilePicture()))
+                )
+        );
+    }
+}
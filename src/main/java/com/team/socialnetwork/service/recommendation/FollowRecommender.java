@@ -0,0 +1,151 @@
+package com.team.socialnetwork.service.recommendation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.team.socialnetwork.service.graph.AdjacencySnapshot;
+
+/**
+ * Top-K de "amigos de amigos" por usuario: cada candidato suma uno por cada persona que sigo y que
+ * lo sigue (seguidores en común). Se excluye al propio usuario y a quien ya sigue.
+ * Recorre un AdjacencySnapshot en un ForkJoinPool propio: el rango de usuarios se parte a la mitad
+ * hasta SPLIT_THRESHOLD y cada hoja escribe en su propia porción del array de resultados.
+ * maxFanOut acota cuántos seguidos se miran por lista, para que una cuenta que sigue a miles no
+ * dispare el costo de un solo usuario.
+ */
+@Component
+public class FollowRecommender {
+
+    private static final int SPLIT_THRESHOLD = 64;
+
+    private final ForkJoinPool pool;
+    private final int topK;
+    private final int maxFanOut;
+
+    public FollowRecommender(@Value("${recommendations.parallelism:2}") int parallelism,
+                             @Value("${recommendations.topK:20}") int topK,
+                             @Value("${recommendations.maxFanOut:1000}") int maxFanOut) {
+        this.pool = new ForkJoinPool(parallelism);
+        this.topK = topK;
+        this.maxFanOut = maxFanOut;
+    }
+
+    /**
+     * Sugerencias para cada uno de userIds (misma posición en el resultado); lista vacía para quien
+     * no sigue a nadie.
+     */
+    public List<List<Candidate>> recommend(AdjacencySnapshot snapshot, long[] userIds) {
+        @SuppressWarnings("unchecked")
+        List<Candidate>[] results = new List[userIds.length];
+        pool.invoke(new Slice(snapshot, userIds, results, 0, userIds.length));
+        List<List<Candidate>> out = new ArrayList<>(userIds.length);
+        Collections.addAll(out, results);
+        return out;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    List<Candidate> topFor(AdjacencySnapshot snapshot, long userId) {
+        int user = snapshot.indexOf(userId);
+        if (user < 0) {
+            return List.of();
+        }
+        Map<Long, int[]> mutuals = new HashMap<>();
+        int userEnd = Math.min(snapshot.end(user), snapshot.start(user) + maxFanOut);
+        for (int i = snapshot.start(user); i < userEnd; i++) {
+            int friend = snapshot.indexOf(snapshot.target(i));
+            if (friend < 0) {
+                continue;
+            }
+            int friendEnd = Math.min(snapshot.end(friend), snapshot.start(friend) + maxFanOut);
+            for (int j = snapshot.start(friend); j < friendEnd; j++) {
+                long candidate = snapshot.target(j);
+                if (candidate != userId) {
+                    mutuals.computeIfAbsent(candidate, id -> new int[1])[0]++;
+                }
+            }
+        }
+        // Min-heap de tamaño K: la raíz es el peor de los que quedan (menos en común, id más alto)
+        PriorityQueue<Candidate> best = new PriorityQueue<>(topK + 1, Candidate.BEST_FIRST.reversed());
+        for (Map.Entry<Long, int[]> entry : mutuals.entrySet()) {
+            long candidate = entry.getKey();
+            if (snapshot.follows(user, candidate)) {
+                continue;
+            }
+            best.offer(new Candidate(candidate, entry.getValue()[0]));
+            if (best.size() > topK) {
+                best.poll();
+            }
+        }
+        List<Candidate> ranked = new ArrayList<>(best);
+        ranked.sort(Candidate.BEST_FIRST);
+        return ranked;
+    }
+
+    private final class Slice extends RecursiveAction {
+        private final AdjacencySnapshot snapshot;
+        private final long[] userIds;
+        private final List<Candidate>[] results;
+        private final int from;
+        private final int to;
+
+        Slice(AdjacencySnapshot snapshot, long[] userIds, List<Candidate>[] results, int from, int to) {
+            this.snapshot = snapshot;
+            this.userIds = userIds;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    results[i] = topFor(snapshot, userIds[i]);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Slice(snapshot, userIds, results, from, mid),
+                      new Slice(snapshot, userIds, results, mid, to));
+        }
+    }
+
+    public static final class Candidate {
+        // Más seguidores en común primero; a igualdad, id más bajo (orden estable entre corridas)
+        static final Comparator<Candidate> BEST_FIRST = Comparator
+                .comparingInt(Candidate::getMutualCount).reversed()
+                .thenComparingLong(Candidate::getUserId);
+
+        private final long userId;
+        private final int mutualCount;
+
+        public Candidate(long userId, int mutualCount) {
+            this.userId = userId;
+            this.mutualCount = mutualCount;
+        }
+
+        public long getUserId() { return userId; }
+        public int getMutualCount() { return mutualCount; }
+
+        @Override
+        public String toString() {
+            return "Candidate{userId=" + userId + ", mutualCount=" + mutualCount + "}";
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.team.socialnetwork.service.recommendation;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.team.socialnetwork.dto.SuggestedUserResponse;
+import com.team.socialnetwork.repository.UserRecommendationRepository;
+import com.team.socialnetwork.service.media.ImageVariant;
+import com.team.socialnetwork.service.media.MediaUrlSigner;
+import com.team.socialnetwork.service.recommendation.FollowRecommender.Candidate;
+
+/**
+ * Guarda y sirve las sugerencias precalculadas por RecommendationJob.
+ */
+@Service
+public class RecommendationService {
+
+    private static final String INSERT_SQL = "insert into user_recommendations "
+            + "(user_id, candidate_id, ordinal, mutual_count, computed_at) values (?, ?, ?, ?, ?)";
+
+    private final UserRecommendationRepository recommendationRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final MediaUrlSigner mediaUrlSigner;
+
+    public RecommendationService(UserRecommendationRepository recommendationRepository, JdbcTemplate jdbcTemplate,
+                                 MediaUrlSigner mediaUrlSigner) {
+        this.recommendationRepository = recommendationRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.mediaUrlSigner = mediaUrlSigner;
+    }
+
+    /**
+     * Reemplaza las sugerencias de userIds por las nuevas (misma posición) en una transacción:
+     * quien lee ve las viejas o las nuevas, nunca una lista a medias.
+     * Las filas van en un batch JDBC: con id IDENTITY, saveAll haría un INSERT por fila.
+     */
+    @Transactional
+    public void replace(List<Long> userIds, List<List<Candidate>> candidates) {
+        recommendationRepository.deleteByUserIds(userIds);
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < userIds.size(); i++) {
+            List<Candidate> ranked = candidates.get(i);
+            for (int ordinal = 0; ordinal < ranked.size(); ordinal++) {
+                Candidate candidate = ranked.get(ordinal);
+                rows.add(new Object[] {userIds.get(i), candidate.getUserId(), ordinal, candidate.getMutualCount(), now});
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<Long> usersWithSuggestions() {
+        return recommendationRepository.findUserIds();
+    }
+
+    public List<SuggestedUserResponse> suggestionsFor(Long userId, int limit) {
+        return recommendationRepository.findSuggestions(userId, PageRequest.of(0, limit)).stream()
+                .map(row -> new SuggestedUserResponse(row.getUserId(), row.getFullName(), row.getUsername(),
+                        mediaUrlSigner.sign(ImageVariant.THUMB.urlFor(row.getProfilePicture())), row.getMutualCount()))
+                .toList();
+    }
+}
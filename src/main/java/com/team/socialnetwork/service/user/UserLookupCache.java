@@ -0,0 +1,159 @@
+package com.team.socialnetwork.service.user;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.team.socialnetwork.repository.UserRepository;
+
+/**
+ * Cache LRU en memoria de usuarios por email (UserSummary), acotado por cantidad y por TTL.
+ * Lo usan la autenticación (UserDetailsService, resolución del usuario autenticado),
+ * que es la consulta más frecuente de la app.
+ * Los cambios de cuenta llaman a invalidate(userId); dentro de una transacción se invalida
+ * otra vez después del commit, para no quedarse con lo que otro hilo leyó antes de que se confirmara.
+ * Las cargas hechas dentro de una transacción no se guardan: pueden ver datos sin confirmar.
+ */
+@Component
+public class UserLookupCache {
+    private static final Logger log = LoggerFactory.getLogger(UserLookupCache.class);
+
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private final Map<Long, String> emailById = new HashMap<>();
+    // Se incrementa en cada invalidación: una carga que empezó antes no se guarda
+    private long generation;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private long invalidations;
+
+    public UserLookupCache(UserRepository userRepository,
+                           @Value("${users.cache.enabled:true}") boolean enabled,
+                           @Value("${users.cache.maxEntries:10000}") int maxEntries,
+                           @Value("${users.cache.ttlSeconds:300}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.enabled = enabled && maxEntries > 0 && ttlSeconds > 0;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+    }
+
+    public Optional<UserSummary> findByEmail(String email) {
+        if (!enabled) {
+            return userRepository.findByEmail(email).map(UserSummary::of);
+        }
+        long startedAt;
+        synchronized (this) {
+            Entry entry = entries.get(email);
+            if (entry != null) {
+                if (System.nanoTime() - entry.loadedAt < ttlNanos) {
+                    hits++;
+                    return Optional.of(entry.user);
+                }
+                remove(email);
+                expirations++;
+            }
+            misses++;
+            startedAt = generation;
+        }
+        // La consulta corre fuera del lock; los "no existe" no se cachean (el email puede registrarse luego)
+        Optional<UserSummary> loaded = userRepository.findByEmail(email).map(UserSummary::of);
+        if (loaded.isPresent() && !TransactionSynchronizationManager.isActualTransactionActive()) {
+            store(loaded.get(), startedAt);
+        }
+        return loaded;
+    }
+
+    /**
+     * Descarta el usuario del cache. Si hay una transacción en curso se vuelve a descartar
+     * después del commit (entre medio otro request pudo cargar el estado anterior).
+     */
+    public void invalidate(Long userId) {
+        if (!enabled || userId == null) {
+            return;
+        }
+        evict(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userId);
+                }
+            });
+        }
+    }
+
+    public synchronized Map<String, Number> stats() {
+        Map<String, Number> stats = new LinkedHashMap<>();
+        long lookups = hits + misses;
+        stats.put("enabled", enabled ? 1 : 0);
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("hitRatio", lookups == 0 ? 0.0 : (double) hits / lookups);
+        stats.put("evictions", evictions);
+        stats.put("expirations", expirations);
+        stats.put("invalidations", invalidations);
+        stats.put("entries", entries.size());
+        stats.put("maxEntries", maxEntries);
+        return stats;
+    }
+
+    private synchronized void store(UserSummary user, long startedAt) {
+        if (generation != startedAt) {
+            log.debug("User {} changed while loading, not cached", user.getId());
+            return;
+        }
+        remove(user.getEmail());
+        entries.put(user.getEmail(), new Entry(user, System.nanoTime()));
+        emailById.put(user.getId(), user.getEmail());
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && eldest.hasNext()) {
+            Map.Entry<String, Entry> e = eldest.next();
+            eldest.remove();
+            emailById.remove(e.getValue().user.getId());
+            evictions++;
+        }
+    }
+
+    private synchronized void evict(Long userId) {
+        generation++;
+        String email = emailById.get(userId);
+        if (email != null) {
+            remove(email);
+            invalidations++;
+        }
+    }
+
+    private void remove(String email) {
+        Entry entry = entries.remove(email);
+        if (entry != null) {
+            emailById.remove(entry.user.getId());
+        }
+    }
+
+    private static final class Entry {
+        final UserSummary user;
+        final long loadedAt;
+
+        Entry(UserSummary user, long loadedAt) {
+            this.user = user;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
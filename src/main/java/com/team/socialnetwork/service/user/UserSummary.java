@@ -0,0 +1,51 @@
+package com.team.socialnetwork.service.user;
+
+import com.team.socialnetwork.entity.User;
+
+/**
+ * Copia inmutable y liviana de los campos de User que se necesitan para autenticar
+ * (sin relaciones ni imágenes): es lo que guarda UserLookupCache.
+ * El hash de la contraseña hace de "versión": cambia con cada cambio o reseteo de contraseña.
+ */
+public final class UserSummary {
+    private final Long id;
+    private final String email;
+    private final String username;
+    private final String fullName;
+    private final boolean privateAccount;
+    private final boolean emailConfirmed;
+    private final String passwordHash;
+
+    public UserSummary(Long id, String email, String username, String fullName,
+                       boolean privateAccount, boolean emailConfirmed, String passwordHash) {
+        this.id = id;
+        this.email = email;
+        this.username = username;
+        this.fullName = fullName;
+        this.privateAccount = privateAccount;
+        this.emailConfirmed = emailConfirmed;
+        this.passwordHash = passwordHash;
+    }
+
+    public static UserSummary of(User user) {
+        return new UserSummary(user.getId(), user.getEmail(), user.getUsername(), user.getFullName(),
+                user.isPrivate(), user.isEmailConfirmed(), user.getPassword());
+    }
+
+    public Long getId() { return id; }
+    public String getEmail() { return email; }
+    public String getUsername() { return username; }
+    public String getFullName() { return fullName; }
+    public boolean isPrivateAccount() { return privateAccount; }
+    public boolean isEmailConfirmed() { return emailConfirmed; }
+    public String getPasswordHash() { return passwordHash; }
+
+    public String getDisplayName() {
+        return fullName != null ? fullName : username;
+    }
+
+    @Override
+    public String toString() {
+        return "UserSummary{id=" + id + ", email='" + email + "'}";
+    }
+}
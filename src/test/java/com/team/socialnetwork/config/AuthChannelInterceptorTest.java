@@ -0,0 +1,137 @@
+package com.team.socialnetwork.config;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.core.Authentication;
+
+import com.team.socialnetwork.security.AuthenticatedUser;
+import com.team.socialnetwork.security.JwtService;
+import com.team.socialnetwork.security.TokenRevocationList;
+import com.team.socialnetwork.service.user.UserLookupCache;
+import com.team.socialnetwork.service.user.UserSummary;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AuthChannelInterceptor Tests")
+class AuthChannelInterceptorTest {
+
+    private static final String SECRET = "test-secret-key-for-tests-that-is-long-enough-for-hmac-sha256-algorithm";
+
+    @Mock
+    private TokenRevocationList tokenRevocationList;
+
+    @Mock
+    private UserLookupCache userLookupCache;
+
+    @Mock
+    private MessageChannel channel;
+
+    private JwtService jwtService;
+    private AuthChannelInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService(SECRET, 60, 1440, 60);
+        interceptor = new AuthChannelInterceptor(jwtService, tokenRevocationList, userLookupCache);
+    }
+
+    @Test
+    @DisplayName("Should attach the user from the token claims to the session on CONNECT")
+    void shouldAttachUserFromClaims() {
+        String token = jwtService.generateAccessToken("ana@example.com",
+                Map.of("userId", 7L, "name", "Ana", "private", true));
+        when(tokenRevocationList.isRevoked(eq(7L), any())).thenReturn(false);
+
+        AuthenticatedUser user = connectedUser(interceptor.preSend(connect(token), channel));
+
+        assertEquals(7L, user.getId());
+        assertEquals("ana@example.com", user.getEmail());
+        assertEquals("Ana", user.getDisplayName());
+        assertEquals(true, user.isPrivateAccount());
+        verifyNoInteractions(userLookupCache);
+    }
+
+    @Test
+    @DisplayName("Should resolve tokens without userId once through the user cache")
+    void shouldResolveLegacyTokenThroughCache() {
+        String token = jwtService.generateAccessToken("ana@example.com", Map.of());
+        when(userLookupCache.findByEmail("ana@example.com")).thenReturn(Optional.of(
+                new UserSummary(7L, "ana@example.com", "ana", null, false, true, "hash")));
+
+        AuthenticatedUser user = connectedUser(interceptor.preSend(connect(token), channel));
+
+        assertEquals(7L, user.getId());
+        assertEquals("ana", user.getDisplayName());
+        verify(userLookupCache).findByEmail("ana@example.com");
+    }
+
+    @Test
+    @DisplayName("Should reject CONNECT for revoked tokens and unknown users")
+    void shouldRejectRevokedOrUnknown() {
+        String revoked = jwtService.generateAccessToken("ana@example.com", Map.of("userId", 7L));
+        when(tokenRevocationList.isRevoked(eq(7L), any())).thenReturn(true);
+        assertThrows(IllegalArgumentException.class, () -> interceptor.preSend(connect(revoked), channel));
+
+        String legacy = jwtService.generateAccessToken("ghost@example.com", Map.of());
+        when(userLookupCache.findByEmail("ghost@example.com")).thenReturn(Optional.empty());
+        assertThrows(IllegalArgumentException.class, () -> interceptor.preSend(connect(legacy), channel));
+    }
+
+    @Test
+    @DisplayName("Should reject purpose tokens and revoked tokens without userId")
+    void shouldRejectPurposeAndRevokedLegacyTokens() {
+        String reset = jwtService.generatePasswordResetToken("ana@example.com");
+        assertThrows(IllegalArgumentException.class, () -> interceptor.preSend(connect(reset), channel));
+        verifyNoInteractions(tokenRevocationList);
+
+        String legacy = jwtService.generateAccessToken("ana@example.com", Map.of());
+        when(userLookupCache.findByEmail("ana@example.com")).thenReturn(Optional.of(
+                new UserSummary(7L, "ana@example.com", "ana", null, false, true, "hash")));
+        when(tokenRevocationList.isRevoked(eq(7L), any())).thenReturn(true);
+        assertThrows(IllegalArgumentException.class, () -> interceptor.preSend(connect(legacy), channel));
+    }
+
+    @Test
+    @DisplayName("Should reject CONNECT without a bearer token")
+    void shouldRejectMissingToken() {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        accessor.setLeaveMutable(true);
+        Message<byte[]> message = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+
+        assertThrows(IllegalArgumentException.class, () -> interceptor.preSend(message, channel));
+    }
+
+    private static Message<byte[]> connect(String token) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        accessor.addNativeHeader("Authorization", "Bearer " + token);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static AuthenticatedUser connectedUser(Message<?> message) {
+        Authentication authentication = assertInstanceOf(Authentication.class,
+                SimpMessageHeaderAccessor.getUser(message.getHeaders()));
+        assertEquals(authentication.getName(), ((AuthenticatedUser) authentication.getPrincipal()).getEmail());
+        return assertInstanceOf(AuthenticatedUser.class, authentication.getPrincipal());
+    }
+}
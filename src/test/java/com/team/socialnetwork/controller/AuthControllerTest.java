@@ -97,4 +97,14 @@ class AuthControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.message").value("Password reset successfully"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testLogout() throws Exception {
+        when(authService.logout("Bearer access-token")).thenReturn(new MessageResponse("Logged out"));
+
+        mockMvc.perform(post("/auth/logout")
+                .header("Authorization", "Bearer access-token"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Logged out"));
+    }
+}
@@ -0,0 +1,83 @@
+package com.team.socialnetwork.controller;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.team.socialnetwork.dto.ChatMessageWS;
+import com.team.socialnetwork.entity.Message;
+import com.team.socialnetwork.entity.User;
+import com.team.socialnetwork.repository.MessageRepository;
+import com.team.socialnetwork.repository.UserRepository;
+import com.team.socialnetwork.security.AuthenticatedUser;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ChatWSController Tests")
+class ChatWSControllerTest {
+
+    @Mock
+    private MessageRepository messageRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    private ChatWSController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new ChatWSController(messageRepository, userRepository, messagingTemplate);
+    }
+
+    @Test
+    @DisplayName("Should take the sender from the session without querying it")
+    void shouldUseSessionIdentity() {
+        User senderRef = new User();
+        ReflectionTestUtils.setField(senderRef, "id", 1L);
+        User receiver = new User();
+        ReflectionTestUtils.setField(receiver, "id", 2L);
+        when(userRepository.getReferenceById(1L)).thenReturn(senderRef);
+        when(userRepository.findById(2L)).thenReturn(Optional.of(receiver));
+
+        ChatMessageWS payload = new ChatMessageWS();
+        payload.setReceiverId(2L);
+        payload.setContent("hola");
+        controller.sendMessage(payload, new AuthenticatedUser(1L, "ana@example.com", "Ana", false));
+
+        ArgumentCaptor<Message> saved = ArgumentCaptor.forClass(Message.class);
+        verify(messageRepository).save(saved.capture());
+        assertEquals(senderRef, saved.getValue().getSender());
+        verify(userRepository, never()).findByEmail(anyString());
+        verify(messagingTemplate).convertAndSend(eq("/topic/1"), any(ChatMessageWS.class));
+        verify(messagingTemplate).convertAndSend(eq("/topic/2"), any(ChatMessageWS.class));
+    }
+
+    @Test
+    @DisplayName("Should refuse messages from a session without user")
+    void shouldRejectAnonymousSession() {
+        ChatMessageWS payload = new ChatMessageWS();
+        payload.setReceiverId(2L);
+
+        assertThrows(IllegalStateException.class, () -> controller.sendMessage(payload, null));
+        verifyNoInteractions(userRepository, messageRepository, messagingTemplate);
+    }
+}
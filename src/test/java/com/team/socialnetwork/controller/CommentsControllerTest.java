@@ -17,6 +17,7 @@ import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
@@ -24,7 +25,6 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.server.ResponseStatusException;
 
 import com.team.socialnetwork.dto.MessageResponse;
@@ -35,8 +35,12 @@ import com.team.socialnetwork.entity.Post;
 import com.team.socialnetwork.entity.User;
 import com.team.socialnetwork.repository.CommentLikeRepository;
 import com.team.socialnetwork.repository.CommentRepository;
+import com.team.socialnetwork.repository.PostRepository;
 import com.team.socialnetwork.repository.UserRepository;
+import com.team.socialnetwork.security.AuthenticatedUser;
 import com.team.socialnetwork.service.NotificationService;
+import com.team.socialnetwork.service.feed.TimelineService;
+import com.team.socialnetwork.service.graph.FollowGraph;
 
 @ExtendWith(MockitoExtension.class)
 class CommentsControllerTest {
@@ -54,7 +58,13 @@ class CommentsControllerTest {
     private NotificationService notificationService;
 
     @Mock
-    private Authentication authentication;
+    private TimelineService timelineService;
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private FollowGraph followGraph;
 
     @InjectMocks
     private CommentsController commentsController;
@@ -63,6 +73,7 @@ class CommentsControllerTest {
     private User postAuthor;
     private Post testPost;
     private Comment testComment;
+    private AuthenticatedUser me;
 
     @BeforeEach
     void setUp() {
@@ -79,16 +90,15 @@ class CommentsControllerTest {
 
         testComment = new Comment("Nice post!", testPost, testUser);
         testComment.setId(1L);
+
+        me = new AuthenticatedUser(1L, "test@example.com", "Test User", false);
     }
 
     @Test
     void testDeleteComment_Success() {
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
         when(commentRepository.findById(1L)).thenReturn(Optional.of(testComment));
 
-        ResponseEntity<MessageResponse> response = commentsController.deleteComment(authentication, 1L);
+        ResponseEntity<MessageResponse> response = commentsController.deleteComment(me, 1L);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals("Comment deleted successfully", response.getBody().getMessage());
@@ -98,16 +108,11 @@ class CommentsControllerTest {
 
     @Test
     void testDeleteComment_NotOwner() {
-        User anotherUser = new User("another", "another@example.com", "pass");
-        anotherUser.setId(3L);
-        
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("another@example.com");
-        when(userRepository.findByEmail("another@example.com")).thenReturn(Optional.of(anotherUser));
+        AuthenticatedUser another = new AuthenticatedUser(3L, "another@example.com", "Another", false);
         when(commentRepository.findById(1L)).thenReturn(Optional.of(testComment));
 
         assertThrows(ResponseStatusException.class, () -> 
-            commentsController.deleteComment(authentication, 1L)
+            commentsController.deleteComment(another, 1L)
         );
     }
 
@@ -115,25 +120,19 @@ class CommentsControllerTest {
     void testDeleteComment_PrivateAccount() {
         postAuthor.setPrivate(true);
         
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
         when(commentRepository.findById(1L)).thenReturn(Optional.of(testComment));
 
         assertThrows(ResponseStatusException.class, () -> 
-            commentsController.deleteComment(authentication, 1L)
+            commentsController.deleteComment(me, 1L)
         );
     }
 
     @Test
     void testCountCommentLikes_Success() {
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
         when(commentRepository.findById(1L)).thenReturn(Optional.of(testComment));
-        when(commentLikeRepository.countByCommentId(1L)).thenReturn(5L);
+        testComment.setLikeCount(5L);
 
-        ResponseEntity<Map<String, Long>> response = commentsController.countCommentLikes(authentication, 1L);
+        ResponseEntity<Map<String, Long>> response = commentsController.countCommentLikes(me, 1L);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(5L, response.getBody().get("count"));
@@ -148,27 +147,32 @@ class CommentsControllerTest {
         CommentLike commentLike = new CommentLike(liker, testComment);
         Page<CommentLike> likesPage = new PageImpl<>(Arrays.asList(commentLike));
 
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
         when(commentRepository.findById(1L)).thenReturn(Optional.of(testComment));
         when(commentLikeRepository.findByCommentId(eq(1L), any(Pageable.class))).thenReturn(likesPage);
 
-        ResponseEntity<List<SafeUser>> response = commentsController.listCommentLikes(authentication, 1L, 0, 10);
+        ResponseEntity<List<SafeUser>> response = commentsController.listCommentLikes(me, 1L, 0, 10);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(1, response.getBody().size());
     }
 
+    @Test
+    void testListCommentLikesByCursor_RejectsSizeBeforeCursor() {
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> commentsController.listCommentLikesByCursor(me, 1L, "not-a-cursor", 0));
+
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+        assertEquals("size must be >= 1", ex.getReason());
+        verifyNoInteractions(commentRepository, commentLikeRepository);
+    }
+
     @Test
     void testLikeComment_Success() {
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
         when(commentRepository.findById(1L)).thenReturn(Optional.of(testComment));
         when(commentLikeRepository.existsByUserIdAndCommentId(1L, 1L)).thenReturn(false);
 
-        ResponseEntity<MessageResponse> response = commentsController.likeComment(authentication, 1L);
+        ResponseEntity<MessageResponse> response = commentsController.likeComment(me, 1L);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals("Comment liked successfully", response.getBody().getMessage());
@@ -177,14 +181,12 @@ class CommentsControllerTest {
 
     @Test
     void testLikeComment_AlreadyLiked() {
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
         when(commentRepository.findById(1L)).thenReturn(Optional.of(testComment));
         when(commentLikeRepository.existsByUserIdAndCommentId(1L, 1L)).thenReturn(true);
 
         assertThrows(ResponseStatusException.class, () -> 
-            commentsController.likeComment(authentication, 1L)
+            commentsController.likeComment(me, 1L)
         );
     }
 
@@ -192,25 +194,21 @@ class CommentsControllerTest {
     void testLikeComment_PrivateAccount() {
         postAuthor.setPrivate(true);
         
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
         when(commentRepository.findById(1L)).thenReturn(Optional.of(testComment));
 
         assertThrows(ResponseStatusException.class, () -> 
-            commentsController.likeComment(authentication, 1L)
+            commentsController.likeComment(me, 1L)
         );
     }
 
     @Test
     void testUnlikeComment_Success() {
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
         when(commentRepository.findById(1L)).thenReturn(Optional.of(testComment));
         when(commentLikeRepository.deleteByUserIdAndCommentId(1L, 1L)).thenReturn(1);
 
-        ResponseEntity<MessageResponse> response = commentsController.unlikeComment(authentication, 1L);
+        ResponseEntity<MessageResponse> response = commentsController.unlikeComment(me, 1L);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals("Comment unliked successfully", response.getBody().getMessage());
@@ -218,26 +216,21 @@ class CommentsControllerTest {
 
     @Test
     void testUnlikeComment_NotLiked() {
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
         when(commentRepository.findById(1L)).thenReturn(Optional.of(testComment));
         when(commentLikeRepository.deleteByUserIdAndCommentId(1L, 1L)).thenReturn(0);
 
         assertThrows(ResponseStatusException.class, () -> 
-            commentsController.unlikeComment(authentication, 1L)
+            commentsController.unlikeComment(me, 1L)
         );
     }
 
     @Test
     void testCheckCommentLike_Success() {
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
         when(commentRepository.findById(1L)).thenReturn(Optional.of(testComment));
         when(commentLikeRepository.existsByUserIdAndCommentId(1L, 1L)).thenReturn(true);
 
-        ResponseEntity<Map<String, Boolean>> response = commentsController.checkCommentLike(authentication, 1L);
+        ResponseEntity<Map<String, Boolean>> response = commentsController.checkCommentLike(me, 1L);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertTrue(response.getBody().get("liked"));
@@ -245,13 +238,10 @@ class CommentsControllerTest {
 
     @Test
     void testCheckCommentLike_NotLiked() {
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
         when(commentRepository.findById(1L)).thenReturn(Optional.of(testComment));
         when(commentLikeRepository.existsByUserIdAndCommentId(1L, 1L)).thenReturn(false);
 
-        ResponseEntity<Map<String, Boolean>> response = commentsController.checkCommentLike(authentication, 1L);
+        ResponseEntity<Map<String, Boolean>> response = commentsController.checkCommentLike(me, 1L);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertFalse(response.getBody().get("liked"));
@@ -259,22 +249,10 @@ class CommentsControllerTest {
 
     @Test
     void testCommentNotFound() {
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
         when(commentRepository.findById(999L)).thenReturn(Optional.empty());
 
         assertThrows(ResponseStatusException.class, () -> 
-            commentsController.deleteComment(authentication, 999L)
-        );
-    }
-
-    @Test
-    void testUnauthorized() {
-        when(authentication.isAuthenticated()).thenReturn(false);
-
-        assertThrows(ResponseStatusException.class, () -> 
-            commentsController.deleteComment(authentication, 1L)
+            commentsController.deleteComment(me, 999L)
         );
     }
 }
@@ -0,0 +1,199 @@
+package com.team.socialnetwork.controller;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.util.Base64;
+import java.util.HashMap;
+
+import javax.imageio.ImageIO;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.hamcrest.Matchers.matchesPattern;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.team.socialnetwork.dto.CreatePostRequest;
+import com.team.socialnetwork.entity.Post;
+import com.team.socialnetwork.entity.User;
+import com.team.socialnetwork.repository.PostRepository;
+import com.team.socialnetwork.repository.UserRepository;
+import com.team.socialnetwork.security.JwtService;
+import com.team.socialnetwork.service.media.ImageVariant;
+import com.team.socialnetwork.service.media.MediaUrlSigner;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+class MediaControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private MediaUrlSigner mediaUrlSigner;
+
+    private String token;
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User("mediauser", "media@example.com", passwordEncoder.encode("password123"));
+        testUser.setFullName("Media User");
+        testUser.setEmailConfirmed(true);
+        testUser = userRepository.save(testUser);
+        token = jwtService.generateAccessToken(testUser.getEmail(), new HashMap<>());
+    }
+
+    @Test
+    void testCreatePostStoresImageAndServesIt() throws Exception {
+        byte[] png = png();
+        CreatePostRequest request = new CreatePostRequest();
+        request.setDescription("With image");
+        request.setImage("data:image/png;base64," + Base64.getEncoder().encodeToString(png));
+
+        mockMvc.perform(post("/posts")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+
+        Post saved = postRepository.findByAuthorId(testUser.getId()).get(0);
+        String reference = saved.getImage();
+        assertTrue(reference.matches("/media/[0-9a-f]{64}\\.png"), reference);
+        String etag = "\"" + reference.substring("/media/".length(), reference.length() - ".png".length()) + "\"";
+
+        // Sin token: las imágenes se cargan desde <img>, con el link firmado que entregó la API
+        String link = mediaUrlSigner.sign(reference);
+        byte[] body = mockMvc.perform(get(link))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/png"))
+                .andExpect(header().string("ETag", etag))
+                .andExpect(header().string("Cache-Control", matchesPattern("private, max-age=\\d+, immutable")))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertArrayEquals(png, body);
+
+        mockMvc.perform(get(link).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        // Sin firma, o con la firma de otro tamaño, no se sirve
+        mockMvc.perform(get(reference))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get(link + "&size=thumb"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void testThumbnailVariantIsServedOnceGenerated() throws Exception {
+        BufferedImage image = new BufferedImage(1200, 600, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        CreatePostRequest request = new CreatePostRequest();
+        request.setDescription("Large image");
+        request.setImage("data:image/png;base64," + Base64.getEncoder().encodeToString(out.toByteArray()));
+
+        mockMvc.perform(post("/posts")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+        String reference = postRepository.findByAuthorId(testUser.getId()).get(0).getImage();
+        String hash = reference.substring("/media/".length(), reference.length() - ".png".length());
+        String link = mediaUrlSigner.sign(ImageVariant.THUMB.urlFor(reference));
+
+        // Las variantes se generan en segundo plano: mientras tanto se sirve el original con no-cache
+        String etag = null;
+        for (int attempt = 0; attempt < 100; attempt++) {
+            etag = mockMvc.perform(get(link))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getHeader("ETag");
+            if (("\"" + hash + "-thumb\"").equals(etag)) {
+                break;
+            }
+            Thread.sleep(50);
+        }
+        org.junit.jupiter.api.Assertions.assertEquals("\"" + hash + "-thumb\"", etag);
+
+        byte[] thumb = mockMvc.perform(get(link))
+                .andExpect(content().contentType("image/jpeg"))
+                .andExpect(header().string("Cache-Control", matchesPattern("private, max-age=\\d+, immutable")))
+                .andReturn().getResponse().getContentAsByteArray();
+        BufferedImage decoded = ImageIO.read(new java.io.ByteArrayInputStream(thumb));
+        org.junit.jupiter.api.Assertions.assertEquals(320, decoded.getWidth());
+        org.junit.jupiter.api.Assertions.assertEquals(160, decoded.getHeight());
+    }
+
+    @Test
+    void testGifVariantServesOriginalWithRegularCache() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(400, 400, BufferedImage.TYPE_INT_RGB), "gif", out);
+        CreatePostRequest request = new CreatePostRequest();
+        request.setDescription("Animated");
+        request.setImage("data:image/gif;base64," + Base64.getEncoder().encodeToString(out.toByteArray()));
+
+        mockMvc.perform(post("/posts")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+        String reference = postRepository.findByAuthorId(testUser.getId()).get(0).getImage();
+        assertTrue(reference.endsWith(".gif"), reference);
+        org.junit.jupiter.api.Assertions.assertEquals(reference, ImageVariant.MEDIUM.urlFor(reference));
+
+        // Un cliente viejo que igual pide ?size= recibe el original, cacheable
+        mockMvc.perform(get(mediaUrlSigner.sign(reference + "?size=thumb")))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/gif"))
+                .andExpect(header().string("Cache-Control", matchesPattern("private, max-age=\\d+, immutable")));
+    }
+
+    @Test
+    void testInvalidSizeReturns400() throws Exception {
+        mockMvc.perform(get("/media/" + "0".repeat(64) + ".png").param("size", "huge"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testUnknownMediaReturns404() throws Exception {
+        mockMvc.perform(get(mediaUrlSigner.sign("/media/" + "0".repeat(64) + ".png")))
+                .andExpect(status().isNotFound());
+    }
+
+    private static byte[] png() throws Exception {
+        BufferedImage image = new BufferedImage(8, 8, BufferedImage.TYPE_INT_RGB);
+        image.setRGB(2, 3, 0x00FF00);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
@@ -24,12 +24,15 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.team.socialnetwork.dto.CreateCommentRequest;
 import com.team.socialnetwork.dto.CreatePostRequest;
 import com.team.socialnetwork.entity.Post;
+import com.team.socialnetwork.jobs.CounterReconciler;
 import com.team.socialnetwork.entity.User;
 import com.team.socialnetwork.repository.CommentRepository;
 import com.team.socialnetwork.repository.PostLikeRepository;
 import com.team.socialnetwork.repository.PostRepository;
 import com.team.socialnetwork.repository.UserRepository;
 import com.team.socialnetwork.security.JwtService;
+import com.team.socialnetwork.service.counter.LikeCounterBuffer;
+import com.team.socialnetwork.service.post.UserPostsService;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -61,6 +64,18 @@ class PostsControllerIntegrationTest {
     @Autowired
     private JwtService jwtService;
 
+    @Autowired
+    private CounterReconciler counterReconciler;
+
+    @Autowired
+    private LikeCounterBuffer likeCounterBuffer;
+
+    @Autowired
+    private org.springframework.jdbc.core.JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserPostsService userPostsService;
+
     private String token;
     private User testUser;
     private Post testPost;
@@ -160,6 +175,132 @@ class PostsControllerIntegrationTest {
                 .andExpect(jsonPath("$[0].description").value("Test post content"));
     }
 
+    @Test
+    void testMyPostsWithLoginClaimsToken() throws Exception {
+        // Token como el de login: el usuario sale de los claims, sin buscarlo por email
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("userId", testUser.getId());
+        claims.put("name", testUser.getFullName());
+        claims.put("private", false);
+        String loginToken = jwtService.generateAccessToken(testUser.getEmail(), claims);
+
+        mockMvc.perform(get("/posts/mine")
+                        .header("Authorization", "Bearer " + loginToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].userId").value(testUser.getId()));
+    }
+
+    @Test
+    void testLogoutRevokesLoginToken() throws Exception {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("userId", testUser.getId());
+        String loginToken = jwtService.generateAccessToken(testUser.getEmail(), claims);
+
+        mockMvc.perform(post("/auth/logout")
+                        .header("Authorization", "Bearer " + loginToken))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/posts/mine")
+                        .header("Authorization", "Bearer " + loginToken))
+                .andExpect(status().is4xxClientError());
+    }
+
+    @Test
+    void testPrivatePostVisibleAfterFollowApproved() throws Exception {
+        User privateUser = new User("private", "private@example.com", passwordEncoder.encode("password123"));
+        privateUser.setEmailConfirmed(true);
+        privateUser.setPrivate(true);
+        privateUser = userRepository.save(privateUser);
+        Post privatePost = postRepository.save(new Post("Private post", null, privateUser));
+        String privateToken = jwtService.generateAccessToken(privateUser.getEmail(), new HashMap<>());
+
+        mockMvc.perform(get("/posts/" + privatePost.getId())
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(post("/users/" + privateUser.getId() + "/follow")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isAccepted());
+        mockMvc.perform(post("/users/" + testUser.getId() + "/follow/approve")
+                        .header("Authorization", "Bearer " + privateToken))
+                .andExpect(status().isOk());
+
+        // El índice de seguidores se actualiza con la aprobación, sin recargar
+        mockMvc.perform(get("/posts/" + privatePost.getId())
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.description").value("Private post"));
+        mockMvc.perform(get("/users/" + privateUser.getId() + "/relationship")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.following").value(true))
+                .andExpect(jsonPath("$.followsYou").value(false));
+
+        mockMvc.perform(delete("/users/" + privateUser.getId() + "/follow")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/posts/" + privatePost.getId())
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void testMyPostsByCursor() throws Exception {
+        postRepository.save(new Post("Second post", null, testUser));
+        postRepository.save(new Post("Third post", null, testUser));
+
+        String body = mockMvc.perform(get("/posts/mine")
+                        .param("cursor", "")
+                        .param("size", "2")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.hasMore").value(true))
+                .andReturn().getResponse().getContentAsString();
+        String next = objectMapper.readTree(body).get("nextCursor").asText();
+
+        mockMvc.perform(get("/posts/mine")
+                        .param("cursor", next)
+                        .param("size", "2")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.hasMore").value(false))
+                .andExpect(jsonPath("$.nextCursor").value(org.hamcrest.Matchers.nullValue()));
+    }
+
+    @Test
+    void testStreamUserPostsWritesJsonArray() throws Exception {
+        postRepository.save(new Post("Second post", null, testUser));
+
+        // El endpoint escribe desde otro hilo; aquí se usa el servicio para ver los datos de esta transacción
+        java.io.ByteArrayOutputStream out = new java.io.ByteArrayOutputStream();
+        userPostsService.writeAll(testUser.getId(), out);
+
+        com.fasterxml.jackson.databind.JsonNode posts = objectMapper.readTree(out.toByteArray());
+        org.junit.jupiter.api.Assertions.assertEquals(2, posts.size());
+        org.junit.jupiter.api.Assertions.assertEquals("testuser", posts.get(0).get("username").asText());
+    }
+
+    @Test
+    void testStreamUserPostsPagesThroughEveryPost() throws Exception {
+        java.util.List<Post> more = new java.util.ArrayList<>();
+        for (int i = 0; i < 249; i++) {
+            more.add(new Post("Post " + i, null, testUser));
+        }
+        postRepository.saveAll(more);
+
+        java.io.ByteArrayOutputStream out = new java.io.ByteArrayOutputStream();
+        userPostsService.writeAll(testUser.getId(), out);
+
+        com.fasterxml.jackson.databind.JsonNode posts = objectMapper.readTree(out.toByteArray());
+        org.junit.jupiter.api.Assertions.assertEquals(250, posts.size());
+        java.util.Set<Long> ids = new java.util.HashSet<>();
+        posts.forEach(p -> ids.add(p.get("id").asLong()));
+        org.junit.jupiter.api.Assertions.assertEquals(250, ids.size());
+    }
+
     @Test
     void testLikePost() throws Exception {
         mockMvc.perform(post("/posts/" + testPost.getId() + "/likes")
@@ -334,4 +475,34 @@ class PostsControllerIntegrationTest {
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isForbidden());
     }
+
+    @Test
+    void testCounterReconcilerRepairsDrift() throws Exception {
+        mockMvc.perform(post("/posts/" + testPost.getId() + "/likes")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+        likeCounterBuffer.flush();
+
+        // Simular deriva: el contador queda desfasado respecto de post_likes
+        postRepository.adjustLikeCount(testPost.getId(), 5);
+        postRepository.adjustCommentCount(testPost.getId(), 3);
+        counterReconciler.reconcile();
+
+        // El like es reciente (otra instancia podría tener su delta sin volcar): like_count no se toca todavía
+        mockMvc.perform(get("/posts/" + testPost.getId())
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.likesCount").value(6))
+                .andExpect(jsonPath("$.commentsCount").value(0));
+
+        jdbcTemplate.update("update post_likes set created_at = ? where post_id = ?",
+                java.sql.Timestamp.from(java.time.Instant.now().minusSeconds(600)), testPost.getId());
+        counterReconciler.reconcile();
+
+        mockMvc.perform(get("/posts/" + testPost.getId())
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.likesCount").value(1))
+                .andExpect(jsonPath("$.commentsCount").value(0));
+    }
 }
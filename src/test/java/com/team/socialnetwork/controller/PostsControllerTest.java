@@ -15,12 +15,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyList;
-import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
 import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
@@ -28,11 +29,11 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.server.ResponseStatusException;
 
 import com.team.socialnetwork.dto.CommentResponse;
 import com.team.socialnetwork.dto.CreateCommentRequest;
+import com.team.socialnetwork.dto.CursorPage;
 import com.team.socialnetwork.dto.CreatePostRequest;
 import com.team.socialnetwork.dto.MessageResponse;
 import com.team.socialnetwork.dto.PostDetailResponse;
@@ -46,7 +47,15 @@ import com.team.socialnetwork.repository.CommentRepository;
 import com.team.socialnetwork.repository.PostLikeRepository;
 import com.team.socialnetwork.repository.PostRepository;
 import com.team.socialnetwork.repository.UserRepository;
+import com.team.socialnetwork.security.AuthenticatedUser;
 import com.team.socialnetwork.service.NotificationService;
+import com.team.socialnetwork.service.counter.LikeCounterBuffer;
+import com.team.socialnetwork.service.feed.TimelineService;
+import com.team.socialnetwork.service.graph.FollowGraph;
+import com.team.socialnetwork.service.media.ImageVariantService;
+import com.team.socialnetwork.service.media.MediaStore;
+import com.team.socialnetwork.service.media.MediaUrlSigner;
+import com.team.socialnetwork.service.post.UserPostsService;
 
 @ExtendWith(MockitoExtension.class)
 class PostsControllerTest {
@@ -67,13 +76,32 @@ class PostsControllerTest {
     private NotificationService notificationService;
 
     @Mock
-    private Authentication authentication;
+    private TimelineService timelineService;
+
+    @Mock
+    private LikeCounterBuffer likeCounterBuffer;
+
+    @Mock
+    private UserPostsService userPostsService;
+
+    @Mock
+    private MediaStore mediaStore;
+
+    @Mock
+    private ImageVariantService imageVariantService;
+
+    @Mock
+    private FollowGraph followGraph;
+
+    @Spy
+    private MediaUrlSigner mediaUrlSigner = new MediaUrlSigner("test-media-url-secret-0123456789abcdef", 3600);
 
     @InjectMocks
     private PostsController postsController;
 
     private User testUser;
     private Post testPost;
+    private AuthenticatedUser me;
 
     @BeforeEach
     void setUp() {
@@ -83,45 +111,32 @@ class PostsControllerTest {
         
         testPost = new Post("Test description", "image.jpg", testUser);
         testPost.setId(1L);
+
+        me = new AuthenticatedUser(1L, "test@example.com", "Test User", false);
     }
 
     @Test
     void testCreatePost_Success() {
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
         when(postRepository.save(any(Post.class))).thenReturn(testPost);
 
         CreatePostRequest request = new CreatePostRequest();
         request.setDescription("Test post");
         request.setImage("image.jpg");
-        ResponseEntity<MessageResponse> response = postsController.create(authentication, request);
+        ResponseEntity<MessageResponse> response = postsController.create(me, request);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals("Post created successfully", response.getBody().getMessage());
         verify(postRepository).save(any(Post.class));
-    }
-
-    @Test
-    void testCreatePost_Unauthorized() {
-        when(authentication.isAuthenticated()).thenReturn(false);
-
-        CreatePostRequest request = new CreatePostRequest();
-        request.setDescription("Test post");
-        request.setImage("image.jpg");
-        
-        assertThrows(ResponseStatusException.class, () -> 
-            postsController.create(authentication, request)
-        );
+        verify(timelineService).fanOut(any(Post.class));
+        verify(mediaStore).toReference("image.jpg");
     }
 
     @Test
     void testDeletePost_Success() {
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
         when(postRepository.findById(1L)).thenReturn(Optional.of(testPost));
 
-        ResponseEntity<MessageResponse> response = postsController.delete(authentication, 1L);
+        ResponseEntity<MessageResponse> response = postsController.delete(me, 1L);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals("Post deleted successfully", response.getBody().getMessage());
@@ -130,110 +145,118 @@ class PostsControllerTest {
 
     @Test
     void testDeletePost_NotOwner() {
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("other@example.com");
+        AuthenticatedUser other = new AuthenticatedUser(3L, "other@example.com", "Other", false);
         when(postRepository.findById(1L)).thenReturn(Optional.of(testPost));
 
         assertThrows(ResponseStatusException.class, () -> 
-            postsController.delete(authentication, 1L)
+            postsController.delete(other, 1L)
         );
     }
 
     @Test
     void testGetPost_Success() {
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
         when(postRepository.findById(1L)).thenReturn(Optional.of(testPost));
-        when(postLikeRepository.countByPostId(1L)).thenReturn(5L);
-        when(commentRepository.findByPostId(1L)).thenReturn(Collections.emptyList());
+        testPost.setLikeCount(5L);
+        testPost.setCommentCount(2L);
         when(postLikeRepository.existsByUserIdAndPostId(1L, 1L)).thenReturn(false);
 
-        ResponseEntity<PostDetailResponse> response = postsController.getPost(authentication, 1L);
+        ResponseEntity<PostDetailResponse> response = postsController.getPost(me, 1L);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals(5L, response.getBody().getLikesCount());
+        assertEquals(2L, response.getBody().getCommentsCount());
     }
 
     @Test
     void testMyPosts_Success() {
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
         when(postRepository.findByAuthorId(1L)).thenReturn(Arrays.asList(testPost));
 
-        ResponseEntity<List<PostResponse>> response = postsController.myPosts(authentication);
+        ResponseEntity<List<PostResponse>> response = postsController.myPosts(me);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals(1, response.getBody().size());
     }
 
+    @Test
+    void testMyPostsByCursor_DelegatesWithCappedSize() {
+        CursorPage<PostResponse> page = new CursorPage<>(List.of(new PostResponse()), "next", true);
+        when(userPostsService.page(1L, null, 50)).thenReturn(page);
+
+        ResponseEntity<CursorPage<PostResponse>> response = postsController.myPostsByCursor(me, "", 500);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("next", response.getBody().getNextCursor());
+        verify(postRepository, never()).findByAuthorId(any());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void testListPostLikesByCursor_RejectsSizeBeforeCursor() {
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> postsController.listPostLikesByCursor(me, 1L, "not-a-cursor", 0));
+
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+        assertEquals("size must be >= 1", ex.getReason());
+        verifyNoInteractions(postRepository, postLikeRepository);
+    }
+
     @Test
     void testLikePost_Success() {
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
         when(postRepository.findById(1L)).thenReturn(Optional.of(testPost));
         when(postLikeRepository.existsByUserIdAndPostId(1L, 1L)).thenReturn(false);
 
-        ResponseEntity<MessageResponse> response = postsController.likePost(authentication, 1L);
+        ResponseEntity<MessageResponse> response = postsController.likePost(me, 1L);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals("Post liked successfully", response.getBody().getMessage());
         verify(postLikeRepository).save(any(PostLike.class));
+        verify(likeCounterBuffer).add(1L, 1);
     }
 
     @Test
     void testLikePost_AlreadyLiked() {
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
         when(postRepository.findById(1L)).thenReturn(Optional.of(testPost));
         when(postLikeRepository.existsByUserIdAndPostId(1L, 1L)).thenReturn(true);
 
         assertThrows(ResponseStatusException.class, () -> 
-            postsController.likePost(authentication, 1L)
+            postsController.likePost(me, 1L)
         );
     }
 
     @Test
     void testUnlikePost_Success() {
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
         when(postRepository.findById(1L)).thenReturn(Optional.of(testPost));
         when(postLikeRepository.deleteByUserIdAndPostId(1L, 1L)).thenReturn(1);
 
-        ResponseEntity<MessageResponse> response = postsController.unlikePost(authentication, 1L);
+        ResponseEntity<MessageResponse> response = postsController.unlikePost(me, 1L);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals("Post unliked successfully", response.getBody().getMessage());
+        verify(likeCounterBuffer).add(1L, -1);
     }
 
     @Test
     void testUnlikePost_NotLiked() {
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
         when(postRepository.findById(1L)).thenReturn(Optional.of(testPost));
         when(postLikeRepository.deleteByUserIdAndPostId(1L, 1L)).thenReturn(0);
 
         assertThrows(ResponseStatusException.class, () -> 
-            postsController.unlikePost(authentication, 1L)
+            postsController.unlikePost(me, 1L)
         );
     }
 
     @Test
     void testCountPostLikes_Success() {
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
         when(postRepository.findById(1L)).thenReturn(Optional.of(testPost));
-        when(postLikeRepository.countByPostId(1L)).thenReturn(10L);
+        testPost.setLikeCount(10L);
 
-        ResponseEntity<Map<String, Long>> response = postsController.countPostLikes(authentication, 1L);
+        ResponseEntity<Map<String, Long>> response = postsController.countPostLikes(me, 1L);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(10L, response.getBody().get("count"));
@@ -241,13 +264,10 @@ class PostsControllerTest {
 
     @Test
     void testCheckPostLike_Success() {
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
         when(postRepository.findById(1L)).thenReturn(Optional.of(testPost));
         when(postLikeRepository.existsByUserIdAndPostId(1L, 1L)).thenReturn(true);
 
-        ResponseEntity<Map<String, Boolean>> response = postsController.checkPostLike(authentication, 1L);
+        ResponseEntity<Map<String, Boolean>> response = postsController.checkPostLike(me, 1L);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertTrue(response.getBody().get("liked"));
@@ -261,13 +281,10 @@ class PostsControllerTest {
         PostLike postLike = new PostLike(liker, testPost);
         Page<PostLike> likesPage = new PageImpl<>(Arrays.asList(postLike));
 
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
         when(postRepository.findById(1L)).thenReturn(Optional.of(testPost));
         when(postLikeRepository.findByPostId(eq(1L), any(Pageable.class))).thenReturn(likesPage);
 
-        ResponseEntity<List<SafeUser>> response = postsController.listPostLikes(authentication, 1L, 0, 10);
+        ResponseEntity<List<SafeUser>> response = postsController.listPostLikes(me, 1L, 0, 10);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(1, response.getBody().size());
@@ -275,14 +292,12 @@ class PostsControllerTest {
 
     @Test
     void testCreateComment_Success() {
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
         when(postRepository.findById(1L)).thenReturn(Optional.of(testPost));
 
         CreateCommentRequest request = new CreateCommentRequest();
         request.setText("Nice post!");
-        ResponseEntity<CommentResponse> response = postsController.createComment(authentication, 1L, request);
+        ResponseEntity<CommentResponse> response = postsController.createComment(me, 1L, request);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
@@ -290,18 +305,16 @@ class PostsControllerTest {
         assertEquals(testUser.getUsername(), response.getBody().getUsername());
         assertNotNull(response.getBody().getUser());
         verify(commentRepository).save(any(Comment.class));
+        verify(postRepository).adjustCommentCount(1L, 1);
     }
 
     @Test
     void testListCommentsForPost_Success() {
         Comment comment = new Comment("Great!", testPost, testUser);
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
         when(postRepository.findById(1L)).thenReturn(Optional.of(testPost));
         when(commentRepository.findByPostId(1L)).thenReturn(Arrays.asList(comment));
 
-        ResponseEntity<List<CommentResponse>> response = postsController.listCommentsForPost(authentication, 1L);
+        ResponseEntity<List<CommentResponse>> response = postsController.listCommentsForPost(me, 1L);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(1, response.getBody().size());
@@ -311,14 +324,14 @@ class PostsControllerTest {
     void testFeed_EmptyFollowing() {
         testUser.setFollowing(new HashSet<>());
         
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(timelineService.readFeed(1L, 0, 10)).thenReturn(Collections.emptyList());
 
-        ResponseEntity<List<PostDetailResponse>> response = postsController.feed(authentication, 0, 10);
+        ResponseEntity<List<PostDetailResponse>> response = postsController.feed(me, 0, 10);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertTrue(response.getBody().isEmpty());
+        // El viewer sale del token: el feed no consulta users
+        verifyNoInteractions(userRepository);
     }
 
     @Test
@@ -328,20 +341,13 @@ class PostsControllerTest {
         followedUser.setFullName("Followed");
         testUser.setFollowing(new HashSet<>(Arrays.asList(followedUser)));
         
-        Post followedPost = new Post("Followed post", "img.jpg", followedUser);
-        followedPost.setId(2L);
-        
-        Page<Post> postsPage = new PageImpl<>(Arrays.asList(followedPost));
+        PostDetailResponse followedPost = new PostDetailResponse(2L, null, "Followed post", "img.jpg",
+                new com.team.socialnetwork.dto.SafeUser(2L, "Followed", "followed", "followed@example.com", null),
+                0L, 0L, false);
         
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
-        when(postRepository.findByAuthorIdIn(anyList(), any(Pageable.class))).thenReturn(postsPage);
-        when(postLikeRepository.countByPostIds(anyList())).thenReturn(Collections.emptyList());
-        when(commentRepository.countByPostIds(anyList())).thenReturn(Collections.emptyList());
-        when(postLikeRepository.findPostIdsLikedByUser(anyLong(), anyList())).thenReturn(Collections.emptyList());
+        when(timelineService.readFeed(1L, 0, 10)).thenReturn(Arrays.asList(followedPost));
 
-        ResponseEntity<List<PostDetailResponse>> response = postsController.feed(authentication, 0, 10);
+        ResponseEntity<List<PostDetailResponse>> response = postsController.feed(me, 0, 10);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(1, response.getBody().size());
@@ -357,34 +363,28 @@ class PostsControllerTest {
         Post privatePost = new Post("Private post", null, privateUser);
         privatePost.setId(2L);
         
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
         when(postRepository.findById(2L)).thenReturn(Optional.of(privatePost));
 
         CreateCommentRequest request = new CreateCommentRequest();
         request.setText("Nice!");
         
         assertThrows(ResponseStatusException.class, () -> 
-            postsController.createComment(authentication, 2L, request)
+            postsController.createComment(me, 2L, request)
         );
     }
 
     @Test
     void testFeed_InvalidPage() {
-        when(authentication.isAuthenticated()).thenReturn(true);
-
         assertThrows(ResponseStatusException.class, () -> 
-            postsController.feed(authentication, -1, 10)
+            postsController.feed(me, -1, 10)
         );
     }
 
     @Test
     void testFeed_InvalidSize() {
-        when(authentication.isAuthenticated()).thenReturn(true);
-
         assertThrows(ResponseStatusException.class, () -> 
-            postsController.feed(authentication, 0, 0)
+            postsController.feed(me, 0, 0)
         );
     }
 }
@@ -4,6 +4,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.matchesPattern;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -26,6 +27,8 @@ import com.team.socialnetwork.dto.UpdateProfileRequest;
 import com.team.socialnetwork.entity.FollowRequest;
 import com.team.socialnetwork.entity.Post;
 import com.team.socialnetwork.entity.User;
+import com.team.socialnetwork.jobs.CounterReconciler;
+import com.team.socialnetwork.jobs.RecommendationJob;
 import com.team.socialnetwork.repository.FollowRequestRepository;
 import com.team.socialnetwork.repository.PostRepository;
 import com.team.socialnetwork.repository.UserRepository;
@@ -58,6 +61,12 @@ class UsersControllerIntegrationTest {
     @Autowired
     private JwtService jwtService;
 
+    @Autowired
+    private CounterReconciler counterReconciler;
+
+    @Autowired
+    private RecommendationJob recommendationJob;
+
     private String token;
     private User testUser;
     private User targetUser;
@@ -188,6 +197,167 @@ class UsersControllerIntegrationTest {
                 .andExpect(jsonPath("$[0].username").value("targetuser"));
     }
 
+    @Test
+    void testListFollowingByCursor() throws Exception {
+        User second = new User("seconduser", "second@example.com", passwordEncoder.encode("password123"));
+        second.setFullName("Second User");
+        second.setEmailConfirmed(true);
+        second.setProfilePicture("data:image/png;base64,AAAA");
+        second = userRepository.save(second);
+        User third = new User("thirduser", "third@example.com", passwordEncoder.encode("password123"));
+        third.setEmailConfirmed(true);
+        third.setProfilePicture("/media/abc.jpg");
+        third = userRepository.save(third);
+        for (User followed : java.util.List.of(targetUser, second, third)) {
+            mockMvc.perform(post("/users/" + followed.getId() + "/follow")
+                            .header("Authorization", "Bearer " + token))
+                    .andExpect(status().isOk());
+        }
+
+        // Del más reciente al más viejo; sin email ni imagen base64
+        String firstPage = mockMvc.perform(get("/users/" + testUser.getId() + "/following")
+                        .header("Authorization", "Bearer " + token)
+                        .param("cursor", "")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].username").value("thirduser"))
+                .andExpect(jsonPath("$.items[0].profilePicture").value(matchesPattern("/media/abc\\.jpg\\?size=thumb&exp=\\d+&sig=[\\w-]+")))
+                .andExpect(jsonPath("$.items[0].email").doesNotExist())
+                .andExpect(jsonPath("$.items[1].username").value("seconduser"))
+                .andExpect(jsonPath("$.items[1].profilePicture").doesNotExist())
+                .andExpect(jsonPath("$.items[1].followedAt").exists())
+                .andExpect(jsonPath("$.hasMore").value(true))
+                .andReturn().getResponse().getContentAsString();
+        String next = objectMapper.readTree(firstPage).get("nextCursor").asText();
+
+        mockMvc.perform(get("/users/" + testUser.getId() + "/following")
+                        .header("Authorization", "Bearer " + token)
+                        .param("cursor", next)
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].username").value("targetuser"))
+                .andExpect(jsonPath("$.hasMore").value(false))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        mockMvc.perform(get("/users/" + third.getId() + "/followers")
+                        .header("Authorization", "Bearer " + token)
+                        .param("cursor", ""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].id").value(testUser.getId()));
+    }
+
+    @Test
+    void testFollowCountsMaintainedAndReconciled() throws Exception {
+        mockMvc.perform(post("/users/" + targetUser.getId() + "/follow")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/users/" + targetUser.getId() + "/followers/count")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(1));
+        mockMvc.perform(get("/users/" + testUser.getId())
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.followersCount").value(0))
+                .andExpect(jsonPath("$.followingCount").value(1));
+
+        // Simular deriva: el contador queda desfasado respecto de user_following
+        userRepository.adjustFollowCounts(testUser.getId(), targetUser.getId(), 4);
+        counterReconciler.reconcile();
+
+        mockMvc.perform(get("/users/" + targetUser.getId() + "/followers/count")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(jsonPath("$.count").value(1));
+        mockMvc.perform(get("/users/" + testUser.getId() + "/following/count")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(jsonPath("$.count").value(1));
+
+        mockMvc.perform(delete("/users/" + targetUser.getId() + "/follow")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/users/" + targetUser.getId() + "/followers/count")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(jsonPath("$.count").value(0));
+    }
+
+    @Test
+    void testRelationshipsBatch() throws Exception {
+        User privateUser = new User("privateuser", "private@example.com", passwordEncoder.encode("password123"));
+        privateUser.setEmailConfirmed(true);
+        privateUser.setPrivate(true);
+        privateUser = userRepository.save(privateUser);
+        mockMvc.perform(post("/users/" + targetUser.getId() + "/follow")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/users/" + privateUser.getId() + "/follow")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isAccepted());
+
+        mockMvc.perform(get("/users/relationships")
+                        .header("Authorization", "Bearer " + token)
+                        .param("ids", targetUser.getId() + "," + privateUser.getId() + ",99999"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['" + targetUser.getId() + "'].following").value(true))
+                .andExpect(jsonPath("$['" + targetUser.getId() + "'].followsYou").value(false))
+                .andExpect(jsonPath("$['" + privateUser.getId() + "'].following").value(false))
+                .andExpect(jsonPath("$['" + privateUser.getId() + "'].requested").value(true))
+                .andExpect(jsonPath("$['99999']").doesNotExist());
+    }
+
+    @Test
+    void testSuggestionsFromRecommendationJob() throws Exception {
+        User third = new User("thirduser", "third@example.com", passwordEncoder.encode("password123"));
+        third.setFullName("Third User");
+        third.setEmailConfirmed(true);
+        third = userRepository.save(third);
+        String targetToken = jwtService.generateAccessToken(targetUser.getEmail(), new HashMap<>());
+        mockMvc.perform(post("/users/" + targetUser.getId() + "/follow")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/users/" + third.getId() + "/follow")
+                        .header("Authorization", "Bearer " + targetToken))
+                .andExpect(status().isOk());
+
+        recommendationJob.refresh();
+
+        mockMvc.perform(get("/users/me/suggestions")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(third.getId()))
+                .andExpect(jsonPath("$[0].name").value("Third User"))
+                .andExpect(jsonPath("$[0].mutualCount").value(1));
+
+        // Al seguirlo deja de aparecer sin esperar al próximo cálculo
+        mockMvc.perform(post("/users/" + third.getId() + "/follow")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/users/me/suggestions")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    void testListFollowersByCursorErrors() throws Exception {
+        mockMvc.perform(get("/users/99999/followers")
+                        .header("Authorization", "Bearer " + token)
+                        .param("cursor", ""))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/users/" + testUser.getId() + "/followers")
+                        .header("Authorization", "Bearer " + token)
+                        .param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/users/" + testUser.getId() + "/followers")
+                        .header("Authorization", "Bearer " + token)
+                        .param("cursor", "").param("size", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testCheckFollowing() throws Exception {
         // Sin seguir
@@ -320,4 +490,14 @@ class UsersControllerIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.message").value("Follow request rejected"));
     }
+
+    @Test
+    void testStatsEndpointsRequireAdmin() throws Exception {
+        for (String path : new String[] {"/users/cache-stats", "/users/password-hash-stats",
+                "/users/follow-graph-stats", "/posts/feed/cache-stats"}) {
+            mockMvc.perform(get(path)
+                            .header("Authorization", "Bearer " + token))
+                    .andExpect(status().isForbidden());
+        }
+    }
 }
@@ -5,8 +5,10 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -16,12 +18,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -42,10 +46,23 @@ import com.team.socialnetwork.entity.Post;
 import com.team.socialnetwork.entity.User;
 import com.team.socialnetwork.repository.CommentLikeRepository;
 import com.team.socialnetwork.repository.CommentRepository;
+import com.team.socialnetwork.repository.FollowEdgeRepository;
 import com.team.socialnetwork.repository.FollowRequestRepository;
 import com.team.socialnetwork.repository.PostRepository;
 import com.team.socialnetwork.repository.UserRepository;
+import com.team.socialnetwork.security.AuthenticatedUser;
+import com.team.socialnetwork.security.TokenRevocationList;
 import com.team.socialnetwork.service.NotificationService;
+import com.team.socialnetwork.service.feed.TimelineService;
+import com.team.socialnetwork.service.graph.FollowEdgeService;
+import com.team.socialnetwork.service.graph.FollowGraph;
+import com.team.socialnetwork.service.graph.FollowListService;
+import com.team.socialnetwork.service.media.ImageVariantService;
+import com.team.socialnetwork.service.media.MediaStore;
+import com.team.socialnetwork.service.media.MediaUrlSigner;
+import com.team.socialnetwork.service.post.UserPostsService;
+import com.team.socialnetwork.service.recommendation.RecommendationService;
+import com.team.socialnetwork.service.user.UserLookupCache;
 
 @ExtendWith(MockitoExtension.class)
 class UsersControllerTest {
@@ -72,13 +89,47 @@ class UsersControllerTest {
     private NotificationService notificationService;
 
     @Mock
-    private Authentication authentication;
+    private TimelineService timelineService;
+
+    @Mock
+    private UserPostsService userPostsService;
+
+    @Mock
+    private MediaStore mediaStore;
+
+    @Mock
+    private ImageVariantService imageVariantService;
+
+    @Mock
+    private UserLookupCache userLookupCache;
+
+    @Mock
+    private TokenRevocationList tokenRevocationList;
+
+    @Mock
+    private FollowGraph followGraph;
+
+    @Mock
+    private FollowEdgeRepository followEdgeRepository;
+
+    @Mock
+    private FollowListService followListService;
+
+    @Mock
+    private FollowEdgeService followEdgeService;
+
+    @Mock
+    private RecommendationService recommendationService;
+
+    @Spy
+    private MediaUrlSigner mediaUrlSigner = new MediaUrlSigner("test-media-url-secret-0123456789abcdef", 3600);
 
     @InjectMocks
     private UsersController usersController;
 
     private User testUser;
     private User targetUser;
+    private AuthenticatedUser me;
 
     @BeforeEach
     void setUp() {
@@ -89,60 +140,62 @@ class UsersControllerTest {
         targetUser = new User("targetuser", "target@example.com", "pass456");
         targetUser.setId(2L);
         targetUser.setFullName("Target User");
+
+        me = new AuthenticatedUser(1L, "test@example.com", "Test User", false);
     }
 
     @Test
     void testGetMe_Success() {
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        testUser.setFollowersCount(3);
+        testUser.setFollowingCount(5);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
 
-        ResponseEntity<PublicUserResponse> response = usersController.me(authentication);
+        ResponseEntity<PublicUserResponse> response = usersController.me(me);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals("testuser", response.getBody().getUsername());
+        assertEquals(3L, response.getBody().getFollowersCount());
+        assertEquals(5L, response.getBody().getFollowingCount());
     }
 
     @Test
     void testUpdateVisibility_Success() {
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
 
         UpdateVisibilityRequest request = new UpdateVisibilityRequest();
         request.setIsPrivate(true);
-        ResponseEntity<MessageResponse> response = usersController.updateVisibility(authentication, request);
+        ResponseEntity<MessageResponse> response = usersController.updateVisibility(me, request);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals("Visibility updated", response.getBody().getMessage());
         verify(userRepository).save(testUser);
+        verify(userLookupCache).invalidate(1L);
     }
 
     @Test
     void testFollow_PublicUser_Success() {
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
         when(userRepository.findById(2L)).thenReturn(Optional.of(targetUser));
+        when(followEdgeService.follow(1L, 2L)).thenReturn(true);
 
-        ResponseEntity<MessageResponse> response = usersController.follow(authentication, 2L);
+        ResponseEntity<MessageResponse> response = usersController.follow(me, 2L);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals("Followed successfully", response.getBody().getMessage());
-        verify(userRepository).save(testUser);
+        verify(followEdgeService).follow(1L, 2L);
+        verify(timelineService).onFollow(1L, 2L);
+        verify(followGraph).onFollow(1L, 2L);
     }
 
     @Test
     void testFollow_PrivateUser_SendsRequest() {
         targetUser.setPrivate(true);
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
         when(userRepository.findById(2L)).thenReturn(Optional.of(targetUser));
         when(followRequestRepository.existsByFollowerIdAndTargetId(1L, 2L)).thenReturn(false);
 
-        ResponseEntity<MessageResponse> response = usersController.follow(authentication, 2L);
+        ResponseEntity<MessageResponse> response = usersController.follow(me, 2L);
 
         assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
         assertEquals("Follow request sent", response.getBody().getMessage());
@@ -151,56 +204,50 @@ class UsersControllerTest {
 
     @Test
     void testFollow_AlreadyFollowing() {
-        testUser.setFollowing(new HashSet<>(Arrays.asList(targetUser)));
-        
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(followEdgeRepository.existsEdge(1L, 2L)).thenReturn(true);
+
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
         when(userRepository.findById(2L)).thenReturn(Optional.of(targetUser));
 
         assertThrows(ResponseStatusException.class, () -> 
-            usersController.follow(authentication, 2L)
+            usersController.follow(me, 2L)
         );
     }
 
     @Test
     void testFollow_CannotFollowSelf() {
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
 
         assertThrows(ResponseStatusException.class, () -> 
-            usersController.follow(authentication, 1L)
+            usersController.follow(me, 1L)
         );
     }
 
     @Test
     void testUnfollow_Success() {
-        testUser.setFollowing(new HashSet<>(Arrays.asList(targetUser)));
-        
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(followEdgeService.unfollow(1L, 2L)).thenReturn(true);
+
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
         when(userRepository.findById(2L)).thenReturn(Optional.of(targetUser));
 
-        ResponseEntity<MessageResponse> response = usersController.unfollow(authentication, 2L);
+        ResponseEntity<MessageResponse> response = usersController.unfollow(me, 2L);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals("Unfollowed successfully", response.getBody().getMessage());
-        verify(userRepository).save(testUser);
+        verify(followEdgeService).unfollow(1L, 2L);
+        verify(timelineService).onUnfollow(1L, 2L);
+        verify(followGraph).onUnfollow(1L, 2L);
     }
 
     @Test
     void testUnfollow_CancelPendingRequest() {
         FollowRequest followRequest = new FollowRequest(testUser, targetUser);
         
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
         when(userRepository.findById(2L)).thenReturn(Optional.of(targetUser));
         when(followRequestRepository.findByFollowerIdAndTargetId(1L, 2L)).thenReturn(Optional.of(followRequest));
 
-        ResponseEntity<MessageResponse> response = usersController.unfollow(authentication, 2L);
+        ResponseEntity<MessageResponse> response = usersController.unfollow(me, 2L);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals("Follow request canceled", response.getBody().getMessage());
@@ -211,31 +258,27 @@ class UsersControllerTest {
     void testApproveFollow_Success() {
         FollowRequest followRequest = new FollowRequest(targetUser, testUser);
         
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
         when(userRepository.findById(2L)).thenReturn(Optional.of(targetUser));
         when(followRequestRepository.findByFollowerIdAndTargetId(2L, 1L)).thenReturn(Optional.of(followRequest));
 
-        ResponseEntity<MessageResponse> response = usersController.approveFollow(authentication, 2L);
+        ResponseEntity<MessageResponse> response = usersController.approveFollow(me, 2L);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals("Follow request approved", response.getBody().getMessage());
         verify(followRequestRepository).delete(followRequest);
-        verify(userRepository).save(targetUser);
+        verify(followEdgeService).follow(2L, 1L);
+        verify(followGraph).onFollow(2L, 1L);
     }
 
     @Test
     void testRejectFollow_Success() {
         FollowRequest followRequest = new FollowRequest(targetUser, testUser);
         
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
         when(userRepository.findById(2L)).thenReturn(Optional.of(targetUser));
         when(followRequestRepository.findByFollowerIdAndTargetId(2L, 1L)).thenReturn(Optional.of(followRequest));
 
-        ResponseEntity<MessageResponse> response = usersController.rejectFollow(authentication, 2L);
+        ResponseEntity<MessageResponse> response = usersController.rejectFollow(me, 2L);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals("Follow request rejected", response.getBody().getMessage());
@@ -244,18 +287,16 @@ class UsersControllerTest {
 
     @Test
     void testRemoveFollower_Success() {
-        targetUser.setFollowing(new HashSet<>(Arrays.asList(testUser)));
-        testUser.setFollowers(new HashSet<>(Arrays.asList(targetUser)));
-        
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(followEdgeService.unfollow(2L, 1L)).thenReturn(true);
+
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
         when(userRepository.findById(2L)).thenReturn(Optional.of(targetUser));
 
-        ResponseEntity<MessageResponse> response = usersController.removeFollower(authentication, 2L);
+        ResponseEntity<MessageResponse> response = usersController.removeFollower(me, 2L);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals("Follower removed successfully", response.getBody().getMessage());
+        verify(followGraph).onUnfollow(2L, 1L);
     }
 
     @Test
@@ -312,23 +353,51 @@ class UsersControllerTest {
 
     @Test
     void testRelationship_Success() {
-        testUser.setFollowing(new HashSet<>(Arrays.asList(targetUser)));
-        
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(followEdgeRepository.existsEdge(1L, 2L)).thenReturn(true);
+        when(followEdgeRepository.existsEdge(2L, 1L)).thenReturn(false);
+
         when(userRepository.findById(2L)).thenReturn(Optional.of(targetUser));
         when(followRequestRepository.existsByFollowerIdAndTargetId(1L, 2L)).thenReturn(false);
 
-        ResponseEntity<RelationshipResponse> response = usersController.relationship(authentication, 2L);
+        ResponseEntity<RelationshipResponse> response = usersController.relationship(me, 2L);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertTrue(response.getBody().isFollowing());
+        assertFalse(response.getBody().isFollowsYou());
+    }
+
+    @Test
+    void testRelationships_Batch() {
+        when(userRepository.findExistingIds(Set.of(2L, 3L, 99L))).thenReturn(List.of(2L, 3L));
+        when(followEdgeRepository.findFollowedIdsAmong(1L, Set.of(2L, 3L, 99L))).thenReturn(List.of(2L));
+        when(followEdgeRepository.findFollowerIdsAmong(1L, Set.of(2L, 3L, 99L))).thenReturn(List.of(2L));
+        when(followRequestRepository.findTargetIdsRequestedBy(1L, Set.of(2L, 3L, 99L))).thenReturn(List.of(3L));
+
+        ResponseEntity<Map<Long, RelationshipResponse>> response =
+                usersController.relationships(me, List.of(3L, 2L, 99L, 2L));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(3L, 2L), List.copyOf(response.getBody().keySet()));
+        assertTrue(response.getBody().get(2L).isFollowing());
+        assertTrue(response.getBody().get(2L).isFollowsYou());
+        assertFalse(response.getBody().get(2L).isRequested());
+        assertFalse(response.getBody().get(3L).isFollowing());
+        assertTrue(response.getBody().get(3L).isRequested());
+    }
+
+    @Test
+    void testRelationships_TooManyIds() {
+        List<Long> ids = java.util.stream.LongStream.rangeClosed(1, 201).boxed().toList();
+
+        ResponseStatusException error = assertThrows(ResponseStatusException.class,
+                () -> usersController.relationships(me, ids));
+
+        assertEquals(HttpStatus.BAD_REQUEST, error.getStatusCode());
     }
 
     @Test
     void testCountFollowers_Success() {
-        testUser.setFollowers(new HashSet<>(Arrays.asList(targetUser)));
+        testUser.setFollowersCount(1);
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
 
         ResponseEntity<Map<String, Long>> response = usersController.countFollowers(1L);
@@ -339,7 +408,7 @@ class UsersControllerTest {
 
     @Test
     void testCountFollowing_Success() {
-        testUser.setFollowing(new HashSet<>(Arrays.asList(targetUser)));
+        testUser.setFollowingCount(1);
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
 
         ResponseEntity<Map<String, Long>> response = usersController.countFollowing(1L);
@@ -352,48 +421,60 @@ class UsersControllerTest {
     void testListUserPosts_Success() {
         Post post = new Post("Test", "img.jpg", testUser);
         
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
         when(postRepository.findByAuthorId(1L)).thenReturn(Arrays.asList(post));
 
-        ResponseEntity<?> response = usersController.listUserPosts(authentication, 1L);
+        ResponseEntity<?> response = usersController.listUserPosts(me, 1L);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
     }
 
     @Test
     void testChangePassword_Success() {
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
         when(passwordEncoder.matches("oldPassword", "password123")).thenReturn(true);
-        when(passwordEncoder.matches("newPassword", "password123")).thenReturn(false);
         when(passwordEncoder.encode("newPassword")).thenReturn("encodedNewPassword");
 
         ChangePasswordRequest request = new ChangePasswordRequest();
         request.setCurrentPassword("oldPassword");
         request.setNewPassword("newPassword");
         
-        ResponseEntity<MessageResponse> response = usersController.changePassword(authentication, request);
+        ResponseEntity<MessageResponse> response = usersController.changePassword(me, request);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals("Password updated successfully", response.getBody().getMessage());
         verify(userRepository).save(testUser);
+        verify(userLookupCache).invalidate(1L);
+        verify(tokenRevocationList).revokeAllForUser(1L);
+    }
+
+    @Test
+    void testChangePassword_SameAsCurrent_SingleHashCheck() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(passwordEncoder.matches("oldPassword", "password123")).thenReturn(true);
+
+        ChangePasswordRequest request = new ChangePasswordRequest();
+        request.setCurrentPassword("oldPassword");
+        request.setNewPassword("oldPassword");
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> usersController.changePassword(me, request));
+
+        assertEquals(HttpStatus.CONFLICT, ex.getStatusCode());
+        // Un solo BCrypt por request: la nueva se compara en claro con la actual ya verificada
+        verify(passwordEncoder, times(1)).matches(any(), any());
+        verify(userRepository, never()).save(any());
     }
 
     @Test
     void testChangeUsername_Success() {
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
         when(userRepository.existsByUsername("newusername")).thenReturn(false);
 
         ChangeUsernameRequest request = new ChangeUsernameRequest();
         request.setUsername("newusername");
         
-        ResponseEntity<MessageResponse> response = usersController.changeUsername(authentication, request);
+        ResponseEntity<MessageResponse> response = usersController.changeUsername(me, request);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals("Username updated successfully", response.getBody().getMessage());
@@ -402,29 +483,25 @@ class UsersControllerTest {
 
     @Test
     void testChangeUsername_AlreadyExists() {
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
         when(userRepository.existsByUsername("existinguser")).thenReturn(true);
 
         ChangeUsernameRequest request = new ChangeUsernameRequest();
         request.setUsername("existinguser");
         
         assertThrows(ResponseStatusException.class, () -> 
-            usersController.changeUsername(authentication, request)
+            usersController.changeUsername(me, request)
         );
     }
 
     @Test
     void testChangeFullName_Success() {
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
 
         ChangeNameRequest request = new ChangeNameRequest();
         request.setName("New Full Name");
         
-        ResponseEntity<MessageResponse> response = usersController.changeFullName(authentication, request);
+        ResponseEntity<MessageResponse> response = usersController.changeFullName(me, request);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals("Full name updated successfully", response.getBody().getMessage());
@@ -433,28 +510,26 @@ class UsersControllerTest {
 
     @Test
     void testDeleteAccount_Success() {
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
 
-        ResponseEntity<MessageResponse> response = usersController.deleteAccount(authentication);
+        ResponseEntity<MessageResponse> response = usersController.deleteAccount(me);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals("Account deleted successfully", response.getBody().getMessage());
         verify(commentLikeRepository).deleteByUserId(1L);
+        verify(followEdgeService).removeUser(1L);
         verify(userRepository).delete(testUser);
+        verify(tokenRevocationList).revokeAllForUser(1L);
     }
 
     @Test
     void testUpdateProfile_Success() {
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
 
         UpdateProfileRequest request = new UpdateProfileRequest();
         request.setFullName("Updated Name");
         
-        ResponseEntity<MessageResponse> response = usersController.updateProfile(authentication, request);
+        ResponseEntity<MessageResponse> response = usersController.updateProfile(me, request);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals("Profile updated successfully", response.getBody().getMessage());
@@ -466,12 +541,10 @@ class UsersControllerTest {
         testUser.setPrivate(true);
         FollowRequest followRequest = new FollowRequest(targetUser, testUser);
         
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
         when(followRequestRepository.findByTargetId(1L)).thenReturn(Arrays.asList(followRequest));
 
-        ResponseEntity<List<FollowRequestResponse>> response = usersController.getPendingFollowRequests(authentication);
+        ResponseEntity<List<FollowRequestResponse>> response = usersController.getPendingFollowRequests(me);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(1, response.getBody().size());
@@ -481,11 +554,9 @@ class UsersControllerTest {
     void testGetPendingFollowRequests_PublicUser() {
         testUser.setPrivate(false);
         
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
 
-        ResponseEntity<List<FollowRequestResponse>> response = usersController.getPendingFollowRequests(authentication);
+        ResponseEntity<List<FollowRequestResponse>> response = usersController.getPendingFollowRequests(me);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertTrue(response.getBody().isEmpty());
@@ -496,19 +567,17 @@ class UsersControllerTest {
         FollowRequest followRequest = new FollowRequest(targetUser, testUser);
         followRequest.setId(1L);
         
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
         when(followRequestRepository.findById(1L)).thenReturn(Optional.of(followRequest));
 
         FollowRequestActionRequest actionRequest = new FollowRequestActionRequest();
         actionRequest.setAction("accept");
         
-        ResponseEntity<MessageResponse> response = usersController.handleFollowRequest(authentication, 1L, actionRequest);
+        ResponseEntity<MessageResponse> response = usersController.handleFollowRequest(me, 1L, actionRequest);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals("Follow request accepted", response.getBody().getMessage());
         verify(followRequestRepository).delete(followRequest);
+        verify(followEdgeService).follow(2L, 1L);
     }
 
     @Test
@@ -516,15 +585,12 @@ class UsersControllerTest {
         FollowRequest followRequest = new FollowRequest(targetUser, testUser);
         followRequest.setId(1L);
         
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
         when(followRequestRepository.findById(1L)).thenReturn(Optional.of(followRequest));
 
         FollowRequestActionRequest actionRequest = new FollowRequestActionRequest();
         actionRequest.setAction("reject");
         
-        ResponseEntity<MessageResponse> response = usersController.handleFollowRequest(authentication, 1L, actionRequest);
+        ResponseEntity<MessageResponse> response = usersController.handleFollowRequest(me, 1L, actionRequest);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals("Follow request rejected", response.getBody().getMessage());
@@ -533,17 +599,18 @@ class UsersControllerTest {
 
     @Test
     void testUpdateProfilePicture_Success() {
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
 
         UpdateProfilePictureRequest request = new UpdateProfilePictureRequest();
         request.setProfilePicture("data:image/png;base64,abc123");
+        when(mediaStore.toReference("data:image/png;base64,abc123")).thenReturn("/media/abc.png");
         
-        ResponseEntity<MessageResponse> response = usersController.updateProfilePicture(authentication, request);
+        ResponseEntity<MessageResponse> response = usersController.updateProfilePicture(me, request);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals("Profile picture updated successfully", response.getBody().getMessage());
+        assertEquals("/media/abc.png", testUser.getProfilePicture());
         verify(userRepository).save(testUser);
+        verify(imageVariantService).schedule("/media/abc.png");
     }
 }
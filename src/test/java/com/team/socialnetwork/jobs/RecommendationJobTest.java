@@ -0,0 +1,106 @@
+package com.team.socialnetwork.jobs;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.team.socialnetwork.repository.FollowChangeRepository;
+import com.team.socialnetwork.repository.FollowEdgeRepository;
+import com.team.socialnetwork.service.graph.FollowGraph;
+import com.team.socialnetwork.service.recommendation.FollowRecommender;
+import com.team.socialnetwork.service.recommendation.RecommendationService;
+
+@DisplayName("RecommendationJob Tests")
+class RecommendationJobTest {
+
+    private FollowGraph graph;
+    private FollowRecommender recommender;
+    private RecommendationService recommendationService;
+    private RecommendationJob job;
+    private final List<List<Long>> written = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        FollowEdgeRepository followEdgeRepository = mock(FollowEdgeRepository.class);
+        when(followEdgeRepository.findEdgesAfter(any(), any(), any())).thenReturn(List.of());
+        graph = new FollowGraph(followEdgeRepository, mock(FollowChangeRepository.class), 100);
+        recommender = new FollowRecommender(2, 5, 1000);
+        recommendationService = mock(RecommendationService.class);
+        doAnswer(inv -> written.add(inv.getArgument(0))).when(recommendationService).replace(anyList(), anyList());
+        job = new RecommendationJob(graph, recommender, recommendationService, 24, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        recommender.shutdown();
+    }
+
+    @Test
+    @DisplayName("First run should refresh everyone, later runs only changed users and their followers")
+    void shouldRefreshOnlyChangedNeighborhoods() {
+        when(recommendationService.usersWithSuggestions()).thenReturn(List.of(9L));
+        graph.onFollow(1L, 2L);
+        graph.onFollow(2L, 3L);
+        graph.onFollow(4L, 5L);
+
+        job.refresh();
+        // 9 ya no sigue a nadie pero tenía sugerencias: entra para que se borren
+        assertEquals(List.of(List.of(1L, 2L), List.of(4L, 9L)), written);
+
+        written.clear();
+        job.refresh();
+        assertEquals(List.of(), written);
+
+        graph.onFollow(2L, 6L);
+        job.refresh();
+        // 2 cambió lo que sigue; 1 sigue a 2, así que su segundo nivel también
+        assertEquals(List.of(List.of(1L, 2L)), written);
+    }
+
+    @Test
+    @DisplayName("Each batch should be written with the suggestions computed for its own users")
+    void shouldComputeSuggestionsPerBatch() {
+        when(recommendationService.usersWithSuggestions()).thenReturn(List.of());
+        List<List<List<FollowRecommender.Candidate>>> candidates = new ArrayList<>();
+        doAnswer(inv -> candidates.add(inv.getArgument(1))).when(recommendationService).replace(anyList(), anyList());
+        graph.onFollow(1L, 2L);
+        graph.onFollow(2L, 3L);
+        graph.onFollow(4L, 2L);
+
+        job.refresh();
+
+        assertEquals(2, candidates.size());
+        // Tanda [1, 2]: a 1 se le sugiere 3 (lo sigue 2); 2 no tiene segundo nivel
+        assertEquals(3L, candidates.get(0).get(0).get(0).getUserId());
+        assertEquals(List.of(), candidates.get(0).get(1));
+        // Tanda [4]: también llega a 3 a través de 2
+        assertEquals(1, candidates.get(1).size());
+        assertEquals(3L, candidates.get(1).get(0).get(0).getUserId());
+    }
+
+    @Test
+    @DisplayName("Users of a failed batch should be retried on the next run")
+    void shouldRetryFailedBatch() {
+        when(recommendationService.usersWithSuggestions()).thenReturn(List.of());
+        job.refresh();
+        graph.onFollow(1L, 2L);
+        doThrow(new IllegalStateException("db down")).when(recommendationService).replace(anyList(), anyList());
+
+        job.refresh();
+
+        doAnswer(inv -> written.add(inv.getArgument(0))).when(recommendationService).replace(anyList(), anyList());
+        job.refresh();
+        assertEquals(List.of(List.of(1L)), written);
+    }
+}
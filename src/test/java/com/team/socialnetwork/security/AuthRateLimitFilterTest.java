@@ -0,0 +1,146 @@
+package com.team.socialnetwork.security;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.ServletException;
+
+@DisplayName("AuthRateLimitFilter Tests")
+class AuthRateLimitFilterTest {
+
+    private AuthRateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new AuthRateLimitFilter(new ObjectMapper(), true, 1000,
+                "3/60", "2/60", "1/3600", "1/3600", "0", "1/3600", new String[] {"10.0.0.0/8"});
+    }
+
+    @Test
+    @DisplayName("Should answer 429 with Retry-After once the IP bucket is empty")
+    void shouldLimitByIp() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, login("10.0.0.1", "user" + i + "@example.com").getStatus());
+        }
+
+        MockHttpServletResponse limited = login("10.0.0.1", "other@example.com");
+
+        assertEquals(429, limited.getStatus());
+        assertNotNull(limited.getHeader("Retry-After"));
+        assertEquals(200, login("10.0.0.2", "other@example.com").getStatus());
+    }
+
+    @Test
+    @DisplayName("Should limit one email across different IPs")
+    void shouldLimitByEmail() throws Exception {
+        assertEquals(200, login("10.0.0.1", "victim@example.com").getStatus());
+        assertEquals(200, login("10.0.0.2", "Victim@Example.com").getStatus());
+
+        assertEquals(429, login("10.0.0.3", "victim@example.com").getStatus());
+    }
+
+    @Test
+    @DisplayName("Should hand the original body to the controller")
+    void shouldReplayBody() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        String json = "{\"email\":\"a@example.com\",\"password\":\"secret\"}";
+
+        filter.doFilter(request("/auth/login", "10.0.0.1", json), new MockHttpServletResponse(), chain);
+
+        byte[] forwarded = chain.getRequest().getInputStream().readAllBytes();
+        assertEquals(json, new String(forwarded, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Should leave other routes and disabled policies alone")
+    void shouldSkipUnlimitedRoutes() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request("/posts", "10.0.0.1", "{}"), new MockHttpServletResponse(), chain);
+        assertNotNull(chain.getRequest());
+
+        // Reseteo sin límite por IP: solo cuenta el email
+        assertEquals(200, post("/auth/request-password-reset", "10.0.0.9", "{\"email\":\"a@example.com\"}").getStatus());
+        assertEquals(200, post("/auth/request-password-reset", "10.0.0.9", "{\"email\":\"b@example.com\"}").getStatus());
+        assertEquals(429, post("/auth/request-password-reset", "10.0.0.9", "{\"email\":\"a@example.com\"}").getStatus());
+    }
+
+    @Test
+    @DisplayName("Should not consume the email bucket when the IP is already limited")
+    void shouldCheckIpBeforeEmail() throws Exception {
+        assertEquals(200, post("/auth/register", "10.0.0.1", "{\"email\":\"new@example.com\"}").getStatus());
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request("/auth/register", "10.0.0.1", "{\"email\":\"fresh@example.com\"}"), response, chain);
+
+        assertEquals(429, response.getStatus());
+        assertNull(chain.getRequest());
+        assertEquals(200, post("/auth/register", "10.0.0.2", "{\"email\":\"fresh@example.com\"}").getStatus());
+    }
+
+    @Test
+    @DisplayName("Should key by the forwarded client IP only behind a trusted proxy")
+    void shouldResolveClientIpBehindTrustedProxy() {
+        MockHttpServletRequest viaProxy = request("/auth/login", "10.1.2.3", "{}");
+        viaProxy.addHeader("X-Forwarded-For", "6.6.6.6, 203.0.113.7, 10.9.9.9");
+        assertEquals("203.0.113.7", filter.clientIp(viaProxy));
+
+        MockHttpServletRequest direct = request("/auth/login", "198.51.100.4", "{}");
+        direct.addHeader("X-Forwarded-For", "203.0.113.7");
+        assertEquals("198.51.100.4", filter.clientIp(direct));
+
+        MockHttpServletRequest garbage = request("/auth/login", "10.1.2.3", "{}");
+        garbage.addHeader("X-Forwarded-For", "evil.example.com");
+        assertEquals("10.1.2.3", filter.clientIp(garbage));
+    }
+
+    @Test
+    @DisplayName("Should give each client behind the proxy its own IP bucket")
+    void shouldLimitForwardedClientsSeparately() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, viaProxy("203.0.113.1", "user" + i + "@example.com").getStatus());
+        }
+
+        assertEquals(429, viaProxy("203.0.113.1", "other@example.com").getStatus());
+        assertEquals(200, viaProxy("203.0.113.2", "other@example.com").getStatus());
+    }
+
+    private MockHttpServletResponse viaProxy(String clientIp, String email) throws ServletException, IOException {
+        MockHttpServletRequest request = request("/auth/login", "10.0.0.1",
+                "{\"email\":\"" + email + "\",\"password\":\"x\"}");
+        request.addHeader("X-Forwarded-For", clientIp);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private MockHttpServletResponse login(String ip, String email) throws ServletException, IOException {
+        return post("/auth/login", ip, "{\"email\":\"" + email + "\",\"password\":\"x\"}");
+    }
+
+    private MockHttpServletResponse post(String path, String ip, String json) throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(path, ip, json), response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String path, String ip, String json) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setRemoteAddr(ip);
+        request.setContentType("application/json");
+        request.setContent(json.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
@@ -1,5 +1,7 @@
 package com.team.socialnetwork.security;
 
+import java.time.Instant;
+import java.util.Date;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -12,12 +14,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.Mock;
-import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.server.ResponseStatusException;
@@ -29,7 +32,13 @@ import com.team.socialnetwork.dto.TokenResponse;
 import com.team.socialnetwork.entity.User;
 import com.team.socialnetwork.repository.UserRepository;
 import com.team.socialnetwork.service.AuthService;
-import com.team.socialnetwork.service.mail.MailService;
+import com.team.socialnetwork.service.mail.MailOutbox;
+import com.team.socialnetwork.service.user.UserLookupCache;
+import com.team.socialnetwork.service.user.UserSummary;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("Auth Service Tests")
@@ -48,7 +57,13 @@ class AuthServiceTest {
     private JwtService jwtService;
 
     @Mock
-    private MailService mailService;
+    private MailOutbox mailOutbox;
+
+    @Mock
+    private UserLookupCache userLookupCache;
+
+    @Mock
+    private TokenRevocationList tokenRevocationList;
 
     private AuthService authService;
 
@@ -59,7 +74,9 @@ class AuthServiceTest {
                 passwordEncoder,
                 authenticationManager,
                 jwtService,
-                mailService
+                mailOutbox,
+                userLookupCache,
+                tokenRevocationList
         );
     }
 
@@ -76,13 +93,12 @@ class AuthServiceTest {
         when(userRepository.existsByUsername(request.getUsername())).thenReturn(false);
         when(passwordEncoder.encode(request.getPassword())).thenReturn("encoded-password");
         when(jwtService.generateEmailToken(request.getEmail())).thenReturn("email-token");
-        doNothing().when(mailService).sendConfirmationEmail(eq(request.getEmail()), eq("email-token"));
 
         MessageResponse response = authService.register(request);
 
         assertEquals("Confirmation email was sent", response.getMessage());
         verify(userRepository).save(any(User.class));
-        verify(mailService).sendConfirmationEmail(request.getEmail(), "email-token");
+        verify(mailOutbox).enqueueConfirmation(request.getEmail(), "email-token");
     }
 
     @Test
@@ -123,8 +139,8 @@ class AuthServiceTest {
     }
 
     @Test
-    @DisplayName("Should throw exception when email sending fails")
-    void shouldThrowExceptionWhenEmailSendingFails() throws Exception {
+    @DisplayName("Should fail registration when the mail cannot be queued")
+    void shouldFailRegistrationWhenMailCannotBeQueued() {
         RegisterRequest request = new RegisterRequest();
         request.setEmail("test@example.com");
         request.setUsername("testuser");
@@ -135,15 +151,11 @@ class AuthServiceTest {
         when(userRepository.existsByUsername(request.getUsername())).thenReturn(false);
         when(passwordEncoder.encode(request.getPassword())).thenReturn("encoded-password");
         when(jwtService.generateEmailToken(request.getEmail())).thenReturn("email-token");
-        doThrow(new RuntimeException("Email service error"))
-                .when(mailService).sendConfirmationEmail(eq(request.getEmail()), eq("email-token"));
-
-        ResponseStatusException exception = assertThrows(
-                ResponseStatusException.class,
-                () -> authService.register(request)
-        );
+        doThrow(new DataAccessResourceFailureException("outbox unavailable"))
+                .when(mailOutbox).enqueueConfirmation(eq(request.getEmail()), eq("email-token"));
 
-        assertTrue(exception.getReason().contains("Failed to send confirmation email"));
+        // Se propaga para que la transacción del registro se revierta: no queda usuario sin mail
+        assertThrows(DataAccessResourceFailureException.class, () -> authService.register(request));
     }
 
     @Test
@@ -169,6 +181,32 @@ class AuthServiceTest {
         assertEquals("access-token", response.getAccess_token());
     }
 
+    @Test
+    @DisplayName("Should rehash a password stored with an outdated cost on successful login")
+    void shouldRehashOutdatedPasswordOnLogin() {
+        LoginRequest request = new LoginRequest();
+        request.setEmail("test@example.com");
+        request.setPassword("password123");
+
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("test@example.com");
+        user.setPassword("old-cost-hash");
+        user.setEmailConfirmed(true);
+
+        when(userRepository.findByEmail(request.getEmail())).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches("password123", "old-cost-hash")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("old-cost-hash")).thenReturn(true);
+        when(passwordEncoder.encode("password123")).thenReturn("new-cost-hash");
+        when(jwtService.generateAccessToken(eq(request.getEmail()), any())).thenReturn("access-token");
+
+        authService.login(request);
+
+        assertEquals("new-cost-hash", user.getPassword());
+        verify(userRepository).save(user);
+        verify(userLookupCache).invalidate(1L);
+    }
+
     @Test
     @DisplayName("Should throw exception when user not found")
     void shouldThrowExceptionWhenUserNotFound() {
@@ -276,12 +314,11 @@ class AuthServiceTest {
 
         when(userRepository.findByEmail(email)).thenReturn(Optional.of(user));
         when(jwtService.generatePasswordResetToken(email)).thenReturn("reset-token");
-        doNothing().when(mailService).sendPasswordReset(eq(email), eq("reset-token"));
 
         MessageResponse response = authService.requestPasswordReset(email);
 
         assertEquals("If the email exists, instructions were sent", response.getMessage());
-        verify(mailService).sendPasswordReset(email, "reset-token");
+        verify(mailOutbox).enqueuePasswordReset(email, "reset-token");
     }
 
     @Test
@@ -292,6 +329,7 @@ class AuthServiceTest {
         String newPassword = "newpassword123";
 
         User user = new User();
+        user.setId(7L);
         user.setEmail(email);
 
         when(jwtService.isPasswordResetToken(token)).thenReturn(true);
@@ -304,5 +342,52 @@ class AuthServiceTest {
         assertEquals("Password reset successfully", response.getMessage());
         verify(userRepository).save(user);
         verify(passwordEncoder).encode(newPassword);
+        // El hash viejo no puede seguir sirviéndose desde el cache
+        verify(userLookupCache).invalidate(7L);
+        verify(tokenRevocationList).revokeAllForUser(7L);
+    }
+
+    @Test
+    @DisplayName("Should revoke the presented access token on logout")
+    void shouldRevokePresentedTokenOnLogout() {
+        Claims claims = Jwts.claims()
+                .setSubject("test@example.com")
+                .setId("token-id")
+                .setExpiration(Date.from(Instant.now().plusSeconds(3600)));
+        claims.put("userId", 7L);
+        VerifiedToken token = VerifiedToken.of(claims);
+        when(jwtService.verify("access-token")).thenReturn(token);
+
+        MessageResponse response = authService.logout("Bearer access-token");
+
+        assertEquals("Logged out", response.getMessage());
+        verify(tokenRevocationList).revokeToken(7L, token);
+    }
+
+    @Test
+    @DisplayName("Should cut every session on logout with a token that cannot be revoked alone")
+    void shouldRevokeAllOnLegacyLogout() {
+        VerifiedToken token = VerifiedToken.of(Jwts.claims()
+                .setSubject("test@example.com")
+                .setExpiration(Date.from(Instant.now().plusSeconds(3600))));
+        when(jwtService.verify("legacy-token")).thenReturn(token);
+        when(userLookupCache.findByEmail("test@example.com")).thenReturn(Optional.of(
+                new UserSummary(7L, "test@example.com", "test", null,
+                        false, true, "hash")));
+
+        authService.logout("Bearer legacy-token");
+
+        verify(tokenRevocationList).revokeAllForUser(7L);
+    }
+
+    @Test
+    @DisplayName("Should answer logout without revoking when the token is invalid")
+    void shouldIgnoreInvalidTokenOnLogout() {
+        when(jwtService.verify("garbage")).thenThrow(new MalformedJwtException("bad"));
+
+        MessageResponse response = authService.logout("Bearer garbage");
+
+        assertEquals("Logged out", response.getMessage());
+        verifyNoInteractions(tokenRevocationList);
     }
-}
\ No newline at end of file
+}
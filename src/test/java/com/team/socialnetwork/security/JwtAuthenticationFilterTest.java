@@ -1,11 +1,17 @@
 package com.team.socialnetwork.security;
 
 import java.io.IOException;
+import java.time.Instant;
 import java.util.Collections;
+import java.util.Date;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -20,6 +26,11 @@ import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import com.team.socialnetwork.service.user.UserLookupCache;
+import com.team.socialnetwork.service.user.UserSummary;
+
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -35,6 +46,12 @@ class JwtAuthenticationFilterTest {
     @Mock
     private UserDetailsService userDetailsService;
 
+    @Mock
+    private TokenRevocationList tokenRevocationList;
+
+    @Mock
+    private UserLookupCache userLookupCache;
+
     @Mock
     private HttpServletRequest request;
 
@@ -49,7 +66,8 @@ class JwtAuthenticationFilterTest {
     @BeforeEach
     void setUp() {
         SecurityContextHolder.clearContext();
-        jwtAuthenticationFilter = new JwtAuthenticationFilter(jwtService, userDetailsService);
+        jwtAuthenticationFilter = new JwtAuthenticationFilter(jwtService, userDetailsService, tokenRevocationList, userLookupCache,
+                new String[] {"admin@example.com"});
     }
 
     @Test
@@ -80,12 +98,12 @@ class JwtAuthenticationFilterTest {
     @DisplayName("Should continue filter chain when token extraction fails")
     void shouldContinueFilterChainWhenTokenExtractionFails() throws ServletException, IOException {
         when(request.getHeader("Authorization")).thenReturn("Bearer invalid-token");
-        when(jwtService.extractSubject("invalid-token")).thenThrow(new RuntimeException("Invalid token"));
+        when(jwtService.verify("invalid-token")).thenThrow(new RuntimeException("Invalid token"));
 
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
         verify(filterChain).doFilter(request, response);
-        verify(jwtService).extractSubject("invalid-token");
+        verify(jwtService).verify("invalid-token");
         verifyNoInteractions(userDetailsService);
     }
 
@@ -102,16 +120,16 @@ class JwtAuthenticationFilterTest {
                 .build();
 
         when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
-        when(jwtService.extractSubject(token)).thenReturn(email);
+        when(jwtService.verify(token)).thenReturn(verifiedToken(email, 3600));
         when(userDetailsService.loadUserByUsername(email)).thenReturn(userDetails);
-        when(jwtService.isTokenValid(token, email)).thenReturn(true);
+        when(userLookupCache.findByEmail(email)).thenReturn(Optional.of(summary(5L, email)));
 
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
         verify(filterChain).doFilter(request, response);
-        verify(jwtService).extractSubject(token);
+        // Firma verificada una sola vez por request
+        verify(jwtService).verify(token);
         verify(userDetailsService).loadUserByUsername(email);
-        verify(jwtService).isTokenValid(token, email);
         
         assertNotNull(SecurityContextHolder.getContext().getAuthentication());
         assertEquals(email, SecurityContextHolder.getContext().getAuthentication().getName());
@@ -130,16 +148,16 @@ class JwtAuthenticationFilterTest {
                 .build();
 
         when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
-        when(jwtService.extractSubject(token)).thenReturn(email);
+        // Vencido entre la verificación y el chequeo
+        when(jwtService.verify(token)).thenReturn(verifiedToken(email, -60));
         when(userDetailsService.loadUserByUsername(email)).thenReturn(userDetails);
-        when(jwtService.isTokenValid(token, email)).thenReturn(false);
+        when(userLookupCache.findByEmail(email)).thenReturn(Optional.of(summary(5L, email)));
 
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
         verify(filterChain).doFilter(request, response);
-        verify(jwtService).extractSubject(token);
+        verify(jwtService).verify(token);
         verify(userDetailsService).loadUserByUsername(email);
-        verify(jwtService).isTokenValid(token, email);
         
         assertNull(SecurityContextHolder.getContext().getAuthentication());
     }
@@ -162,12 +180,12 @@ class JwtAuthenticationFilterTest {
                         existingUser, null, existingUser.getAuthorities()));
 
         when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
-        when(jwtService.extractSubject(token)).thenReturn(email);
+        when(jwtService.verify(token)).thenReturn(verifiedToken(email, 3600));
 
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
         verify(filterChain).doFilter(request, response);
-        verify(jwtService).extractSubject(token);
+        verify(jwtService).verify(token);
         verifyNoInteractions(userDetailsService);
         
         // Authentication should remain unchanged
@@ -180,14 +198,157 @@ class JwtAuthenticationFilterTest {
         String token = "token-without-subject";
 
         when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
-        when(jwtService.extractSubject(token)).thenReturn(null);
+        when(jwtService.verify(token)).thenReturn(verifiedToken(null, 3600));
 
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
         verify(filterChain).doFilter(request, response);
-        verify(jwtService).extractSubject(token);
+        verify(jwtService).verify(token);
         verifyNoInteractions(userDetailsService);
         
         assertNull(SecurityContextHolder.getContext().getAuthentication());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should build principal from claims without loading the user")
+    void shouldAuthenticateFromClaimsWithoutUserLookup() throws ServletException, IOException {
+        String token = "login-token";
+        String email = "test@example.com";
+
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        Claims claims = Jwts.claims()
+                .setSubject(email)
+                .setExpiration(Date.from(Instant.now().plusSeconds(3600)));
+        // jackson deserializa ids chicos como Integer
+        claims.put("userId", 42);
+        claims.put("name", "Test User");
+        claims.put("private", true);
+        when(jwtService.verify(token)).thenReturn(VerifiedToken.of(claims));
+
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        verify(filterChain).doFilter(request, response);
+        verifyNoInteractions(userDetailsService);
+
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        AuthenticatedUser user = assertInstanceOf(AuthenticatedUser.class, principal);
+        assertEquals(42L, user.getId());
+        assertEquals(email, SecurityContextHolder.getContext().getAuthentication().getName());
+        assertTrue(user.isPrivateAccount());
+    }
+
+    @Test
+    @DisplayName("Should not authenticate expired claims token")
+    void shouldNotAuthenticateExpiredClaimsToken() throws ServletException, IOException {
+        String token = "expired-login-token";
+
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        Claims claims = Jwts.claims()
+                .setSubject("test@example.com")
+                .setExpiration(Date.from(Instant.now().minusSeconds(60)));
+        claims.put("userId", 42L);
+        when(jwtService.verify(token)).thenReturn(VerifiedToken.of(claims));
+
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        verify(filterChain).doFilter(request, response);
+        verifyNoInteractions(userDetailsService);
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    @DisplayName("Should not authenticate revoked claims token")
+    void shouldNotAuthenticateRevokedClaimsToken() throws ServletException, IOException {
+        String token = "revoked-login-token";
+
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        Claims claims = Jwts.claims()
+                .setSubject("test@example.com")
+                .setExpiration(Date.from(Instant.now().plusSeconds(3600)));
+        claims.put("userId", 42L);
+        VerifiedToken verified = VerifiedToken.of(claims);
+        when(jwtService.verify(token)).thenReturn(verified);
+        when(tokenRevocationList.isRevoked(42L, verified)).thenReturn(true);
+
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        verify(filterChain).doFilter(request, response);
+        verifyNoInteractions(userDetailsService);
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    @DisplayName("Should not treat email confirmation or password reset tokens as sessions")
+    void shouldRejectPurposeTokens() throws ServletException, IOException {
+        Claims claims = Jwts.claims()
+                .setSubject("test@example.com")
+                .setExpiration(Date.from(Instant.now().plusSeconds(3600)));
+        claims.put("purpose", "password_reset");
+        when(request.getHeader("Authorization")).thenReturn("Bearer reset-token");
+        when(jwtService.verify("reset-token")).thenReturn(VerifiedToken.of(claims));
+
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        verify(filterChain).doFilter(request, response);
+        verifyNoInteractions(userDetailsService);
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    @DisplayName("Should check revocation for tokens without userId")
+    void shouldNotAuthenticateRevokedLegacyToken() throws ServletException, IOException {
+        String email = "test@example.com";
+        VerifiedToken verified = verifiedToken(email, 3600);
+        when(request.getHeader("Authorization")).thenReturn("Bearer legacy-token");
+        when(jwtService.verify("legacy-token")).thenReturn(verified);
+        when(userDetailsService.loadUserByUsername(email)).thenReturn(User.builder()
+                .username(email).password("password").authorities(Collections.emptyList()).build());
+        when(userLookupCache.findByEmail(email)).thenReturn(Optional.of(summary(5L, email)));
+        when(tokenRevocationList.isRevoked(5L, verified)).thenReturn(true);
+
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        verify(filterChain).doFilter(request, response);
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    @DisplayName("Should grant ROLE_ADMIN only to configured admin emails")
+    void shouldGrantAdminRoleToConfiguredEmails() throws ServletException, IOException {
+        when(request.getHeader("Authorization")).thenReturn("Bearer admin-token", "Bearer user-token");
+        when(jwtService.verify("admin-token")).thenReturn(claimsToken("Admin@Example.com", 1L));
+        when(jwtService.verify("user-token")).thenReturn(claimsToken("test@example.com", 2L));
+
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+        assertTrue(hasAuthority("ROLE_ADMIN"));
+        assertTrue(hasAuthority("ROLE_USER"));
+
+        SecurityContextHolder.clearContext();
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+        assertFalse(hasAuthority("ROLE_ADMIN"));
+        assertTrue(hasAuthority("ROLE_USER"));
+    }
+
+    private static boolean hasAuthority(String authority) {
+        return SecurityContextHolder.getContext().getAuthentication().getAuthorities().stream()
+                .anyMatch(granted -> authority.equals(granted.getAuthority()));
+    }
+
+    private static VerifiedToken claimsToken(String subject, long userId) {
+        Claims claims = Jwts.claims()
+                .setSubject(subject)
+                .setExpiration(Date.from(Instant.now().plusSeconds(3600)));
+        claims.put("userId", userId);
+        return VerifiedToken.of(claims);
+    }
+
+    private static UserSummary summary(Long id, String email) {
+        return new UserSummary(id, email, "test", "Test User", false, true, "hash");
+    }
+
+    private static VerifiedToken verifiedToken(String subject, long secondsToExpiry) {
+        return VerifiedToken.of(Jwts.claims()
+                .setSubject(subject)
+                .setExpiration(Date.from(Instant.now().plusSeconds(secondsToExpiry))));
+    }
+}
@@ -6,12 +6,16 @@ import java.util.Map;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.MalformedJwtException;
 
 @DisplayName("JWT Service Tests")
@@ -79,6 +83,54 @@ class JwtServiceTest {
         assertEquals(subject, extractedSubject);
     }
 
+    @Test
+    @DisplayName("Should verify once and expose immutable claims")
+    void shouldVerifyOnceAndExposeImmutableClaims() {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("name", "Test User");
+        String token = jwtService.generateAccessToken("test@example.com", claims);
+
+        VerifiedToken verified = jwtService.verify(token);
+
+        assertEquals("test@example.com", verified.getSubject());
+        assertEquals("Test User", verified.claim("name", String.class));
+        assertNotNull(verified.getExpiresAt());
+        assertTrue(verified.isValidFor("test@example.com"));
+        assertFalse(verified.isValidFor("other@example.com"));
+        assertThrows(UnsupportedOperationException.class, () -> verified.getClaims().put("name", "x"));
+    }
+
+    @Test
+    @DisplayName("Should serve repeated verifications from the cache")
+    void shouldCacheVerifiedTokens() {
+        String token = jwtService.generateAccessToken("test@example.com", new HashMap<>());
+
+        assertSame(jwtService.verify(token), jwtService.verify(token));
+
+        JwtService uncached = new JwtService(testSecret, accessMinutes, emailTokenMinutes, passwordResetMinutes, 0);
+        assertNotSame(uncached.verify(token), uncached.verify(token));
+    }
+
+    @Test
+    @DisplayName("Should reject a tampered token even when the original is cached")
+    void shouldRejectTamperedTokenWhenOriginalCached() {
+        String token = jwtService.generateAccessToken("test@example.com", new HashMap<>());
+        jwtService.verify(token);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> jwtService.verify(tampered));
+    }
+
+    @Test
+    @DisplayName("Should reject expired tokens")
+    void shouldRejectExpiredTokens() {
+        JwtService expiring = new JwtService(testSecret, -1, emailTokenMinutes, passwordResetMinutes);
+        String token = expiring.generateAccessToken("test@example.com", new HashMap<>());
+
+        assertThrows(ExpiredJwtException.class, () -> expiring.verify(token));
+        assertFalse(expiring.isEmailToken(token));
+    }
+
     @Test
     @DisplayName("Should generate valid email confirmation token")
     void shouldGenerateValidEmailToken() {
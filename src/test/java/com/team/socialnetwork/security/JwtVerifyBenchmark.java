@@ -0,0 +1,81 @@
+package com.team.socialnetwork.security;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Costo por request de autenticar un JWT.
+ * legacyThreeParses reproduce el camino anterior del filtro: extractSubject + isTokenValid
+ * (que volvía a llamar a extractSubject y a isTokenExpired), cada uno con un parser nuevo y su HMAC.
+ * verifyUncached es una sola verificación con el parser compartido; verifyCached es el caso común
+ * del mismo token en requests sucesivos.
+ *
+ * Se lanza desde JwtVerifyBenchmarkTest:
+ *   mvn test -Dtest=JwtVerifyBenchmarkTest -Djwt.benchmark=true
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerifyBenchmark {
+
+    static final String SECRET = "benchmark-secret-key-that-is-long-enough-for-hmac-sha512-signatures-000000";
+
+    private JwtService cached;
+    private JwtService uncached;
+    private java.security.Key key;
+    private String token;
+    private String subject;
+
+    @Setup
+    public void setUp() {
+        cached = new JwtService(SECRET, 60, 60, 60, 10_000);
+        uncached = new JwtService(SECRET, 60, 60, 60, 0);
+        key = Keys.hmacShaKeyFor(SECRET.getBytes(java.nio.charset.StandardCharsets.UTF_8));
+        HashMap<String, Object> claims = new HashMap<>();
+        claims.put("userId", 42L);
+        claims.put("username", "benchmark");
+        subject = "benchmark@example.com";
+        token = cached.generateAccessToken(subject, claims);
+    }
+
+    @Benchmark
+    public boolean legacyThreeParses() {
+        String tokenSubject = legacyClaims(token).getSubject();
+        boolean matches = legacyClaims(token).getSubject().equals(tokenSubject);
+        return matches && !legacyClaims(token).getExpiration().before(new java.util.Date());
+    }
+
+    @Benchmark
+    public boolean verifyUncached() {
+        VerifiedToken verified = uncached.verify(token);
+        return verified.isValidFor(verified.getSubject());
+    }
+
+    @Benchmark
+    public boolean verifyCached() {
+        VerifiedToken verified = cached.verify(token);
+        return verified.isValidFor(verified.getSubject());
+    }
+
+    private Claims legacyClaims(String jwt) {
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(jwt).getBody();
+    }
+}
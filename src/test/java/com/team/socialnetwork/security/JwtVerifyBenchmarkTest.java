@@ -0,0 +1,26 @@
+package com.team.socialnetwork.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Lanza JwtVerifyBenchmark con JMH. No corre en el build normal:
+ *   mvn test -Dtest=JwtVerifyBenchmarkTest -Djwt.benchmark=true
+ */
+@EnabledIfSystemProperty(named = "jwt.benchmark", matches = "true")
+@DisplayName("JWT verification benchmark")
+class JwtVerifyBenchmarkTest {
+
+    @Test
+    void runBenchmark() throws Exception {
+        Options options = new OptionsBuilder()
+                .include(JwtVerifyBenchmark.class.getSimpleName())
+                .shouldFailOnError(true)
+                .build();
+        new Runner(options).run();
+    }
+}
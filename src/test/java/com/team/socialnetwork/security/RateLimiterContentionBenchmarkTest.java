@@ -0,0 +1,110 @@
+package com.team.socialnetwork.security;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.ToLongFunction;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * Benchmark de contención del rate limiter: 64 hilos consultando a la vez.
+ * Compara TokenBucketLimiter (64 stripes) con el mismo algoritmo detrás de un único lock global,
+ * con claves repartidas (una IP por cliente) y con una sola clave caliente.
+ *
+ * No corre en el build normal:
+ *   mvn test -Dtest=RateLimiterContentionBenchmarkTest -Dratelimit.benchmark=true
+ */
+@EnabledIfSystemProperty(named = "ratelimit.benchmark", matches = "true")
+@DisplayName("Rate limiter contention benchmark")
+class RateLimiterContentionBenchmarkTest {
+
+    private static final int THREADS = 64;
+    private static final int CALLS_PER_THREAD = 200_000;
+    private static final int CLIENTS = 50_000;
+
+    @Test
+    void compareLimiters() throws Exception {
+        String[] keys = new String[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            keys[i] = "10." + (i >> 16 & 255) + "." + (i >> 8 & 255) + "." + (i & 255);
+        }
+        TokenBucketLimiter striped = new TokenBucketLimiter(1_000_000, Duration.ofSeconds(1), 100_000);
+        GlobalLockLimiter global = new GlobalLockLimiter(1_000_000, Duration.ofSeconds(1));
+
+        for (int warmup = 0; warmup < 2; warmup++) {
+            run(keys, striped::tryAcquire, false);
+            run(keys, global::tryAcquire, false);
+        }
+
+        long ops = (long) THREADS * CALLS_PER_THREAD;
+        System.out.println("📊 Rate limiter contention: threads=" + THREADS + ", ops=" + ops + ", clients=" + CLIENTS
+                + ", cpus=" + Runtime.getRuntime().availableProcessors());
+        report("striped / spread keys", run(keys, striped::tryAcquire, false), ops);
+        report("global  / spread keys", run(keys, global::tryAcquire, false), ops);
+        report("striped / one hot key", run(keys, striped::tryAcquire, true), ops);
+        report("global  / one hot key", run(keys, global::tryAcquire, true), ops);
+    }
+
+    private static long run(String[] keys, ToLongFunction<String> limiter, boolean hotKey) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            int offset = t * 7919;
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < CALLS_PER_THREAD; i++) {
+                    limiter.applyAsLong(hotKey ? keys[0] : keys[(offset + i) % keys.length]);
+                }
+                done.countDown();
+            });
+        }
+        long t0 = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - t0;
+        pool.shutdown();
+        return elapsed;
+    }
+
+    // Costo amortizado por llamada (tiempo total / operaciones) y throughput agregado
+    private static void report(String name, long nanos, long ops) {
+        System.out.printf("   %-22s %8.1f ms  %7.3f µs/call  %6.1f Mops/s%n", name, nanos / 1e6,
+                nanos / (double) ops / 1e3, ops / (nanos / 1e3));
+    }
+
+    // Mismo token bucket con un solo monitor para todas las claves
+    private static final class GlobalLockLimiter {
+        private final int capacity;
+        private final double tokensPerNano;
+        private final Map<String, double[]> buckets = new HashMap<>();
+
+        GlobalLockLimiter(int capacity, Duration period) {
+            this.capacity = capacity;
+            this.tokensPerNano = (double) capacity / period.toNanos();
+        }
+
+        synchronized long tryAcquire(String key) {
+            long now = System.nanoTime();
+            double[] bucket = buckets.computeIfAbsent(key, k -> new double[] {capacity, now});
+            bucket[0] = Math.min(capacity, bucket[0] + (now - (long) bucket[1]) * tokensPerNano);
+            bucket[1] = now;
+            if (bucket[0] >= 1.0) {
+                bucket[0] -= 1.0;
+                return 0;
+            }
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.team.socialnetwork.security;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("TokenBucketLimiter Tests")
+class TokenBucketLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    @Test
+    @DisplayName("Should allow a burst up to capacity and then ask to wait")
+    void shouldAllowBurstUpToCapacity() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(3, Duration.ofSeconds(60), 1000, clock::get);
+
+        assertEquals(0, limiter.tryAcquire("1.2.3.4"));
+        assertEquals(0, limiter.tryAcquire("1.2.3.4"));
+        assertEquals(0, limiter.tryAcquire("1.2.3.4"));
+        long wait = limiter.tryAcquire("1.2.3.4");
+
+        // 3 tokens por minuto: uno cada 20 s
+        assertEquals(TimeUnit.SECONDS.toNanos(20), wait, TimeUnit.MILLISECONDS.toNanos(1));
+        assertEquals(0, limiter.tryAcquire("5.6.7.8"));
+    }
+
+    @Test
+    @DisplayName("Should refill tokens at the configured rate")
+    void shouldRefillOverTime() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2, Duration.ofSeconds(10), 1000, clock::get);
+        limiter.tryAcquire("key");
+        limiter.tryAcquire("key");
+        assertTrue(limiter.tryAcquire("key") > 0);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+
+        assertEquals(0, limiter.tryAcquire("key"));
+        assertTrue(limiter.tryAcquire("key") > 0);
+    }
+
+    @Test
+    @DisplayName("Should drop idle buckets and stay within the bucket bound")
+    void shouldBoundMemory() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(5, Duration.ofSeconds(1), 64 * 4, clock::get);
+        for (int i = 0; i < 10_000; i++) {
+            limiter.tryAcquire("client-" + i);
+        }
+        assertTrue(limiter.size() <= 64 * 4, "buckets: " + limiter.size());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        for (int i = 0; i < 64 * 8; i++) {
+            limiter.tryAcquire("late-" + i);
+        }
+
+        // Los buckets viejos ya estaban llenos otra vez: se descartaron antes de llegar al tope
+        assertTrue(limiter.size() <= 64 * 4);
+        assertEquals(0, limiter.tryAcquire("client-1"));
+    }
+}
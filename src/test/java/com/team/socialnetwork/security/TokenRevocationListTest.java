@@ -0,0 +1,123 @@
+package com.team.socialnetwork.security;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import org.mockito.Mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.team.socialnetwork.entity.RevokedToken;
+import com.team.socialnetwork.repository.RevokedTokenRepository;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TokenRevocationList Tests")
+class TokenRevocationListTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private TokenRevocationList revocations;
+
+    @BeforeEach
+    void setUp() {
+        revocations = new TokenRevocationList(revokedTokenRepository, 60, 1000, 0.01);
+    }
+
+    @Test
+    @DisplayName("Should not flag tokens of users without revocations")
+    void shouldAcceptTokensWithoutRevocations() {
+        assertFalse(revocations.isRevoked(42L, token("a", Instant.now())));
+    }
+
+    @Test
+    @DisplayName("Should revoke a single token by jti and keep the user's other tokens")
+    void shouldRevokeSingleToken() {
+        VerifiedToken revoked = token("revoked-jti", Instant.now());
+        VerifiedToken other = token("other-jti", Instant.now());
+
+        assertTrue(revocations.revokeToken(42L, revoked));
+
+        verify(revokedTokenRepository).save(any(RevokedToken.class));
+        assertTrue(revocations.isRevoked(42L, revoked));
+        assertFalse(revocations.isRevoked(42L, other));
+    }
+
+    @Test
+    @DisplayName("Should revoke every token issued before a user-wide revocation")
+    void shouldRevokeTokensIssuedBeforeUserRevocation() {
+        VerifiedToken before = token("old", Instant.now().minusSeconds(5));
+
+        revocations.revokeAllForUser(42L);
+        VerifiedToken after = token("new", Instant.now().plusMillis(1));
+
+        assertTrue(revocations.isRevoked(42L, before));
+        assertFalse(revocations.isRevoked(42L, after));
+        assertFalse(revocations.isRevoked(43L, before));
+    }
+
+    @Test
+    @DisplayName("Should load persisted revocations when rebuilt")
+    void shouldLoadPersistedRevocationsOnRebuild() {
+        VerifiedToken stolen = token("stolen", Instant.now());
+        when(revokedTokenRepository.findByExpiresAtAfter(any(Instant.class))).thenReturn(List.of(
+                RevokedToken.forToken(7L, "stolen", Instant.now().plusSeconds(3600))));
+
+        revocations.rebuild();
+
+        verify(revokedTokenRepository).deleteExpired(any(Instant.class));
+        assertTrue(revocations.isRevoked(7L, stolen));
+    }
+
+    @Test
+    @DisplayName("Should pick up revocations written by other instances on refresh")
+    void shouldApplyNewRowsOnRefresh() {
+        Instant issued = Instant.now().minusSeconds(10);
+        when(revokedTokenRepository.findByCreatedAtAfter(any(Instant.class))).thenReturn(List.of(
+                RevokedToken.forUser(9L, Instant.now(), Instant.now().plusSeconds(3600))));
+
+        revocations.refresh();
+
+        assertTrue(revocations.isRevoked(9L, token("x", issued)));
+    }
+
+    @Test
+    @DisplayName("Bloom filter should never miss an added key")
+    void bloomFilterHasNoFalseNegatives() {
+        LongBloomFilter filter = new LongBloomFilter(10_000, 0.01);
+        for (long id = 1; id <= 10_000; id++) {
+            filter.add(id);
+        }
+        for (long id = 1; id <= 10_000; id++) {
+            assertTrue(filter.mightContain(id));
+        }
+        int falsePositives = 0;
+        for (long id = 10_001; id <= 20_000; id++) {
+            if (filter.mightContain(id)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    private static VerifiedToken token(String jti, Instant issuedAt) {
+        Claims claims = Jwts.claims()
+                .setSubject("test@example.com")
+                .setId(jti)
+                .setExpiration(Date.from(Instant.now().plusSeconds(3600)));
+        claims.put("iatMs", issuedAt.toEpochMilli());
+        return VerifiedToken.of(claims);
+    }
+}
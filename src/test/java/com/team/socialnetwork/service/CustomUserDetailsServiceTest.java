@@ -11,7 +11,6 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -20,6 +19,7 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
 import com.team.socialnetwork.entity.User;
 import com.team.socialnetwork.repository.UserRepository;
+import com.team.socialnetwork.service.user.UserLookupCache;
 
 @ExtendWith(MockitoExtension.class)
 class CustomUserDetailsServiceTest {
@@ -27,13 +27,14 @@ class CustomUserDetailsServiceTest {
     @Mock
     private UserRepository userRepository;
 
-    @InjectMocks
     private CustomUserDetailsService customUserDetailsService;
 
     private User testUser;
 
     @BeforeEach
     void setUp() {
+        customUserDetailsService = new CustomUserDetailsService(new UserLookupCache(userRepository, true, 100, 300));
+
         testUser = new User();
         testUser.setId(1L);
         testUser.setEmail("test@example.com");
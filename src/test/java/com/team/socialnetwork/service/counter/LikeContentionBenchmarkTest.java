@@ -0,0 +1,127 @@
+package com.team.socialnetwork.service.counter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import com.team.socialnetwork.repository.PostRepository;
+
+/**
+ * Benchmark de contención: 10k likers concurrentes sobre un único post.
+ * Compara un contador con lock exclusivo (equivalente en memoria al UPDATE de la fila del post),
+ * un AtomicLong (una sola palabra con CAS) y LikeCounterBuffer (LongAdder + flush por lotes).
+ *
+ * No corre en el build normal:
+ *   mvn test -Dtest=LikeContentionBenchmarkTest -Dlikes.benchmark=true
+ */
+@EnabledIfSystemProperty(named = "likes.benchmark", matches = "true")
+@DisplayName("Like contention benchmark")
+class LikeContentionBenchmarkTest {
+
+    private static final int LIKERS = 10_000;
+    private static final int TOGGLES_PER_LIKER = 200;
+    private static final int THREADS = 64;
+    private static final Long POST_ID = 42L;
+
+    @Test
+    void compareCounters() throws Exception {
+        Object rowLock = new Object();
+        long[] lockedCount = new long[1];
+        AtomicLong atomic = new AtomicLong();
+
+        AtomicLong persisted = new AtomicLong();
+        AtomicLong flushStatements = new AtomicLong();
+        PostRepository postRepository = mock(PostRepository.class);
+        doAnswer(inv -> {
+            Collection<Long> ids = inv.getArgument(0);
+            long delta = inv.getArgument(1);
+            persisted.addAndGet(delta * ids.size());
+            flushStatements.incrementAndGet();
+            return ids.size();
+        }).when(postRepository).adjustLikeCounts(anyCollection(), anyLong());
+        LikeCounterBuffer buffer = new LikeCounterBuffer(postRepository, 600_000);
+
+        for (int warmup = 0; warmup < 2; warmup++) {
+            run(d -> { synchronized (rowLock) { lockedCount[0] += d; } });
+            run(atomic::addAndGet);
+            run(d -> buffer.add(POST_ID, d));
+        }
+        lockedCount[0] = 0;
+        atomic.set(0);
+        buffer.flush();
+        persisted.set(0);
+        flushStatements.set(0);
+
+        long locked = run(d -> { synchronized (rowLock) { lockedCount[0] += d; } });
+        long cas = run(atomic::addAndGet);
+
+        // Flush periódico en paralelo, como el @Scheduled real
+        java.util.concurrent.ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor();
+        flusher.scheduleWithFixedDelay(buffer::flush, 10, 10, TimeUnit.MILLISECONDS);
+        long buffered = run(d -> buffer.add(POST_ID, d));
+        flusher.shutdown();
+        flusher.awaitTermination(5, TimeUnit.SECONDS);
+        buffer.flush();
+
+        // Cada liker termina con su like puesto: el total debe ser exactamente LIKERS
+        assertEquals(LIKERS, lockedCount[0]);
+        assertEquals(LIKERS, atomic.get());
+        assertEquals(LIKERS, persisted.get());
+
+        long ops = (long) LIKERS * (TOGGLES_PER_LIKER + 1);
+        System.out.println("📊 Like contention: likers=" + LIKERS + ", ops=" + ops + ", threads=" + THREADS);
+        report("locked row", locked, ops);
+        report("AtomicLong", cas, ops);
+        report("buffer", buffered, ops);
+        System.out.println("   buffer flush statements=" + flushStatements.get() + " (vs " + ops + " row updates)");
+    }
+
+    // Cada liker alterna like/unlike y termina con like: delta neto +1 por liker
+    private static long run(LongConsumer counter) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(LIKERS);
+        List<Runnable> likers = new ArrayList<>(LIKERS);
+        for (int i = 0; i < LIKERS; i++) {
+            likers.add(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int t = 0; t < TOGGLES_PER_LIKER; t++) {
+                    counter.accept(t % 2 == 0 ? 1 : -1);
+                }
+                counter.accept(1);
+                done.countDown();
+            });
+        }
+        likers.forEach(pool::execute);
+        long t0 = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - t0;
+        pool.shutdown();
+        return elapsed;
+    }
+
+    private static void report(String name, long nanos, long ops) {
+        System.out.printf("   %-10s %8.1f ms  %6.1f Mops/s%n", name, nanos / 1e6, ops / (nanos / 1e3) );
+    }
+}
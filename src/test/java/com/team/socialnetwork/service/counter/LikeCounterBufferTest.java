@@ -0,0 +1,129 @@
+package com.team.socialnetwork.service.counter;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.team.socialnetwork.repository.PostRepository;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LikeCounterBuffer Tests")
+class LikeCounterBufferTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    private LikeCounterBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        buffer = new LikeCounterBuffer(postRepository, 600_000);
+    }
+
+    @Test
+    @DisplayName("Should expose pending deltas until flushed")
+    void shouldExposePendingDeltas() {
+        buffer.add(1L, 1);
+        buffer.add(1L, 1);
+        buffer.add(1L, -1);
+
+        assertEquals(1L, buffer.pending(1L));
+        assertEquals(0L, buffer.pending(2L));
+        assertEquals(java.util.Set.of(1L), buffer.pendingPostIds());
+    }
+
+    @Test
+    @DisplayName("Should flush one statement per distinct delta")
+    @SuppressWarnings("unchecked")
+    void shouldGroupFlushByDelta() {
+        buffer.add(1L, 3);
+        buffer.add(2L, 3);
+        buffer.add(3L, -1);
+
+        buffer.flush();
+
+        ArgumentCaptor<Collection<Long>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(postRepository).adjustLikeCounts(ids.capture(), org.mockito.ArgumentMatchers.eq(3L));
+        assertTrue(ids.getValue().containsAll(Arrays.asList(1L, 2L)));
+        verify(postRepository).adjustLikeCounts(List.of(3L), -1L);
+        assertEquals(0L, buffer.pending(1L));
+        assertEquals(0L, buffer.pending(3L));
+    }
+
+    @Test
+    @DisplayName("Should keep deltas for retry when the flush fails")
+    void shouldRetainDeltasOnFailure() {
+        when(postRepository.adjustLikeCounts(anyCollection(), anyLong())).thenThrow(new RuntimeException("db down"));
+        buffer.add(1L, 2);
+
+        buffer.flush();
+
+        assertEquals(2L, buffer.pending(1L));
+    }
+
+    @Test
+    @DisplayName("Should not lose likes added while flush evicts idle cells")
+    void shouldNotLoseDeltasDuringEviction() throws Exception {
+        LikeCounterBuffer evicting = new LikeCounterBuffer(postRepository, 0);
+        java.util.concurrent.atomic.AtomicLong flushed = new java.util.concurrent.atomic.AtomicLong();
+        when(postRepository.adjustLikeCounts(anyCollection(), anyLong())).thenAnswer(inv -> {
+            flushed.addAndGet(inv.<Collection<Long>>getArgument(0).size() * inv.<Long>getArgument(1));
+            return 1;
+        });
+        int threads = 4;
+        java.util.concurrent.atomic.AtomicBoolean done = new java.util.concurrent.atomic.AtomicBoolean();
+        Thread flusher = new Thread(() -> {
+            while (!done.get()) {
+                evicting.flush();
+            }
+        });
+        flusher.start();
+        java.util.concurrent.ExecutorService pool = java.util.concurrent.Executors.newFixedThreadPool(threads);
+        try {
+            List<java.util.concurrent.Future<?>> futures = new java.util.ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    // Like/unlike en pares: la celda vuelve a cero y flush() la desaloja todo el tiempo
+                    for (int i = 0; i < 20_000; i++) {
+                        evicting.add(1L, 1);
+                        evicting.add(1L, -1);
+                    }
+                    evicting.add(1L, 1);
+                }));
+            }
+            for (java.util.concurrent.Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            done.set(true);
+            flusher.join();
+            pool.shutdown();
+        }
+        evicting.flush();
+
+        assertEquals(threads, flushed.get() + evicting.pending(1L));
+    }
+
+    @Test
+    @DisplayName("Should not touch the database when nothing is pending")
+    void shouldSkipEmptyFlush() {
+        buffer.flush();
+
+        verify(postRepository, never()).adjustLikeCounts(anyCollection(), anyLong());
+    }
+}
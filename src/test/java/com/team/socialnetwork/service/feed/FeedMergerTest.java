@@ -0,0 +1,46 @@
+package com.team.socialnetwork.service.feed;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("FeedMerger Tests")
+class FeedMergerTest {
+
+    private static final Comparator<Integer> DESC = Comparator.reverseOrder();
+
+    @Test
+    @DisplayName("Should merge k sorted streams newest first")
+    void shouldMergeSortedStreams() {
+        List<Integer> merged = FeedMerger.merge(Arrays.asList(
+                Arrays.asList(9, 5, 1),
+                Arrays.asList(8, 7, 2),
+                Arrays.asList(6)), DESC, Function.identity(), 0, 10);
+
+        assertEquals(Arrays.asList(9, 8, 7, 6, 5, 2, 1), merged);
+    }
+
+    @Test
+    @DisplayName("Should drop duplicates and apply skip and limit")
+    void shouldDedupeSkipAndLimit() {
+        List<Integer> merged = FeedMerger.merge(Arrays.asList(
+                Arrays.asList(9, 7, 5),
+                Arrays.asList(9, 8, 5)), DESC, Function.identity(), 1, 3);
+
+        assertEquals(Arrays.asList(8, 7, 5), merged);
+    }
+
+    @Test
+    @DisplayName("Should handle empty streams")
+    void shouldHandleEmptyStreams() {
+        assertTrue(FeedMerger.merge(Arrays.asList(Collections.<Integer>emptyList()),
+                DESC, Function.identity(), 0, 5).isEmpty());
+    }
+}
@@ -0,0 +1,144 @@
+package com.team.socialnetwork.service.feed;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.team.socialnetwork.dto.PostDetailResponse;
+import com.team.socialnetwork.dto.SafeUser;
+
+@DisplayName("FeedPageCache Tests")
+class FeedPageCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    @DisplayName("Should hit on repeated reads and miss after viewer invalidation")
+    void shouldHitThenMissAfterInvalidation() {
+        FeedPageCache cache = new FeedPageCache(1_000_000, 30, 300);
+
+        List<PostDetailResponse> first = read(cache, 1L, "p:0:10", 10L);
+        List<PostDetailResponse> second = read(cache, 1L, "p:0:10", 10L);
+        cache.invalidateViewer(1L);
+        read(cache, 1L, "p:0:10", 10L);
+
+        assertSame(first, second);
+        assertEquals(2, loads.get());
+        assertEquals(1L, cache.stats().get("hits"));
+        assertEquals(2L, cache.stats().get("misses"));
+        assertEquals(1L, cache.stats().get("invalidations"));
+    }
+
+    @Test
+    @DisplayName("Should expire pages whose counts changed once the staleness budget passes")
+    void shouldExpireOnCountChange() {
+        FeedPageCache tolerant = new FeedPageCache(1_000_000, 3600, 300);
+        read(tolerant, 1L, "p:0:10", 10L);
+        tolerant.markCountsChanged(10L);
+        read(tolerant, 1L, "p:0:10", 10L);
+        assertEquals(1, loads.get());
+
+        FeedPageCache strict = new FeedPageCache(1_000_000, 0, 300);
+        read(strict, 1L, "p:0:10", 10L);
+        strict.markCountsChanged(99L);
+        read(strict, 1L, "p:0:10", 10L);
+        strict.markCountsChanged(10L);
+        read(strict, 1L, "p:0:10", 10L);
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should evict least recently used pages when over the weight budget")
+    void shouldEvictByWeight() {
+        long onePage = FeedPageCache.estimateWeight(page(1L));
+        FeedPageCache cache = new FeedPageCache(onePage * 2, 30, 300);
+
+        read(cache, 1L, "p:0:10", 1L);
+        read(cache, 2L, "p:0:10", 2L);
+        read(cache, 1L, "p:0:10", 1L);
+        read(cache, 3L, "p:0:10", 3L);
+
+        assertEquals(1L, cache.stats().get("evictions"));
+        assertEquals(2L, cache.stats().get("entries"));
+        read(cache, 1L, "p:0:10", 1L);
+        assertEquals(2L, cache.stats().get("hits"));
+    }
+
+    @Test
+    @DisplayName("Should not store a page whose viewer was invalidated while it loaded")
+    void shouldDropLoadInvalidatedMidway() {
+        FeedPageCache cache = new FeedPageCache(1_000_000, 30, 300);
+
+        cache.get(1L, "p:0:10", () -> {
+            loads.incrementAndGet();
+            cache.invalidateViewer(1L);
+            return page(10L);
+        }, items -> items);
+        read(cache, 1L, "p:0:10", 10L);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should keep storing pages when other viewers or unrelated posts change during a load")
+    void shouldIgnoreUnrelatedChangesDuringLoad() {
+        FeedPageCache cache = new FeedPageCache(1_000_000, 0, 300);
+
+        cache.get(1L, "p:0:10", () -> {
+            loads.incrementAndGet();
+            cache.invalidateViewer(2L);
+            cache.markCountsChanged(99L);
+            return page(10L);
+        }, items -> items);
+        read(cache, 1L, "p:0:10", 10L);
+
+        assertEquals(1, loads.get());
+        assertEquals(1L, cache.stats().get("hits"));
+    }
+
+    @Test
+    @DisplayName("Should store pages whose counts changed during the load as already dirty")
+    void shouldMarkDirtyWhenCountsChangeDuringLoad() {
+        FeedPageCache cache = new FeedPageCache(1_000_000, 0, 300);
+
+        cache.get(1L, "p:0:10", () -> {
+            loads.incrementAndGet();
+            cache.markCountsChanged(10L);
+            return page(10L);
+        }, items -> items);
+        read(cache, 1L, "p:0:10", 10L);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should expire pages after the hard TTL even without invalidation")
+    void shouldExpireAfterTtl() {
+        FeedPageCache cache = new FeedPageCache(1_000_000, 30, 0);
+
+        List<PostDetailResponse> first = read(cache, 1L, "p:0:10", 10L);
+        List<PostDetailResponse> second = read(cache, 1L, "p:0:10", 10L);
+
+        assertNotSame(first, second);
+        assertEquals(2, loads.get());
+        assertEquals(1L, cache.stats().get("expirations"));
+    }
+
+    private List<PostDetailResponse> read(FeedPageCache cache, Long viewerId, String key, Long postId) {
+        return cache.get(viewerId, key, () -> {
+            loads.incrementAndGet();
+            return page(postId);
+        }, items -> items);
+    }
+
+    private static List<PostDetailResponse> page(Long postId) {
+        SafeUser author = new SafeUser(2L, "Author", "author", "author@example.com", null);
+        return Arrays.asList(new PostDetailResponse(postId, null, "post", null, author, 0L, 0L, false));
+    }
+}
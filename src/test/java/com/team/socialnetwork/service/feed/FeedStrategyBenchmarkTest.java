@@ -0,0 +1,225 @@
+package com.team.socialnetwork.service.feed;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * Benchmark en memoria de las estrategias de feed: push, pull e híbrido.
+ * Grafo sintético con seguidores en ley de potencias (pocos autores con muchísimos seguidores).
+ * Mide latencia de lectura (p50/p99) y el costo de escritura (filas de timeline copiadas).
+ *
+ * No corre en el build normal:
+ *   mvn test -Dtest=FeedStrategyBenchmarkTest -Dfeed.benchmark=true
+ */
+@EnabledIfSystemProperty(named = "feed.benchmark", matches = "true")
+@DisplayName("Feed strategy benchmark")
+class FeedStrategyBenchmarkTest {
+
+    private static final int USERS = 10_000;
+    private static final int FOLLOWS_PER_USER = 40;
+    private static final int POSTS = 40_000;
+    private static final double ZIPF_EXPONENT = 1.1;
+    private static final int THRESHOLD = 500;
+    private static final int PAGE_SIZE = 20;
+    private static final int READS = 20_000;
+
+    private static final Comparator<Integer> NEWEST_FIRST = Comparator.reverseOrder();
+
+    @Test
+    void compareStrategies() {
+        Random random = new Random(42);
+        int[][] following = buildGraph(random);
+        int[] followerCount = new int[USERS];
+        List<List<Integer>> followers = new ArrayList<>(USERS);
+        for (int u = 0; u < USERS; u++) {
+            followers.add(new ArrayList<>());
+        }
+        for (int u = 0; u < USERS; u++) {
+            for (int f : following[u]) {
+                followerCount[f]++;
+                followers.get(f).add(u);
+            }
+        }
+
+        // Posts en orden de creación: id creciente == createdAt creciente, autores al azar
+        int[] authorOf = new int[POSTS];
+        List<List<Integer>> postsByAuthor = new ArrayList<>(USERS);
+        for (int u = 0; u < USERS; u++) {
+            postsByAuthor.add(new ArrayList<>());
+        }
+        for (int p = 0; p < POSTS; p++) {
+            authorOf[p] = random.nextInt(USERS);
+            postsByAuthor.get(authorOf[p]).add(p);
+        }
+
+        List<List<Integer>> pushAll = new ArrayList<>(USERS);
+        List<List<Integer>> pushLight = new ArrayList<>(USERS);
+        for (int u = 0; u < USERS; u++) {
+            pushAll.add(new ArrayList<>());
+            pushLight.add(new ArrayList<>());
+        }
+        long pushWrites = 0;
+        long hybridWrites = 0;
+        for (int p = 0; p < POSTS; p++) {
+            int author = authorOf[p];
+            boolean pulled = followerCount[author] >= THRESHOLD;
+            for (int follower : followers.get(author)) {
+                pushAll.get(follower).add(p);
+                pushWrites++;
+                if (!pulled) {
+                    pushLight.get(follower).add(p);
+                    hybridWrites++;
+                }
+            }
+        }
+        long pulledAuthors = Arrays.stream(followerCount).filter(c -> c >= THRESHOLD).count();
+
+        int[] viewers = new int[READS];
+        for (int i = 0; i < READS; i++) {
+            viewers[i] = random.nextInt(USERS);
+        }
+
+        // Calentamiento para que el JIT no distorsione la primera estrategia
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < READS / 4; i++) {
+                readPush(pushAll, viewers[i]);
+                readPull(following, postsByAuthor, viewers[i]);
+                readHybrid(pushLight, following, followerCount, postsByAuthor, viewers[i]);
+            }
+        }
+
+        long[] push = new long[READS];
+        long[] pull = new long[READS];
+        long[] hybrid = new long[READS];
+        for (int i = 0; i < READS; i++) {
+            int viewer = viewers[i];
+            long t0 = System.nanoTime();
+            List<Integer> a = readPush(pushAll, viewer);
+            long t1 = System.nanoTime();
+            List<Integer> b = readPull(following, postsByAuthor, viewer);
+            long t2 = System.nanoTime();
+            List<Integer> c = readHybrid(pushLight, following, followerCount, postsByAuthor, viewer);
+            long t3 = System.nanoTime();
+            push[i] = t1 - t0;
+            pull[i] = t2 - t1;
+            hybrid[i] = t3 - t2;
+            // Las tres estrategias deben devolver exactamente el mismo feed
+            assertEquals(a, b);
+            assertEquals(a, c);
+        }
+
+        System.out.println("📊 Feed benchmark: users=" + USERS + ", follows/user=" + FOLLOWS_PER_USER
+                + ", posts=" + POSTS + ", threshold=" + THRESHOLD + ", pulled authors=" + pulledAuthors
+                + ", max followers=" + Arrays.stream(followerCount).max().orElse(0));
+        report("push", push, pushWrites);
+        report("pull", pull, 0);
+        report("hybrid", hybrid, hybridWrites);
+    }
+
+    private static List<Integer> readPush(List<List<Integer>> timelines, int viewer) {
+        return new ArrayList<>(newestFirst(timelines.get(viewer), PAGE_SIZE));
+    }
+
+    private static List<Integer> readPull(int[][] following, List<List<Integer>> postsByAuthor, int viewer) {
+        List<List<Integer>> streams = new ArrayList<>(following[viewer].length);
+        for (int author : following[viewer]) {
+            streams.add(newestFirst(postsByAuthor.get(author), PAGE_SIZE));
+        }
+        return FeedMerger.merge(streams, NEWEST_FIRST, Function.identity(), 0, PAGE_SIZE);
+    }
+
+    private static List<Integer> readHybrid(List<List<Integer>> timelines, int[][] following, int[] followerCount,
+                                            List<List<Integer>> postsByAuthor, int viewer) {
+        List<List<Integer>> streams = new ArrayList<>();
+        streams.add(newestFirst(timelines.get(viewer), PAGE_SIZE));
+        for (int author : following[viewer]) {
+            if (followerCount[author] >= THRESHOLD) {
+                streams.add(newestFirst(postsByAuthor.get(author), PAGE_SIZE));
+            }
+        }
+        return FeedMerger.merge(streams, NEWEST_FIRST, Function.identity(), 0, PAGE_SIZE);
+    }
+
+    // Vista de los últimos n elementos en orden inverso (la lista está en orden de creación)
+    private static List<Integer> newestFirst(List<Integer> ascending, int n) {
+        int count = Math.min(n, ascending.size());
+        int last = ascending.size() - 1;
+        return new AbstractList<>() {
+            @Override
+            public Integer get(int index) {
+                return ascending.get(last - index);
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        };
+    }
+
+    private static int[][] buildGraph(Random random) {
+        ZipfSampler sampler = new ZipfSampler(USERS, ZIPF_EXPONENT, random);
+        int[][] following = new int[USERS][];
+        for (int u = 0; u < USERS; u++) {
+            // Cantidad de seguidos también sesgada: la mayoría sigue a pocos, algunos a muchos
+            int wanted = Math.max(1, (int) Math.round(FOLLOWS_PER_USER * -Math.log(1 - random.nextDouble())));
+            wanted = Math.min(wanted, USERS / 10);
+            java.util.Set<Integer> picked = new java.util.HashSet<>();
+            while (picked.size() < wanted) {
+                int target = sampler.next();
+                if (target != u) {
+                    picked.add(target);
+                }
+            }
+            following[u] = picked.stream().mapToInt(Integer::intValue).toArray();
+        }
+        return following;
+    }
+
+    private static void report(String name, long[] nanos, long timelineRows) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        System.out.printf("   %-6s p50=%7.1fµs  p99=%8.1fµs  max=%9.1fµs  timeline rows written=%d%n",
+                name,
+                sorted[sorted.length / 2] / 1_000.0,
+                sorted[(int) Math.ceil(sorted.length * 0.99) - 1] / 1_000.0,
+                sorted[sorted.length - 1] / 1_000.0,
+                timelineRows);
+    }
+
+    /**
+     * Muestreo Zipf por CDF acumulada: el rango 0 es el más popular.
+     */
+    private static final class ZipfSampler {
+        private final double[] cdf;
+        private final Random random;
+
+        ZipfSampler(int n, double exponent, Random random) {
+            this.random = random;
+            this.cdf = new double[n];
+            double sum = 0;
+            for (int i = 0; i < n; i++) {
+                sum += 1.0 / Math.pow(i + 1, exponent);
+                cdf[i] = sum;
+            }
+            for (int i = 0; i < n; i++) {
+                cdf[i] /= sum;
+            }
+        }
+
+        int next() {
+            int idx = Arrays.binarySearch(cdf, random.nextDouble());
+            return idx >= 0 ? idx : Math.min(-idx - 1, cdf.length - 1);
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package com.team.socialnetwork.service.feed;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.team.socialnetwork.dto.Cursor;
+import com.team.socialnetwork.dto.CursorPage;
+import com.team.socialnetwork.dto.PostDetailResponse;
+import com.team.socialnetwork.entity.Post;
+import com.team.socialnetwork.entity.User;
+import com.team.socialnetwork.repository.FollowEdgeRepository;
+import com.team.socialnetwork.repository.PostRepository;
+import com.team.socialnetwork.repository.TimelineEntryRepository;
+import com.team.socialnetwork.repository.UserRepository;
+import com.team.socialnetwork.repository.projection.FeedRowProjection;
+import com.team.socialnetwork.service.counter.LikeCounterBuffer;
+import com.team.socialnetwork.service.media.MediaUrlSigner;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TimelineService Tests")
+class TimelineServiceTest {
+
+    @Mock
+    private TimelineEntryRepository timelineEntryRepository;
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private FollowEdgeRepository followEdgeRepository;
+
+    private FeedPageCache feedPageCache;
+    private TimelineService timelineService;
+    private User author;
+
+    @BeforeEach
+    void setUp() {
+        feedPageCache = new FeedPageCache(1_000_000, 30, 300);
+        timelineService = new TimelineService(timelineEntryRepository, postRepository, userRepository, followEdgeRepository,
+                feedPageCache, new LikeCounterBuffer(postRepository, 600_000),
+                new MediaUrlSigner("test-media-url-secret-0123456789abcdef", 3600), 100, 80);
+        author = new User("author", "author@example.com", "pass");
+        author.setId(2L);
+    }
+
+    @Test
+    @DisplayName("Should fan out a new post to follower timelines")
+    void shouldFanOutNewPost() {
+        Post post = new Post("hola", null, author);
+        post.setId(10L);
+
+        timelineService.fanOut(post);
+
+        verify(timelineEntryRepository).fanOutPost(10L);
+    }
+
+    @Test
+    @DisplayName("Should skip fan-out for authors above the follower threshold")
+    void shouldSkipFanOutForPulledAuthor() {
+        Post post = new Post("hola", null, author);
+        post.setId(10L);
+        when(userRepository.isFeedPull(2L)).thenReturn(false, true);
+        when(userRepository.enterFeedPull(2L, 100L)).thenReturn(1);
+
+        timelineService.fanOut(post);
+        timelineService.onFollow(1L, 2L);
+
+        verify(timelineEntryRepository, never()).fanOutPost(10L);
+        verify(timelineEntryRepository, never()).backfillAuthor(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("Should stay in pull mode until followers drop below the resume threshold")
+    void shouldStayPulledInsideHysteresisBand() {
+        Post post = new Post("hola", null, author);
+        post.setId(10L);
+        when(userRepository.isFeedPull(2L)).thenReturn(true);
+        when(userRepository.leaveFeedPull(2L, 80L)).thenReturn(0);
+
+        timelineService.fanOut(post);
+
+        verify(timelineEntryRepository, never()).fanOutPost(10L);
+        verify(timelineEntryRepository, never()).backfillFollowersOf(2L);
+    }
+
+    @Test
+    @DisplayName("Should backfill posts written in pull mode when the author returns to push")
+    void shouldBackfillWhenReturningToPush() {
+        Post post = new Post("hola", null, author);
+        post.setId(10L);
+        when(userRepository.isFeedPull(2L)).thenReturn(true);
+        when(userRepository.leaveFeedPull(2L, 80L)).thenReturn(1);
+
+        timelineService.fanOut(post);
+
+        verify(timelineEntryRepository).backfillFollowersOf(2L);
+        verify(timelineEntryRepository).fanOutPost(10L);
+    }
+
+    @Test
+    @DisplayName("Should merge pushed timeline and pulled authors by createdAt")
+    void shouldMergePushedAndPulledRows() {
+        Instant base = Instant.parse("2025-01-01T10:00:00Z");
+        when(userRepository.findFollowedPullAuthors(1L)).thenReturn(Arrays.asList(5L));
+        when(timelineEntryRepository.findFeedRows(eq(1L), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(Arrays.asList(row(4L, base.plusSeconds(40), 0L, 0L, 0L),
+                        row(2L, base.plusSeconds(20), 0L, 0L, 0L))));
+        when(postRepository.findFeedRowsByAuthors(eq(Arrays.asList(5L)), eq(1L), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(Arrays.asList(row(3L, base.plusSeconds(30), 0L, 0L, 0L),
+                        row(1L, base.plusSeconds(10), 0L, 0L, 0L))));
+
+        List<PostDetailResponse> feed = timelineService.readFeed(1L, 0, 3);
+
+        assertEquals(Arrays.asList(4L, 3L, 2L), feed.stream().map(PostDetailResponse::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Should look up followed pull authors once until the viewer is invalidated")
+    void shouldCacheFollowedPullAuthors() {
+        when(userRepository.findFollowedPullAuthors(1L)).thenReturn(Collections.emptyList());
+        when(timelineEntryRepository.findFeedRows(eq(1L), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(Arrays.asList(row(4L, Instant.parse("2025-01-01T10:00:00Z"), 0L, 0L, 0L))));
+
+        timelineService.readFeed(1L, 0, 10);
+        timelineService.readFeed(1L, 1, 10);
+        verify(userRepository, times(1)).findFollowedPullAuthors(1L);
+
+        timelineService.onUnfollow(1L, 2L);
+        timelineService.readFeed(1L, 0, 10);
+        verify(userRepository, times(2)).findFollowedPullAuthors(1L);
+    }
+
+    @Test
+    @DisplayName("Should build feed responses straight from projected rows")
+    void shouldBuildFeedFromRows() {
+        List<FeedRowProjection> rows = Arrays.asList(
+                row(11L, Instant.parse("2025-01-01T10:00:00Z"), 3L, 1L, 1L),
+                row(10L, Instant.parse("2025-01-01T09:00:00Z"), 0L, 0L, 0L));
+
+        when(timelineEntryRepository.findFeedRows(eq(1L), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(rows));
+
+        List<PostDetailResponse> feed = timelineService.readFeed(1L, 0, 10);
+
+        assertEquals(2, feed.size());
+        assertEquals(11L, feed.get(0).getId());
+        assertEquals(3L, feed.get(0).getLikesCount());
+        assertEquals(1L, feed.get(0).getCommentsCount());
+        assertTrue(feed.get(0).isViewerLiked());
+        assertEquals("author", feed.get(0).getAuthor().getUsername());
+        assertFalse(feed.get(1).isViewerLiked());
+        verify(timelineEntryRepository, never()).rebuildOwner(1L);
+    }
+
+    @Test
+    @DisplayName("Should rebuild an empty timeline once on the first page")
+    void shouldRebuildEmptyTimeline() {
+        when(timelineEntryRepository.findFeedRows(eq(1L), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(Collections.<FeedRowProjection>emptyList()));
+        when(userRepository.isTimelineRebuilt(1L)).thenReturn(false);
+        when(timelineEntryRepository.rebuildOwner(1L)).thenReturn(0);
+
+        List<PostDetailResponse> feed = timelineService.readFeed(1L, 0, 10);
+
+        assertTrue(feed.isEmpty());
+        verify(timelineEntryRepository).rebuildOwner(1L);
+        verify(userRepository).markTimelineRebuilt(1L);
+    }
+
+    @Test
+    @DisplayName("Should not rebuild again a timeline that was already rebuilt")
+    void shouldNotRebuildTwice() {
+        when(timelineEntryRepository.findFeedRows(eq(1L), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(Collections.<FeedRowProjection>emptyList()));
+        when(userRepository.isTimelineRebuilt(1L)).thenReturn(true);
+
+        List<PostDetailResponse> feed = timelineService.readFeed(1L, 0, 10);
+
+        assertTrue(feed.isEmpty());
+        verify(timelineEntryRepository, never()).rebuildOwner(1L);
+        verify(userRepository, never()).markTimelineRebuilt(1L);
+    }
+
+    @Test
+    @DisplayName("Should continue from the cursor and expose the next one")
+    void shouldReadFeedAfterCursor() {
+        Instant t1 = Instant.parse("2025-01-01T10:00:00Z");
+        Instant t0 = Instant.parse("2025-01-01T09:00:00Z");
+        Cursor after = new Cursor(t1, 10L);
+        PageRequest window = PageRequest.of(0, 1);
+
+        when(timelineEntryRepository.findFeedRowsBefore(1L, t1, 10L, window))
+                .thenReturn(new SliceImpl<>(Arrays.asList(row(9L, t0, 0L, 0L, 0L)), window, true));
+
+        CursorPage<PostDetailResponse> page = timelineService.readFeed(1L, after, 1);
+
+        assertEquals(1, page.getItems().size());
+        assertTrue(page.isHasMore());
+        Cursor next = Cursor.decode(page.getNextCursor());
+        assertEquals(t0, next.getCreatedAt());
+        assertEquals(9L, next.getId());
+    }
+
+    @Test
+    @DisplayName("Should round-trip cursors and reject malformed ones")
+    void shouldRoundTripCursor() {
+        Instant at = Instant.parse("2025-03-04T05:06:07.123456789Z");
+        Cursor decoded = Cursor.decode(new Cursor(at, 42L).encode());
+        assertEquals(at, decoded.getCreatedAt());
+        assertEquals(42L, decoded.getId());
+        assertNull(Cursor.decode(""));
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class, () -> Cursor.decode("not-a-cursor"));
+        assertEquals(400, ex.getStatusCode().value());
+        assertEquals("Invalid cursor", ex.getReason());
+    }
+
+    @Test
+    @DisplayName("Should serve repeated reads from cache until a followed author posts")
+    void shouldInvalidateCachedFeedOnAuthorPost() {
+        when(timelineEntryRepository.findFeedRows(eq(1L), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(Arrays.asList(row(10L, Instant.parse("2025-01-01T09:00:00Z"), 0L, 0L, 0L))));
+        when(followEdgeRepository.findFollowerIdsAmong(eq(2L), anyCollection())).thenReturn(Arrays.asList(1L));
+
+        timelineService.readFeed(1L, 0, 10);
+        timelineService.readFeed(1L, 0, 10);
+        verify(timelineEntryRepository, times(1)).findFeedRows(eq(1L), any(Pageable.class));
+
+        Post post = new Post("nuevo", null, author);
+        post.setId(11L);
+        timelineService.fanOut(post);
+        timelineService.readFeed(1L, 0, 10);
+
+        verify(timelineEntryRepository, times(2)).findFeedRows(eq(1L), any(Pageable.class));
+        assertEquals(1L, feedPageCache.stats().get("hits"));
+    }
+
+    @Test
+    @DisplayName("Should invalidate cached feeds only after the fan-out transaction commits")
+    void shouldInvalidateAfterCommit() {
+        when(timelineEntryRepository.findFeedRows(eq(1L), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(Arrays.asList(row(10L, Instant.parse("2025-01-01T09:00:00Z"), 0L, 0L, 0L))));
+        when(followEdgeRepository.findFollowerIdsAmong(eq(2L), anyCollection())).thenReturn(Arrays.asList(1L));
+        timelineService.readFeed(1L, 0, 10);
+
+        Post post = new Post("nuevo", null, author);
+        post.setId(11L);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            timelineService.fanOut(post);
+            // Antes del commit la página vieja sigue en cache: nadie puede guardarla como vigente después
+            timelineService.readFeed(1L, 0, 10);
+            verify(timelineEntryRepository, times(1)).findFeedRows(eq(1L), any(Pageable.class));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        timelineService.readFeed(1L, 0, 10);
+
+        verify(timelineEntryRepository, times(2)).findFeedRows(eq(1L), any(Pageable.class));
+    }
+
+    private FeedRowProjection row(Long postId, Instant createdAt, long likes, long comments, long viewerLikes) {
+        return new FeedRowProjection() {
+            public Long getPostId() { return postId; }
+            public Instant getCreatedAt() { return createdAt; }
+            public String getDescription() { return "post " + postId; }
+            public String getImage() { return null; }
+            public Long getAuthorId() { return author.getId(); }
+            public String getAuthorFullName() { return author.getFullName(); }
+            public String getAuthorUsername() { return author.getUsername(); }
+            public String getAuthorEmail() { return author.getEmail(); }
+            public Instant getAuthorCreatedAt() { return author.getCreatedAt(); }
+            public String getAuthorProfilePicture() { return null; }
+            public Long getLikesCount() { return likes; }
+            public Long getCommentsCount() { return comments; }
+            public Long getViewerLikes() { return viewerLikes; }
+        };
+    }
+}
@@ -0,0 +1,86 @@
+package com.team.socialnetwork.service.graph;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.InOrder;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.team.socialnetwork.entity.FollowChange;
+import com.team.socialnetwork.repository.FollowChangeRepository;
+import com.team.socialnetwork.repository.FollowEdgeRepository;
+import com.team.socialnetwork.repository.UserRepository;
+
+@DisplayName("FollowEdgeService Tests")
+class FollowEdgeServiceTest {
+
+    private FollowEdgeRepository followEdgeRepository;
+    private UserRepository userRepository;
+    private FollowChangeRepository followChangeRepository;
+    private FollowEdgeService service;
+
+    @BeforeEach
+    void setUp() {
+        followEdgeRepository = mock(FollowEdgeRepository.class);
+        userRepository = mock(UserRepository.class);
+        followChangeRepository = mock(FollowChangeRepository.class);
+        service = new FollowEdgeService(followEdgeRepository, userRepository, followChangeRepository);
+    }
+
+    @Test
+    @DisplayName("Should bump both counters when the edge is inserted")
+    void followShouldAdjustCounts() {
+        when(followEdgeRepository.insertIfAbsent(eq(1L), eq(2L), any())).thenReturn(1);
+
+        assertTrue(service.follow(1L, 2L));
+
+        verify(userRepository).adjustFollowCounts(1L, 2L, 1);
+        verify(followChangeRepository).save(any(FollowChange.class));
+    }
+
+    @Test
+    @DisplayName("Should leave counters alone when already following")
+    void followExistingShouldNotAdjustCounts() {
+        when(followEdgeRepository.insertIfAbsent(eq(1L), eq(2L), any())).thenReturn(0);
+
+        assertFalse(service.follow(1L, 2L));
+
+        verify(userRepository, never()).adjustFollowCounts(any(), any(), anyLong());
+        verify(followChangeRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should decrement counters only when an edge was deleted")
+    void unfollowShouldAdjustCountsOnlyWhenDeleted() {
+        when(followEdgeRepository.deleteEdge(1L, 2L)).thenReturn(1);
+        when(followEdgeRepository.deleteEdge(3L, 2L)).thenReturn(0);
+
+        assertTrue(service.unfollow(1L, 2L));
+        assertFalse(service.unfollow(3L, 2L));
+
+        verify(userRepository).adjustFollowCounts(1L, 2L, -1);
+        verify(userRepository, never()).adjustFollowCounts(eq(3L), any(), anyLong());
+        verify(followChangeRepository).save(any(FollowChange.class));
+    }
+
+    @Test
+    @DisplayName("Should fix other users' counters before deleting the edges")
+    void removeUserShouldDecrementBeforeDeleting() {
+        service.removeUser(7L);
+
+        InOrder order = inOrder(userRepository, followEdgeRepository);
+        order.verify(userRepository).decrementFollowersOfFollowedBy(7L);
+        order.verify(userRepository).decrementFollowingOfFollowersOf(7L);
+        order.verify(followEdgeRepository).deleteByUserId(7L);
+        verify(followChangeRepository).save(any(FollowChange.class));
+    }
+}
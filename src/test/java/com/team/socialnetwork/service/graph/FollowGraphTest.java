@@ -0,0 +1,203 @@
+package com.team.socialnetwork.service.graph;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.team.socialnetwork.entity.FollowChange;
+import com.team.socialnetwork.repository.FollowChangeRepository;
+import com.team.socialnetwork.repository.FollowEdgeRepository;
+import com.team.socialnetwork.repository.projection.FollowEdgeProjection;
+
+@DisplayName("FollowGraph Tests")
+class FollowGraphTest {
+
+    private FollowEdgeRepository followEdgeRepository;
+    private FollowChangeRepository followChangeRepository;
+    private FollowGraph graph;
+
+    @BeforeEach
+    void setUp() {
+        followEdgeRepository = mock(FollowEdgeRepository.class);
+        when(followEdgeRepository.findEdgesAfter(any(), any(), any())).thenReturn(List.of());
+        followChangeRepository = mock(FollowChangeRepository.class);
+        graph = new FollowGraph(followEdgeRepository, followChangeRepository, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should load every edge across keyset batches")
+    void shouldLoadInBatches() {
+        when(followEdgeRepository.findEdgesAfter(eq(Long.MIN_VALUE), eq(Long.MIN_VALUE), any()))
+                .thenReturn(List.of(edge(1, 2), edge(1, 5)));
+        when(followEdgeRepository.findEdgesAfter(eq(1L), eq(5L), any()))
+                .thenReturn(List.of(edge(1, 9), edge(3, 1)));
+        when(followEdgeRepository.findEdgesAfter(eq(3L), eq(1L), any()))
+                .thenReturn(List.of(edge(4, 3)));
+
+        graph.rebuild();
+
+        assertTrue(graph.isFollowing(1L, 2L));
+        assertTrue(graph.isFollowing(1L, 5L));
+        assertTrue(graph.isFollowing(1L, 9L));
+        assertTrue(graph.isFollowing(3L, 1L));
+        assertTrue(graph.isFollowing(4L, 3L));
+        assertFalse(graph.isFollowing(2L, 1L));
+        assertFalse(graph.isFollowing(1L, 3L));
+        assertEquals(3, graph.followingCount(1L));
+        assertEquals(5L, graph.stats().get("edges"));
+    }
+
+    @Test
+    @DisplayName("Should apply follow and unfollow in order")
+    void shouldApplyFollowAndUnfollow() {
+        graph.onFollow(1L, 7L);
+        graph.onFollow(1L, 3L);
+        graph.onFollow(1L, 7L);
+
+        assertTrue(graph.isFollowing(1L, 3L));
+        assertTrue(graph.isFollowing(1L, 7L));
+        assertEquals(2, graph.followingCount(1L));
+
+        graph.onUnfollow(1L, 7L);
+        graph.onUnfollow(1L, 3L);
+
+        assertFalse(graph.isFollowing(1L, 7L));
+        assertEquals(0, graph.followingCount(1L));
+        assertEquals(0, graph.stats().get("users"));
+    }
+
+    @Test
+    @DisplayName("Should undo a follow when its transaction rolls back")
+    void shouldUndoOnRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+        graph.onFollow(1L, 2L);
+        assertTrue(graph.isFollowing(1L, 2L));
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertFalse(graph.isFollowing(1L, 2L));
+    }
+
+    @Test
+    @DisplayName("Should keep a committed follow")
+    void shouldKeepOnCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        graph.onFollow(1L, 2L);
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        assertTrue(graph.isFollowing(1L, 2L));
+    }
+
+    @Test
+    @DisplayName("Should remove a deleted user from both sides")
+    void shouldRemoveDeletedUser() {
+        graph.onFollow(1L, 2L);
+        graph.onFollow(2L, 1L);
+        graph.onFollow(3L, 2L);
+        graph.onFollow(3L, 4L);
+
+        graph.onUserDeleted(2L);
+
+        assertFalse(graph.isFollowing(1L, 2L));
+        assertFalse(graph.isFollowing(2L, 1L));
+        assertFalse(graph.isFollowing(3L, 2L));
+        assertTrue(graph.isFollowing(3L, 4L));
+    }
+
+    @Test
+    @DisplayName("Snapshot should hold every list in id order and drainChanged should report followers once")
+    void shouldSnapshotAndDrainChanges() {
+        graph.onFollow(5L, 9L);
+        graph.onFollow(2L, 8L);
+        graph.onFollow(2L, 3L);
+        graph.onUnfollow(7L, 1L);
+
+        AdjacencySnapshot snapshot = graph.snapshot();
+        graph.onFollow(4L, 1L);
+
+        assertEquals(2, snapshot.userCount());
+        assertEquals(3, snapshot.edgeCount());
+        assertEquals(2L, snapshot.userAt(0));
+        assertEquals(3L, snapshot.target(snapshot.start(0)));
+        assertEquals(8L, snapshot.target(snapshot.end(0) - 1));
+        assertTrue(snapshot.follows(snapshot.indexOf(5L), 9L));
+        assertFalse(snapshot.follows(snapshot.indexOf(5L), 8L));
+        assertTrue(snapshot.indexOf(4L) < 0);
+
+        assertEquals(java.util.Set.of(2L, 4L, 5L, 7L), graph.drainChanged());
+        assertTrue(graph.drainChanged().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should keep changes made while a rebuild is loading")
+    void shouldReplayChangesDuringRebuild() {
+        when(followEdgeRepository.findEdgesAfter(eq(Long.MIN_VALUE), eq(Long.MIN_VALUE), any()))
+                .thenAnswer(inv -> {
+                    // Llega un follow mientras se lee la tabla
+                    graph.onFollow(5L, 6L);
+                    return List.of(edge(1, 2));
+                });
+
+        graph.rebuild();
+
+        assertTrue(graph.isFollowing(1L, 2L));
+        assertTrue(graph.isFollowing(5L, 6L));
+    }
+
+    @Test
+    @DisplayName("Refresh should apply follows, unfollows and deletions made by other instances")
+    void shouldRefreshFromChangeLog() {
+        graph.onFollow(1L, 2L);
+        graph.onFollow(3L, 4L);
+        graph.onFollow(5L, 4L);
+        graph.drainChanged();
+        when(followChangeRepository.findByCreatedAtAfterOrderByIdAsc(any(Instant.class))).thenReturn(List.of(
+                FollowChange.unfollow(1L, 2L),
+                FollowChange.follow(1L, 6L),
+                FollowChange.follow(7L, 8L),
+                FollowChange.unfollow(7L, 8L),
+                FollowChange.userDeleted(4L)));
+
+        graph.refresh();
+
+        assertFalse(graph.isFollowing(1L, 2L));
+        assertTrue(graph.isFollowing(1L, 6L));
+        assertFalse(graph.isFollowing(7L, 8L));
+        assertFalse(graph.isFollowing(3L, 4L));
+        assertFalse(graph.isFollowing(5L, 4L));
+        assertTrue(graph.drainChanged().isEmpty());
+    }
+
+    private static FollowEdgeProjection edge(long followerId, long followedId) {
+        return new FollowEdgeProjection() {
+            @Override
+            public Long getFollowerId() { return followerId; }
+
+            @Override
+            public Long getFollowedId() { return followedId; }
+        };
+    }
+}
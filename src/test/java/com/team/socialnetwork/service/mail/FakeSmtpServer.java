@@ -0,0 +1,124 @@
+package com.team.socialnetwork.service.mail;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servidor SMTP mínimo para tests (sin TLS ni autenticación): guarda el DATA de cada mensaje y
+ * atiende cada conexión en su propio hilo.
+ * Con failNext > 0 responde 451 a los próximos MAIL FROM, como un servidor con problemas transitorios;
+ * con dropAfterMessages > 0 corta cada conexión después de esa cantidad de mensajes (y con
+ * closeOnDrop deja además de aceptar conexiones, como un servidor que se cae).
+ */
+class FakeSmtpServer implements AutoCloseable {
+    private final ServerSocket serverSocket;
+    private final Thread acceptor;
+    final List<String> messages = new CopyOnWriteArrayList<>();
+    final AtomicInteger connections = new AtomicInteger();
+    volatile int failNext;
+    volatile int dropAfterMessages;
+    volatile boolean closeOnDrop;
+    // Latencia simulada de cada respuesta (red + servidor)
+    volatile long replyDelayMillis;
+
+    FakeSmtpServer() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        acceptor = new Thread(this::acceptLoop, "fake-smtp");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.incrementAndGet();
+                Thread handler = new Thread(() -> {
+                    try (socket) {
+                        handle(socket);
+                    } catch (IOException e) {
+                        // Cliente desconectado
+                    }
+                }, "fake-smtp-conn");
+                handler.setDaemon(true);
+                handler.start();
+            } catch (IOException e) {
+                // Socket cerrado al terminar el test
+            }
+        }
+    }
+
+    private void handle(Socket socket) throws IOException {
+        int received = 0;
+        BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        OutputStream out = socket.getOutputStream();
+        reply(out, "220 localhost fake smtp");
+        String line;
+        while ((line = in.readLine()) != null) {
+            String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+            switch (command) {
+                case "EHLO" -> reply(out, "250-localhost\r\n250 OK");
+                case "MAIL" -> {
+                    if (failNext > 0) {
+                        failNext--;
+                        reply(out, "451 Try again later");
+                    } else {
+                        reply(out, "250 OK");
+                    }
+                }
+                case "DATA" -> {
+                    reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                    StringBuilder data = new StringBuilder();
+                    while ((line = in.readLine()) != null && !".".equals(line)) {
+                        data.append(line).append('\n');
+                    }
+                    messages.add(data.toString());
+                    boolean drop = dropAfterMessages > 0 && ++received >= dropAfterMessages;
+                    if (drop && closeOnDrop) {
+                        // Antes de responder: el cliente no alcanza a reconectarse mientras tanto
+                        serverSocket.close();
+                    }
+                    reply(out, "250 OK");
+                    if (drop) {
+                        return;
+                    }
+                }
+                case "QUIT" -> {
+                    reply(out, "221 Bye");
+                    return;
+                }
+                default -> reply(out, "250 OK");
+            }
+        }
+    }
+
+    private void reply(OutputStream out, String response) throws IOException {
+        if (replyDelayMillis > 0) {
+            try {
+                Thread.sleep(replyDelayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        out.write((response + "\r\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+}
@@ -0,0 +1,171 @@
+package com.team.socialnetwork.service.mail;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.team.socialnetwork.entity.MailOutboxMessage;
+import com.team.socialnetwork.entity.MailOutboxMessage.MailKind;
+import com.team.socialnetwork.entity.MailOutboxMessage.Status;
+import com.team.socialnetwork.repository.MailOutboxRepository;
+
+@DisplayName("MailOutboxDispatcher Tests")
+class MailOutboxDispatcherTest {
+
+    private FakeSmtpServer smtp;
+    private PooledMailTransport transport;
+    private final Map<Long, MailOutboxMessage> rows = new HashMap<>();
+    private MailOutboxRepository repository;
+    private MailOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        smtp = new FakeSmtpServer();
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost("127.0.0.1");
+        sender.setPort(smtp.port());
+        Properties props = new Properties();
+        props.put("mail.smtp.connectiontimeout", "2000");
+        props.put("mail.smtp.timeout", "2000");
+        sender.setJavaMailProperties(props);
+        transport = new PooledMailTransport(sender, 2, 100, 30, 2000);
+        MailService mailService = new MailService(transport);
+        ReflectionTestUtils.setField(mailService, "fromEmail", "noreply@example.com");
+        ReflectionTestUtils.setField(mailService, "frontendBaseUrl", "http://localhost:5173");
+
+        repository = mock(MailOutboxRepository.class);
+        when(repository.findAllById(any())).thenAnswer(inv -> {
+            List<MailOutboxMessage> found = new ArrayList<>();
+            for (Long id : inv.<Iterable<Long>>getArgument(0)) {
+                if (rows.containsKey(id)) {
+                    found.add(rows.get(id));
+                }
+            }
+            return found;
+        });
+        dispatcher = new MailOutboxDispatcher(repository, mailService, 2, 20, 3, 30, 100, 300, 168);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        dispatcher.shutdown();
+        transport.shutdown();
+        smtp.close();
+    }
+
+    @Test
+    @DisplayName("Should send through SMTP, mark the message sent and drop its token")
+    void shouldDeliverThroughSmtp() {
+        MailOutboxMessage message = pending(1L, MailKind.CONFIRM_EMAIL, "confirm-token");
+
+        dispatcher.deliver(List.of(1L));
+
+        assertEquals(1, smtp.messages.size());
+        assertTrue(smtp.messages.get(0).contains("To: user@example.com"));
+        assertEquals(Status.SENT, message.getStatus());
+        assertNull(message.getToken());
+        assertNull(message.getClaimedUntil());
+        verify(repository).saveAll(List.of(message));
+    }
+
+    @Test
+    @DisplayName("Should schedule a retry with backoff when the server rejects the message")
+    void shouldRetryWithBackoff() {
+        smtp.failNext = 1;
+        MailOutboxMessage message = pending(2L, MailKind.PASSWORD_RESET, "reset-token");
+        Instant before = Instant.now();
+
+        dispatcher.deliver(List.of(2L));
+
+        assertEquals(Status.PENDING, message.getStatus());
+        assertEquals(1, message.getAttempts());
+        assertEquals("reset-token", message.getToken());
+        assertTrue(!message.getNextAttemptAt().isBefore(before.plusSeconds(30)));
+        assertTrue(smtp.messages.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should give up after the last attempt")
+    void shouldGiveUpAfterMaxAttempts() {
+        smtp.failNext = 1;
+        MailOutboxMessage message = pending(3L, MailKind.CONFIRM_EMAIL, "confirm-token");
+        message.setAttempts(2);
+
+        dispatcher.deliver(List.of(3L));
+
+        assertEquals(Status.FAILED, message.getStatus());
+        assertEquals(3, message.getAttempts());
+        assertNull(message.getToken());
+    }
+
+    @Test
+    @DisplayName("Backoff should double per attempt up to the cap")
+    void backoffShouldDoubleUpToCap() {
+        assertEquals(Duration.ofSeconds(30), dispatcher.backoff(1));
+        assertEquals(Duration.ofSeconds(60), dispatcher.backoff(2));
+        assertEquals(Duration.ofSeconds(100), dispatcher.backoff(3));
+        assertEquals(Duration.ofSeconds(100), dispatcher.backoff(40));
+    }
+
+    @Test
+    @DisplayName("Should only send messages it managed to claim")
+    void shouldSkipMessagesClaimedElsewhere() throws Exception {
+        MailOutboxMessage mine = pending(4L, MailKind.CONFIRM_EMAIL, "a");
+        pending(5L, MailKind.CONFIRM_EMAIL, "b");
+        when(repository.findDueIds(eq(Status.PENDING), any(Instant.class), any())).thenReturn(List.of(4L, 5L));
+        when(repository.claim(eq(4L), eq(Status.PENDING), any(Instant.class), any(Instant.class))).thenReturn(1);
+        when(repository.claim(eq(5L), eq(Status.PENDING), any(Instant.class), any(Instant.class))).thenReturn(0);
+
+        dispatcher.poll();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (mine.getStatus() != Status.SENT && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(Status.SENT, mine.getStatus());
+        assertEquals(1, smtp.messages.size());
+        verify(repository).findAllById(List.of(4L));
+    }
+
+    @Test
+    @DisplayName("Should send a batch over one connection")
+    void shouldSendBatchOverOneConnection() {
+        MailOutboxMessage first = pending(6L, MailKind.CONFIRM_EMAIL, "a");
+        MailOutboxMessage second = pending(7L, MailKind.PASSWORD_RESET, "b");
+        MailOutboxMessage third = pending(8L, MailKind.CONFIRM_EMAIL, "c");
+
+        dispatcher.deliver(List.of(6L, 7L, 8L));
+
+        assertEquals(3, smtp.messages.size());
+        assertEquals(1, smtp.connections.get());
+        assertEquals(Status.SENT, first.getStatus());
+        assertEquals(Status.SENT, second.getStatus());
+        assertEquals(Status.SENT, third.getStatus());
+    }
+
+    private MailOutboxMessage pending(Long id, MailKind kind, String token) {
+        MailOutboxMessage message = new MailOutboxMessage("user@example.com", kind, token);
+        message.setId(id);
+        rows.put(id, message);
+        return message;
+    }
+}
@@ -0,0 +1,49 @@
+package com.team.socialnetwork.service.mail;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("MailTemplate Tests")
+class MailTemplateTest {
+
+    @Test
+    @DisplayName("Should fill every slot, including repeated ones")
+    void shouldFillSlots() {
+        MailTemplate template = MailTemplate.compile("t", "<a href=\"{{LINK}}\">{{ LINK }}</a> {{NAME}}!");
+
+        String html = template.render(Map.of("LINK", "http://x/y?token=abc", "NAME", "Ana"));
+
+        assertEquals("<a href=\"http://x/y?token=abc\">http://x/y?token=abc</a> Ana!", html);
+    }
+
+    @Test
+    @DisplayName("Should keep text without placeholders and unmatched braces as is")
+    void shouldKeepLiterals() {
+        assertEquals("plain", MailTemplate.compile("t", "plain").render(Map.of()));
+        assertEquals("a {{ b", MailTemplate.compile("t", "a {{ b").render(Map.of()));
+    }
+
+    @Test
+    @DisplayName("Should refuse to render with a missing value")
+    void shouldRejectMissingValue() {
+        MailTemplate template = MailTemplate.compile("t", "go to {{LINK}}");
+
+        assertThrows(IllegalArgumentException.class, () -> template.render(Map.of()));
+    }
+
+    @Test
+    @DisplayName("Should compile the bundled templates with their link slot")
+    void shouldLoadBundledTemplates() throws Exception {
+        for (String name : new String[] {"confirm-email.html", "reset-password.html"}) {
+            String html = MailTemplate.load(name).render(Map.of("LINK", "http://localhost/link"));
+            assertTrue(html.contains("href=\"http://localhost/link\""), name);
+            assertFalse(html.contains("{{"), name);
+        }
+    }
+}
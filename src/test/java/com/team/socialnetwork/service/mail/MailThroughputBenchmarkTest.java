@@ -0,0 +1,112 @@
+package com.team.socialnetwork.service.mail;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.team.socialnetwork.entity.MailOutboxMessage;
+
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * Benchmark de envío de mails contra FakeSmtpServer con latencia simulada por respuesta.
+ * Compara el envío anterior (leer la plantilla del classpath y abrir una conexión SMTP por mensaje)
+ * con MailService.sendBatch (plantillas precompiladas y conexiones reutilizadas).
+ *
+ * No corre en el build normal:
+ *   mvn test -Dtest=MailThroughputBenchmarkTest -Dmail.benchmark=true
+ */
+@EnabledIfSystemProperty(named = "mail.benchmark", matches = "true")
+@DisplayName("Mail throughput benchmark")
+class MailThroughputBenchmarkTest {
+
+    private static final int MESSAGES = 200;
+    private static final int BATCH = 20;
+    private static final long REPLY_DELAY_MILLIS = 2;
+
+    @Test
+    void comparePerMessageAndPooled() throws Exception {
+        try (FakeSmtpServer smtp = new FakeSmtpServer()) {
+            smtp.replyDelayMillis = REPLY_DELAY_MILLIS;
+            JavaMailSenderImpl sender = new JavaMailSenderImpl();
+            sender.setHost("127.0.0.1");
+            sender.setPort(smtp.port());
+            PooledMailTransport transport = new PooledMailTransport(sender, 2, 100, 30, 2000);
+            MailService mailService = new MailService(transport);
+            ReflectionTestUtils.setField(mailService, "fromEmail", "noreply@example.com");
+            ReflectionTestUtils.setField(mailService, "frontendBaseUrl", "http://localhost:5173");
+
+            try {
+                // Calentamiento de ambos caminos
+                perMessage(sender, 10);
+                pooled(mailService, 10);
+                smtp.messages.clear();
+                smtp.connections.set(0);
+
+                long start = System.nanoTime();
+                perMessage(sender, MESSAGES);
+                long perMessageNanos = System.nanoTime() - start;
+                int perMessageConnections = smtp.connections.getAndSet(0);
+
+                start = System.nanoTime();
+                pooled(mailService, MESSAGES);
+                long pooledNanos = System.nanoTime() - start;
+                int pooledConnections = smtp.connections.get();
+
+                assertEquals(2 * MESSAGES, smtp.messages.size());
+                System.out.println("📊 Mail throughput: messages=" + MESSAGES + ", batch=" + BATCH
+                        + ", replyDelay=" + REPLY_DELAY_MILLIS + "ms");
+                report("per message", perMessageNanos, perMessageConnections);
+                report("pooled     ", pooledNanos, pooledConnections);
+            } finally {
+                transport.shutdown();
+            }
+        }
+    }
+
+    // Como se enviaba antes: plantilla leída y reemplazada en cada envío, una conexión por mensaje
+    private static void perMessage(JavaMailSenderImpl sender, int count) throws Exception {
+        for (int i = 0; i < count; i++) {
+            String html;
+            try (InputStream is = new ClassPathResource("mail/templates/confirm-email.html").getInputStream()) {
+                html = new String(is.readAllBytes(), StandardCharsets.UTF_8)
+                        .replace("{{LINK}}", "http://localhost:5173/confirm-email?token=t" + i);
+            }
+            MimeMessage message = sender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+            helper.setFrom("noreply@example.com");
+            helper.setTo("user" + i + "@example.com");
+            helper.setSubject("✅ Confirm your account");
+            helper.setText(html, true);
+            sender.send(message);
+        }
+    }
+
+    private static void pooled(MailService mailService, int count) throws Exception {
+        for (int from = 0; from < count; from += BATCH) {
+            List<MailOutboxMessage> batch = new ArrayList<>(BATCH);
+            for (int i = from; i < Math.min(count, from + BATCH); i++) {
+                batch.add(new MailOutboxMessage("user" + i + "@example.com",
+                        MailOutboxMessage.MailKind.CONFIRM_EMAIL, "t" + i));
+            }
+            assertTrue(mailService.sendBatch(batch).isEmpty());
+        }
+    }
+
+    private static void report(String label, long nanos, int connections) {
+        double seconds = nanos / 1e9;
+        System.out.printf("  %s: %6.1f msg/s, %5.2f ms/msg, %d connections%n",
+                label, MESSAGES / seconds, nanos / 1e6 / MESSAGES, connections);
+    }
+}
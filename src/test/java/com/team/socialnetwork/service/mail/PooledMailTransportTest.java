@@ -0,0 +1,107 @@
+package com.team.socialnetwork.service.mail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+
+@DisplayName("PooledMailTransport Tests")
+class PooledMailTransportTest {
+
+    private FakeSmtpServer smtp;
+    private PooledMailTransport transport;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        smtp = new FakeSmtpServer();
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost("127.0.0.1");
+        sender.setPort(smtp.port());
+        transport = new PooledMailTransport(sender, 2, 5, 30, 2000);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        transport.shutdown();
+        smtp.close();
+    }
+
+    @Test
+    @DisplayName("Should reuse one connection across batches")
+    void shouldReuseConnection() throws Exception {
+        assertTrue(transport.sendAll(messages(3)).isEmpty());
+        assertTrue(transport.sendAll(messages(1)).isEmpty());
+
+        assertEquals(4, smtp.messages.size());
+        assertEquals(1, smtp.connections.get());
+    }
+
+    @Test
+    @DisplayName("Should rotate the connection after maxMessagesPerConnection")
+    void shouldRotateConnection() throws Exception {
+        assertTrue(transport.sendAll(messages(12)).isEmpty());
+
+        assertEquals(12, smtp.messages.size());
+        assertEquals(3, smtp.connections.get());
+    }
+
+    @Test
+    @DisplayName("Should reconnect and retry when the server drops the connection")
+    void shouldReconnectWhenDropped() throws Exception {
+        smtp.dropAfterMessages = 2;
+
+        Map<Integer, Exception> failures = transport.sendAll(messages(4));
+
+        assertTrue(failures.isEmpty(), failures.toString());
+        assertEquals(4, smtp.messages.size());
+        assertEquals(2, smtp.connections.get());
+    }
+
+    @Test
+    @DisplayName("Should report a rejected message and keep sending the rest")
+    void shouldReportRejectedMessage() throws Exception {
+        smtp.failNext = 1;
+
+        Map<Integer, Exception> failures = transport.sendAll(messages(3));
+
+        assertEquals(1, failures.size());
+        assertTrue(failures.containsKey(0));
+        assertEquals(2, smtp.messages.size());
+    }
+
+    @Test
+    @DisplayName("Should report what was already sent when the server goes away mid-batch")
+    void shouldKeepPartialResultsWhenServerGoesAway() throws Exception {
+        smtp.dropAfterMessages = 2;
+        smtp.closeOnDrop = true;
+
+        Map<Integer, Exception> failures = transport.sendAll(messages(4));
+
+        assertEquals(java.util.Set.of(2, 3), failures.keySet());
+        assertEquals(2, smtp.messages.size());
+    }
+
+    private List<MimeMessage> messages(int count) throws MessagingException {
+        List<MimeMessage> messages = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            MimeMessage message = transport.createMimeMessage();
+            message.setFrom(new InternetAddress("noreply@example.com"));
+            message.setRecipient(MimeMessage.RecipientType.TO, new InternetAddress("user" + i + "@example.com"));
+            message.setSubject("Test " + i);
+            message.setText("body " + i);
+            messages.add(message);
+        }
+        return messages;
+    }
+}
@@ -0,0 +1,116 @@
+package com.team.socialnetwork.service.media;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.imageio.ImageIO;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.server.ResponseStatusException;
+
+@DisplayName("ImageVariantService Tests")
+class ImageVariantServiceTest {
+
+    @TempDir
+    Path root;
+
+    private MediaStore mediaStore;
+    private ImageVariantService imageVariantService;
+
+    @BeforeEach
+    void setUp() {
+        mediaStore = new MediaStore(root.toString());
+        imageVariantService = new ImageVariantService(mediaStore, 1, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        imageVariantService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should generate JPEG variants bounded by their max side")
+    void shouldGenerateVariants() throws IOException {
+        String key = mediaStore.store(encode(new BufferedImage(2400, 1200, BufferedImage.TYPE_INT_ARGB), "png"));
+
+        imageVariantService.generate(key);
+
+        BufferedImage thumb = ImageIO.read(mediaStore.resolveVariant(key, ImageVariant.THUMB).orElseThrow().toFile());
+        BufferedImage medium = ImageIO.read(mediaStore.resolveVariant(key, ImageVariant.MEDIUM).orElseThrow().toFile());
+        assertEquals(320, thumb.getWidth());
+        assertEquals(160, thumb.getHeight());
+        assertEquals(1080, medium.getWidth());
+        assertEquals(540, medium.getHeight());
+    }
+
+    @Test
+    @DisplayName("Should not upscale small originals")
+    void shouldNotUpscale() throws IOException {
+        String key = mediaStore.store(encode(new BufferedImage(200, 100, BufferedImage.TYPE_INT_RGB), "jpg"));
+
+        imageVariantService.generate(key);
+
+        BufferedImage medium = ImageIO.read(mediaStore.resolveVariant(key, ImageVariant.MEDIUM).orElseThrow().toFile());
+        assertEquals(200, medium.getWidth());
+    }
+
+    @Test
+    @DisplayName("Should leave GIFs untouched")
+    void shouldSkipGifs() throws IOException {
+        String key = mediaStore.store(encode(new BufferedImage(800, 800, BufferedImage.TYPE_BYTE_INDEXED), "gif"));
+
+        imageVariantService.generate(key);
+
+        assertTrue(mediaStore.resolveVariant(key, ImageVariant.THUMB).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should generate on the worker pool when scheduled")
+    void shouldGenerateAsynchronously() throws Exception {
+        String key = mediaStore.store(encode(new BufferedImage(900, 900, BufferedImage.TYPE_INT_RGB), "png"));
+
+        imageVariantService.schedule(MediaStore.URL_PREFIX + key);
+
+        for (int i = 0; i < 100 && mediaStore.resolveVariant(key, ImageVariant.MEDIUM).isEmpty(); i++) {
+            Thread.sleep(20);
+        }
+        assertTrue(mediaStore.resolveVariant(key, ImageVariant.THUMB).isPresent());
+        assertTrue(mediaStore.resolveVariant(key, ImageVariant.MEDIUM).isPresent());
+        try (var files = Files.list(root.resolve(key.substring(0, 2)))) {
+            assertEquals(3, files.count());
+        }
+    }
+
+    @Test
+    @DisplayName("Should build variant URLs only for stored media")
+    void shouldBuildVariantUrls() {
+        assertEquals("/media/abc.png?size=thumb", ImageVariant.THUMB.urlFor("/media/abc.png"));
+        assertEquals("profile.jpg", ImageVariant.THUMB.urlFor("profile.jpg"));
+        assertEquals(null, ImageVariant.MEDIUM.urlFor(null));
+        assertEquals(ImageVariant.MEDIUM, ImageVariant.fromParam("medium"));
+        assertEquals(null, ImageVariant.fromParam(null));
+        assertThrows(ResponseStatusException.class, () -> ImageVariant.fromParam("huge"));
+        assertFalse(ImageVariant.THUMB.urlFor("/media/a.png?size=medium").endsWith("thumb"));
+        // Los GIF nunca tienen variantes: se apunta directo al original
+        assertEquals("/media/abc.gif", ImageVariant.THUMB.urlFor("/media/abc.gif"));
+        assertTrue(ImageVariant.supports("abc.jpg"));
+        assertFalse(ImageVariant.supports("abc.gif"));
+    }
+
+    private static byte[] encode(BufferedImage image, String format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,104 @@
+package com.team.socialnetwork.service.media;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+@DisplayName("MediaStore Tests")
+class MediaStoreTest {
+
+    @TempDir
+    Path root;
+
+    private MediaStore mediaStore;
+
+    @BeforeEach
+    void setUp() {
+        mediaStore = new MediaStore(root.toString());
+    }
+
+    @Test
+    @DisplayName("Should store a data URL once and return a short reference")
+    void shouldStoreDataUrlAndDeduplicate() throws IOException {
+        byte[] png = png();
+        String payload = "data:image/png;base64," + Base64.getEncoder().encodeToString(png);
+
+        String first = mediaStore.toReference(payload);
+        String second = mediaStore.toReference(payload);
+
+        assertTrue(first.matches("/media/[0-9a-f]{64}\\.png"), first);
+        assertEquals(first, second);
+        try (Stream<Path> files = Files.walk(root)) {
+            assertEquals(1, files.filter(Files::isRegularFile).count());
+        }
+        Path stored = mediaStore.resolve(first.substring(MediaStore.URL_PREFIX.length())).orElseThrow();
+        assertArrayEquals(png, Files.readAllBytes(stored));
+    }
+
+    @Test
+    @DisplayName("Should accept raw base64 without a data URL prefix")
+    void shouldStoreRawBase64() throws IOException {
+        String reference = mediaStore.toReference(Base64.getEncoder().encodeToString(png()));
+
+        assertTrue(reference.startsWith(MediaStore.URL_PREFIX));
+    }
+
+    @Test
+    @DisplayName("Should keep URLs, paths and empty values untouched")
+    void shouldPassThroughNonInlineValues() {
+        assertNull(mediaStore.toReference(null));
+        assertEquals("", mediaStore.toReference(""));
+        assertEquals("image.jpg", mediaStore.toReference("image.jpg"));
+        assertEquals("https://cdn.example.com/a.png", mediaStore.toReference("https://cdn.example.com/a.png"));
+    }
+
+    @Test
+    @DisplayName("Should keep only the reference of a signed media link")
+    void shouldStripQueryFromMediaLinks() {
+        String reference = "/media/" + "a".repeat(64) + ".png";
+        assertEquals(reference, mediaStore.toReference(reference + "?size=thumb&exp=1700000000&sig=abc"));
+        assertEquals(reference, mediaStore.toReference(reference));
+    }
+
+    @Test
+    @DisplayName("Should reject payloads that are not images")
+    void shouldRejectNonImages() {
+        String payload = "data:image/png;base64," + Base64.getEncoder().encodeToString("not an image".getBytes());
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class, () -> mediaStore.toReference(payload));
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Should not resolve malformed keys")
+    void shouldNotResolveMalformedKeys() {
+        assertTrue(mediaStore.resolve("../../etc/passwd").isEmpty());
+        assertTrue(mediaStore.resolve("a".repeat(64) + ".png").isEmpty());
+    }
+
+    static byte[] png() throws IOException {
+        BufferedImage image = new BufferedImage(4, 4, BufferedImage.TYPE_INT_RGB);
+        image.setRGB(1, 1, 0xFF0000);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,80 @@
+package com.team.socialnetwork.service.media;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("MediaUrlSigner Tests")
+class MediaUrlSignerTest {
+
+    private static final String SECRET = "test-media-url-secret-0123456789abcdef";
+    private static final String KEY = "a".repeat(64) + ".png";
+    private static final Pattern SIGNED = Pattern.compile("/media/([^?]+)(?:\\?size=(\\w+)&|\\?)exp=(\\d+)&sig=([\\w-]+)");
+
+    @Test
+    @DisplayName("Should sign originals and variants and accept them until they expire")
+    void shouldSignAndVerify() {
+        MediaUrlSigner signer = signerAt(10_000);
+
+        Matcher original = parse(signer.sign("/media/" + KEY));
+        Matcher thumb = parse(signer.sign(ImageVariant.THUMB.urlFor("/media/" + KEY)));
+
+        assertNull(original.group(2));
+        long expires = Long.parseLong(original.group(3));
+        assertEquals(10_800, expires);
+        assertTrue(signer.verify(KEY, null, expires, original.group(4)));
+        assertTrue(signer.verify(KEY, "thumb", Long.parseLong(thumb.group(3)), thumb.group(4)));
+        assertEquals(800, signer.secondsLeft(expires));
+
+        MediaUrlSigner later = signerAt(expires);
+        assertFalse(later.verify(KEY, null, expires, original.group(4)));
+    }
+
+    @Test
+    @DisplayName("Should reject a signature used for another key, size or expiry")
+    void shouldRejectTamperedLinks() {
+        MediaUrlSigner signer = signerAt(10_000);
+        Matcher original = parse(signer.sign("/media/" + KEY));
+        long expires = Long.parseLong(original.group(3));
+        String signature = original.group(4);
+
+        assertFalse(signer.verify("b".repeat(64) + ".png", null, expires, signature));
+        assertFalse(signer.verify(KEY, "medium", expires, signature));
+        assertFalse(signer.verify(KEY, null, expires + 3600, signature));
+        assertFalse(signer.verify(KEY, null, null, signature));
+        assertFalse(signer.verify(KEY, null, expires, null));
+        assertFalse(new MediaUrlSigner(SECRET.replace('t', 'x'), 400, Clock.fixed(Instant.ofEpochSecond(10_000), ZoneOffset.UTC))
+                .verify(KEY, null, expires, signature));
+    }
+
+    @Test
+    @DisplayName("Should give the same link within a window and leave other values untouched")
+    void shouldKeepLinksStableAndPassThrough() {
+        assertEquals(signerAt(10_000).sign("/media/" + KEY), signerAt(10_399).sign("/media/" + KEY));
+
+        MediaUrlSigner signer = signerAt(10_000);
+        String signed = signer.sign("/media/" + KEY);
+        assertEquals(signed, signer.sign(signed));
+        assertNull(signer.sign(null));
+        assertEquals("https://cdn.example.com/a.png", signer.sign("https://cdn.example.com/a.png"));
+    }
+
+    private static MediaUrlSigner signerAt(long epochSecond) {
+        return new MediaUrlSigner(SECRET, 400, Clock.fixed(Instant.ofEpochSecond(epochSecond), ZoneOffset.UTC));
+    }
+
+    private static Matcher parse(String url) {
+        Matcher m = SIGNED.matcher(url);
+        assertTrue(m.matches(), url);
+        return m;
+    }
+}
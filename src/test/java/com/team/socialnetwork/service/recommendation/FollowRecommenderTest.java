@@ -0,0 +1,129 @@
+package com.team.socialnetwork.service.recommendation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.team.socialnetwork.repository.FollowChangeRepository;
+import com.team.socialnetwork.repository.FollowEdgeRepository;
+import com.team.socialnetwork.service.graph.AdjacencySnapshot;
+import com.team.socialnetwork.service.graph.FollowGraph;
+import com.team.socialnetwork.service.recommendation.FollowRecommender.Candidate;
+
+@DisplayName("FollowRecommender Tests")
+class FollowRecommenderTest {
+
+    private FollowGraph graph;
+    private FollowRecommender recommender;
+
+    @BeforeEach
+    void setUp() {
+        FollowEdgeRepository followEdgeRepository = mock(FollowEdgeRepository.class);
+        when(followEdgeRepository.findEdgesAfter(any(), any(), any())).thenReturn(List.of());
+        graph = new FollowGraph(followEdgeRepository, mock(FollowChangeRepository.class), 100);
+        recommender = new FollowRecommender(4, 3, 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        recommender.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should rank friends of friends by mutual count, skipping self and already followed")
+    void shouldRankFriendsOfFriends() {
+        follow(1, 2, 3, 4);
+        follow(2, 5, 6, 1);
+        follow(3, 5, 4);
+        follow(4, 5, 7);
+
+        List<Candidate> top = recommender.topFor(graph.snapshot(), 1L);
+
+        // 5 lo siguen 2, 3 y 4; 6 y 7 uno cada uno; 4 ya lo sigo y 1 soy yo
+        assertEquals(List.of("5:3", "6:1", "7:1"), describe(top));
+    }
+
+    @Test
+    @DisplayName("Should keep only the top K, best first, ties by lower id")
+    void shouldKeepTopK() {
+        follow(1, 2, 3);
+        follow(2, 10, 11, 12, 13);
+        follow(3, 13, 12);
+
+        assertEquals(List.of("12:2", "13:2", "10:1"), describe(recommender.topFor(graph.snapshot(), 1L)));
+    }
+
+    @Test
+    @DisplayName("Should return nothing for users that follow nobody")
+    void shouldReturnEmptyForUnknownUser() {
+        follow(1, 2);
+
+        assertTrue(recommender.topFor(graph.snapshot(), 99L).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Parallel traversal should match the per-user result for every user")
+    void parallelShouldMatchSequential() {
+        Random random = new Random(42);
+        for (long user = 1; user <= 500; user++) {
+            for (int i = 0; i < 8; i++) {
+                long target = 1 + random.nextInt(500);
+                if (target != user) {
+                    graph.onFollow(user, target);
+                }
+            }
+        }
+        AdjacencySnapshot snapshot = graph.snapshot();
+        long[] users = new long[520];
+        for (int i = 0; i < users.length; i++) {
+            users[i] = i + 1;
+        }
+
+        List<List<Candidate>> parallel = recommender.recommend(snapshot, users);
+
+        assertEquals(users.length, parallel.size());
+        for (int i = 0; i < users.length; i++) {
+            assertEquals(describe(recommender.topFor(snapshot, users[i])), describe(parallel.get(i)));
+        }
+        assertTrue(parallel.get(519).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should only look at the first maxFanOut entries of each list")
+    void shouldCapFanOut() {
+        FollowRecommender capped = new FollowRecommender(1, 10, 1);
+        try {
+            follow(1, 2, 3);
+            follow(2, 10, 11);
+            follow(3, 12);
+
+            assertEquals(List.of("10:1"), describe(capped.topFor(graph.snapshot(), 1L)));
+        } finally {
+            capped.shutdown();
+        }
+    }
+
+    private void follow(long follower, long... followed) {
+        for (long id : followed) {
+            graph.onFollow(follower, id);
+        }
+    }
+
+    private static List<String> describe(List<Candidate> candidates) {
+        List<String> out = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            out.add(candidate.getUserId() + ":" + candidate.getMutualCount());
+        }
+        return out;
+    }
+}
@@ -0,0 +1,118 @@
+package com.team.socialnetwork.service.user;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.team.socialnetwork.entity.User;
+import com.team.socialnetwork.repository.UserRepository;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserLookupCache Tests")
+class UserLookupCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private User alice;
+    private User bob;
+
+    @BeforeEach
+    void setUp() {
+        alice = user(1L, "alice@example.com");
+        bob = user(2L, "bob@example.com");
+    }
+
+    @Test
+    @DisplayName("Should serve repeated lookups from memory and report the hit ratio")
+    void shouldHitOnRepeatedLookups() {
+        UserLookupCache cache = new UserLookupCache(userRepository, true, 100, 300);
+        when(userRepository.findByEmail("alice@example.com")).thenReturn(Optional.of(alice));
+
+        cache.findByEmail("alice@example.com");
+        cache.findByEmail("alice@example.com");
+        UserSummary summary = cache.findByEmail("alice@example.com").orElseThrow();
+
+        assertEquals(1L, summary.getId());
+        assertEquals("hash-1", summary.getPasswordHash());
+        verify(userRepository, times(1)).findByEmail("alice@example.com");
+        assertEquals(2L, cache.stats().get("hits"));
+        assertEquals(1L, cache.stats().get("misses"));
+        assertEquals(2.0 / 3, cache.stats().get("hitRatio").doubleValue(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Should reload a user after it is invalidated by id")
+    void shouldReloadAfterInvalidation() {
+        UserLookupCache cache = new UserLookupCache(userRepository, true, 100, 300);
+        when(userRepository.findByEmail("alice@example.com")).thenReturn(Optional.of(alice));
+
+        assertFalse(cache.findByEmail("alice@example.com").orElseThrow().isPrivateAccount());
+        alice.setPrivate(true);
+        cache.invalidate(1L);
+
+        assertTrue(cache.findByEmail("alice@example.com").orElseThrow().isPrivateAccount());
+        verify(userRepository, times(2)).findByEmail("alice@example.com");
+        assertEquals(1L, cache.stats().get("invalidations"));
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used user when full")
+    void shouldEvictLeastRecentlyUsed() {
+        UserLookupCache cache = new UserLookupCache(userRepository, true, 1, 300);
+        when(userRepository.findByEmail("alice@example.com")).thenReturn(Optional.of(alice));
+        when(userRepository.findByEmail("bob@example.com")).thenReturn(Optional.of(bob));
+
+        cache.findByEmail("alice@example.com");
+        cache.findByEmail("bob@example.com");
+        cache.findByEmail("alice@example.com");
+
+        verify(userRepository, times(2)).findByEmail("alice@example.com");
+        assertEquals(1, cache.stats().get("entries").intValue());
+        assertEquals(2L, cache.stats().get("evictions"));
+    }
+
+    @Test
+    @DisplayName("Should not cache unknown emails")
+    void shouldNotCacheMisses() {
+        UserLookupCache cache = new UserLookupCache(userRepository, true, 100, 300);
+        when(userRepository.findByEmail("ghost@example.com")).thenReturn(Optional.empty());
+
+        assertTrue(cache.findByEmail("ghost@example.com").isEmpty());
+        assertTrue(cache.findByEmail("ghost@example.com").isEmpty());
+
+        verify(userRepository, times(2)).findByEmail("ghost@example.com");
+        assertEquals(0, cache.stats().get("entries").intValue());
+    }
+
+    @Test
+    @DisplayName("Should go to the repository every time when disabled")
+    void shouldPassThroughWhenDisabled() {
+        UserLookupCache cache = new UserLookupCache(userRepository, false, 100, 300);
+        when(userRepository.findByEmail("alice@example.com")).thenReturn(Optional.of(alice));
+
+        cache.findByEmail("alice@example.com");
+        cache.findByEmail("alice@example.com");
+
+        verify(userRepository, times(2)).findByEmail("alice@example.com");
+        assertEquals(0, cache.stats().get("enabled").intValue());
+    }
+
+    private static User user(Long id, String email) {
+        User user = new User(email.substring(0, email.indexOf('@')), email, "hash-" + id);
+        user.setId(id);
+        user.setEmailConfirmed(true);
+        return user;
+    }
+}